@@ -0,0 +1,193 @@
+package com.ttlikeapp.util;
+
+import com.ttlikeapp.util.IsoBmffParser.Movie;
+import com.ttlikeapp.util.VideoProcessor.VideoMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metadata Extraction Benchmark - In-process movie header parsing vs ffprobe
+ *
+ * - parseMapped      IsoBmffParser on the file (moov memory-mapped)
+ * - parseStream      IsoBmffParser on a stream of the file (mdat skipped)
+ * - ffprobe          ffprobe on the file in place
+ * - copyThenFfprobe  ffprobe after copying the file to a temp file, what a
+ *                    remote object costs when it has to be downloaded
+ *
+ * Runs on a real video given as -p sample=/path/to/video.mp4, or else on a
+ * generated one: SYNTHETIC_MDAT bytes of mdat ahead of the moov (the
+ * layout phones write, and the worst case for the parser), with a video
+ * and an audio track that have headers but no samples. ffprobe has to be
+ * on the PATH.
+ *
+ * mvn -Pbenchmark compile exec:exec
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="MetadataExtractionBenchmark -p sample=/tmp/clip.mp4"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetadataExtractionBenchmark {
+
+    private static final int SYNTHETIC_MDAT = 32 << 20;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Param({""})
+    public String sample;
+
+    private final VideoProcessor videoProcessor = new VideoProcessor();
+    private Path file;
+    private long fileSize;
+    private boolean generated;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (sample.isBlank()) {
+            file = Files.createTempFile("benchmark_", ".mp4");
+            generated = true;
+            writeSynthetic(file);
+        } else {
+            file = Path.of(sample);
+        }
+        fileSize = Files.size(file);
+        if (IsoBmffParser.parse(file).isEmpty()) {
+            throw new IllegalStateException(file + " is not a movie IsoBmffParser can read");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (generated) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public Optional<Movie> parseMapped() throws IOException {
+        return IsoBmffParser.parse(file);
+    }
+
+    @Benchmark
+    public Optional<Movie> parseStream() throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return IsoBmffParser.parse(in);
+        }
+    }
+
+    @Benchmark
+    public VideoMetadata ffprobe() {
+        return videoProcessor.extractWithFfprobe(file, fileSize, "mp4", TIMEOUT);
+    }
+
+    @Benchmark
+    public VideoMetadata copyThenFfprobe() throws IOException {
+        Path temp = Files.createTempFile("probe_", ".mp4");
+        try {
+            Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+            return videoProcessor.extractWithFfprobe(temp, fileSize, "mp4", TIMEOUT);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeSynthetic(Path target) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            out.write(box("ftyp", concat(ascii("isom"), ints(0x200), ascii("isomiso2avc1mp41"))));
+            out.write(ints(SYNTHETIC_MDAT + 8));
+            out.write(ascii("mdat"));
+            byte[] chunk = new byte[1 << 20];
+            for (int written = 0; written < SYNTHETIC_MDAT; written += chunk.length) {
+                out.write(chunk);
+            }
+            out.write(box("moov", concat(
+                    fullBox("mvhd", concat(ints(0, 0, 1000, 30_000), new byte[80])),
+                    track(1, "vide", 1920, 1080, videoSampleEntry(1920, 1080)),
+                    track(2, "soun", 0, 0, box("mp4a", new byte[28])))));
+        }
+    }
+
+    private static byte[] track(int id, String handler, int width, int height, byte[] sampleEntry) {
+        byte[] tkhd = fullBox("tkhd", concat(
+                ints(0, 0, id, 0, 30_000, 0, 0, 0, handler.equals("soun") ? 0x01000000 : 0),
+                ints(0x10000, 0, 0, 0, 0x10000, 0, 0, 0, 0x40000000),
+                ints(width << 16, height << 16)));
+        byte[] stbl = box("stbl", concat(
+                fullBox("stsd", concat(ints(1), sampleEntry)),
+                fullBox("stts", ints(0)),
+                fullBox("stsc", ints(0)),
+                fullBox("stsz", ints(0, 0)),
+                fullBox("stco", ints(0))));
+        byte[] mdia = box("mdia", concat(
+                fullBox("mdhd", concat(ints(0, 0, 1000, 30_000), new byte[4])),
+                fullBox("hdlr", concat(ints(0), ascii(handler), new byte[13])),
+                box("minf", stbl)));
+        return box("trak", concat(tkhd, mdia));
+    }
+
+    private static byte[] videoSampleEntry(int width, int height) {
+        ByteBuffer entry = ByteBuffer.allocate(78);
+        entry.putShort(6, (short) 1);              // data_reference_index
+        entry.putShort(24, (short) width);
+        entry.putShort(26, (short) height);
+        entry.putInt(28, 0x00480000);              // 72 dpi
+        entry.putInt(32, 0x00480000);
+        entry.putShort(40, (short) 1);             // frame_count
+        entry.putShort(74, (short) 0x18);          // depth
+        entry.putShort(76, (short) -1);
+        return box("avc1", entry.array());
+    }
+
+    private static byte[] fullBox(String type, byte[] body) {
+        return box(type, concat(new byte[4], body));  // Version 0, no flags
+    }
+
+    private static byte[] box(String type, byte[] body) {
+        return concat(ints(body.length + 8), ascii(type), body);
+    }
+
+    private static byte[] ints(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
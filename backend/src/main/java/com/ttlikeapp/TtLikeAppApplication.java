@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * TT-LIKE-APP Main Application Entry Point
@@ -22,6 +23,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 @SpringBootApplication
 @EnableJpaAuditing  // Enables automatic @CreatedDate and @LastModifiedDate
 @EnableCaching      // Enables Spring's annotation-driven cache management
+@EnableScheduling   // Enables background flushers and workers (@Scheduled)
 public class TtLikeAppApplication {
 
     public static void main(String[] args) {
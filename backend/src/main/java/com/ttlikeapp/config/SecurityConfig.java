@@ -49,12 +49,13 @@ public class SecurityConfig {
             // Configure request authorization
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints (no authentication required)
-                .requestMatchers(HttpMethod.GET, "/videos/**", "/users/*/profile", "/feed/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/videos/**", "/users/*/profile", "/feed/**", "/search/**").permitAll()
                 .requestMatchers("/auth/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/ws/**").permitAll()  // WebSocket handshake
+                .requestMatchers("/error").permitAll()  // Error dispatch keeps the original status
                 
                 // Protected endpoints (authentication required)
                 .requestMatchers(HttpMethod.POST, "/videos/**").authenticated()
@@ -1,15 +1,38 @@
 package com.ttlikeapp.config;
 
+import com.ttlikeapp.storage.CachingStorageBackend;
+import com.ttlikeapp.storage.FaultInjectingStorageBackend;
+import com.ttlikeapp.storage.LocalStorageBackend;
+import com.ttlikeapp.storage.ReplicatedStorageBackend;
+import com.ttlikeapp.storage.S3MultipartUploader;
+import com.ttlikeapp.storage.S3StorageBackend;
+import com.ttlikeapp.storage.StorageBackend;
+import com.ttlikeapp.storage.TieredStorageBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Storage Configuration - AWS S3 or compatible (MinIO, LocalStack)
@@ -17,8 +40,15 @@ import java.net.URI;
  * Design allows local development without AWS:
  * - Disable S3: uses local filesystem storage
  * - Enable S3: uses real AWS or S3-compatible service
+ *
+ * The application's StorageBackend is assembled here: local disk or S3,
+ * optionally with local disk as a hot tier in front of S3, local copies
+ * replicated to S3, a local disk read-through cache in front of S3, and
+ * fault injection around the whole (testing only).
+ * Blocking storage calls run on virtual threads.
  */
 @Configuration
+@Slf4j
 public class StorageConfig {
 
     @Value("${aws.s3.enabled:false}")
@@ -36,6 +66,12 @@ public class StorageConfig {
     @Value("${aws.s3.secret-key:}")
     private String secretKey;
 
+    @Value("${aws.s3.multipart.concurrency:4}")
+    private int multipartConcurrency;
+
+    @Value("${aws.s3.multipart.part-timeout-ms:60000}")
+    private long partTimeoutMs;
+
     /**
      * S3 Client configuration
      * Supports both AWS and S3-compatible services
@@ -50,7 +86,7 @@ public class StorageConfig {
         
         AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
         
-        S3Client.Builder clientBuilder = S3Client.builder()
+        S3ClientBuilder clientBuilder = S3Client.builder()
                 .region(region)
                 .credentialsProvider(StaticCredentialsProvider.create(credentials));
         
@@ -67,6 +103,153 @@ public class StorageConfig {
         return clientBuilder.build();
     }
 
+    /**
+     * Async S3 client for multipart uploads (non-blocking Netty transport).
+     * The connection pool fits a few uploads' worth of parallel parts; each
+     * part attempt is bounded so a stalled connection is retried, not waited on.
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient() {
+        if (!s3Enabled) {
+            return null;  // Local storage mode
+        }
+
+        S3AsyncClientBuilder clientBuilder = S3AsyncClient.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(accessKey, secretKey)))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(Math.max(1, multipartConcurrency) * 16))
+                .overrideConfiguration(override -> override
+                        .apiCallAttemptTimeout(Duration.ofMillis(partTimeoutMs)));
+
+        if (s3Endpoint != null && !s3Endpoint.isEmpty()) {
+            clientBuilder.endpointOverride(URI.create(s3Endpoint))
+                    .serviceConfiguration(S3Configuration.builder()
+                            .pathStyleAccessEnabled(true)
+                            .build());
+        }
+
+        return clientBuilder.build();
+    }
+
+    /**
+     * Presigner for direct client uploads; signs locally, no network calls.
+     * With an endpoint override the signed URLs point at that endpoint, so
+     * it must be reachable by clients, not only by this server.
+     */
+    @Bean
+    public S3Presigner s3Presigner() {
+        if (!s3Enabled) {
+            return null;  // Local storage mode
+        }
+
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(accessKey, secretKey)));
+
+        if (s3Endpoint != null && !s3Endpoint.isEmpty()) {
+            presignerBuilder.endpointOverride(URI.create(s3Endpoint))
+                    .serviceConfiguration(S3Configuration.builder()
+                            .pathStyleAccessEnabled(true)
+                            .build());
+        }
+
+        return presignerBuilder.build();
+    }
+
+    /**
+     * Threads for blocking storage I/O; virtual, so a slow disk or S3 call
+     * parks cheaply instead of holding a platform thread
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService storageExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("storage-", 0).factory());
+    }
+
+    @Bean
+    public LocalStorageBackend localStorageBackend(@Value("${aws.local-storage.path:./uploads}") String storagePath,
+                                                   ExecutorService storageExecutor) {
+        return new LocalStorageBackend(Path.of(storagePath), storageExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "aws.s3.enabled", havingValue = "true")
+    public S3StorageBackend s3StorageBackend(S3Client s3Client, S3Presigner s3Presigner,
+                                             S3MultipartUploader multipartUploader,
+                                             @Value("${aws.s3.bucket:tt-like-app-videos}") String bucketName,
+                                             ExecutorService storageExecutor) {
+        return new S3StorageBackend(s3Client, s3Presigner, multipartUploader, bucketName, storageExecutor);
+    }
+
+    /**
+     * Local disk read-through cache for S3 reads, whichever role S3 plays
+     */
+    @Bean
+    @ConditionalOnProperty(name = {"aws.s3.enabled", "storage.cache.enabled"}, havingValue = "true")
+    public CachingStorageBackend cachingStorageBackend(S3StorageBackend s3StorageBackend,
+                                                       ExecutorService storageExecutor,
+                                                       MeterRegistry meterRegistry,
+                                                       @Value("${storage.cache.path:./storage-cache}") String cachePath,
+                                                       @Value("${storage.cache.max-bytes:10737418240}") long cacheMaxBytes,
+                                                       @Value("${storage.cache.max-object-bytes:536870912}") long cacheMaxObjectBytes) {
+        return new CachingStorageBackend(s3StorageBackend, Path.of(cachePath), cacheMaxBytes, cacheMaxObjectBytes,
+                storageExecutor, meterRegistry);
+    }
+
+    /**
+     * Local disk as a hot tier in front of S3; a bean of its own for
+     * TieredStorageDemoter and the media server's cold-tier redirects
+     */
+    @Bean
+    @ConditionalOnProperty(name = {"aws.s3.enabled", "storage.tiering.enabled"}, havingValue = "true")
+    public TieredStorageBackend tieredStorageBackend(LocalStorageBackend localStorageBackend,
+                                                     S3StorageBackend s3StorageBackend,
+                                                     Optional<CachingStorageBackend> cachingStorageBackend) {
+        return new TieredStorageBackend(localStorageBackend,
+                cachingStorageBackend.<StorageBackend>map(cache -> cache).orElse(s3StorageBackend));
+    }
+
+    /**
+     * The backend services store media through
+     */
+    @Bean
+    @Primary
+    public StorageBackend storageBackend(LocalStorageBackend localStorageBackend,
+                                         Optional<S3StorageBackend> s3StorageBackend,
+                                         Optional<CachingStorageBackend> cachingStorageBackend,
+                                         Optional<TieredStorageBackend> tieredStorageBackend,
+                                         @Value("${storage.tiering.enabled:false}") boolean tiering,
+                                         @Value("${storage.replication.enabled:false}") boolean replication,
+                                         @Value("${storage.fault-injection.enabled:false}") boolean faultInjection,
+                                         @Value("${storage.fault-injection.failure-rate:0.05}") double failureRate,
+                                         @Value("${storage.fault-injection.latency-ms:200}") long latencyMs) {
+        if ((tiering || replication) && s3StorageBackend.isEmpty()) {
+            throw new IllegalStateException("storage.tiering and storage.replication need aws.s3.enabled");
+        }
+        if (tiering && replication) {
+            throw new IllegalStateException("storage.tiering and storage.replication are exclusive");
+        }
+
+        Optional<StorageBackend> remote = cachingStorageBackend.<StorageBackend>map(cache -> cache)
+                .or(() -> s3StorageBackend);
+
+        StorageBackend backend;
+        if (tiering) {
+            backend = tieredStorageBackend.get();
+        } else if (replication) {
+            backend = new ReplicatedStorageBackend(localStorageBackend, List.of(remote.get()));
+        } else {
+            backend = remote.orElse(localStorageBackend);
+        }
+        if (faultInjection) {
+            backend = new FaultInjectingStorageBackend(backend, failureRate, latencyMs);
+        }
+        log.info("Storage backend: {}", backend.name());
+        return backend;
+    }
+
     @Bean
     public boolean isS3Enabled() {
         return s3Enabled;
@@ -3,14 +3,14 @@ package com.ttlikeapp.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
- * Web Configuration - CORS and resource handling
+ * Web Configuration - CORS
  * 
  * CORS Configuration allows the React Native app to communicate
  * with the backend from development and production environments.
+ * Local storage files (/uploads/**) are served by MediaController.
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -29,11 +29,4 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Serve local storage files (for development without S3)
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:./uploads/");
-    }
 }
@@ -21,6 +21,7 @@ import java.util.List;
  * Features:
  * - Real-time notifications for likes, comments, follows
  * - Live activity feed updates
+ * - Coalesced live comments on /topic/videos/{id}/comments (see LiveCommentBroadcaster)
  * - WebSocket with SockJS fallback for older browsers
  */
 @Configuration
@@ -0,0 +1,52 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.dto.response.ApiResponse;
+import com.ttlikeapp.entity.UserBlock;
+import com.ttlikeapp.security.CurrentUser;
+import com.ttlikeapp.security.UserPrincipal;
+import com.ttlikeapp.service.BlockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Block Controller - Block/mute endpoints
+ */
+@RestController
+@RequiredArgsConstructor
+public class BlockController {
+
+    private final BlockService blockService;
+
+    @PostMapping("/blocks/{userId}")
+    public ResponseEntity<ApiResponse<Void>> block(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId) {
+        blockService.add(currentUser.getId(), userId, UserBlock.Type.BLOCK);
+        return ResponseEntity.ok(ApiResponse.success("Blocked", null));
+    }
+
+    @DeleteMapping("/blocks/{userId}")
+    public ResponseEntity<ApiResponse<Void>> unblock(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId) {
+        blockService.remove(currentUser.getId(), userId, UserBlock.Type.BLOCK);
+        return ResponseEntity.ok(ApiResponse.success("Unblocked", null));
+    }
+
+    @PostMapping("/mutes/{userId}")
+    public ResponseEntity<ApiResponse<Void>> mute(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId) {
+        blockService.add(currentUser.getId(), userId, UserBlock.Type.MUTE);
+        return ResponseEntity.ok(ApiResponse.success("Muted", null));
+    }
+
+    @DeleteMapping("/mutes/{userId}")
+    public ResponseEntity<ApiResponse<Void>> unmute(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId) {
+        blockService.remove(currentUser.getId(), userId, UserBlock.Type.MUTE);
+        return ResponseEntity.ok(ApiResponse.success("Unmuted", null));
+    }
+}
@@ -0,0 +1,34 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.dto.request.CreateCommentRequest;
+import com.ttlikeapp.dto.response.ApiResponse;
+import com.ttlikeapp.dto.response.CommentResponse;
+import com.ttlikeapp.security.CurrentUser;
+import com.ttlikeapp.security.UserPrincipal;
+import com.ttlikeapp.service.CommentService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Comment Controller - Comment creation endpoints
+ *
+ * New comments are also streamed to /topic/videos/{id}/comments
+ */
+@RestController
+@RequestMapping("/comments")
+@RequiredArgsConstructor
+public class CommentController {
+
+    private final CommentService commentService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<CommentResponse>> createComment(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody CreateCommentRequest request) {
+        CommentResponse comment = commentService.createComment(currentUser.getId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(comment));
+    }
+}
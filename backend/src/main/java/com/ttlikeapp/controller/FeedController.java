@@ -0,0 +1,46 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.dto.request.FeedRequest;
+import com.ttlikeapp.dto.response.ApiResponse;
+import com.ttlikeapp.dto.response.VideoFeedResponse;
+import com.ttlikeapp.security.CurrentUser;
+import com.ttlikeapp.security.UserPrincipal;
+import com.ttlikeapp.service.FeedService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Feed Controller - Video feeds
+ *
+ * GET /feed/** is public; signed-in viewers get personalised candidates and
+ * their blocks/mutes applied.
+ */
+@RestController
+@RequestMapping("/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final FeedService feedService;
+
+    @GetMapping("/for-you")
+    public ResponseEntity<ApiResponse<VideoFeedResponse>> getForYouFeed(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid FeedRequest request) {
+        Long viewerId = currentUser != null ? currentUser.getId() : null;
+        return ResponseEntity.ok(ApiResponse.success(feedService.getForYouFeed(viewerId, request)));
+    }
+
+    @GetMapping("/following")
+    public ResponseEntity<ApiResponse<VideoFeedResponse>> getFollowingFeed(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid FeedRequest request) {
+        if (currentUser == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Sign in to see your following feed");
+        }
+        return ResponseEntity.ok(ApiResponse.success(feedService.getFollowingFeed(currentUser.getId(), request)));
+    }
+}
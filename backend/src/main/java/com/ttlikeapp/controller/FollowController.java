@@ -0,0 +1,36 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.dto.response.ApiResponse;
+import com.ttlikeapp.security.CurrentUser;
+import com.ttlikeapp.security.UserPrincipal;
+import com.ttlikeapp.service.FollowService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Follow Controller - Follow/unfollow endpoints
+ */
+@RestController
+@RequestMapping("/follows")
+@RequiredArgsConstructor
+public class FollowController {
+
+    private final FollowService followService;
+
+    @PostMapping("/{userId}")
+    public ResponseEntity<ApiResponse<Void>> follow(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId) {
+        followService.follow(currentUser.getId(), userId);
+        return ResponseEntity.ok(ApiResponse.success("Following", null));
+    }
+
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<ApiResponse<Void>> unfollow(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId) {
+        followService.unfollow(currentUser.getId(), userId);
+        return ResponseEntity.ok(ApiResponse.success("Unfollowed", null));
+    }
+}
@@ -0,0 +1,28 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.util.LocalMediaServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Media Controller - Files in local storage (/uploads/**), with Range,
+ * ETag and cache headers for video players
+ */
+@RestController
+@RequiredArgsConstructor
+public class MediaController {
+
+    private final LocalMediaServer localMediaServer;
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String fileUrl = request.getRequestURI().substring(request.getContextPath().length());
+        localMediaServer.serve(fileUrl, request, response);
+    }
+}
@@ -0,0 +1,95 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.dto.request.FeedRequest;
+import com.ttlikeapp.dto.response.ApiResponse;
+import com.ttlikeapp.dto.response.AutocompleteResponse;
+import com.ttlikeapp.dto.response.TrendingHashtagResponse;
+import com.ttlikeapp.dto.response.UserSummaryResponse;
+import com.ttlikeapp.dto.response.VideoFeedResponse;
+import com.ttlikeapp.security.CurrentUser;
+import com.ttlikeapp.security.UserPrincipal;
+import com.ttlikeapp.service.HashtagIndexService.MatchMode;
+import com.ttlikeapp.service.SearchService;
+import com.ttlikeapp.service.TrendingHashtagService.Window;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Search Controller - Public discovery endpoints
+ */
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * Videos by hashtags: /search/hashtags?tags=cats,dogs&mode=all|any
+     */
+    @GetMapping("/hashtags")
+    public ResponseEntity<ApiResponse<VideoFeedResponse>> searchHashtags(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "all") String mode,
+            @Valid FeedRequest request) {
+        Long viewerId = currentUser != null ? currentUser.getId() : null;
+        MatchMode matchMode = "any".equalsIgnoreCase(mode) ? MatchMode.ANY : MatchMode.ALL;
+        return ResponseEntity.ok(ApiResponse.success(
+                searchService.searchHashtags(viewerId, tags, matchMode, request)));
+    }
+
+    /**
+     * Videos by caption text: /search/videos?q=funny+cats
+     */
+    @GetMapping("/videos")
+    public ResponseEntity<ApiResponse<VideoFeedResponse>> searchVideos(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam String q,
+            @Valid FeedRequest request) {
+        Long viewerId = currentUser != null ? currentUser.getId() : null;
+        return ResponseEntity.ok(ApiResponse.success(searchService.searchVideos(viewerId, q, request)));
+    }
+
+    /**
+     * Users by username: /search/users?q=ali (prefix match below 3 characters)
+     */
+    @GetMapping("/users")
+    public ResponseEntity<ApiResponse<List<UserSummaryResponse>>> searchUsers(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        Long viewerId = currentUser != null ? currentUser.getId() : null;
+        int boundedLimit = Math.max(1, Math.min(limit, 50));
+        return ResponseEntity.ok(ApiResponse.success(searchService.searchUsers(viewerId, q, boundedLimit)));
+    }
+
+    /**
+     * Search-box completions: /search/autocomplete?q=ca ("#ca" hashtags only, "@ca" users only)
+     */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<ApiResponse<AutocompleteResponse>> autocomplete(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        Long viewerId = currentUser != null ? currentUser.getId() : null;
+        int boundedLimit = Math.max(1, Math.min(limit, 10));
+        return ResponseEntity.ok(ApiResponse.success(searchService.autocomplete(viewerId, q, boundedLimit)));
+    }
+
+    /**
+     * Trending hashtags: /search/trending/hashtags?window=hour|day&limit=50
+     */
+    @GetMapping("/trending/hashtags")
+    public ResponseEntity<ApiResponse<List<TrendingHashtagResponse>>> trendingHashtags(
+            @RequestParam(defaultValue = "hour") String window,
+            @RequestParam(defaultValue = "50") int limit) {
+        Window trendWindow = "day".equalsIgnoreCase(window) ? Window.DAY : Window.HOUR;
+        int boundedLimit = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(ApiResponse.success(searchService.trendingHashtags(trendWindow, boundedLimit)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.dto.response.ApiResponse;
+import com.ttlikeapp.dto.response.CursorPage;
+import com.ttlikeapp.dto.response.SuggestedUserResponse;
+import com.ttlikeapp.dto.response.UserSummaryResponse;
+import com.ttlikeapp.security.CurrentUser;
+import com.ttlikeapp.security.UserPrincipal;
+import com.ttlikeapp.service.DeletionService;
+import com.ttlikeapp.service.FollowService;
+import com.ttlikeapp.service.SuggestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * User Controller - Account and profile endpoints
+ */
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final DeletionService deletionService;
+    private final SuggestionService suggestionService;
+    private final FollowService followService;
+
+    /**
+     * Followers of a user, newest first; pass nextCursor to continue
+     */
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<ApiResponse<CursorPage<UserSummaryResponse>>> getFollowers(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(
+                followService.getFollowers(currentUser.getId(), userId, cursor, boundedPageSize(size))));
+    }
+
+    /**
+     * Users someone follows, newest first; pass nextCursor to continue
+     */
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<ApiResponse<CursorPage<UserSummaryResponse>>> getFollowing(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(
+                followService.getFollowing(currentUser.getId(), userId, cursor, boundedPageSize(size))));
+    }
+
+    /**
+     * Who to follow - friends-of-friends first, then popular accounts
+     */
+    @GetMapping("/me/suggestions")
+    public ResponseEntity<ApiResponse<List<SuggestedUserResponse>>> getSuggestions(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(defaultValue = "20") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, 50));
+        return ResponseEntity.ok(ApiResponse.success(
+                suggestionService.getSuggestions(currentUser.getId(), boundedLimit)));
+    }
+
+    /**
+     * Delete own account - deactivated immediately, content purged in the background
+     */
+    @DeleteMapping("/me")
+    public ResponseEntity<ApiResponse<Void>> deleteAccount(@CurrentUser UserPrincipal currentUser) {
+        deletionService.deleteUser(currentUser.getId());
+        return ResponseEntity.accepted().body(ApiResponse.success("Account deleted", null));
+    }
+
+    private int boundedPageSize(int size) {
+        return Math.max(1, Math.min(size, 100));
+    }
+}
@@ -0,0 +1,124 @@
+package com.ttlikeapp.controller;
+
+import com.ttlikeapp.dto.request.UploadSlotRequest;
+import com.ttlikeapp.dto.request.VideoUploadRequest;
+import com.ttlikeapp.dto.response.ApiResponse;
+import com.ttlikeapp.dto.response.CommentResponse;
+import com.ttlikeapp.dto.response.CursorPage;
+import com.ttlikeapp.dto.response.LikeResponse;
+import com.ttlikeapp.dto.response.UploadSlotResponse;
+import com.ttlikeapp.dto.response.VideoResponse;
+import com.ttlikeapp.security.CurrentUser;
+import com.ttlikeapp.security.UserPrincipal;
+import com.ttlikeapp.service.CommentService;
+import com.ttlikeapp.service.DeletionService;
+import com.ttlikeapp.service.LikeService;
+import com.ttlikeapp.service.VideoUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Video Controller - Video management endpoints
+ */
+@RestController
+@RequestMapping("/videos")
+@RequiredArgsConstructor
+public class VideoController {
+
+    private final DeletionService deletionService;
+    private final CommentService commentService;
+    private final LikeService likeService;
+    private final VideoUploadService videoUploadService;
+
+    /**
+     * Upload a video: POST /videos?caption=... with the file as the raw body
+     * (Content-Type video/mp4, video/quicktime, ...)
+     */
+    @PostMapping(consumes = "video/*")
+    public ResponseEntity<ApiResponse<VideoResponse>> upload(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid VideoUploadRequest request,
+            HttpServletRequest httpRequest) throws IOException {
+        VideoResponse video = videoUploadService.upload(currentUser.getId(), request,
+                httpRequest.getInputStream(), httpRequest.getContentLengthLong(), httpRequest.getContentType());
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Video uploaded", video));
+    }
+
+    /**
+     * Direct upload, step 1: reserve a slot and get presigned URLs to PUT
+     * the file to (S3 storage only)
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<ApiResponse<UploadSlotResponse>> createUploadSlot(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody UploadSlotRequest request) {
+        UploadSlotResponse slot = videoUploadService.createUploadSlot(currentUser.getId(), request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Upload slot created", slot));
+    }
+
+    /**
+     * Direct upload, step 2: once every PUT succeeded, publish the video
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<VideoResponse>> completeUpload(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long uploadId,
+            @Valid @RequestBody VideoUploadRequest request) {
+        VideoResponse video = videoUploadService.completeUpload(currentUser.getId(), uploadId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Video uploaded", video));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> cancelUpload(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long uploadId) {
+        videoUploadService.cancelUpload(currentUser.getId(), uploadId);
+        return ResponseEntity.ok(ApiResponse.success("Upload cancelled", null));
+    }
+
+    /**
+     * Top-level comments on a video, newest first; pass nextCursor to continue
+     */
+    @GetMapping("/{videoId}/comments")
+    public ResponseEntity<ApiResponse<CursorPage<CommentResponse>>> getComments(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long videoId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        Long viewerId = currentUser != null ? currentUser.getId() : null;
+        int boundedSize = Math.max(1, Math.min(size, 50));
+        return ResponseEntity.ok(ApiResponse.success(
+                commentService.getComments(viewerId, videoId, cursor, boundedSize)));
+    }
+
+    @PostMapping("/{videoId}/like")
+    public ResponseEntity<ApiResponse<LikeResponse>> like(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long videoId) {
+        return ResponseEntity.ok(ApiResponse.success(likeService.like(currentUser.getId(), videoId)));
+    }
+
+    @DeleteMapping("/{videoId}/like")
+    public ResponseEntity<ApiResponse<LikeResponse>> unlike(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long videoId) {
+        return ResponseEntity.ok(ApiResponse.success(likeService.unlike(currentUser.getId(), videoId)));
+    }
+
+    /**
+     * Delete a video - hidden immediately, purged in the background
+     */
+    @DeleteMapping("/{videoId}")
+    public ResponseEntity<ApiResponse<Void>> deleteVideo(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long videoId) {
+        deletionService.deleteVideo(videoId, currentUser.getId());
+        return ResponseEntity.accepted().body(ApiResponse.success("Video deleted", null));
+    }
+}
@@ -26,6 +26,10 @@ public class FeedRequest {
     @Builder.Default
     private Integer size = 10;
 
+    // nextCursor of the previous page (absent for the first page); pages are
+    // addressed by cursor only, page is echoed back
+    private String cursor;
+
     // For "Following" feed - set to null for "For You" feed
     private Long userId;
 
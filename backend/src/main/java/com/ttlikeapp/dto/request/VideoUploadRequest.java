@@ -1,16 +1,15 @@
 package com.ttlikeapp.dto.request;
 
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.web.multipart.MultipartFile;
 
 /**
  * Video Upload Request DTO
- * Contains video file and optional metadata
+ * Metadata sent as query parameters; the video itself is the raw request
+ * body, streamed once into storage (no multipart spooling)
  */
 @Data
 @Builder
@@ -18,9 +17,6 @@ import org.springframework.web.multipart.MultipartFile;
 @AllArgsConstructor
 public class VideoUploadRequest {
 
-    @NotNull(message = "Video file is required")
-    private MultipartFile file;
-
     @Size(max = 200, message = "Caption cannot exceed 200 characters")
     private String caption;
 
@@ -28,7 +24,4 @@ public class VideoUploadRequest {
     private Boolean allowComments = true;
     private Boolean allowDuet = true;
     private Boolean allowStitch = true;
-
-    // Optional thumbnail (auto-generated if not provided)
-    private MultipartFile thumbnail;
 }
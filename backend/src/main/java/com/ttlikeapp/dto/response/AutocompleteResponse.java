@@ -0,0 +1,22 @@
+package com.ttlikeapp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Autocomplete Response DTO
+ * Completions for a search-box prefix: hashtags by usage, usernames by followers
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutocompleteResponse {
+
+    private List<String> hashtags;
+    private List<String> usernames;
+}
@@ -1,6 +1,7 @@
 package com.ttlikeapp.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ttlikeapp.entity.Comment;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -41,4 +42,26 @@ public class CommentResponse {
     
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
+
+    /**
+     * Map a comment without its replies (threads are loaded separately).
+     * Comments of a deleted account read as deleted from the moment it is
+     * tombstoned, before the purge soft-deletes them.
+     */
+    public static CommentResponse from(Comment comment) {
+        boolean deleted = Boolean.TRUE.equals(comment.getIsDeleted())
+                || !Boolean.TRUE.equals(comment.getUser().getActive());
+        return CommentResponse.builder()
+                .id(comment.getId())
+                .content(deleted ? "[deleted]" : comment.getContent())
+                .user(UserSummaryResponse.from(comment.getUser()))
+                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
+                .depth(comment.getDepth())
+                .likesCount(comment.getLikesCount())
+                .repliesCount(comment.getRepliesCount())
+                .isDeleted(deleted)
+                .createdAt(comment.getCreatedAt())
+                .updatedAt(comment.getUpdatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,28 @@
+package com.ttlikeapp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Live Comment Frame DTO
+ * One coalesced batch of new comments pushed to /topic/videos/{id}/comments
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveCommentFrame {
+
+    private Long videoId;
+    private List<CommentResponse> comments;
+
+    // Comments received during the frame window (>= comments.size() when sampled)
+    private Integer totalCount;
+    private Boolean sampled;
+
+    private Long timestamp;  // epoch millis when the frame was flushed
+}
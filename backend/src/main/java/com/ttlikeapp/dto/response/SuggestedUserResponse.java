@@ -0,0 +1,20 @@
+package com.ttlikeapp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Suggested User Response DTO
+ * A user to follow plus how many of the caller's followees already follow them
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestedUserResponse {
+
+    private UserSummaryResponse user;
+    private Integer sharedFollowees;
+}
@@ -0,0 +1,20 @@
+package com.ttlikeapp.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Trending Hashtag Response DTO
+ * A hashtag and its estimated weighted activity (posts, likes, comments) in the window
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingHashtagResponse {
+
+    private String hashtag;
+    private Long score;
+}
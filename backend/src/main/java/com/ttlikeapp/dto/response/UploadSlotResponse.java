@@ -0,0 +1,45 @@
+package com.ttlikeapp.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upload Slot Response DTO
+ * Either one presigned PUT (url) or, for large files, one presigned PUT
+ * per part of partSize bytes (parts, uploadable in parallel). Every
+ * request must carry the listed headers. Finish with
+ * POST /videos/uploads/{uploadId}/complete before expiresAt.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadSlotResponse {
+
+    private Long uploadId;
+    private String method;
+    private String url;
+    private Map<String, String> headers;
+    private Long partSize;
+    private List<Part> parts;
+    private LocalDateTime expiresAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Part {
+        private Integer partNumber;
+        private String url;
+        private Map<String, String> headers;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ttlikeapp.dto.response;
 
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.repository.projection.FollowListEntry;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +22,24 @@ public class UserSummaryResponse {
     private String displayName;
     private String avatarUrl;
     private Boolean verified;
+
+    public static UserSummaryResponse from(User user) {
+        return UserSummaryResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .displayName(user.getDisplayName())
+                .avatarUrl(user.getAvatarUrl())
+                .verified(user.getVerified())
+                .build();
+    }
+
+    public static UserSummaryResponse from(FollowListEntry entry) {
+        return UserSummaryResponse.builder()
+                .id(entry.userId())
+                .username(entry.username())
+                .displayName(entry.displayName())
+                .avatarUrl(entry.avatarUrl())
+                .verified(entry.verified())
+                .build();
+    }
 }
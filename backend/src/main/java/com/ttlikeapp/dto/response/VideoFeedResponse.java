@@ -24,6 +24,9 @@ public class VideoFeedResponse {
     private Integer totalPages;
     private Boolean last;
     private Boolean first;
+
+    // Pass back as cursor for the next page (null on the last page)
+    private String nextCursor;
     
     // Feed type info
     private String feedType;  // "FOR_YOU" or "FOLLOWING"
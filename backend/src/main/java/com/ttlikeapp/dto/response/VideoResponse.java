@@ -1,6 +1,7 @@
 package com.ttlikeapp.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.ttlikeapp.entity.Video;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,6 +23,7 @@ public class VideoResponse {
     private Long id;
     private String videoUrl;
     private String thumbnailUrl;
+    private String hlsUrl;  // Adaptive stream when transcoded; otherwise play videoUrl
     private String caption;
     private Integer duration;
     private Integer width;
@@ -45,7 +47,35 @@ public class VideoResponse {
     private Set<String> hashtags;
     private Boolean allowComments;
     private Boolean allowDuet;
+    private String reviewStatus;  // PENDING until processed; only APPROVED videos are listed
     
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
+
+    /**
+     * Map a video without viewer-specific flags (hasLiked/hasSaved)
+     */
+    public static VideoResponse from(Video video) {
+        return VideoResponse.builder()
+                .id(video.getId())
+                .videoUrl(video.getVideoUrl())
+                .thumbnailUrl(video.getThumbnailUrl())
+                .hlsUrl(video.getHlsUrl())
+                .caption(video.getCaption())
+                .duration(video.getDuration())
+                .width(video.getWidth())
+                .height(video.getHeight())
+                .user(UserSummaryResponse.from(video.getUser()))
+                .viewsCount(video.getViewsCount())
+                .likesCount(video.getLikesCount())
+                .commentsCount(video.getCommentsCount())
+                .sharesCount(video.getSharesCount())
+                .savesCount(video.getSavesCount())
+                .hashtags(Set.copyOf(video.getHashtags()))
+                .allowComments(video.getAllowComments())
+                .allowDuet(video.getAllowDuet())
+                .reviewStatus(video.getReviewStatus())
+                .createdAt(video.getCreatedAt())
+                .build();
+    }
 }
@@ -31,8 +31,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "comments", indexes = {
-    @Index(name = "idx_comment_video", columnList = "video_id"),
-    @Index(name = "idx_comment_user", columnList = "user_id"),
+    @Index(name = "idx_comment_video", columnList = "video_id, id"),
+    @Index(name = "idx_comment_user", columnList = "user_id, id"),
     @Index(name = "idx_comment_parent", columnList = "parent_id"),
     @Index(name = "idx_comment_created", columnList = "created_at"),
     @Index(name = "idx_comment_path", columnList = "path")
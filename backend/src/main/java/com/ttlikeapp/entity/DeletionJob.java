@@ -0,0 +1,171 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * DeletionJob Entity - Durable progress record for a background cascade delete.
+ *
+ * Design Decisions:
+ * - The target is tombstoned synchronously; this row tracks the purge of
+ *   its dependent rows, which happens later in bounded chunks
+ * - stage + cursor is a keyset checkpoint committed in the same transaction
+ *   as each chunk, so a crashed worker resumes exactly where it stopped
+ * - Optimistic locking keeps two workers from processing the same job
+ *
+ * @author TT-Like-App Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "deletion_jobs",
+    indexes = {
+        @Index(name = "idx_deletion_status", columnList = "status")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"target_type", "target_id"}, name = "unique_deletion_target")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private TargetType targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false, length = 30)
+    private Stage stage;
+
+    // Keyset position inside the current stage (last processed row id)
+    @Column(name = "cursor_id")
+    private Long cursor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "rows_purged")
+    @Builder.Default
+    private Long rowsPurged = 0L;
+
+    @Column(name = "attempts")
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Version
+    private Long version;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum TargetType {
+        VIDEO,
+        USER
+    }
+
+    /**
+     * Purge stages, executed in declaration order per target type
+     */
+    public enum Stage {
+        // Video: children first, the row itself last
+        VIDEO_LIKES(TargetType.VIDEO),
+        VIDEO_COMMENTS(TargetType.VIDEO),
+        VIDEO_ROW(TargetType.VIDEO),
+
+        // User: the users row stays behind as the tombstone
+        USER_FOLLOWING(TargetType.USER),
+        USER_FOLLOWERS(TargetType.USER),
+        USER_LIKES(TargetType.USER),
+        USER_COMMENTS(TargetType.USER),
+        USER_VIDEOS(TargetType.USER);
+
+        private final TargetType targetType;
+
+        Stage(TargetType targetType) {
+            this.targetType = targetType;
+        }
+
+        public static Stage first(TargetType targetType) {
+            return targetType == TargetType.VIDEO ? VIDEO_LIKES : USER_FOLLOWING;
+        }
+
+        /**
+         * Next stage for the same target type, or null when done
+         */
+        public Stage next() {
+            Stage[] stages = values();
+            for (int i = ordinal() + 1; i < stages.length; i++) {
+                if (stages[i].targetType == targetType) {
+                    return stages[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Record a processed chunk and move the keyset cursor
+     */
+    public void advance(long cursor, int rows) {
+        this.cursor = cursor;
+        this.rowsPurged += rows;
+        this.attempts = 0;
+    }
+
+    /**
+     * Move to the next stage, completing the job after the last one
+     */
+    public void nextStage() {
+        Stage next = stage.next();
+        this.cursor = null;
+        if (next == null) {
+            this.status = Status.COMPLETED;
+            this.completedAt = LocalDateTime.now();
+        } else {
+            this.stage = next;
+        }
+    }
+
+    public void recordFailure(String error, int maxAttempts) {
+        this.attempts++;
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        if (this.attempts >= maxAttempts) {
+            this.status = Status.FAILED;
+        }
+    }
+}
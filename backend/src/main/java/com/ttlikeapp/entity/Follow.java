@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
  * - Composite unique constraint prevents duplicate follows
  * - Follower follows Following (naming might seem reversed but matches Instagram/Twitter convention)
  * - No status enum (always immediate, no follow requests for this MVP)
- * - Indexed for "following" and "followers" queries
+ * - Indexed for "following" and "followers" queries: (x_id, created_at, id)
+ *   serves newest-first keyset lists, (x_id, id) serves deletion chunks
  * 
  * Relationship:
  * - follower_id: The user who is doing the following
@@ -26,8 +27,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "follows",
     indexes = {
-        @Index(name = "idx_follow_follower", columnList = "follower_id"),
-        @Index(name = "idx_follow_following", columnList = "following_id"),
+        @Index(name = "idx_follow_follower", columnList = "follower_id, id"),
+        @Index(name = "idx_follow_following", columnList = "following_id, id"),
+        @Index(name = "idx_follow_follower_created", columnList = "follower_id, created_at, id"),
+        @Index(name = "idx_follow_following_created", columnList = "following_id, created_at, id"),
         @Index(name = "idx_follow_created", columnList = "created_at")
     },
     uniqueConstraints = {
@@ -0,0 +1,53 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hashtag Entity - One row per distinct (lower-cased) tag
+ *
+ * Videos reference tags by ID through VideoHashtag. usageCount is the
+ * number of publicly visible videos linked to the tag, maintained with bulk
+ * updates when links are added or removed and when a linked video is
+ * hidden or shown again (discovery and autocomplete read it).
+ */
+@Entity
+@Table(name = "hashtags",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"name"}, name = "unique_hashtag_name")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Hashtag {
+
+    public static final int MAX_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = MAX_LENGTH)
+    private String name;
+
+    @Column(name = "usage_count", nullable = false)
+    @Builder.Default
+    private Long usageCount = 0L;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public Hashtag(String name) {
+        this.name = name;
+        this.usageCount = 0L;
+    }
+}
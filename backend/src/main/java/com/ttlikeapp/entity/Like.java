@@ -18,6 +18,7 @@ import java.time.LocalDateTime;
  * Performance:
  * - Indexed on user_id for "liked videos" queries
  * - Indexed on video_id for "who liked this" queries
+ * - Both indexes end in id so deletion can walk them in keyset chunks
  * 
  * @author TT-Like-App Team
  * @since 1.0.0
@@ -25,8 +26,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "likes", 
     indexes = {
-        @Index(name = "idx_like_user", columnList = "user_id"),
-        @Index(name = "idx_like_video", columnList = "video_id"),
+        @Index(name = "idx_like_user", columnList = "user_id, id"),
+        @Index(name = "idx_like_video", columnList = "video_id, id"),
         @Index(name = "idx_like_created", columnList = "created_at")
     },
     uniqueConstraints = {
@@ -0,0 +1,86 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * MediaBlob Entity - One stored copy of an uploaded video's bytes, keyed
+ * by SHA-256
+ *
+ * Design Decisions:
+ * - Videos with identical content share one blob (Video.mediaBlobId), so
+ *   a re-upload or repost is not stored or probed again; the blob carries
+ *   the probed metadata, thumbnail and HLS ladder every sharing Video copies
+ * - refCount is the number of Video rows pointing here, changed only by
+ *   bulk updates in the transaction that inserts or purges the Video
+ * - A blob at zero references is deleted after a grace period, row first
+ *   (conditionally on still being at zero), then the stored object, so a
+ *   concurrent link either revives the row or finds it gone
+ *
+ * @author TT-Like-App Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "media_blobs",
+    indexes = {
+        @Index(name = "idx_media_blob_unreferenced", columnList = "ref_count, unreferenced_at"),
+        @Index(name = "idx_media_blob_url", columnList = "url"),
+        @Index(name = "idx_media_blob_hls_url", columnList = "hls_url")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"sha256"}, name = "unique_media_blob_sha256")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false, length = 1000)
+    private String url;
+
+    @Column(name = "thumbnail_url", length = 1000)
+    private String thumbnailUrl;
+
+    @Column(name = "hls_url", length = 1000)
+    private String hlsUrl;  // master.m3u8 of the rendition ladder
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(length = 10)
+    private String format;
+
+    private Integer duration;
+    private Integer width;
+    private Integer height;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "ref_count", nullable = false)
+    @Builder.Default
+    private Long refCount = 0L;
+
+    // When refCount last dropped to zero; collectable after the grace period
+    @Column(name = "unreferenced_at")
+    private LocalDateTime unreferencedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
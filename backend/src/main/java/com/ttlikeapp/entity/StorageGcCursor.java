@@ -0,0 +1,65 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * StorageGcCursor Entity - Progress of the orphaned media collector through
+ * one key range of one storage backend.
+ *
+ * Design Decisions:
+ * - Storage is scanned as fixed key ranges (partitions) in parallel; each
+ *   range keeps its own cursor, the last key checked, committed after
+ *   every page, so a restarted collector resumes where it stopped
+ * - A null cursor means the next pass starts at the range's beginning
+ * - Optimistic locking keeps two instances from scanning the same range
+ *
+ * @author TT-Like-App Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "storage_gc_cursors",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"backend", "range_start"}, name = "unique_storage_gc_range")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageGcCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "backend", nullable = false, length = 20)
+    private String backend;
+
+    // Exclusive lower bound of the range ("" for the first)
+    @Column(name = "range_start", nullable = false, length = 255)
+    private String rangeStart;
+
+    @Column(name = "cursor_key", length = 1024)
+    private String cursorKey;
+
+    @Builder.Default
+    @Column(name = "passes", nullable = false)
+    private Long passes = 0L;
+
+    @Column(name = "pass_completed_at")
+    private LocalDateTime passCompletedAt;
+
+    @Version
+    private Long version;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,101 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * UploadSession Entity - A reserved slot for a direct-to-storage upload.
+ *
+ * Design Decisions:
+ * - The client PUTs the bytes straight to the bucket with presigned URLs;
+ *   this row is the server's record of what it signed (key, exact size,
+ *   optional SHA-256), checked again on completion
+ * - multipartUploadId is set for uploads split into presigned parts
+ * - Optimistic locking makes completion single-shot: two concurrent
+ *   completions cannot both create a Video
+ * - Expired PENDING sessions are swept, aborting or deleting what the
+ *   client left behind in the bucket
+ *
+ * @author TT-Like-App Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "upload_sessions",
+    indexes = {
+        @Index(name = "idx_upload_session_status_expires", columnList = "status, expires_at"),
+        @Index(name = "idx_upload_session_object_key", columnList = "object_key")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "object_key", nullable = false, length = 500)
+    private String objectKey;
+
+    @Column(name = "multipart_upload_id", length = 1024)
+    private String multipartUploadId;
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "declared_size", nullable = false)
+    private Long declaredSize;
+
+    @Column(name = "part_size")
+    private Long partSize;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;  // Hex SHA-256 the client declared and S3 enforced
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "video_id")
+    private Long videoId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Version
+    private Long version;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    public boolean isMultipart() {
+        return multipartUploadId != null;
+    }
+
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+}
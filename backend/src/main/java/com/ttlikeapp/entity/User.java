@@ -35,7 +35,8 @@ import java.util.Set;
 @Table(name = "users", indexes = {
     @Index(name = "idx_username", columnList = "username", unique = true),
     @Index(name = "idx_email", columnList = "email", unique = true),
-    @Index(name = "idx_active", columnList = "active")
+    @Index(name = "idx_active", columnList = "active"),
+    @Index(name = "idx_avatar_url", columnList = "avatar_url")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
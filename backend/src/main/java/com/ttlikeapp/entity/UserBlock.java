@@ -0,0 +1,79 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * UserBlock Entity - A user blocking or muting another user.
+ *
+ * Design Decisions:
+ * - One row per (user, target, type), so a user can both mute and block
+ * - BLOCK hides content in both directions; MUTE only hides the target's
+ *   content from the user
+ * - Read paths never join this table: per-viewer hidden sets are cached as
+ *   bitmaps (BlockFilterService) and applied as a post-filter
+ *
+ * Performance:
+ * - Unique (user_id, target_id, type) serves "who did I block/mute"
+ * - Indexed on (target_id, type) for "who blocked me"
+ *
+ * @author TT-Like-App Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "user_blocks",
+    indexes = {
+        @Index(name = "idx_user_block_target", columnList = "target_id, type")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "target_id", "type"}, name = "unique_user_block")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The user doing the blocking/muting
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // The user being blocked/muted
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "target_id", nullable = false)
+    private User target;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Type type;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public enum Type {
+        BLOCK,
+        MUTE
+    }
+
+    /**
+     * Convenience constructor
+     */
+    public UserBlock(User user, User target, Type type) {
+        this.user = user;
+        this.target = target;
+        this.type = type;
+    }
+}
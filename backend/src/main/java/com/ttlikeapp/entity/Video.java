@@ -9,9 +9,15 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.ttlikeapp.event.VideoEntityListener;
+
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Video Entity - Core content entity representing short-form videos.
@@ -26,10 +32,12 @@ import java.util.Set;
  * - videoUrl: Primary CDN/streaming URL
  * - thumbnailUrl: Preview image
  * - originalUrl: Raw uploaded file (for reprocessing)
+ * - hlsUrl: HLS master playlist of the transcoded rendition ladder, for
+ *   adaptive streaming; players fall back to videoUrl while it is null
  * 
  * Performance Optimizations:
  * - Engagement counters updated asynchronously
- * - Hashtags extracted and indexed for discovery
+ * - Hashtags extracted and indexed for discovery (normalized into hashtags/video_hashtag)
  * 
  * @author TT-Like-App Team
  * @since 1.0.0
@@ -38,11 +46,16 @@ import java.util.Set;
 @Table(name = "videos", indexes = {
     @Index(name = "idx_video_user", columnList = "user_id"),
     @Index(name = "idx_video_created", columnList = "created_at"),
+    @Index(name = "idx_video_updated", columnList = "updated_at"),
     @Index(name = "idx_video_active", columnList = "active"),
     @Index(name = "idx_video_private", columnList = "is_private"),
-    @Index(name = "idx_video_tiktok", columnList = "tiktok_id")
+    @Index(name = "idx_video_tiktok", columnList = "tiktok_id"),
+    @Index(name = "idx_video_url", columnList = "video_url"),
+    @Index(name = "idx_video_original_url", columnList = "original_url"),
+    @Index(name = "idx_video_thumbnail_url", columnList = "thumbnail_url"),
+    @Index(name = "idx_video_hls_url", columnList = "hls_url")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, VideoEntityListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -50,6 +63,8 @@ import java.util.Set;
 @Builder
 public class Video {
 
+    private static final Pattern HASHTAG_PATTERN = Pattern.compile("#(\\w+)");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -64,6 +79,9 @@ public class Video {
     @Column(name = "original_url", length = 1000)
     private String originalUrl;  // Raw upload before processing
 
+    @Column(name = "hls_url", length = 1000)
+    private String hlsUrl;  // master.m3u8 of the rendition ladder, once transcoded
+
     @Size(max = 200, message = "Caption cannot exceed 200 characters")
     @Column(length = 500)
     private String caption;
@@ -88,6 +106,12 @@ public class Video {
     @Column(length = 100)
     private String format;  // e.g., "mp4", "mov"
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;  // Hex SHA-256 of the uploaded bytes
+
+    @Column(name = "media_blob_id")
+    private Long mediaBlobId;  // Shared stored copy (MediaBlob); released when the row is purged
+
     @Column(name = "is_private")
     @Builder.Default
     private Boolean isPrivate = false;
@@ -110,7 +134,7 @@ public class Video {
 
     @Column(name = "review_status", length = 20)
     @Builder.Default
-    private String reviewStatus = "APPROVED";  // APPROVED, PENDING, REJECTED
+    private String reviewStatus = "APPROVED";  // APPROVED, PENDING (queued for processing), REJECTED, FAILED
 
     // Engagement Metrics (denormalized for performance)
     @Column(name = "views_count")
@@ -169,27 +193,57 @@ public class Video {
     @OrderBy("createdAt DESC")
     private Set<Comment> comments = new HashSet<>();
 
-    // Hashtags extracted from caption
-    @ElementCollection
-    @CollectionTable(name = "video_hashtags", joinColumns = @JoinColumn(name = "video_id"))
-    @Column(name = "hashtag")
-    @Builder.Default
-    private Set<String> hashtags = new HashSet<>();
+    // Caption and visibility as loaded, so VideoEntityListener can tell
+    // what an update changed (not persisted)
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String loadedCaption;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private boolean loadedVisible;
+
+    @PostLoad
+    public void snapshotLoadedState() {
+        this.loadedCaption = caption;
+        this.loadedVisible = isPubliclyVisible();
+    }
+
+    public boolean captionChangedSinceLoad() {
+        return !Objects.equals(loadedCaption, caption);
+    }
+
+    /**
+     * Active, public and approved - what feeds and search may show
+     */
+    public boolean isPubliclyVisible() {
+        return Boolean.TRUE.equals(active) && !Boolean.TRUE.equals(isPrivate) && "APPROVED".equals(reviewStatus);
+    }
 
     /**
-     * Extract hashtags from caption before saving
+     * Lower-cased hashtags in a caption ("#Cats and #dogs" -> [cats, dogs]);
+     * tags longer than Hashtag.MAX_LENGTH are ignored
      */
-    @PrePersist
-    @PreUpdate
-    public void preProcess() {
+    public static Set<String> extractHashtags(String caption) {
+        Set<String> tags = new HashSet<>();
         if (caption != null) {
-            hashtags.clear();
-            java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("#(\\w+)");
-            java.util.regex.Matcher matcher = pattern.matcher(caption);
+            Matcher matcher = HASHTAG_PATTERN.matcher(caption);
             while (matcher.find()) {
-                hashtags.add(matcher.group(1).toLowerCase());
+                String tag = matcher.group(1);
+                if (tag.length() <= Hashtag.MAX_LENGTH) {
+                    tags.add(tag.toLowerCase(Locale.ROOT));
+                }
             }
         }
+        return tags;
+    }
+
+    /**
+     * Hashtags in the caption. The normalized copy (hashtags + video_hashtag)
+     * is written by HashtagService only when the caption changes.
+     */
+    public Set<String> getHashtags() {
+        return extractHashtags(caption);
     }
 
     /**
@@ -0,0 +1,50 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Video-Hashtag link (normalized replacement for the video_hashtags string collection)
+ *
+ * Rows change only when a caption's tag set changes; the (hashtag_id,
+ * video_id) index serves "videos with tag" lookups. counted records whether
+ * the link is included in Hashtag.usageCount, i.e. whether the video was
+ * publicly visible when the count was last adjusted.
+ */
+@Entity
+@Table(name = "video_hashtag",
+    indexes = {
+        @Index(name = "idx_video_hashtag_tag", columnList = "hashtag_id, video_id")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"video_id", "hashtag_id"}, name = "unique_video_hashtag")
+    }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VideoHashtag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "video_id", nullable = false)
+    private Video video;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hashtag_id", nullable = false)
+    private Hashtag hashtag;
+
+    @Column(nullable = false)
+    private boolean counted;
+
+    public VideoHashtag(Video video, Hashtag hashtag, boolean counted) {
+        this.video = video;
+        this.hashtag = hashtag;
+        this.counted = counted;
+    }
+}
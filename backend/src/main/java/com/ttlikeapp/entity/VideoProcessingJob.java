@@ -0,0 +1,129 @@
+package com.ttlikeapp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * VideoProcessingJob Entity - Durable queue entry for probing an upload
+ *
+ * Design Decisions:
+ * - Inserted in the transaction that creates the PENDING Video, so every
+ *   pending video has a job and a crash never loses one
+ * - A worker claims a job by moving it to RUNNING under a lease;
+ *   optimistic locking decides between workers racing for the same row,
+ *   and a lease that runs out (crashed worker) makes the job runnable again
+ * - Failures retry after nextAttemptAt, backing off exponentially, until
+ *   max-attempts is reached
+ *
+ * @author TT-Like-App Team
+ * @since 1.0.0
+ */
+@Entity
+@Table(name = "video_processing_jobs",
+    indexes = {
+        @Index(name = "idx_video_processing_runnable", columnList = "status, next_attempt_at")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"video_id"}, name = "unique_video_processing_video")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VideoProcessingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    // Claims so far, including the running one
+    @Column(name = "attempts")
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // RUNNING only: when the claim lapses if the worker never reports back
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Version
+    private Long version;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public static VideoProcessingJob forVideo(Long videoId) {
+        return VideoProcessingJob.builder()
+                .videoId(videoId)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    public boolean isRunnable(LocalDateTime now) {
+        return status == Status.PENDING && !nextAttemptAt.isAfter(now)
+                || status == Status.RUNNING && leaseExpiresAt != null && leaseExpiresAt.isBefore(now);
+    }
+
+    public void claim(LocalDateTime leaseExpiresAt) {
+        this.status = Status.RUNNING;
+        this.attempts++;
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public void complete() {
+        this.status = Status.COMPLETED;
+        this.leaseExpiresAt = null;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Schedule another attempt, or give up for good (retryAt null)
+     */
+    public void recordFailure(String error, LocalDateTime retryAt) {
+        this.lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        this.leaseExpiresAt = null;
+        if (retryAt == null) {
+            this.status = Status.FAILED;
+            this.completedAt = LocalDateTime.now();
+        } else {
+            this.status = Status.PENDING;
+            this.nextAttemptAt = retryAt;
+        }
+    }
+}
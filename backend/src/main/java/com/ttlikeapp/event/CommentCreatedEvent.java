@@ -0,0 +1,10 @@
+package com.ttlikeapp.event;
+
+import com.ttlikeapp.dto.response.CommentResponse;
+
+/**
+ * Published after a comment is persisted.
+ * Carries the already-mapped response so listeners never touch lazy entity state.
+ */
+public record CommentCreatedEvent(Long videoId, CommentResponse comment) {
+}
@@ -0,0 +1,8 @@
+package com.ttlikeapp.event;
+
+/**
+ * Published when a follow edge is created or removed
+ * (follow/unfollow requests and background account purges).
+ */
+public record FollowChangedEvent(Long followerId, Long followingId, boolean following) {
+}
@@ -0,0 +1,7 @@
+package com.ttlikeapp.event;
+
+/**
+ * Published when a user likes or unlikes a video
+ */
+public record LikeChangedEvent(Long userId, Long videoId, boolean liked) {
+}
@@ -0,0 +1,9 @@
+package com.ttlikeapp.event;
+
+import com.ttlikeapp.entity.UserBlock;
+
+/**
+ * Published when a block or mute is added or removed
+ */
+public record UserBlockChangedEvent(Long userId, Long targetId, UserBlock.Type type, boolean active) {
+}
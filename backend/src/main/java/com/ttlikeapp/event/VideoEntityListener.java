@@ -0,0 +1,65 @@
+package com.ttlikeapp.event;
+
+import com.ttlikeapp.entity.Video;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JPA listener turning Video entity writes into index events
+ *
+ * Hibernate obtains this listener from Spring, so it can publish
+ * application events; consumers use @TransactionalEventListener and only
+ * see committed changes. Bulk JPQL updates bypass entity callbacks, so
+ * code deactivating videos in bulk publishes VideoRemovedEvent itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class VideoEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void afterPersist(Video video) {
+        if (video.isPubliclyVisible()) {
+            Set<String> hashtags = Set.copyOf(video.getHashtags());
+            eventPublisher.publishEvent(new VideoUpsertedEvent(
+                    video.getId(), video.getCreatedAt(), video.getCaption(), video.getEngagementScore(),
+                    hashtags, hashtags, Set.of()));
+        }
+        video.snapshotLoadedState();
+    }
+
+    @PostUpdate
+    public void afterUpdate(Video video) {
+        boolean visible = video.isPubliclyVisible();
+
+        if (!visible && video.isLoadedVisible()) {
+            eventPublisher.publishEvent(new VideoRemovedEvent(video.getId()));
+        } else if (visible && (!video.isLoadedVisible() || video.captionChangedSinceLoad())) {
+            Set<String> hashtags = Video.extractHashtags(video.getCaption());
+            Set<String> previous = Video.extractHashtags(video.getLoadedCaption());
+            Set<String> added = new HashSet<>(hashtags);
+            if (video.isLoadedVisible()) {
+                added.removeAll(previous);
+            }
+            Set<String> removed = new HashSet<>(previous);
+            removed.removeAll(hashtags);
+            eventPublisher.publishEvent(new VideoUpsertedEvent(
+                    video.getId(), video.getCreatedAt(), video.getCaption(), video.getEngagementScore(),
+                    hashtags, added, removed));
+        }
+        video.snapshotLoadedState();
+    }
+
+    @PostRemove
+    public void afterRemove(Video video) {
+        eventPublisher.publishEvent(new VideoRemovedEvent(video.getId()));
+    }
+}
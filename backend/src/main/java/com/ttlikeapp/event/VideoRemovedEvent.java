@@ -0,0 +1,8 @@
+package com.ttlikeapp.event;
+
+/**
+ * Published when a video stops being publicly visible
+ * (deleted, made private, or no longer approved).
+ */
+public record VideoRemovedEvent(Long videoId) {
+}
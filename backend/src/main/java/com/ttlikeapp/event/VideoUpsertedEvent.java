@@ -0,0 +1,15 @@
+package com.ttlikeapp.event;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Published when a video becomes publicly visible or its caption changes
+ * while visible. Carries the caption and engagement score for the caption
+ * search index. addedHashtags lists tags that were not visible on the video
+ * before (all of them on publish); removedHashtags lists tags the caption no
+ * longer carries.
+ */
+public record VideoUpsertedEvent(Long videoId, LocalDateTime createdAt, String caption, Double engagementScore,
+                                 Set<String> hashtags, Set<String> addedHashtags, Set<String> removedHashtags) {
+}
@@ -1,14 +1,17 @@
 package com.ttlikeapp.repository;
 
 import com.ttlikeapp.entity.Comment;
+import com.ttlikeapp.repository.projection.RowRef;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -23,10 +26,27 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     /**
-     * Get top-level comments for a video
+     * Get top-level comments for a video (author fetched, no count query)
      */
-    @Query("SELECT c FROM Comment c WHERE c.video.id = :videoId AND c.parent IS NULL ORDER BY c.createdAt DESC")
-    Page<Comment> findTopLevelByVideoId(@Param("videoId") Long videoId, Pageable pageable);
+    @Query("""
+        SELECT c FROM Comment c JOIN FETCH c.user
+        WHERE c.video.id = :videoId AND c.parent IS NULL
+        ORDER BY c.createdAt DESC, c.id DESC
+        """)
+    Slice<Comment> findTopLevelByVideoId(@Param("videoId") Long videoId, Pageable pageable);
+
+    /**
+     * Top-level comments strictly after the (createdAt, id) keyset position
+     */
+    @Query("""
+        SELECT c FROM Comment c JOIN FETCH c.user
+        WHERE c.video.id = :videoId AND c.parent IS NULL
+        AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+        ORDER BY c.createdAt DESC, c.id DESC
+        """)
+    List<Comment> findTopLevelByVideoIdBefore(@Param("videoId") Long videoId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id, Pageable pageable);
 
     /**
      * Get all comments for a video (including replies, ordered by creation)
@@ -71,9 +91,43 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByUserId(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * Delete all comments for a video (used when video is deleted)
+     * Delete all comments for a video in one statement.
+     * Only safe for small videos - large ones go through DeletionService,
+     * which purges in keyset chunks on a background worker.
      */
     @Modifying
     @Query("DELETE FROM Comment c WHERE c.video.id = :videoId")
     void deleteAllByVideoId(@Param("videoId") Long videoId);
+
+    /**
+     * Keyset chunk of a video's comments, newest IDs first so replies
+     * are purged before their parents (background deletion)
+     */
+    @Query("SELECT c.id FROM Comment c WHERE c.video.id = :videoId AND c.id < :beforeId ORDER BY c.id DESC")
+    List<Long> findIdsByVideoIdBefore(@Param("videoId") Long videoId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    /**
+     * Keyset chunk of a user's live comments with their video ID (background deletion)
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.RowRef(c.id, c.video.id) FROM Comment c
+        WHERE c.user.id = :userId AND c.isDeleted = false AND c.id > :afterId
+        ORDER BY c.id ASC
+        """)
+    List<RowRef> findActiveRefsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Drop parent links inside a chunk so it can be deleted in one statement
+     */
+    @Modifying
+    @Query("UPDATE Comment c SET c.parent = NULL WHERE c.id IN :ids")
+    int detachFromParents(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.isDeleted = true, c.content = '[deleted]' WHERE c.id IN :ids")
+    int softDeleteByIdIn(@Param("ids") List<Long> ids);
 }
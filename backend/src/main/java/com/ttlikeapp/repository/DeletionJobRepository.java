@@ -0,0 +1,34 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.DeletionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * DeletionJob Repository - Work queue for background cascade deletes
+ */
+@Repository
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, Long> {
+
+    /**
+     * Oldest runnable jobs first
+     */
+    @Query("SELECT j.id FROM DeletionJob j WHERE j.status = 'PENDING' ORDER BY j.id ASC")
+    List<Long> findPendingIds(Pageable pageable);
+
+    boolean existsByTargetTypeAndTargetId(DeletionJob.TargetType targetType, Long targetId);
+
+    long countByStatus(DeletionJob.Status status);
+
+    /**
+     * Targets from the given set that already have a job (idempotent fan-out)
+     */
+    @Query("SELECT j.targetId FROM DeletionJob j WHERE j.targetType = :targetType AND j.targetId IN :targetIds")
+    List<Long> findExistingTargetIds(@Param("targetType") DeletionJob.TargetType targetType,
+                                     @Param("targetIds") List<Long> targetIds);
+}
@@ -0,0 +1,132 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.Follow;
+import com.ttlikeapp.repository.projection.FollowEdge;
+import com.ttlikeapp.repository.projection.FollowListEntry;
+import com.ttlikeapp.repository.projection.RowRef;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Follow Repository - Data access for follow relationships
+ *
+ * Query Patterns:
+ * - Single-edge checks and removal (follow/unfollow)
+ * - Streaming scan of all edges (in-memory follow graph)
+ * - Keyset pages of followers/following, newest first (profile lists)
+ * - Keyset chunks over a user's edges (background deletion)
+ */
+@Repository
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+
+    boolean existsByFollowerIdAndFollowingId(Long followerId, Long followingId);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.follower.id = :followerId AND f.following.id = :followingId")
+    int deleteEdge(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    /**
+     * First page of a user's followers, newest first.
+     * Served by idx_follow_following_created (following_id, created_at, id).
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.FollowListEntry(
+            f.id, f.createdAt, u.id, u.username, u.displayName, u.avatarUrl, u.verified)
+        FROM Follow f JOIN f.follower u
+        WHERE f.following.id = :userId AND u.active = true
+        ORDER BY f.createdAt DESC, f.id DESC
+        """)
+    List<FollowListEntry> findFollowerEntries(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Followers strictly after the (createdAt, id) keyset position
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.FollowListEntry(
+            f.id, f.createdAt, u.id, u.username, u.displayName, u.avatarUrl, u.verified)
+        FROM Follow f JOIN f.follower u
+        WHERE f.following.id = :userId AND u.active = true
+        AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id))
+        ORDER BY f.createdAt DESC, f.id DESC
+        """)
+    List<FollowListEntry> findFollowerEntriesBefore(@Param("userId") Long userId,
+                                                    @Param("createdAt") LocalDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
+
+    /**
+     * First page of the users someone follows, newest first.
+     * Served by idx_follow_follower_created (follower_id, created_at, id).
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.FollowListEntry(
+            f.id, f.createdAt, u.id, u.username, u.displayName, u.avatarUrl, u.verified)
+        FROM Follow f JOIN f.following u
+        WHERE f.follower.id = :userId AND u.active = true
+        ORDER BY f.createdAt DESC, f.id DESC
+        """)
+    List<FollowListEntry> findFollowingEntries(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Followees strictly after the (createdAt, id) keyset position
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.FollowListEntry(
+            f.id, f.createdAt, u.id, u.username, u.displayName, u.avatarUrl, u.verified)
+        FROM Follow f JOIN f.following u
+        WHERE f.follower.id = :userId AND u.active = true
+        AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id))
+        ORDER BY f.createdAt DESC, f.id DESC
+        """)
+    List<FollowListEntry> findFollowingEntriesBefore(@Param("userId") Long userId,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+
+    /**
+     * Every edge ordered by follower, streamed with a server-side cursor.
+     * Must be consumed inside a (read-only) transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.FollowEdge(f.follower.id, f.following.id) FROM Follow f
+        ORDER BY f.follower.id ASC, f.following.id ASC
+        """)
+    Stream<FollowEdge> streamAllEdges();
+
+    /**
+     * Keyset chunk of edges where the user is the follower, with the followee ID
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.RowRef(f.id, f.following.id) FROM Follow f
+        WHERE f.follower.id = :userId AND f.id > :afterId
+        ORDER BY f.id ASC
+        """)
+    List<RowRef> findFollowingRefsAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset chunk of edges where the user is followed, with the follower ID
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.RowRef(f.id, f.follower.id) FROM Follow f
+        WHERE f.following.id = :userId AND f.id > :afterId
+        ORDER BY f.id ASC
+        """)
+    List<RowRef> findFollowerRefsAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,45 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.Hashtag;
+import com.ttlikeapp.repository.projection.HashtagUsage;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Hashtag Repository - Tag dictionary and usage counters
+ */
+@Repository
+public interface HashtagRepository extends JpaRepository<Hashtag, Long> {
+
+    Optional<Hashtag> findByName(String name);
+
+    List<Hashtag> findByNameIn(Collection<String> names);
+
+    /**
+     * Tags in use with their counts, streamed for autocomplete.
+     * Consume inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT new com.ttlikeapp.repository.projection.HashtagUsage(h.name, h.usageCount) FROM Hashtag h WHERE h.usageCount > 0")
+    Stream<HashtagUsage> streamUsage();
+
+    @Modifying
+    @Query("UPDATE Hashtag h SET h.usageCount = h.usageCount + 1 WHERE h.id IN :ids")
+    int incrementUsageCountIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Hashtag h SET h.usageCount = h.usageCount - 1 WHERE h.id IN :ids AND h.usageCount > 0")
+    int decrementUsageCountIn(@Param("ids") Collection<Long> ids);
+}
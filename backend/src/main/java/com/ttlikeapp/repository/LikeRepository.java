@@ -3,6 +3,7 @@ package com.ttlikeapp.repository;
 import com.ttlikeapp.entity.Like;
 import com.ttlikeapp.entity.User;
 import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.repository.projection.RowRef;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -63,11 +65,31 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
      */
     @Modifying
     @Query("DELETE FROM Like l WHERE l.user.id = :userId AND l.video.id = :videoId")
-    void deleteByUserIdAndVideoId(@Param("userId") Long userId, @Param("videoId") Long videoId);
+    int deleteByUserIdAndVideoId(@Param("userId") Long userId, @Param("videoId") Long videoId);
 
     /**
      * Get users who liked a video (for social features)
      */
     @Query("SELECT l.user FROM Like l WHERE l.video.id = :videoId ORDER BY l.createdAt DESC")
     Page<User> findUsersByVideoId(@Param("videoId") Long videoId, Pageable pageable);
+
+    /**
+     * Keyset chunk of likes on a video (background deletion)
+     */
+    @Query("SELECT l.id FROM Like l WHERE l.video.id = :videoId AND l.id > :afterId ORDER BY l.id ASC")
+    List<Long> findIdsByVideoIdAfter(@Param("videoId") Long videoId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset chunk of a user's likes with the liked video ID (background deletion)
+     */
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.RowRef(l.id, l.video.id) FROM Like l
+        WHERE l.user.id = :userId AND l.id > :afterId
+        ORDER BY l.id ASC
+        """)
+    List<RowRef> findRefsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
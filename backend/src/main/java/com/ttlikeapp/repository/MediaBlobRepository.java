@@ -0,0 +1,86 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.MediaBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MediaBlob Repository - Content-addressed media and reference counts
+ *
+ * Counts only move through the single-statement updates below; the row
+ * lock they take is what orders a link against a collection.
+ */
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, Long> {
+
+    Optional<MediaBlob> findBySha256(String sha256);
+
+    /**
+     * Add a reference (reviving a blob waiting for collection); 0 when no
+     * blob with that hash exists
+     */
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.unreferencedAt = NULL, b.refCount = b.refCount + 1 WHERE b.sha256 = :sha256")
+    int link(@Param("sha256") String sha256);
+
+    /**
+     * Drop a reference, stamping unreferencedAt when it was the last one
+     */
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.unreferencedAt = CASE WHEN b.refCount = 1 THEN :now ELSE b.unreferencedAt END, " +
+           "b.refCount = b.refCount - 1 WHERE b.id = :blobId AND b.refCount > 0")
+    int release(@Param("blobId") Long blobId, @Param("now") LocalDateTime now);
+
+    /**
+     * Unreferenced since before the cutoff, oldest first
+     */
+    @Query("SELECT b FROM MediaBlob b WHERE b.refCount = 0 AND b.unreferencedAt < :before ORDER BY b.unreferencedAt ASC")
+    List<MediaBlob> findCollectable(@Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Delete the row only if nothing linked it since it was selected
+     */
+    @Modifying
+    @Query("DELETE FROM MediaBlob b WHERE b.id = :blobId AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("blobId") Long blobId);
+
+    /**
+     * Which of the URLs are blob copies (referenced or awaiting collection)
+     */
+    @Query("SELECT b.url FROM MediaBlob b WHERE b.url IN :urls " +
+           "UNION SELECT b.thumbnailUrl FROM MediaBlob b WHERE b.thumbnailUrl IN :urls " +
+           "UNION SELECT b.hlsUrl FROM MediaBlob b WHERE b.hlsUrl IN :urls")
+    List<String> findReferencedUrls(@Param("urls") Collection<String> urls);
+
+    /**
+     * Store the probe results of a blob, unless another upload's job
+     * stored them first
+     */
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.duration = :duration, b.width = :width, b.height = :height, " +
+           "b.thumbnailUrl = :thumbnailUrl, b.hlsUrl = :hlsUrl, b.processedAt = :processedAt " +
+           "WHERE b.id = :blobId AND b.processedAt IS NULL")
+    int recordProcessing(@Param("blobId") Long blobId, @Param("duration") Integer duration,
+                         @Param("width") Integer width, @Param("height") Integer height,
+                         @Param("thumbnailUrl") String thumbnailUrl, @Param("hlsUrl") String hlsUrl,
+                         @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * Point a blob's copy or thumbnail URL at another (media moved)
+     */
+    @Modifying
+    @Query("UPDATE MediaBlob b SET " +
+           "b.url = CASE WHEN b.url = :from THEN :to ELSE b.url END, " +
+           "b.thumbnailUrl = CASE WHEN b.thumbnailUrl = :from THEN :to ELSE b.thumbnailUrl END " +
+           "WHERE b.url = :from OR b.thumbnailUrl = :from")
+    int replaceUrl(@Param("from") String from, @Param("to") String to);
+}
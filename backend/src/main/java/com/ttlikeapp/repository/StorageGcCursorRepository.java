@@ -0,0 +1,16 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.StorageGcCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * StorageGcCursor Repository - Orphaned media collector checkpoints
+ */
+@Repository
+public interface StorageGcCursorRepository extends JpaRepository<StorageGcCursor, Long> {
+
+    Optional<StorageGcCursor> findByBackendAndRangeStart(String backend, String rangeStart);
+}
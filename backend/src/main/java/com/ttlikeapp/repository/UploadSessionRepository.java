@@ -0,0 +1,36 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.UploadSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * UploadSession Repository - Direct upload slots
+ */
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+
+    /**
+     * Pending sessions past their expiry, oldest first (sweeper batches)
+     */
+    @Query("SELECT s FROM UploadSession s WHERE s.status = 'PENDING' AND s.expiresAt < :now ORDER BY s.expiresAt ASC")
+    List<UploadSession> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Slots a user still holds open (per-user cap)
+     */
+    long countByUserIdAndStatusAndExpiresAtAfter(Long userId, UploadSession.Status status, LocalDateTime now);
+
+    /**
+     * Which of the keys open direct uploads are writing to
+     */
+    @Query("SELECT s.objectKey FROM UploadSession s WHERE s.status = 'PENDING' AND s.objectKey IN :keys")
+    List<String> findPendingObjectKeys(@Param("keys") Collection<String> keys);
+}
@@ -0,0 +1,39 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.UserBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * UserBlock Repository - Data access for blocks and mutes
+ *
+ * Query Patterns:
+ * - Single-row checks and removal (block/unblock, mute/unmute)
+ * - ID-only scans that build a viewer's hidden-user bitmap
+ */
+@Repository
+public interface UserBlockRepository extends JpaRepository<UserBlock, Long> {
+
+    boolean existsByUserIdAndTargetIdAndType(Long userId, Long targetId, UserBlock.Type type);
+
+    @Modifying
+    @Query("DELETE FROM UserBlock b WHERE b.user.id = :userId AND b.target.id = :targetId AND b.type = :type")
+    int deleteEdge(@Param("userId") Long userId, @Param("targetId") Long targetId, @Param("type") UserBlock.Type type);
+
+    /**
+     * Everyone the user has blocked or muted
+     */
+    @Query("SELECT b.target.id FROM UserBlock b WHERE b.user.id = :userId")
+    List<Long> findTargetIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Everyone who has blocked the user (blocks apply both ways)
+     */
+    @Query("SELECT b.user.id FROM UserBlock b WHERE b.target.id = :userId AND b.type = 'BLOCK'")
+    List<Long> findBlockerIdsByTargetId(@Param("userId") Long userId);
+}
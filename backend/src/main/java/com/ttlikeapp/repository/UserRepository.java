@@ -1,17 +1,24 @@
 package com.ttlikeapp.repository;
 
 import com.ttlikeapp.entity.User;
+import com.ttlikeapp.repository.projection.UsernameEntry;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * User Repository - Data access layer for User entity
@@ -53,21 +60,39 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     /**
      * Search users by username containing substring
+     * Sequential scan; UsernameIndexService serves searches once loaded.
      */
     @Query("SELECT u FROM User u WHERE u.username LIKE %:query% AND u.active = true ORDER BY u.followersCount DESC")
     Page<User> searchByUsername(@Param("query") String query, Pageable pageable);
 
+    /**
+     * Active usernames best-ranked first (verified, then followers), streamed
+     * for the username search index. Consume inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.UsernameEntry(u.id, u.username) FROM User u
+        WHERE u.active = true
+        ORDER BY u.verified DESC, u.followersCount DESC, u.id ASC
+        """)
+    Stream<UsernameEntry> streamActiveUsernamesByRank();
+
     /**
      * Get suggested users to follow (popular, not following)
+     * Cold-start fallback for FollowSuggestionEngine; NOT EXISTS keeps the
+     * plan independent of how many users the caller already follows.
      */
     @Query("""
-        SELECT u FROM User u 
-        WHERE u.id NOT IN :excludedIds 
+        SELECT u FROM User u
+        WHERE u.id <> :userId
         AND u.active = true
-        AND u.isPrivate = false
+        AND u.privateAccount = false
+        AND NOT EXISTS (
+            SELECT 1 FROM Follow f WHERE f.follower.id = :userId AND f.following = u
+        )
         ORDER BY u.followersCount DESC
         """)
-    Page<User> findSuggestedUsers(@Param("excludedIds") List<Long> excludedIds, Pageable pageable);
+    Page<User> findSuggestedUsers(@Param("userId") Long userId, Pageable pageable);
 
     /**
      * Update follower count (optimized counter)
@@ -113,6 +138,25 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
     @Query("UPDATE User u SET u.totalLikesReceived = u.totalLikesReceived - 1 WHERE u.id = :userId AND u.totalLikesReceived > 0")
     void decrementTotalLikes(@Param("userId") Long userId);
 
+    /**
+     * Bulk counter fix-ups for background deletion (one row per follow, so IDs are distinct)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.followersCount = u.followersCount - 1 WHERE u.id IN :userIds AND u.followersCount > 0")
+    int decrementFollowersCountIn(@Param("userIds") List<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = u.followingCount - 1 WHERE u.id IN :userIds AND u.followingCount > 0")
+    int decrementFollowingCountIn(@Param("userIds") List<Long> userIds);
+
+    @Modifying
+    @Query("""
+        UPDATE User u SET u.totalLikesReceived =
+            CASE WHEN u.totalLikesReceived > :delta THEN u.totalLikesReceived - :delta ELSE 0 END
+        WHERE u.id = :userId
+        """)
+    void subtractTotalLikes(@Param("userId") Long userId, @Param("delta") Long delta);
+
     /**
      * Find verified users
      */
@@ -123,4 +167,10 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
      */
     @Query("SELECT COUNT(u) FROM User u WHERE u.active = true")
     Long countActiveUsers();
+
+    /**
+     * Which of the URLs are avatars
+     */
+    @Query("SELECT u.avatarUrl FROM User u WHERE u.avatarUrl IN :urls")
+    List<String> findReferencedAvatarUrls(@Param("urls") Collection<String> urls);
 }
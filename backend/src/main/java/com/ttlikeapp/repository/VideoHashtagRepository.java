@@ -0,0 +1,42 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.VideoHashtag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Video-Hashtag link repository
+ */
+@Repository
+public interface VideoHashtagRepository extends JpaRepository<VideoHashtag, Long> {
+
+    /**
+     * Tag IDs currently linked to a video
+     */
+    @Query("SELECT vh.hashtag.id FROM VideoHashtag vh WHERE vh.video.id = :videoId")
+    List<Long> findHashtagIdsByVideoId(@Param("videoId") Long videoId);
+
+    /**
+     * Tag IDs linked to a video whose link is (not) counted in usage
+     */
+    @Query("SELECT vh.hashtag.id FROM VideoHashtag vh WHERE vh.video.id = :videoId AND vh.counted = :counted")
+    List<Long> findHashtagIdsByVideoIdAndCounted(@Param("videoId") Long videoId, @Param("counted") boolean counted);
+
+    @Modifying
+    @Query("UPDATE VideoHashtag vh SET vh.counted = :counted WHERE vh.video.id = :videoId AND vh.counted <> :counted")
+    int setCounted(@Param("videoId") Long videoId, @Param("counted") boolean counted);
+
+    @Modifying
+    @Query("DELETE FROM VideoHashtag vh WHERE vh.video.id = :videoId AND vh.hashtag.id IN :hashtagIds")
+    int deleteLinks(@Param("videoId") Long videoId, @Param("hashtagIds") Collection<Long> hashtagIds);
+
+    @Modifying
+    @Query("DELETE FROM VideoHashtag vh WHERE vh.video.id = :videoId")
+    int deleteByVideoId(@Param("videoId") Long videoId);
+}
@@ -0,0 +1,28 @@
+package com.ttlikeapp.repository;
+
+import com.ttlikeapp.entity.VideoProcessingJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * VideoProcessingJob Repository - Work queue for upload processing
+ */
+@Repository
+public interface VideoProcessingJobRepository extends JpaRepository<VideoProcessingJob, Long> {
+
+    /**
+     * Due jobs and jobs whose worker lease ran out, oldest first
+     */
+    @Query("SELECT j.id FROM VideoProcessingJob j " +
+           "WHERE (j.status = 'PENDING' AND j.nextAttemptAt <= :now) " +
+           "OR (j.status = 'RUNNING' AND j.leaseExpiresAt < :now) ORDER BY j.id ASC")
+    List<Long> findRunnableIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatusIn(List<VideoProcessingJob.Status> statuses);
+}
@@ -1,24 +1,39 @@
 package com.ttlikeapp.repository;
 
 import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.repository.projection.CaptionDocument;
+import com.ttlikeapp.repository.projection.HashtagPosting;
+import com.ttlikeapp.repository.projection.RowRef;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Video Repository - Data access for video content
  * 
  * Query Patterns:
- * - Feed queries with pagination
+ * - Feed queries with pagination (Slice: no count query, author fetched);
+ *   later pages continue strictly after the last row's keyset position,
+ *   (createdAt, id) for chronological feeds and (score, id) for ranked
+ *   ones, which select their score alongside each video
  * - User video listings
  * - Trending/Popular algorithms
- * - Hashtag discovery
+ * - Hashtag discovery (SQL fallback; HashtagIndexService serves it in memory)
  */
 @Repository
 public interface VideoRepository extends JpaRepository<Video, Long> {
@@ -45,82 +60,249 @@ public interface VideoRepository extends JpaRepository<Video, Long> {
      * Following feed - videos from followed users
      */
     @Query("""
-        SELECT v FROM Video v 
+        SELECT v FROM Video v JOIN FETCH v.user
         WHERE v.user.id IN 
             (SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId)
         AND v.active = true 
         AND v.isPrivate = false
         AND v.reviewStatus = 'APPROVED'
-        ORDER BY v.createdAt DESC
+        ORDER BY v.createdAt DESC, v.id DESC
         """)
-    Page<Video> findFollowingFeed(@Param("userId") Long userId, Pageable pageable);
+    Slice<Video> findFollowingFeed(@Param("userId") Long userId, Pageable pageable);
 
     /**
-     * Trending videos algorithm
+     * Following feed strictly after the (createdAt, id) keyset position
      */
     @Query("""
-        SELECT v FROM Video v 
+        SELECT v FROM Video v JOIN FETCH v.user
+        WHERE v.user.id IN 
+            (SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId)
+        AND v.active = true 
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.id < :id))
+        ORDER BY v.createdAt DESC, v.id DESC
+        """)
+    List<Video> findFollowingFeedBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Trending videos algorithm: [video, score] rows, engagement decayed by
+     * hours since posting as of asOf (fixed per paging session); the score
+     * is a double so the keyset cursor round-trips it exactly
+     */
+    @Query("""
+        SELECT v, CAST((v.likesCount * 1.0 + v.commentsCount * 2.0 + v.sharesCount * 3.0) /
+                  ((:asOf - v.createdAt) BY HOUR + 1) AS Double)
+        FROM Video v JOIN FETCH v.user
         WHERE v.active = true 
         AND v.isPrivate = false
         AND v.reviewStatus = 'APPROVED'
-        AND v.createdAt > :since
-        ORDER BY (v.likesCount * 1.0 + v.commentsCount * 2.0 + v.sharesCount * 3.0) / 
-                 (EXTRACT(EPOCH FROM (CURRENT_TIMESTAMP - v.createdAt)) / 3600 + 1) DESC
+        AND v.createdAt > :since AND v.createdAt <= :asOf
+        ORDER BY 2 DESC, v.id DESC
         """)
-    Page<Video> findTrending(@Param("since") java.time.LocalDateTime since, Pageable pageable);
+    List<Object[]> findTrending(@Param("since") LocalDateTime since, @Param("asOf") LocalDateTime asOf,
+                                Pageable pageable);
 
     /**
-     * Popular videos - all time
+     * Trending videos strictly after the (score, id) keyset position
      */
     @Query("""
-        SELECT v FROM Video v 
+        SELECT v, CAST((v.likesCount * 1.0 + v.commentsCount * 2.0 + v.sharesCount * 3.0) /
+                  ((:asOf - v.createdAt) BY HOUR + 1) AS Double)
+        FROM Video v JOIN FETCH v.user
+        WHERE v.active = true 
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        AND v.createdAt > :since AND v.createdAt <= :asOf
+        AND (CAST((v.likesCount * 1.0 + v.commentsCount * 2.0 + v.sharesCount * 3.0) /
+                  ((:asOf - v.createdAt) BY HOUR + 1) AS Double) < :score
+             OR (CAST((v.likesCount * 1.0 + v.commentsCount * 2.0 + v.sharesCount * 3.0) /
+                  ((:asOf - v.createdAt) BY HOUR + 1) AS Double) = :score AND v.id < :id))
+        ORDER BY 2 DESC, v.id DESC
+        """)
+    List<Object[]> findTrendingBefore(@Param("since") LocalDateTime since, @Param("asOf") LocalDateTime asOf,
+                                      @Param("score") double score, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Popular videos - all time: [video, score] rows
+     */
+    @Query("""
+        SELECT v, v.engagementScore * v.viewsCount FROM Video v JOIN FETCH v.user
+        WHERE v.active = true 
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        ORDER BY 2 DESC, v.id DESC
+        """)
+    List<Object[]> findPopular(Pageable pageable);
+
+    /**
+     * Popular videos strictly after the (score, id) keyset position
+     */
+    @Query("""
+        SELECT v, v.engagementScore * v.viewsCount FROM Video v JOIN FETCH v.user
         WHERE v.active = true 
         AND v.isPrivate = false
         AND v.reviewStatus = 'APPROVED'
-        ORDER BY (v.engagementScore * v.viewsCount) DESC
+        AND (v.engagementScore * v.viewsCount < :score
+             OR (v.engagementScore * v.viewsCount = :score AND v.id < :id))
+        ORDER BY 2 DESC, v.id DESC
         """)
-    Page<Video> findPopular(Pageable pageable);
+    List<Object[]> findPopularBefore(@Param("score") double score, @Param("id") Long id, Pageable pageable);
 
     /**
      * Most recent videos
      */
     @Query("""
-        SELECT v FROM Video v 
+        SELECT v FROM Video v JOIN FETCH v.user
         WHERE v.active = true 
         AND v.isPrivate = false
         AND v.reviewStatus = 'APPROVED'
-        ORDER BY v.createdAt DESC
+        ORDER BY v.createdAt DESC, v.id DESC
+        """)
+    Slice<Video> findRecent(Pageable pageable);
+
+    /**
+     * Most recent videos strictly after the (createdAt, id) keyset position
+     */
+    @Query("""
+        SELECT v FROM Video v JOIN FETCH v.user
+        WHERE v.active = true 
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.id < :id))
+        ORDER BY v.createdAt DESC, v.id DESC
         """)
-    Page<Video> findRecent(Pageable pageable);
+    List<Video> findRecentBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                 Pageable pageable);
 
     /**
      * Search by hashtag
      */
     @Query("""
-        SELECT DISTINCT v FROM Video v 
-        JOIN v.hashtags h
-        WHERE h = :hashtag
+        SELECT v FROM Video v JOIN FETCH v.user
+        JOIN VideoHashtag vh ON vh.video = v
+        WHERE vh.hashtag.name = :hashtag
         AND v.active = true 
         AND v.isPrivate = false
         AND v.reviewStatus = 'APPROVED'
-        ORDER BY v.createdAt DESC
+        ORDER BY v.createdAt DESC, v.id DESC
         """)
-    Page<Video> searchByHashtag(@Param("hashtag") String hashtag, Pageable pageable);
+    Slice<Video> searchByHashtag(@Param("hashtag") String hashtag, Pageable pageable);
+
+    /**
+     * Search by hashtag strictly after the (createdAt, id) keyset position
+     */
+    @Query("""
+        SELECT v FROM Video v JOIN FETCH v.user
+        JOIN VideoHashtag vh ON vh.video = v
+        WHERE vh.hashtag.name = :hashtag
+        AND v.active = true 
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.id < :id))
+        ORDER BY v.createdAt DESC, v.id DESC
+        """)
+    List<Video> searchByHashtagBefore(@Param("hashtag") String hashtag, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Every (hashtag, visible video) pair grouped by tag, newest first,
+     * streamed for the in-memory hashtag index. Consume inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.HashtagPosting(h.name, v.id, v.createdAt)
+        FROM VideoHashtag vh JOIN vh.video v JOIN vh.hashtag h
+        WHERE v.active = true
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        ORDER BY h.name ASC, v.createdAt DESC, v.id DESC
+        """)
+    Stream<HashtagPosting> streamHashtagPostings();
+
+    /**
+     * Captions of every visible video, streamed for a full caption index build.
+     * Consume inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.CaptionDocument(v.id, v.caption, v.engagementScore, true)
+        FROM Video v
+        WHERE v.active = true
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        """)
+    Stream<CaptionDocument> streamPublicCaptions();
+
+    /**
+     * Captions of videos modified since a point in time, visible or not
+     * (caption index catch-up after a restart). Consume inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+        SELECT new com.ttlikeapp.repository.projection.CaptionDocument(v.id, v.caption, v.engagementScore,
+            CASE WHEN v.active = true AND v.isPrivate = false AND v.reviewStatus = 'APPROVED' THEN true ELSE false END)
+        FROM Video v
+        WHERE v.updatedAt >= :since
+        """)
+    Stream<CaptionDocument> streamCaptionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Hashtags of a publicly visible video (empty when hidden or missing)
+     */
+    @Query("""
+        SELECT h.name FROM VideoHashtag vh JOIN vh.video v JOIN vh.hashtag h
+        WHERE v.id = :videoId
+        AND v.active = true
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        """)
+    List<String> findPublicHashtagsByVideoId(@Param("videoId") Long videoId);
+
+    /**
+     * Visible videos by ID with authors (hydrates index hits; order not preserved)
+     */
+    @Query("""
+        SELECT v FROM Video v JOIN FETCH v.user
+        WHERE v.id IN :videoIds
+        AND v.active = true
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        """)
+    List<Video> findVisibleByIdIn(@Param("videoIds") List<Long> videoIds);
 
     /**
      * Discover feed - videos NOT from followed users (to find new content)
      */
     @Query("""
-        SELECT v FROM Video v 
+        SELECT v FROM Video v JOIN FETCH v.user
+        WHERE v.user.id NOT IN 
+            (SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId)
+        AND v.user.id != :userId
+        AND v.active = true 
+        AND v.isPrivate = false
+        AND v.reviewStatus = 'APPROVED'
+        ORDER BY v.engagementScore DESC, v.id DESC
+        """)
+    Slice<Video> findDiscoverFeed(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Discover feed strictly after the (engagementScore, id) keyset position
+     */
+    @Query("""
+        SELECT v FROM Video v JOIN FETCH v.user
         WHERE v.user.id NOT IN 
             (SELECT f.following.id FROM Follow f WHERE f.follower.id = :userId)
         AND v.user.id != :userId
         AND v.active = true 
         AND v.isPrivate = false
         AND v.reviewStatus = 'APPROVED'
-        ORDER BY v.engagementScore DESC
+        AND (v.engagementScore < :score OR (v.engagementScore = :score AND v.id < :id))
+        ORDER BY v.engagementScore DESC, v.id DESC
         """)
-    Page<Video> findDiscoverFeed(@Param("userId") Long userId, Pageable pageable);
+    List<Video> findDiscoverFeedBefore(@Param("userId") Long userId, @Param("score") double score,
+                                       @Param("id") Long id, Pageable pageable);
 
     /**
      * Get videos by user IDs (for feed building)
@@ -140,4 +322,86 @@ public interface VideoRepository extends JpaRepository<Video, Long> {
      */
     @Query("SELECT COUNT(v) FROM Video v WHERE v.user.id = :userId AND v.active = true")
     Long countActiveByUserId(@Param("userId") Long userId);
+
+    /**
+     * Update comment count (optimized counter)
+     */
+    @Modifying
+    @Query("UPDATE Video v SET v.commentsCount = v.commentsCount + 1 WHERE v.id = :videoId")
+    void incrementCommentsCount(@Param("videoId") Long videoId);
+
+    @Modifying
+    @Query("""
+        UPDATE Video v SET v.commentsCount =
+            CASE WHEN v.commentsCount > :delta THEN v.commentsCount - :delta ELSE 0 END
+        WHERE v.id = :videoId
+        """)
+    void subtractCommentsCount(@Param("videoId") Long videoId, @Param("delta") Long delta);
+
+    @Modifying
+    @Query("UPDATE Video v SET v.likesCount = v.likesCount + 1 WHERE v.id = :videoId")
+    void incrementLikesCount(@Param("videoId") Long videoId);
+
+    @Modifying
+    @Query("UPDATE Video v SET v.likesCount = v.likesCount - 1 WHERE v.id IN :videoIds AND v.likesCount > 0")
+    int decrementLikesCountIn(@Param("videoIds") List<Long> videoIds);
+
+    /**
+     * Tombstone - hides videos from every feed query without touching children
+     */
+    @Modifying
+    @Query("UPDATE Video v SET v.active = false WHERE v.id IN :videoIds")
+    int deactivateByIdIn(@Param("videoIds") List<Long> videoIds);
+
+    /**
+     * Keyset chunk of videos with a tag in the caption but no video_hashtag
+     * links yet (hashtag backfill)
+     */
+    @Query("""
+        SELECT v.id FROM Video v
+        WHERE v.id > :afterId
+        AND v.caption LIKE '%#%'
+        AND NOT EXISTS (SELECT 1 FROM VideoHashtag vh WHERE vh.video = v)
+        ORDER BY v.id ASC
+        """)
+    List<Long> findIdsMissingHashtagsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset chunk of a user's video IDs (background deletion)
+     */
+    @Query("SELECT v.id FROM Video v WHERE v.user.id = :userId AND v.id > :afterId ORDER BY v.id ASC")
+    List<Long> findIdsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Owner of each video (for grouped counter fix-ups)
+     */
+    @Query("SELECT new com.ttlikeapp.repository.projection.RowRef(v.id, v.user.id) FROM Video v WHERE v.id IN :videoIds")
+    List<RowRef> findOwnerRefs(@Param("videoIds") List<Long> videoIds);
+
+    @Query("SELECT v.mediaBlobId FROM Video v WHERE v.id = :videoId")
+    Optional<Long> findMediaBlobIdById(@Param("videoId") Long videoId);
+
+    @Modifying
+    @Query("DELETE FROM Video v WHERE v.id = :videoId")
+    int deleteRowById(@Param("videoId") Long videoId);
+
+    /**
+     * Which of the URLs any video (live or tombstoned) still points at
+     */
+    @Query("SELECT v.videoUrl FROM Video v WHERE v.videoUrl IN :urls " +
+           "UNION SELECT v.originalUrl FROM Video v WHERE v.originalUrl IN :urls " +
+           "UNION SELECT v.thumbnailUrl FROM Video v WHERE v.thumbnailUrl IN :urls " +
+           "UNION SELECT v.hlsUrl FROM Video v WHERE v.hlsUrl IN :urls")
+    List<String> findReferencedUrls(@Param("urls") Collection<String> urls);
+
+    /**
+     * Point every video URL field holding one URL at another (media moved)
+     */
+    @Modifying
+    @Query("UPDATE Video v SET " +
+           "v.videoUrl = CASE WHEN v.videoUrl = :from THEN :to ELSE v.videoUrl END, " +
+           "v.originalUrl = CASE WHEN v.originalUrl = :from THEN :to ELSE v.originalUrl END, " +
+           "v.thumbnailUrl = CASE WHEN v.thumbnailUrl = :from THEN :to ELSE v.thumbnailUrl END " +
+           "WHERE v.videoUrl = :from OR v.originalUrl = :from OR v.thumbnailUrl = :from")
+    int replaceUrl(@Param("from") String from, @Param("to") String to);
 }
@@ -0,0 +1,7 @@
+package com.ttlikeapp.repository.projection;
+
+/**
+ * A video's searchable caption and ranking signal, for caption index builds
+ */
+public record CaptionDocument(Long videoId, String caption, Double engagementScore, Boolean visible) {
+}
@@ -0,0 +1,7 @@
+package com.ttlikeapp.repository.projection;
+
+/**
+ * Bare follow edge (follower -> followee) for bulk graph loading
+ */
+public record FollowEdge(Long followerId, Long followingId) {
+}
@@ -0,0 +1,12 @@
+package com.ttlikeapp.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a follower/following list: the edge's keyset position
+ * (createdAt, followId) plus the summary columns of the user on the other end.
+ */
+public record FollowListEntry(Long followId, LocalDateTime followedAt,
+                              Long userId, String username, String displayName,
+                              String avatarUrl, Boolean verified) {
+}
@@ -0,0 +1,9 @@
+package com.ttlikeapp.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * One (hashtag, video) pair with the video's sort key, for index builds
+ */
+public record HashtagPosting(String hashtag, Long videoId, LocalDateTime createdAt) {
+}
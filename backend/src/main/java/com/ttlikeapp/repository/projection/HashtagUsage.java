@@ -0,0 +1,7 @@
+package com.ttlikeapp.repository.projection;
+
+/**
+ * A hashtag and the number of visible videos carrying it
+ */
+public record HashtagUsage(String hashtag, Long usageCount) {
+}
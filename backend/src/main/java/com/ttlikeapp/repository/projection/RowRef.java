@@ -0,0 +1,9 @@
+package com.ttlikeapp.repository.projection;
+
+/**
+ * Row id plus the id of a row it references (e.g. like id + video id).
+ * Used by keyset-chunked maintenance queries that must fix counters on
+ * the referenced side without loading entities.
+ */
+public record RowRef(Long id, Long refId) {
+}
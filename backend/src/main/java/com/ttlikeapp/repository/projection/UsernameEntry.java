@@ -0,0 +1,7 @@
+package com.ttlikeapp.repository.projection;
+
+/**
+ * User ID and username, streamed in search-rank order for the username index
+ */
+public record UsernameEntry(Long userId, String username) {
+}
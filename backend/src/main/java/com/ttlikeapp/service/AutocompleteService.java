@@ -0,0 +1,149 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.repository.HashtagRepository;
+import com.ttlikeapp.repository.projection.HashtagUsage;
+import com.ttlikeapp.service.UsernameIndexService.UserCompletion;
+import com.ttlikeapp.util.CompletionTrie;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Autocomplete Service - Type-ahead completions for the search box
+ *
+ * Hashtags come from a CompletionTrie (radix trie with each large node's
+ * top completions precomputed) weighted by usage count. Usernames come from
+ * UsernameIndexService's prefix index, the one in-memory copy of all
+ * usernames, so completions rank exactly like username search. A keystroke
+ * costs one walk down the prefix, never a database query.
+ *
+ * The hashtag trie lives in an immutable Snapshot that is rebuilt
+ * off-thread every rebuild-interval-ms and swapped in with a single
+ * volatile write, so readers never block.
+ */
+@Service
+@Slf4j
+public class AutocompleteService {
+
+    private final HashtagRepository hashtagRepository;
+    private final UsernameIndexService usernameIndex;
+    private final TransactionTemplate readOnlyTx;
+    private final Timer lookupTimer;
+
+    @Value("${autocomplete.enabled:true}")
+    private boolean enabled;
+
+    @Value("${autocomplete.max-completions:16}")
+    private int maxCompletions;
+
+    private volatile Snapshot snapshot;
+
+    public AutocompleteService(HashtagRepository hashtagRepository,
+                               UsernameIndexService usernameIndex,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.hashtagRepository = hashtagRepository;
+        this.usernameIndex = usernameIndex;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.lookupTimer = Timer.builder("search.autocomplete")
+                .description("In-memory autocomplete lookup latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread.ofPlatform().name("autocomplete-loader").daemon().start(this::rebuild);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${autocomplete.rebuild-interval-ms:300000}",
+               initialDelayString = "${autocomplete.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        if (enabled && snapshot != null) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Most used hashtags starting with prefix ("#Ca" and "ca" are equivalent)
+     */
+    public List<String> completeHashtags(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String normalized = HashtagIndexService.normalize(prefix);
+        if (current == null || normalized.isEmpty()) {
+            return List.of();
+        }
+        return lookupTimer.record(() -> {
+            int[] hits = current.hashtags.topK(normalized, limit);
+            List<String> completions = new ArrayList<>(hits.length);
+            for (int hit : hits) {
+                completions.add(current.hashtagNames[hit]);
+            }
+            return completions;
+        });
+    }
+
+    /**
+     * Best-ranked users whose username starts with prefix (case-insensitive, "@" ignored)
+     */
+    public List<UserCompletion> completeUsernames(String prefix, int limit) {
+        return usernameIndex.complete(prefix, limit);
+    }
+
+    /**
+     * Build the hashtag trie from the database and swap it in
+     */
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            Snapshot built = readOnlyTx.execute(status -> load());
+            snapshot = built;
+            log.info("Autocomplete trie built: {} hashtags in {} ms",
+                    built.hashtags.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Failed to build autocomplete trie{}",
+                    snapshot != null ? ", keeping the previous one" : "", e);
+        }
+    }
+
+    private Snapshot load() {
+        List<String> tags = new ArrayList<>();
+        long[] tagWeights = new long[1024];
+        try (Stream<HashtagUsage> stream = hashtagRepository.streamUsage()) {
+            for (HashtagUsage usage : (Iterable<HashtagUsage>) stream::iterator) {
+                if (tags.size() == tagWeights.length) {
+                    tagWeights = Arrays.copyOf(tagWeights, tagWeights.length * 2);
+                }
+                tagWeights[tags.size()] = usage.usageCount();
+                tags.add(usage.hashtag());
+            }
+        }
+
+        String[] hashtagNames = tags.toArray(String[]::new);
+        return new Snapshot(
+                CompletionTrie.build(hashtagNames, Arrays.copyOf(tagWeights, hashtagNames.length), maxCompletions),
+                hashtagNames);
+    }
+
+    private record Snapshot(CompletionTrie hashtags, String[] hashtagNames) {
+    }
+}
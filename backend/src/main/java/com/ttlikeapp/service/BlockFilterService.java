@@ -0,0 +1,91 @@
+package com.ttlikeapp.service;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.ttlikeapp.entity.UserBlock;
+import com.ttlikeapp.event.UserBlockChangedEvent;
+import com.ttlikeapp.repository.UserBlockRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Block Filter Service - Cached per-viewer hidden-user sets
+ *
+ * Each viewer's hidden set (users they blocked or muted, plus users who
+ * blocked them) is loaded once into a Roaring bitmap and cached. Feeds and
+ * comment lists drop hidden authors as a post-filter instead of adding
+ * NOT IN subqueries to every read query.
+ *
+ * Cached filters are immutable; a block/mute change invalidates both sides
+ * after commit and the next request reloads.
+ */
+@Service
+public class BlockFilterService {
+
+    private final UserBlockRepository userBlockRepository;
+    private final LoadingCache<Long, ViewerFilter> filters;
+
+    public BlockFilterService(UserBlockRepository userBlockRepository,
+                              @Value("${block-filter.cache-size:100000}") long cacheSize,
+                              @Value("${block-filter.expire-minutes:30}") long expireMinutes) {
+        this.userBlockRepository = userBlockRepository;
+        this.filters = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterAccess(expireMinutes, TimeUnit.MINUTES)
+                .build(CacheLoader.from(this::load));
+    }
+
+    /**
+     * Filter for a viewer (anonymous viewers see everything)
+     */
+    public ViewerFilter forViewer(Long viewerId) {
+        return viewerId != null ? filters.getUnchecked(viewerId) : ViewerFilter.NONE;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlockChanged(UserBlockChangedEvent event) {
+        filters.invalidate(event.userId());
+        if (event.type() == UserBlock.Type.BLOCK) {
+            filters.invalidate(event.targetId());
+        }
+    }
+
+    private ViewerFilter load(Long viewerId) {
+        Roaring64Bitmap hidden = new Roaring64Bitmap();
+        userBlockRepository.findTargetIdsByUserId(viewerId).forEach(hidden::addLong);
+        userBlockRepository.findBlockerIdsByTargetId(viewerId).forEach(hidden::addLong);
+
+        if (hidden.isEmpty()) {
+            return ViewerFilter.NONE;
+        }
+        hidden.runOptimize();
+        return new ViewerFilter(hidden);
+    }
+
+    /**
+     * Immutable hidden-user set for one viewer
+     */
+    public static final class ViewerFilter {
+
+        public static final ViewerFilter NONE = new ViewerFilter(null);
+
+        private final Roaring64Bitmap hidden;
+
+        private ViewerFilter(Roaring64Bitmap hidden) {
+            this.hidden = hidden;
+        }
+
+        public boolean isEmpty() {
+            return hidden == null;
+        }
+
+        public boolean hides(Long userId) {
+            return hidden != null && userId != null && hidden.contains(userId);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.UserBlock;
+
+/**
+ * Block Service - Blocking and muting other users
+ */
+public interface BlockService {
+
+    /**
+     * Block or mute a user (no-op if already in place).
+     * Blocking also removes follows in both directions.
+     */
+    void add(Long userId, Long targetId, UserBlock.Type type);
+
+    /**
+     * Remove a block or mute (no-op if absent)
+     */
+    void remove(Long userId, Long targetId, UserBlock.Type type);
+}
@@ -0,0 +1,67 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.entity.UserBlock;
+import com.ttlikeapp.event.UserBlockChangedEvent;
+import com.ttlikeapp.repository.UserBlockRepository;
+import com.ttlikeapp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Default BlockService implementation
+ *
+ * UserBlockChangedEvent invalidates the cached viewer filters
+ * (BlockFilterService) once the transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlockServiceImpl implements BlockService {
+
+    private final UserBlockRepository userBlockRepository;
+    private final UserRepository userRepository;
+    private final FollowService followService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public void add(Long userId, Long targetId, UserBlock.Type type) {
+        if (userId.equals(targetId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot block or mute yourself");
+        }
+
+        User target = userRepository.findById(targetId)
+                .filter(User::getActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        if (userBlockRepository.existsByUserIdAndTargetIdAndType(userId, targetId, type)) {
+            return;
+        }
+
+        userBlockRepository.save(new UserBlock(userRepository.getReferenceById(userId), target, type));
+        if (type == UserBlock.Type.BLOCK) {
+            followService.unfollow(userId, targetId);
+            followService.unfollow(targetId, userId);
+        }
+
+        eventPublisher.publishEvent(new UserBlockChangedEvent(userId, targetId, type, true));
+        log.debug("User {} added {} on {}", userId, type, targetId);
+    }
+
+    @Override
+    @Transactional
+    public void remove(Long userId, Long targetId, UserBlock.Type type) {
+        if (userBlockRepository.deleteEdge(userId, targetId, type) == 0) {
+            return;
+        }
+
+        eventPublisher.publishEvent(new UserBlockChangedEvent(userId, targetId, type, false));
+        log.debug("User {} removed {} on {}", userId, type, targetId);
+    }
+}
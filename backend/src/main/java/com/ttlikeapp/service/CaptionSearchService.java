@@ -0,0 +1,515 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.event.VideoRemovedEvent;
+import com.ttlikeapp.event.VideoUpsertedEvent;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.repository.projection.CaptionDocument;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.FeatureField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Caption Search Service - Embedded full-text index over video captions
+ *
+ * Layout:
+ * - Lucene index on local disk (memory-mapped segments), one document per
+ *   publicly visible video: id (exact term), caption (analyzed text) and
+ *   the engagement score as a FeatureField
+ * - Queries are BM25 over the caption terms (any term matches, more and
+ *   rarer terms score higher) plus a saturating engagement boost, so a
+ *   popular video outranks an equally relevant quiet one without
+ *   engagement drowning out relevance
+ *
+ * Updates:
+ * - VideoUpsertedEvent / VideoRemovedEvent update or delete the document;
+ *   searchers are refreshed every refresh-interval-ms (near real time);
+ *   refresh listeners then learn which caption terms became searchable
+ * - Commits every commit-interval-ms record a checkpoint; on restart the
+ *   index is reopened and only videos modified since the checkpoint are
+ *   re-read. An empty index, and the nightly rebuild (which also picks up
+ *   engagement score drift), re-index everything from a stream.
+ *
+ * Bulk deactivations bypass entity events, so hits are always hydrated
+ * through the visible-video query, which drops stale documents.
+ */
+@Service
+@Slf4j
+public class CaptionSearchService {
+
+    private static final String ID = "id";
+    private static final String CAPTION = "caption";
+    private static final String FEATURES = "features";
+    private static final String ENGAGEMENT = "engagement";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final Duration CHECKPOINT_MARGIN = Duration.ofMinutes(5);
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final VideoRepository videoRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Timer searchTimer;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+
+    @Value("${caption-search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${caption-search.index-dir:./data/caption-index}")
+    private String indexDir;
+
+    @Value("${caption-search.bm25.k1:1.2}")
+    private float k1;
+
+    @Value("${caption-search.bm25.b:0.75}")
+    private float b;
+
+    @Value("${caption-search.engagement-weight:2.0}")
+    private float engagementWeight;
+
+    @Value("${caption-search.engagement-pivot:0.1}")
+    private float engagementPivot;
+
+    @Value("${caption-search.max-window:1000}")
+    private int maxWindow;
+
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    // Guarded by this: while building, changes are queued instead of applied
+    private boolean building;
+    private final List<Object> pendingChanges = new ArrayList<>();
+
+    // Terms of captions written since the last refresh, handed to refresh listeners
+    private final Set<String> unpublishedTerms = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<Set<String>>> refreshListeners = new CopyOnWriteArrayList<>();
+
+    public CaptionSearchService(VideoRepository videoRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.videoRepository = videoRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.searchTimer = Timer.builder("search.captions.index")
+                .description("Caption full-text search latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        Gauge.builder("search.captions.documents", this, service -> service.writer != null ? service.writer.getDocStats().numDocs : 0)
+                .description("Videos held in the caption index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform().name("caption-index-loader").daemon().start(() -> {
+            try {
+                open();
+            } catch (IOException e) {
+                log.error("Failed to open caption index at {}, caption search stays disabled", indexDir, e);
+                return;
+            }
+
+            LocalDateTime checkpoint = readCheckpoint();
+            if (checkpoint == null || writer.getDocStats().numDocs == 0) {
+                rebuild();
+            } else {
+                ready = true;
+                catchUp(checkpoint);
+            }
+        });
+    }
+
+    /**
+     * Nightly re-index drops stale documents and refreshes engagement scores
+     */
+    @Scheduled(cron = "${caption-search.rebuild-cron:0 0 5 * * *}")
+    public void scheduledRebuild() {
+        if (enabled && ready) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${caption-search.refresh-interval-ms:1000}")
+    public void refreshSearcher() {
+        if (!ready || isBuilding()) {
+            return;
+        }
+        // Drain before refreshing: every drained term's document is then visible
+        Set<String> terms = Set.copyOf(unpublishedTerms);
+        unpublishedTerms.removeAll(terms);
+        try {
+            searcherManager.maybeRefreshBlocking();
+            if (!terms.isEmpty()) {
+                refreshListeners.forEach(listener -> listener.accept(terms));
+            }
+        } catch (IOException e) {
+            log.warn("Caption index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${caption-search.commit-interval-ms:30000}")
+    public void commit() {
+        if (!ready || isBuilding() || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            commit(LocalDateTime.now().minus(CHECKPOINT_MARGIN));
+        } catch (IOException e) {
+            log.warn("Caption index commit failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (searcherManager != null) {
+            searcherManager.close();
+        }
+        if (writer != null) {
+            if (ready && !isBuilding()) {
+                commit(LocalDateTime.now().minus(CHECKPOINT_MARGIN));
+            }
+            writer.close();
+        }
+    }
+
+    // ----- Queries -----
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Register a callback run after each searcher refresh that made new or
+     * edited captions searchable, with the analyzed terms of those captions
+     */
+    public void addRefreshListener(Consumer<Set<String>> listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * Distinct terms of a text as the caption field indexes them
+     */
+    public Set<String> analyze(String text) {
+        Set<String> terms = new HashSet<>();
+        try (TokenStream stream = analyzer.tokenStream(CAPTION, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    /**
+     * Video IDs whose captions match the text, best first, skipping offset hits.
+     * Results are capped at caption-search.max-window hits in total.
+     */
+    public List<Long> search(String text, long offset, int limit) {
+        String trimmed = text.length() > MAX_QUERY_LENGTH ? text.substring(0, MAX_QUERY_LENGTH) : text;
+        Query terms = queryBuilder.createBooleanQuery(CAPTION, trimmed, Occur.SHOULD);
+        int window = (int) Math.min(offset + limit, maxWindow);
+        if (terms == null || offset >= window) {
+            return List.of();
+        }
+
+        Query query = new BooleanQuery.Builder()
+                .add(terms, Occur.MUST)
+                .add(FeatureField.newSaturationQuery(FEATURES, ENGAGEMENT, engagementWeight, engagementPivot), Occur.SHOULD)
+                .build();
+
+        return searchTimer.record(() -> {
+            IndexSearcher searcher = acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, window);
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> videoIds = new ArrayList<>(limit);
+                for (int i = (int) offset; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc hit = topDocs.scoreDocs[i];
+                    videoIds.add(Long.parseLong(storedFields.document(hit.doc).get(ID)));
+                }
+                return videoIds;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                release(searcher);
+            }
+        });
+    }
+
+    // ----- Incremental updates -----
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoUpserted(VideoUpsertedEvent event) {
+        if (writer == null || queueIfBuilding(event)) {
+            return;
+        }
+        upsert(new CaptionDocument(event.videoId(), event.caption(), event.engagementScore(), true));
+        publishTerms(event.caption());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoRemoved(VideoRemovedEvent event) {
+        if (writer == null || queueIfBuilding(event)) {
+            return;
+        }
+        delete(event.videoId());
+    }
+
+    // ----- Build -----
+
+    /**
+     * Re-index every visible video; searchers keep the previous snapshot
+     * until the new one is committed
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (building) {
+                return;
+            }
+            building = true;
+        }
+
+        long started = System.currentTimeMillis();
+        LocalDateTime checkpoint = LocalDateTime.now().minus(CHECKPOINT_MARGIN);
+        try {
+            writer.deleteAll();
+            long count = readOnlyTx.execute(status -> {
+                long indexed = 0;
+                try (Stream<CaptionDocument> stream = videoRepository.streamPublicCaptions()) {
+                    for (CaptionDocument document : (Iterable<CaptionDocument>) stream::iterator) {
+                        upsert(document);
+                        indexed++;
+                    }
+                }
+                return indexed;
+            });
+
+            synchronized (this) {
+                replayPending();
+                commit(checkpoint);
+                searcherManager.maybeRefreshBlocking();
+                ready = true;
+                building = false;
+            }
+
+            log.info("Caption index built: {} videos in {} ms", count, System.currentTimeMillis() - started);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                building = false;
+                pendingChanges.clear();
+            }
+            try {
+                writer.rollback();
+                open();
+            } catch (IOException reopenFailure) {
+                e.addSuppressed(reopenFailure);
+            }
+            log.error("Failed to build caption index", e);
+        }
+    }
+
+    /**
+     * Re-read videos modified since the last commit (edits made while down)
+     */
+    private void catchUp(LocalDateTime checkpoint) {
+        try {
+            long count = readOnlyTx.execute(status -> {
+                long applied = 0;
+                try (Stream<CaptionDocument> stream = videoRepository.streamCaptionsUpdatedSince(checkpoint)) {
+                    for (CaptionDocument document : (Iterable<CaptionDocument>) stream::iterator) {
+                        if (Boolean.TRUE.equals(document.visible())) {
+                            upsert(document);
+                        } else {
+                            delete(document.videoId());
+                        }
+                        applied++;
+                    }
+                }
+                return applied;
+            });
+            log.info("Caption index reopened, caught up {} videos modified since {}", count, checkpoint);
+        } catch (RuntimeException e) {
+            log.error("Caption index catch-up failed, serving the last committed index", e);
+        }
+    }
+
+    private void open() throws IOException {
+        Path path = Path.of(indexDir);
+        Files.createDirectories(path);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setSimilarity(new BM25Similarity(k1, b))
+                .setCommitOnClose(false);
+        writer = new IndexWriter(new MMapDirectory(path), config);
+
+        BM25Similarity similarity = new BM25Similarity(k1, b);
+        SearcherManager previous = searcherManager;
+        searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(similarity);
+                return searcher;
+            }
+        });
+        if (previous != null) {
+            // Reopened after a failed rebuild: drop the old reader; searches
+            // still holding it release it when they finish
+            previous.close();
+        }
+    }
+
+    private LocalDateTime readCheckpoint() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (CHECKPOINT.equals(entry.getKey())) {
+                    return LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(Long.parseLong(entry.getValue())), ZoneId.systemDefault());
+                }
+            }
+        }
+        return null;
+    }
+
+    private void commit(LocalDateTime checkpoint) throws IOException {
+        long millis = checkpoint.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        writer.setLiveCommitData(Map.of(CHECKPOINT, Long.toString(millis)).entrySet());
+        writer.commit();
+    }
+
+    private void upsert(CaptionDocument video) {
+        if (video.caption() == null || video.caption().isBlank()) {
+            delete(video.videoId());
+            return;
+        }
+
+        Document document = new Document();
+        document.add(new StringField(ID, video.videoId().toString(), Field.Store.YES));
+        document.add(new TextField(CAPTION, video.caption(), Field.Store.NO));
+        // Feature values must be positive; unscored videos get the floor
+        float engagement = (float) Math.max(video.engagementScore() != null ? video.engagementScore() : 0, 1e-4);
+        document.add(new FeatureField(FEATURES, ENGAGEMENT, engagement));
+        try {
+            writer.updateDocument(new Term(ID, video.videoId().toString()), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(Long videoId) {
+        try {
+            writer.deleteDocuments(new Term(ID, videoId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // After the document is written, so a drained term's document is never left for a later refresh
+    private void publishTerms(String caption) {
+        if (!refreshListeners.isEmpty() && caption != null) {
+            unpublishedTerms.addAll(analyze(caption));
+        }
+    }
+
+    private synchronized boolean queueIfBuilding(Object change) {
+        if (building) {
+            pendingChanges.add(change);
+        }
+        return building;
+    }
+
+    private synchronized boolean isBuilding() {
+        return building;
+    }
+
+    // Caller holds this
+    private void replayPending() {
+        for (Object change : pendingChanges) {
+            if (change instanceof VideoUpsertedEvent upserted) {
+                upsert(new CaptionDocument(upserted.videoId(), upserted.caption(), upserted.engagementScore(), true));
+                publishTerms(upserted.caption());
+            } else if (change instanceof VideoRemovedEvent removed) {
+                delete(removed.videoId());
+            }
+        }
+        pendingChanges.clear();
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Failed to release caption searcher: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.CreateCommentRequest;
+import com.ttlikeapp.dto.response.CommentResponse;
+import com.ttlikeapp.dto.response.CursorPage;
+
+/**
+ * Comment Service - Business logic for video comments
+ */
+public interface CommentService {
+
+    /**
+     * Create a top-level comment or a reply and notify live subscribers
+     */
+    CommentResponse createComment(Long userId, CreateCommentRequest request);
+
+    /**
+     * Top-level comments, newest first, without authors the viewer has hidden.
+     * The cursor is the nextCursor of the previous page.
+     */
+    CursorPage<CommentResponse> getComments(Long viewerId, Long videoId, String cursor, int size);
+}
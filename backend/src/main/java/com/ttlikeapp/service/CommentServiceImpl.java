@@ -0,0 +1,110 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.CreateCommentRequest;
+import com.ttlikeapp.dto.response.CommentResponse;
+import com.ttlikeapp.dto.response.CursorPage;
+import com.ttlikeapp.entity.Comment;
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.event.CommentCreatedEvent;
+import com.ttlikeapp.repository.CommentRepository;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.service.BlockFilterService.ViewerFilter;
+import com.ttlikeapp.util.BackfillingPager;
+import com.ttlikeapp.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Default CommentService implementation
+ *
+ * Counters are bumped with bulk updates so the Video entity is never
+ * dirtied (and re-flushed) just because someone commented.
+ *
+ * Listings drop blocked/muted authors after the query and backfill from
+ * the next rows, so pages stay full; cursors are (createdAt, id) keyset
+ * positions, so comments posted meanwhile never shift later pages.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CommentServiceImpl implements CommentService {
+
+    private final CommentRepository commentRepository;
+    private final VideoRepository videoRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockFilterService blockFilterService;
+
+    @Value("${block-filter.overfetch-factor:2}")
+    private int overfetchFactor;
+
+    @Override
+    @Transactional
+    public CommentResponse createComment(Long userId, CreateCommentRequest request) {
+        Video video = videoRepository.findActiveById(request.getVideoId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+
+        if (!Boolean.TRUE.equals(video.getAllowComments())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Comments are disabled for this video");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        Comment comment = Comment.builder()
+                .content(request.getContent())
+                .user(user)
+                .video(video)
+                .build();
+
+        if (request.getParentCommentId() != null) {
+            Comment parent = commentRepository.findById(request.getParentCommentId())
+                    .filter(c -> c.getVideo().getId().equals(video.getId()))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Parent comment not found"));
+            parent.addReply(comment);
+        }
+
+        commentRepository.save(comment);
+        videoRepository.incrementCommentsCount(video.getId());
+
+        CommentResponse response = CommentResponse.from(comment);
+        eventPublisher.publishEvent(new CommentCreatedEvent(video.getId(), response));
+
+        log.debug("User {} commented on video {}", userId, video.getId());
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CommentResponse> getComments(Long viewerId, Long videoId, String cursor, int size) {
+        videoRepository.findActiveById(videoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+
+        ViewerFilter filter = blockFilterService.forViewer(viewerId);
+        BackfillingPager.Result<Comment> result = BackfillingPager.fetch(
+                BackfillingPager.keyset(
+                        (KeysetCursor after, int limit) -> after == null
+                                ? commentRepository.findTopLevelByVideoId(videoId, PageRequest.of(0, limit)).getContent()
+                                : commentRepository.findTopLevelByVideoIdBefore(videoId, after.createdAt(), after.id(),
+                                        PageRequest.of(0, limit)),
+                        KeysetCursor::decode,
+                        comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId()).encode()),
+                comment -> !filter.hides(comment.getUser().getId()),
+                cursor, size, filter.isEmpty() ? 1 : overfetchFactor);
+
+        return CursorPage.<CommentResponse>builder()
+                .content(result.items().stream().map(CommentResponse::from).toList())
+                .nextCursor(result.exhausted() ? null : result.nextCursor())
+                .hasMore(!result.exhausted())
+                .build();
+    }
+}
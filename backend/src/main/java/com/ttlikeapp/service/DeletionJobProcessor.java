@@ -0,0 +1,266 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.DeletionJob;
+import com.ttlikeapp.entity.DeletionJob.Stage;
+import com.ttlikeapp.event.FollowChangedEvent;
+import com.ttlikeapp.event.VideoRemovedEvent;
+import com.ttlikeapp.repository.CommentRepository;
+import com.ttlikeapp.repository.DeletionJobRepository;
+import com.ttlikeapp.repository.FollowRepository;
+import com.ttlikeapp.repository.LikeRepository;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.repository.projection.RowRef;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Deletion Job Processor - Executes one bounded chunk of a deletion job
+ *
+ * Every chunk runs in its own transaction: the purged rows, the counter
+ * fix-ups and the advanced keyset cursor commit together, so a crash
+ * between chunks never loses or repeats work.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeletionJobProcessor {
+
+    private final DeletionJobRepository deletionJobRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final FollowRepository followRepository;
+    private final VideoRepository videoRepository;
+    private final UserRepository userRepository;
+    private final HashtagService hashtagService;
+    private final MediaBlobService mediaBlobService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${deletion.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Outcome of one chunk, reported to metrics by the worker
+     */
+    public record ChunkResult(DeletionJob.TargetType targetType, Stage stage, int rows, boolean finished) {
+    }
+
+    @Transactional
+    public ChunkResult processNextChunk(Long jobId) {
+        DeletionJob job = deletionJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != DeletionJob.Status.PENDING) {
+            return new ChunkResult(null, null, 0, true);
+        }
+
+        Stage stage = job.getStage();
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        int rows = switch (stage) {
+            case VIDEO_LIKES -> purgeVideoLikes(job, chunk);
+            case VIDEO_COMMENTS -> purgeVideoComments(job, chunk);
+            case VIDEO_ROW -> purgeVideoRow(job);
+            case USER_FOLLOWING -> purgeFollowing(job, chunk);
+            case USER_FOLLOWERS -> purgeFollowers(job, chunk);
+            case USER_LIKES -> purgeUserLikes(job, chunk);
+            case USER_COMMENTS -> purgeUserComments(job, chunk);
+            case USER_VIDEOS -> fanOutUserVideos(job, chunk);
+        };
+
+        // A short chunk means the stage is exhausted; skip the extra empty round trip
+        if (rows < chunkSize) {
+            job.nextStage();
+        }
+
+        boolean finished = job.getStatus() == DeletionJob.Status.COMPLETED;
+        if (finished) {
+            log.info("Deletion of {} {} completed ({} rows)", job.getTargetType(), job.getTargetId(), job.getRowsPurged());
+        }
+        return new ChunkResult(job.getTargetType(), stage, rows, finished);
+    }
+
+    /**
+     * Record a failed chunk outside the rolled-back chunk transaction
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recordFailure(Long jobId, Exception error) {
+        deletionJobRepository.findById(jobId).ifPresent(job -> {
+            job.recordFailure(error.getMessage(), maxAttempts);
+            if (job.getStatus() == DeletionJob.Status.FAILED) {
+                log.error("Deletion job {} failed permanently at stage {}", jobId, job.getStage(), error);
+            }
+        });
+    }
+
+    // ----- Video stages -----
+
+    private int purgeVideoLikes(DeletionJob job, Pageable chunk) {
+        List<Long> ids = likeRepository.findIdsByVideoIdAfter(job.getTargetId(), afterCursor(job), chunk);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        likeRepository.deleteByIdIn(ids);
+        job.advance(ids.get(ids.size() - 1), ids.size());
+        return ids.size();
+    }
+
+    private int purgeVideoComments(DeletionJob job, Pageable chunk) {
+        long beforeId = job.getCursor() != null ? job.getCursor() : Long.MAX_VALUE;
+        List<Long> ids = commentRepository.findIdsByVideoIdBefore(job.getTargetId(), beforeId, chunk);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        commentRepository.detachFromParents(ids);
+        commentRepository.deleteByIdIn(ids);
+        job.advance(ids.get(ids.size() - 1), ids.size());
+        return ids.size();
+    }
+
+    private int purgeVideoRow(DeletionJob job) {
+        hashtagService.unlinkAll(job.getTargetId());
+        Long blobId = videoRepository.findMediaBlobIdById(job.getTargetId()).orElse(null);
+        int rows = videoRepository.deleteRowById(job.getTargetId());
+        if (rows > 0 && blobId != null) {
+            mediaBlobService.release(blobId);
+        }
+        job.advance(job.getTargetId(), rows);
+        return rows;
+    }
+
+    // ----- User stages -----
+
+    private int purgeFollowing(DeletionJob job, Pageable chunk) {
+        List<RowRef> refs = followRepository.findFollowingRefsAfter(job.getTargetId(), afterCursor(job), chunk);
+        if (refs.isEmpty()) {
+            return 0;
+        }
+
+        followRepository.deleteByIdIn(ids(refs));
+        userRepository.decrementFollowersCountIn(refIds(refs));
+        refs.forEach(ref -> eventPublisher.publishEvent(
+                new FollowChangedEvent(job.getTargetId(), ref.refId(), false)));
+        job.advance(lastId(refs), refs.size());
+        return refs.size();
+    }
+
+    private int purgeFollowers(DeletionJob job, Pageable chunk) {
+        List<RowRef> refs = followRepository.findFollowerRefsAfter(job.getTargetId(), afterCursor(job), chunk);
+        if (refs.isEmpty()) {
+            return 0;
+        }
+
+        followRepository.deleteByIdIn(ids(refs));
+        userRepository.decrementFollowingCountIn(refIds(refs));
+        refs.forEach(ref -> eventPublisher.publishEvent(
+                new FollowChangedEvent(ref.refId(), job.getTargetId(), false)));
+        job.advance(lastId(refs), refs.size());
+        return refs.size();
+    }
+
+    private int purgeUserLikes(DeletionJob job, Pageable chunk) {
+        List<RowRef> refs = likeRepository.findRefsByUserIdAfter(job.getTargetId(), afterCursor(job), chunk);
+        if (refs.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> videoIds = refIds(refs);
+        likeRepository.deleteByIdIn(ids(refs));
+        videoRepository.decrementLikesCountIn(videoIds);
+
+        // One like per video, but several liked videos can share an owner
+        Map<Long, Long> likesByOwner = videoRepository.findOwnerRefs(videoIds).stream()
+                .collect(Collectors.groupingBy(RowRef::refId, Collectors.counting()));
+        likesByOwner.forEach(userRepository::subtractTotalLikes);
+
+        job.advance(lastId(refs), refs.size());
+        return refs.size();
+    }
+
+    private int purgeUserComments(DeletionJob job, Pageable chunk) {
+        List<RowRef> refs = commentRepository.findActiveRefsByUserIdAfter(job.getTargetId(), afterCursor(job), chunk);
+        if (refs.isEmpty()) {
+            return 0;
+        }
+
+        // Soft delete keeps other users' reply threads intact
+        commentRepository.softDeleteByIdIn(ids(refs));
+        refs.stream()
+                .collect(Collectors.groupingBy(RowRef::refId, Collectors.counting()))
+                .forEach(videoRepository::subtractCommentsCount);
+
+        job.advance(lastId(refs), refs.size());
+        return refs.size();
+    }
+
+    private int fanOutUserVideos(DeletionJob job, Pageable chunk) {
+        List<Long> videoIds = videoRepository.findIdsByUserIdAfter(job.getTargetId(), afterCursor(job), chunk);
+        if (videoIds.isEmpty()) {
+            return 0;
+        }
+
+        // Already down since the tombstone; again for any posted while it committed
+        videoRepository.deactivateByIdIn(videoIds);
+        videoIds.forEach(videoId -> eventPublisher.publishEvent(new VideoRemovedEvent(videoId)));
+
+        Set<Long> scheduled = new HashSet<>(
+                deletionJobRepository.findExistingTargetIds(DeletionJob.TargetType.VIDEO, videoIds));
+        List<DeletionJob> children = new ArrayList<>();
+        for (Long videoId : videoIds) {
+            if (!scheduled.contains(videoId)) {
+                children.add(DeletionJob.builder()
+                        .targetType(DeletionJob.TargetType.VIDEO)
+                        .targetId(videoId)
+                        .stage(Stage.first(DeletionJob.TargetType.VIDEO))
+                        .build());
+            }
+        }
+        deletionJobRepository.saveAll(children);
+
+        job.advance(videoIds.get(videoIds.size() - 1), videoIds.size());
+        return videoIds.size();
+    }
+
+    // ----- Helpers -----
+
+    private static long afterCursor(DeletionJob job) {
+        return job.getCursor() != null ? job.getCursor() : 0L;
+    }
+
+    private static List<Long> ids(List<RowRef> refs) {
+        return map(refs, RowRef::id);
+    }
+
+    private static List<Long> refIds(List<RowRef> refs) {
+        return map(refs, RowRef::refId);
+    }
+
+    private static long lastId(List<RowRef> refs) {
+        return refs.get(refs.size() - 1).id();
+    }
+
+    private static List<Long> map(List<RowRef> refs, Function<RowRef, Long> field) {
+        List<Long> values = new ArrayList<>(refs.size());
+        for (RowRef ref : refs) {
+            values.add(field.apply(ref));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ttlikeapp.service;
+
+/**
+ * Deletion Service - Tombstone now, purge dependents in the background
+ *
+ * Callers get an immediate answer: the target disappears from every
+ * read path in the request transaction, while likes, comments, follows
+ * and child videos are purged later by DeletionWorker.
+ */
+public interface DeletionService {
+
+    /**
+     * Tombstone a video owned by the requester and schedule its purge
+     */
+    void deleteVideo(Long videoId, Long requesterId);
+
+    /**
+     * Tombstone a user account and schedule the purge of everything it owns
+     */
+    void deleteUser(Long userId);
+}
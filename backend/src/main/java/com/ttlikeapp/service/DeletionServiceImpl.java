@@ -0,0 +1,100 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.DeletionJob;
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.event.VideoRemovedEvent;
+import com.ttlikeapp.repository.DeletionJobRepository;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Default DeletionService implementation
+ *
+ * Tombstones use bulk updates so neither the video nor the user entity
+ * ever initializes its cascaded collections. A user's tombstone takes
+ * their videos down with it, in keyset chunks, so nothing they posted
+ * stays in feeds or search while the purge works through their rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeletionServiceImpl implements DeletionService {
+
+    private final VideoRepository videoRepository;
+    private final UserRepository userRepository;
+    private final DeletionJobRepository deletionJobRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${deletion.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    @Transactional
+    public void deleteVideo(Long videoId, Long requesterId) {
+        Video video = videoRepository.findById(videoId)
+                .filter(Video::getActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+
+        Long ownerId = video.getUser().getId();
+        if (!ownerId.equals(requesterId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only the owner can delete this video");
+        }
+
+        videoRepository.deactivateByIdIn(List.of(videoId));
+        eventPublisher.publishEvent(new VideoRemovedEvent(videoId));
+        userRepository.decrementVideosCount(ownerId);
+        if (video.getLikesCount() > 0) {
+            userRepository.subtractTotalLikes(ownerId, video.getLikesCount());
+        }
+
+        enqueue(DeletionJob.TargetType.VIDEO, videoId);
+        log.info("Video {} tombstoned, purge scheduled", videoId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .filter(User::getActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        user.softDelete();
+
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        long afterId = 0;
+        List<Long> videoIds;
+        while (!(videoIds = videoRepository.findIdsByUserIdAfter(userId, afterId, chunk)).isEmpty()) {
+            videoRepository.deactivateByIdIn(videoIds);
+            videoIds.forEach(videoId -> eventPublisher.publishEvent(new VideoRemovedEvent(videoId)));
+            afterId = videoIds.get(videoIds.size() - 1);
+        }
+
+        enqueue(DeletionJob.TargetType.USER, userId);
+        log.info("User {} tombstoned, purge scheduled", userId);
+    }
+
+    private void enqueue(DeletionJob.TargetType targetType, Long targetId) {
+        if (deletionJobRepository.existsByTargetTypeAndTargetId(targetType, targetId)) {
+            return;
+        }
+
+        deletionJobRepository.save(DeletionJob.builder()
+                .targetType(targetType)
+                .targetId(targetId)
+                .stage(DeletionJob.Stage.first(targetType))
+                .build());
+    }
+}
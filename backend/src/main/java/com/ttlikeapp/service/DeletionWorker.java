@@ -0,0 +1,112 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.DeletionJob;
+import com.ttlikeapp.repository.DeletionJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletion Worker - Background driver for DeletionJob rows
+ *
+ * Throttling:
+ * - At most max-chunks-per-tick chunks per poll, shared by all jobs
+ * - chunk-pause-ms sleep between chunks so purges never monopolize
+ *   the connection pool or hold locks back to back
+ *
+ * Metrics:
+ * - deletion.rows.purged{stage}   rows removed or soft-deleted
+ * - deletion.jobs.completed{type} finished jobs
+ * - deletion.jobs.failed          chunk failures (retried up to max-attempts)
+ * - deletion.jobs.pending         gauge, refreshed every poll
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeletionWorker {
+
+    private final DeletionJobRepository deletionJobRepository;
+    private final DeletionJobProcessor processor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${deletion.jobs-per-tick:10}")
+    private int jobsPerTick;
+
+    @Value("${deletion.max-chunks-per-tick:20}")
+    private int maxChunksPerTick;
+
+    @Value("${deletion.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    private final AtomicLong pendingJobs = new AtomicLong();
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("deletion.jobs.pending", pendingJobs, AtomicLong::get)
+                .description("Deletion jobs waiting for or in the middle of a purge")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${deletion.poll-interval-ms:1000}")
+    public void run() {
+        pendingJobs.set(deletionJobRepository.countByStatus(DeletionJob.Status.PENDING));
+        List<Long> jobIds = deletionJobRepository.findPendingIds(PageRequest.of(0, jobsPerTick));
+
+        int budget = maxChunksPerTick;
+        for (Long jobId : jobIds) {
+            while (budget > 0) {
+                budget--;
+                DeletionJobProcessor.ChunkResult result;
+                try {
+                    result = processor.processNextChunk(jobId);
+                } catch (ObjectOptimisticLockingFailureException e) {
+                    log.debug("Deletion job {} is being processed elsewhere", jobId);
+                    break;
+                } catch (Exception e) {
+                    log.warn("Deletion job {} chunk failed: {}", jobId, e.getMessage());
+                    meterRegistry.counter("deletion.jobs.failed").increment();
+                    processor.recordFailure(jobId, e);
+                    break;
+                }
+
+                if (result.stage() != null && result.rows() > 0) {
+                    meterRegistry.counter("deletion.rows.purged", "stage", result.stage().name())
+                            .increment(result.rows());
+                }
+                if (result.finished()) {
+                    if (result.targetType() != null) {
+                        meterRegistry.counter("deletion.jobs.completed", "type", result.targetType().name())
+                                .increment();
+                    }
+                    break;
+                }
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean pause() {
+        if (chunkPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
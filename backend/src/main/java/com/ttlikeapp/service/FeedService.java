@@ -0,0 +1,21 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.FeedRequest;
+import com.ttlikeapp.dto.response.VideoFeedResponse;
+
+/**
+ * Feed Service - "For You" and "Following" video feeds
+ */
+public interface FeedService {
+
+    /**
+     * Ranked feed (discover for signed-in users, popular otherwise);
+     * sortBy and hashtag select the alternative sources
+     */
+    VideoFeedResponse getForYouFeed(Long viewerId, FeedRequest request);
+
+    /**
+     * Newest videos from accounts the viewer follows
+     */
+    VideoFeedResponse getFollowingFeed(Long viewerId, FeedRequest request);
+}
@@ -0,0 +1,121 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.FeedRequest;
+import com.ttlikeapp.dto.response.VideoFeedResponse;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.service.HashtagIndexService.MatchMode;
+import com.ttlikeapp.util.BackfillingPager;
+import com.ttlikeapp.util.KeysetCursor;
+import com.ttlikeapp.util.RankCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Default FeedService implementation
+ *
+ * Pipeline: candidate query (keyset windows) -> block/mute post-filter ->
+ * backfill until the page is full (VideoPageAssembler). Hidden authors never
+ * reach the SQL; the viewer's filter comes from BlockFilterService's bitmap cache.
+ * Hashtag feeds are answered by SearchService from the in-memory index.
+ *
+ * Cursors are keyset positions, so videos posted while a client pages
+ * never shift later pages: (createdAt, id) for the chronological feeds,
+ * (score, id) for the ranked ones (RankCursor; trending scores are
+ * decayed as of the first page).
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedServiceImpl implements FeedService {
+
+    private final VideoRepository videoRepository;
+    private final VideoPageAssembler pageAssembler;
+    private final SearchService searchService;
+
+    @Value("${feed.algorithm.trending-window-days:7}")
+    private int trendingWindowDays;
+
+    @Override
+    @Transactional(readOnly = true)
+    public VideoFeedResponse getForYouFeed(Long viewerId, FeedRequest request) {
+        if (request.getHashtag() != null && !request.getHashtag().isBlank()) {
+            return searchService.searchHashtags(viewerId, List.of(request.getHashtag()), MatchMode.ALL, request);
+        }
+        return forYou(viewerId, request);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VideoFeedResponse getFollowingFeed(Long viewerId, FeedRequest request) {
+        BackfillingPager.Source<Video> source = BackfillingPager.keyset(
+                (KeysetCursor after, int limit) -> after == null
+                        ? videoRepository.findFollowingFeed(viewerId, PageRequest.of(0, limit)).getContent()
+                        : videoRepository.findFollowingFeedBefore(viewerId, after.createdAt(), after.id(),
+                                PageRequest.of(0, limit)),
+                KeysetCursor::decode, FeedServiceImpl::chronological);
+        return pageAssembler.assemble(source, viewerId, request, "FOLLOWING");
+    }
+
+    private VideoFeedResponse forYou(Long viewerId, FeedRequest request) {
+        String sortBy = request.getSortBy() != null ? request.getSortBy().toLowerCase(Locale.ROOT) : "";
+        LocalDateTime now = LocalDateTime.now();
+        return switch (sortBy) {
+            case "recent" -> pageAssembler.assemble(BackfillingPager.keyset(
+                    (KeysetCursor after, int limit) -> after == null
+                            ? videoRepository.findRecent(PageRequest.of(0, limit)).getContent()
+                            : videoRepository.findRecentBefore(after.createdAt(), after.id(), PageRequest.of(0, limit)),
+                    KeysetCursor::decode, FeedServiceImpl::chronological), viewerId, request, "FOR_YOU");
+            case "trending" -> pageAssembler.assemble(BackfillingPager.keyset(
+                    (RankCursor after, int limit) -> {
+                        LocalDateTime asOf = after == null ? now : after.asOf();
+                        LocalDateTime since = asOf.minusDays(trendingWindowDays);
+                        return ranked(after == null
+                                ? videoRepository.findTrending(since, asOf, PageRequest.of(0, limit))
+                                : videoRepository.findTrendingBefore(since, asOf, after.score(), after.id(),
+                                        PageRequest.of(0, limit)), asOf);
+                    },
+                    RankCursor::decode, Ranked::cursor), Ranked::video, viewerId, request, "FOR_YOU");
+            default -> viewerId != null && !sortBy.equals("popular")
+                    ? pageAssembler.assemble(BackfillingPager.keyset(
+                            (RankCursor after, int limit) -> after == null
+                                    ? videoRepository.findDiscoverFeed(viewerId, PageRequest.of(0, limit)).getContent()
+                                    : videoRepository.findDiscoverFeedBefore(viewerId, after.score(), after.id(),
+                                            PageRequest.of(0, limit)),
+                            RankCursor::decode,
+                            (Video video) -> new RankCursor(video.getEngagementScore(), video.getId(), now).encode()),
+                            viewerId, request, "FOR_YOU")
+                    : pageAssembler.assemble(BackfillingPager.keyset(
+                            (RankCursor after, int limit) -> ranked(after == null
+                                    ? videoRepository.findPopular(PageRequest.of(0, limit))
+                                    : videoRepository.findPopularBefore(after.score(), after.id(),
+                                            PageRequest.of(0, limit)), now),
+                            RankCursor::decode, Ranked::cursor), Ranked::video, viewerId, request, "FOR_YOU");
+        };
+    }
+
+    /**
+     * A ranked feed row: the video and the score the database ordered it by
+     */
+    private record Ranked(Video video, double score, LocalDateTime asOf) {
+        String cursor() {
+            return new RankCursor(score, video.getId(), asOf).encode();
+        }
+    }
+
+    private static List<Ranked> ranked(List<Object[]> rows, LocalDateTime asOf) {
+        return rows.stream()
+                .map(row -> new Ranked((Video) row[0], ((Number) row[1]).doubleValue(), asOf))
+                .toList();
+    }
+
+    private static String chronological(Video video) {
+        return new KeysetCursor(video.getCreatedAt(), video.getId()).encode();
+    }
+}
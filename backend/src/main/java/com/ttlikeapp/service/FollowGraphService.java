@@ -0,0 +1,276 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.event.FollowChangedEvent;
+import com.ttlikeapp.repository.FollowRepository;
+import com.ttlikeapp.repository.projection.FollowEdge;
+import com.ttlikeapp.util.SortedLongArrays;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Follow Graph Service - In-memory adjacency for the follows table
+ *
+ * Layout:
+ * - Both directions kept as sorted long[] per user (followees, followers)
+ * - Arrays are copy-on-write: a follow/unfollow swaps in a new array via
+ *   ConcurrentHashMap.compute, so readers never lock
+ *
+ * Lifecycle:
+ * - Built after startup from one streaming scan of follows
+ * - Kept current from FollowChangedEvent after commit; edges that change
+ *   while the scan is running are queued and replayed after the swap
+ * - Until the first build finishes, lookups fall back to the database
+ */
+@Service
+@Slf4j
+public class FollowGraphService {
+
+    private final FollowRepository followRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${follow-graph.enabled:true}")
+    private boolean enabled;
+
+    private volatile Map<Long, long[]> followees = new ConcurrentHashMap<>();
+    private volatile Map<Long, long[]> followers = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Guarded by this: while building, changes are queued instead of applied
+    private boolean building;
+    private final List<FollowChangedEvent> pendingChanges = new ArrayList<>();
+
+    private final AtomicLong edgeCount = new AtomicLong();
+
+    public FollowGraphService(FollowRepository followRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.followRepository = followRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+
+        Gauge.builder("follow.graph.edges", edgeCount, AtomicLong::get)
+                .description("Follow edges held in memory")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread.ofPlatform().name("follow-graph-loader").daemon().start(this::rebuild);
+        }
+    }
+
+    // ----- Queries -----
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Is A following B?
+     */
+    public boolean isFollowing(Long followerId, Long followingId) {
+        if (!ready) {
+            return followRepository.existsByFollowerIdAndFollowingId(followerId, followingId);
+        }
+        return SortedLongArrays.contains(followees.get(followerId), followingId);
+    }
+
+    /**
+     * Users that A follows, ascending by ID (a copy)
+     */
+    public long[] followeesOf(Long userId) {
+        return followeesView(userId).clone();
+    }
+
+    /**
+     * Users following B, ascending by ID (a copy)
+     */
+    public long[] followersOf(Long userId) {
+        return followersView(userId).clone();
+    }
+
+    /**
+     * Users that A follows and who follow A back
+     */
+    public long[] mutualsOf(Long userId) {
+        return SortedLongArrays.intersect(followeesView(userId), followersView(userId));
+    }
+
+    public int followeeCount(Long userId) {
+        return followeesView(userId).length;
+    }
+
+    public int followerCount(Long userId) {
+        return followersView(userId).length;
+    }
+
+    /**
+     * Shared, read-only adjacency for in-package graph algorithms (no copy)
+     */
+    long[] followeesView(Long userId) {
+        long[] set = followees.get(userId);
+        return set != null ? set : SortedLongArrays.EMPTY;
+    }
+
+    long[] followersView(Long userId) {
+        long[] set = followers.get(userId);
+        return set != null ? set : SortedLongArrays.EMPTY;
+    }
+
+    // ----- Maintenance -----
+
+    // Runs before derived consumers (suggestions) so they read the updated edge
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            if (building) {
+                pendingChanges.add(event);
+                return;
+            }
+        }
+        apply(followees, followers, event);
+    }
+
+    /**
+     * Rebuild both directions from a streaming scan and swap them in
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (building) {
+                return;
+            }
+            building = true;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            Map<Long, long[]> newFollowees = new ConcurrentHashMap<>();
+            Map<Long, long[]> newFollowers = new ConcurrentHashMap<>();
+            long edges = readOnlyTx.execute(status -> load(newFollowees, newFollowers));
+
+            synchronized (this) {
+                for (FollowChangedEvent change : pendingChanges) {
+                    apply(newFollowees, newFollowers, change);
+                }
+                pendingChanges.clear();
+
+                followees = newFollowees;
+                followers = newFollowers;
+                edgeCount.set(edges);
+                ready = true;
+                building = false;
+            }
+
+            log.info("Follow graph loaded: {} edges, {} users in {} ms",
+                    edges, newFollowees.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                building = false;
+                pendingChanges.clear();
+            }
+            log.error("Failed to load follow graph, lookups stay on the database", e);
+        }
+    }
+
+    private long load(Map<Long, long[]> newFollowees, Map<Long, long[]> newFollowers) {
+        Map<Long, LongBuffer> incoming = new HashMap<>();
+        LongBuffer outgoing = new LongBuffer();
+        long currentFollower = Long.MIN_VALUE;
+        long edges = 0;
+
+        try (Stream<FollowEdge> stream = followRepository.streamAllEdges()) {
+            for (FollowEdge edge : (Iterable<FollowEdge>) stream::iterator) {
+                long follower = edge.followerId();
+                long following = edge.followingId();
+
+                // Rows arrive grouped by follower, followees already sorted
+                if (follower != currentFollower) {
+                    if (outgoing.size > 0) {
+                        newFollowees.put(currentFollower, outgoing.toSet());
+                    }
+                    outgoing.clear();
+                    currentFollower = follower;
+                }
+                outgoing.add(following);
+                incoming.computeIfAbsent(following, id -> new LongBuffer()).add(follower);
+                edges++;
+            }
+        }
+        if (outgoing.size > 0) {
+            newFollowees.put(currentFollower, outgoing.toSet());
+        }
+
+        incoming.forEach((userId, buffer) -> newFollowers.put(userId, buffer.toSet()));
+        return edges;
+    }
+
+    private void apply(Map<Long, long[]> followeeMap, Map<Long, long[]> followerMap, FollowChangedEvent event) {
+        long follower = event.followerId();
+        long following = event.followingId();
+
+        if (event.following()) {
+            long[] before = followeeMap.get(follower);
+            long[] after = followeeMap.compute(follower, (id, set) -> SortedLongArrays.insert(set, following));
+            followerMap.compute(following, (id, set) -> SortedLongArrays.insert(set, follower));
+            if (before != after) {
+                edgeCount.incrementAndGet();
+            }
+        } else {
+            long[] before = followeeMap.get(follower);
+            long[] after = followeeMap.computeIfPresent(follower, (id, set) -> SortedLongArrays.remove(set, following));
+            followerMap.computeIfPresent(following, (id, set) -> SortedLongArrays.remove(set, follower));
+            if (before != null && before != after) {
+                edgeCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Growable primitive buffer used while loading
+     */
+    private static final class LongBuffer {
+
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        long[] toSet() {
+            return SortedLongArrays.toSet(values.clone(), size);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.response.CursorPage;
+import com.ttlikeapp.dto.response.UserSummaryResponse;
+
+/**
+ * Follow Service - Follow/unfollow between users
+ */
+public interface FollowService {
+
+    /**
+     * Follow a user (no-op if already following)
+     */
+    void follow(Long followerId, Long followingId);
+
+    /**
+     * Unfollow a user (no-op if not following)
+     */
+    void unfollow(Long followerId, Long followingId);
+
+    /**
+     * Users following userId, newest first, one keyset page at a time
+     */
+    CursorPage<UserSummaryResponse> getFollowers(Long viewerId, Long userId, String cursor, int size);
+
+    /**
+     * Users that userId follows, newest first, one keyset page at a time
+     */
+    CursorPage<UserSummaryResponse> getFollowing(Long viewerId, Long userId, String cursor, int size);
+}
@@ -0,0 +1,160 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.response.CursorPage;
+import com.ttlikeapp.dto.response.UserSummaryResponse;
+import com.ttlikeapp.entity.Follow;
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.event.FollowChangedEvent;
+import com.ttlikeapp.repository.FollowRepository;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.projection.FollowListEntry;
+import com.ttlikeapp.util.KeysetCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Default FollowService implementation
+ *
+ * Edges are written through FollowRepository and counters through bulk
+ * updates; FollowChangedEvent keeps in-memory consumers (follow graph)
+ * current once the transaction commits.
+ *
+ * follow() is idempotent under concurrency: when two requests both pass
+ * the existence check, the unique (follower, following) constraint
+ * rejects the second insert and its transaction rolls back whole,
+ * counters and event included, so a double tap counts once.
+ *
+ * Follower/following lists are keyset pages over (created_at, id): each
+ * request reads size + 1 projection rows, whatever the account size.
+ */
+@Service
+@Slf4j
+public class FollowServiceImpl implements FollowService {
+
+    private final FollowRepository followRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate tx;
+
+    public FollowServiceImpl(FollowRepository followRepository,
+                             UserRepository userRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
+        this.followRepository = followRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void follow(Long followerId, Long followingId) {
+        if (followerId.equals(followingId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot follow yourself");
+        }
+
+        try {
+            tx.executeWithoutResult(status -> insertFollow(followerId, followingId));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent follow of the same user committed first
+            log.debug("User {} already follows {}", followerId, followingId);
+        }
+    }
+
+    private void insertFollow(Long followerId, Long followingId) {
+        User target = userRepository.findById(followingId)
+                .filter(User::getActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        if (followRepository.existsByFollowerIdAndFollowingId(followerId, followingId)) {
+            return;
+        }
+
+        followRepository.saveAndFlush(new Follow(userRepository.getReferenceById(followerId), target));
+        userRepository.incrementFollowersCount(followingId);
+        userRepository.incrementFollowingCount(followerId);
+
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followingId, true));
+        log.debug("User {} followed {}", followerId, followingId);
+    }
+
+    @Override
+    @Transactional
+    public void unfollow(Long followerId, Long followingId) {
+        if (followRepository.deleteEdge(followerId, followingId) == 0) {
+            return;
+        }
+
+        userRepository.decrementFollowersCount(followingId);
+        userRepository.decrementFollowingCount(followerId);
+
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followingId, false));
+        log.debug("User {} unfollowed {}", followerId, followingId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummaryResponse> getFollowers(Long viewerId, Long userId, String cursor, int size) {
+        checkListVisible(viewerId, userId);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<FollowListEntry> entries = position == null
+                ? followRepository.findFollowerEntries(userId, limit)
+                : followRepository.findFollowerEntriesBefore(userId, position.createdAt(), position.id(), limit);
+        return toPage(entries, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummaryResponse> getFollowing(Long viewerId, Long userId, String cursor, int size) {
+        checkListVisible(viewerId, userId);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<FollowListEntry> entries = position == null
+                ? followRepository.findFollowingEntries(userId, limit)
+                : followRepository.findFollowingEntriesBefore(userId, position.createdAt(), position.id(), limit);
+        return toPage(entries, size);
+    }
+
+    /**
+     * Private accounts only show their lists to themselves and their followers
+     */
+    private void checkListVisible(Long viewerId, Long userId) {
+        User user = userRepository.findById(userId)
+                .filter(User::getActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        if (user.getPrivateAccount() && !userId.equals(viewerId)
+                && !followRepository.existsByFollowerIdAndFollowingId(viewerId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "This account is private");
+        }
+    }
+
+    private CursorPage<UserSummaryResponse> toPage(List<FollowListEntry> entries, int size) {
+        boolean hasMore = entries.size() > size;
+        List<FollowListEntry> page = hasMore ? entries.subList(0, size) : entries;
+
+        String nextCursor = null;
+        if (hasMore) {
+            FollowListEntry last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.followedAt(), last.followId()).encode();
+        }
+
+        return CursorPage.<UserSummaryResponse>builder()
+                .content(page.stream().map(UserSummaryResponse::from).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+}
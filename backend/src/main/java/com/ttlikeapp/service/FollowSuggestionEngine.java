@@ -0,0 +1,212 @@
+package com.ttlikeapp.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.ttlikeapp.event.FollowChangedEvent;
+import com.ttlikeapp.util.SortedLongArrays;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follow Suggestion Engine - Friends-of-friends ranking over the follow graph
+ *
+ * Scoring:
+ * - Candidates are users followed by the people A follows (second degree),
+ *   excluding A and anyone A already follows
+ * - score = sharedFollowees * ln(1 + followerCount), so a candidate reached
+ *   through several of A's followees outranks a merely popular one
+ *
+ * Execution:
+ * - A's followees are split across a dedicated ForkJoin pool, each leaf
+ *   counting candidates into its own map; maps are merged on the way up
+ * - Very large followee lists (hubs) are stride-sampled to max-fanout
+ * - The top-N result is cached per user and recomputed in the background
+ *   when that user follows or unfollows someone
+ */
+@Service
+@Slf4j
+public class FollowSuggestionEngine {
+
+    private static final int SEQUENTIAL_THRESHOLD = 32;
+
+    private final FollowGraphService followGraph;
+    private final ForkJoinPool pool;
+    private final Cache<Long, List<Candidate>> topCandidates;
+    private final Set<Long> pendingRefresh = ConcurrentHashMap.newKeySet();
+
+    @Value("${suggestions.top-n:50}")
+    private int topN;
+
+    @Value("${suggestions.max-fanout:2000}")
+    private int maxFanout;
+
+    public FollowSuggestionEngine(FollowGraphService followGraph,
+                                  @Value("${suggestions.parallelism:0}") int parallelism,
+                                  @Value("${suggestions.cache-size:10000}") long cacheSize,
+                                  @Value("${suggestions.cache-ttl-minutes:30}") long cacheTtlMinutes) {
+        this.followGraph = followGraph;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.topCandidates = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtlMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Ranked candidates for a user, best first (empty until the graph is loaded)
+     */
+    public List<Candidate> candidatesFor(Long userId) {
+        if (!followGraph.isReady()) {
+            return List.of();
+        }
+
+        List<Candidate> cached = topCandidates.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Candidate> computed = pool.invoke(new RankTask(userId));
+        topCandidates.put(userId, computed);
+        return computed;
+    }
+
+    /**
+     * Recompute a user's list after their own follows change.
+     * Users without a cached list are computed lazily on their next request.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        Long userId = event.followerId();
+        if (topCandidates.getIfPresent(userId) == null || !pendingRefresh.add(userId)) {
+            return;
+        }
+
+        pool.execute(() -> {
+            pendingRefresh.remove(userId);
+            try {
+                topCandidates.put(userId, new RankTask(userId).compute());
+            } catch (RuntimeException e) {
+                topCandidates.invalidate(userId);
+                log.warn("Failed to refresh suggestions for user {}", userId, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Counts, excludes and selects the top-N for one user
+     */
+    private final class RankTask extends RecursiveTask<List<Candidate>> {
+
+        private final long userId;
+
+        RankTask(long userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        protected List<Candidate> compute() {
+            long[] followees = followGraph.followeesView(userId);
+            if (followees.length == 0) {
+                return List.of();
+            }
+
+            Map<Long, int[]> shared = new CountTask(followees, 0, followees.length).invoke();
+
+            PriorityQueue<Candidate> top = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+            shared.forEach((candidateId, count) -> {
+                if (candidateId == userId || SortedLongArrays.contains(followees, candidateId)) {
+                    return;
+                }
+
+                int followers = followGraph.followerCount(candidateId);
+                Candidate candidate = new Candidate(candidateId, count[0], count[0] * Math.log1p(followers));
+                if (top.size() < topN) {
+                    top.add(candidate);
+                } else if (candidate.score() > top.peek().score()) {
+                    top.poll();
+                    top.add(candidate);
+                }
+            });
+
+            List<Candidate> ranked = new ArrayList<>(top);
+            ranked.sort(Comparator.comparingDouble(Candidate::score).reversed());
+            return List.copyOf(ranked);
+        }
+    }
+
+    /**
+     * Shared-followee counts for candidates reachable through followees[from, to)
+     */
+    private final class CountTask extends RecursiveTask<Map<Long, int[]>> {
+
+        private final long[] followees;
+        private final int from;
+        private final int to;
+
+        CountTask(long[] followees, int from, int to) {
+            this.followees = followees;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, int[]> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return countSequentially();
+            }
+
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(followees, from, mid);
+            left.fork();
+            Map<Long, int[]> right = new CountTask(followees, mid, to).compute();
+            return merge(left.join(), right);
+        }
+
+        private Map<Long, int[]> countSequentially() {
+            Map<Long, int[]> counts = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                long[] secondDegree = followGraph.followeesView(followees[i]);
+                int step = Math.max(1, (secondDegree.length + maxFanout - 1) / maxFanout);
+                for (int j = 0; j < secondDegree.length; j += step) {
+                    counts.computeIfAbsent(secondDegree[j], id -> new int[1])[0]++;
+                }
+            }
+            return counts;
+        }
+
+        private Map<Long, int[]> merge(Map<Long, int[]> a, Map<Long, int[]> b) {
+            Map<Long, int[]> into = a.size() >= b.size() ? a : b;
+            Map<Long, int[]> from = into == a ? b : a;
+            from.forEach((id, count) -> into.merge(id, count, (x, y) -> {
+                x[0] += y[0];
+                return x;
+            }));
+            return into;
+        }
+    }
+
+    /**
+     * A ranked suggestion: how many of the user's followees follow it, and its score
+     */
+    public record Candidate(long userId, int sharedFollowees, double score) {}
+}
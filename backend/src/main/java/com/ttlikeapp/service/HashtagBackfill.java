@@ -0,0 +1,129 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.event.VideoUpsertedEvent;
+import com.ttlikeapp.repository.VideoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hashtag Backfill - Links videos stored before hashtags/video_hashtag
+ *
+ * Videos whose caption carries tags but that have no video_hashtag rows
+ * (everything written under the old video_hashtags string collection) get
+ * HashtagService.syncHashtags, batch-size videos per transaction in ID
+ * order. Linked videos drop out of the candidate query, so a pass cut short
+ * by a restart resumes on the next startup and a finished one only reads.
+ *
+ * Each committed batch's visible videos are handed to HashtagIndexService
+ * like live upserts (queued if it is still loading), so backfilled videos
+ * become searchable without waiting for the nightly rebuild. Usage counts
+ * are set as links are written; autocomplete picks them up on its next
+ * rebuild.
+ *
+ * Runs once per startup when enabled, in the background.
+ * Metric: hashtags.backfill.linked.
+ */
+@Component
+@Slf4j
+public class HashtagBackfill {
+
+    private final VideoRepository videoRepository;
+    private final HashtagService hashtagService;
+    private final HashtagIndexService hashtagIndex;
+    private final TransactionTemplate tx;
+    private final Counter linkedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${hashtags.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hashtags.backfill.batch-size:200}")
+    private int batchSize;
+
+    public HashtagBackfill(VideoRepository videoRepository,
+                           HashtagService hashtagService,
+                           HashtagIndexService hashtagIndex,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.videoRepository = videoRepository;
+        this.hashtagService = hashtagService;
+        this.hashtagIndex = hashtagIndex;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.linkedCounter = Counter.builder("hashtags.backfill.linked")
+                .description("Videos given hashtag links by the backfill")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (enabled) {
+            Thread.ofPlatform().name("hashtag-backfill").daemon().start(this::backfill);
+        }
+    }
+
+    /**
+     * One pass over unlinked videos; returns how many were linked, or -1 if
+     * a pass is already running or this one failed
+     */
+    public long backfill() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            long linked = 0;
+            long cursor = 0;
+            while (true) {
+                List<Long> ids = videoRepository.findIdsMissingHashtagsAfter(cursor, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                cursor = ids.get(ids.size() - 1);
+
+                List<VideoUpsertedEvent> indexed = tx.execute(status -> link(ids));
+                indexed.forEach(hashtagIndex::onVideoUpserted);
+                linked += ids.size();
+                linkedCounter.increment(ids.size());
+                log.info("Hashtag backfill: linked {} videos (up to ID {})", linked, cursor);
+            }
+            if (linked > 0) {
+                log.info("Hashtag backfill finished: linked {} videos", linked);
+            }
+            return linked;
+        } catch (RuntimeException e) {
+            log.error("Hashtag backfill stopped, the next startup resumes it", e);
+            return -1;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Link a batch; returns index events for its publicly visible videos
+     */
+    private List<VideoUpsertedEvent> link(List<Long> ids) {
+        List<VideoUpsertedEvent> indexed = new ArrayList<>();
+        for (Video video : videoRepository.findAllById(ids)) {
+            hashtagService.syncHashtags(video);
+            Set<String> hashtags = video.getHashtags();
+            if (video.isPubliclyVisible() && !hashtags.isEmpty()) {
+                indexed.add(new VideoUpsertedEvent(video.getId(), video.getCreatedAt(), video.getCaption(),
+                        video.getEngagementScore(), hashtags, hashtags, Set.of()));
+            }
+        }
+        return indexed;
+    }
+}
@@ -0,0 +1,657 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.event.VideoRemovedEvent;
+import com.ttlikeapp.event.VideoUpsertedEvent;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.repository.projection.HashtagPosting;
+import com.ttlikeapp.util.PostingList;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Hashtag Index Service - In-memory inverted index from hashtag to videos
+ *
+ * Layout (per tag):
+ * - base: delta-encoded PostingList of (createdAt millis, videoId), newest first
+ * - tail: small sorted arrays of keys added since the last compaction,
+ *   merged into base once they reach tail-limit
+ * - Both are immutable and swapped via ConcurrentHashMap.compute
+ *
+ * Removals (deleted, hidden, un-approved videos) go to a tombstone set that
+ * readers skip; the periodic rebuild drops them from the postings.
+ *
+ * Queries walk the postings directly: ALL is a leapfrog intersection using
+ * each list's skip index, ANY a k-way merge. Only public, active, approved
+ * videos are indexed, so hits need no further visibility check beyond
+ * tombstone lag.
+ */
+@Service
+@Slf4j
+public class HashtagIndexService {
+
+    private final VideoRepository videoRepository;
+    private final TransactionTemplate readOnlyTx;
+
+    @Value("${hashtag-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hashtag-index.tail-limit:128}")
+    private int tailLimit;
+
+    private volatile Map<String, TagPostings> postings = new ConcurrentHashMap<>();
+    private volatile Set<Long> removedVideoIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    // Guarded by this: while building, changes are queued instead of applied
+    private boolean building;
+    private final List<Object> pendingChanges = new ArrayList<>();
+
+    public HashtagIndexService(VideoRepository videoRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.videoRepository = videoRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+
+        Gauge.builder("hashtag.index.tags", this, index -> index.postings.size())
+                .description("Hashtags held in the inverted index")
+                .register(meterRegistry);
+        Gauge.builder("hashtag.index.tombstones", this, index -> index.removedVideoIds.size())
+                .description("Removed videos awaiting the next rebuild")
+                .register(meterRegistry);
+    }
+
+    public enum MatchMode {
+        ALL,
+        ANY
+    }
+
+    /**
+     * A hit and its position in list order (createdAt millis, video ID)
+     */
+    public record Hit(long time, long videoId) {
+
+        public static Hit of(LocalDateTime createdAt, long videoId) {
+            return new Hit(timeKey(createdAt), videoId);
+        }
+
+        public LocalDateTime createdAt() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread.ofPlatform().name("hashtag-index-loader").daemon().start(this::rebuild);
+        }
+    }
+
+    /**
+     * Periodic rebuild drops tombstones and re-compacts every tag
+     */
+    @Scheduled(cron = "${hashtag-index.rebuild-cron:0 30 4 * * *}")
+    public void scheduledRebuild() {
+        if (enabled && ready) {
+            rebuild();
+        }
+    }
+
+    // ----- Queries -----
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Normalize user input ("#Cats" -> "cats")
+     */
+    public static String normalize(String tag) {
+        String trimmed = tag.trim();
+        return (trimmed.startsWith("#") ? trimmed.substring(1) : trimmed).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Number of indexed videos for a tag (including not-yet-purged tombstones)
+     */
+    public int count(String tag) {
+        TagPostings tagPostings = postings.get(normalize(tag));
+        return tagPostings != null ? tagPostings.size() : 0;
+    }
+
+    /**
+     * Videos carrying all/any of the tags, newest first, strictly after the
+     * given hit (null: from the newest). Resuming seeks through each list's
+     * skip index, so a deep page costs what the first one does.
+     */
+    public List<Hit> query(Collection<String> tags, MatchMode mode, Hit after, int limit) {
+        List<TagCursor> cursors = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            TagPostings tagPostings = postings.get(normalize(tag));
+            if (tagPostings == null) {
+                if (mode == MatchMode.ALL) {
+                    return List.of();
+                }
+                continue;
+            }
+            cursors.add(new TagCursor(tagPostings, removedVideoIds));
+        }
+        if (cursors.isEmpty()) {
+            return List.of();
+        }
+
+        KeyCursor matches = mode == MatchMode.ALL ? new IntersectionCursor(cursors) : new UnionCursor(cursors);
+        boolean has;
+        if (after == null) {
+            has = matches.next();
+        } else {
+            has = matches.advanceTo(after.time(), after.videoId());
+            if (has && matches.time() == after.time() && matches.id() == after.videoId()) {
+                has = matches.next();
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(limit);
+        while (has && hits.size() < limit) {
+            hits.add(new Hit(matches.time(), matches.id()));
+            has = hits.size() < limit && matches.next();
+        }
+        return hits;
+    }
+
+    // ----- Maintenance -----
+
+    // First, so caches in front of the index invalidate after the postings change
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onVideoUpserted(VideoUpsertedEvent event) {
+        if (enabled && !queueIfBuilding(event)) {
+            apply(postings, removedVideoIds, event);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoRemoved(VideoRemovedEvent event) {
+        if (enabled && !queueIfBuilding(event)) {
+            removedVideoIds.add(event.videoId());
+        }
+    }
+
+    /**
+     * Rebuild every tag from a streaming scan and swap it in
+     */
+    public void rebuild() {
+        synchronized (this) {
+            if (building) {
+                return;
+            }
+            building = true;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            Map<String, TagPostings> newPostings = new ConcurrentHashMap<>();
+            long count = readOnlyTx.execute(status -> load(newPostings));
+            Set<Long> newRemoved = ConcurrentHashMap.newKeySet();
+
+            synchronized (this) {
+                for (Object change : pendingChanges) {
+                    if (change instanceof VideoUpsertedEvent upserted) {
+                        apply(newPostings, newRemoved, upserted);
+                    } else if (change instanceof VideoRemovedEvent removed) {
+                        newRemoved.add(removed.videoId());
+                    }
+                }
+                pendingChanges.clear();
+
+                postings = newPostings;
+                removedVideoIds = newRemoved;
+                ready = true;
+                building = false;
+            }
+
+            log.info("Hashtag index loaded: {} postings across {} tags in {} ms",
+                    count, newPostings.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                building = false;
+                pendingChanges.clear();
+            }
+            log.error("Failed to build hashtag index, hashtag queries stay on the database", e);
+        }
+    }
+
+    private synchronized boolean queueIfBuilding(Object change) {
+        if (building) {
+            pendingChanges.add(change);
+        }
+        return building;
+    }
+
+    private long load(Map<String, TagPostings> newPostings) {
+        String currentTag = null;
+        PostingList.Builder builder = null;
+        long count = 0;
+
+        try (Stream<HashtagPosting> stream = videoRepository.streamHashtagPostings()) {
+            for (HashtagPosting posting : (Iterable<HashtagPosting>) stream::iterator) {
+                // Rows arrive grouped by tag, newest first within a tag
+                if (!posting.hashtag().equals(currentTag)) {
+                    if (builder != null) {
+                        newPostings.put(currentTag, new TagPostings(builder.build()));
+                    }
+                    currentTag = posting.hashtag();
+                    builder = new PostingList.Builder();
+                }
+                builder.add(timeKey(posting.createdAt()), posting.videoId());
+                count++;
+            }
+        }
+        if (builder != null) {
+            newPostings.put(currentTag, new TagPostings(builder.build()));
+        }
+        return count;
+    }
+
+    private void apply(Map<String, TagPostings> target, Set<Long> removed, VideoUpsertedEvent event) {
+        long time = timeKey(event.createdAt());
+        long videoId = event.videoId();
+
+        for (String tag : event.removedHashtags()) {
+            target.computeIfPresent(tag, (key, tagPostings) -> tagPostings.without(videoId, removed));
+        }
+        removed.remove(videoId);
+        for (String tag : event.hashtags()) {
+            target.compute(tag, (key, tagPostings) -> {
+                TagPostings current = tagPostings != null ? tagPostings : TagPostings.EMPTY;
+                TagPostings updated = current.with(time, videoId);
+                return updated.tailSize() >= tailLimit ? updated.compact(removed) : updated;
+            });
+        }
+    }
+
+    private static long timeKey(LocalDateTime createdAt) {
+        return createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Immutable postings for one tag: encoded base plus a small sorted tail
+     */
+    private record TagPostings(PostingList base, long[] tailTimes, long[] tailIds) {
+
+        static final TagPostings EMPTY = new TagPostings(PostingList.EMPTY);
+
+        TagPostings(PostingList base) {
+            this(base, new long[0], new long[0]);
+        }
+
+        int size() {
+            return base.size() + tailIds.length;
+        }
+
+        int tailSize() {
+            return tailIds.length;
+        }
+
+        TagPostings with(long time, long videoId) {
+            int position = insertionPoint(time, videoId);
+            if (position < 0) {
+                return this;
+            }
+
+            long[] times = new long[tailTimes.length + 1];
+            long[] ids = new long[tailIds.length + 1];
+            System.arraycopy(tailTimes, 0, times, 0, position);
+            System.arraycopy(tailIds, 0, ids, 0, position);
+            times[position] = time;
+            ids[position] = videoId;
+            System.arraycopy(tailTimes, position, times, position + 1, tailTimes.length - position);
+            System.arraycopy(tailIds, position, ids, position + 1, tailIds.length - position);
+            return new TagPostings(base, times, ids);
+        }
+
+        /**
+         * Copy without one video (caption edits that drop a tag), compacted
+         */
+        TagPostings without(long videoId, Set<Long> removed) {
+            return rewrite(removed, videoId);
+        }
+
+        TagPostings compact(Set<Long> removed) {
+            return rewrite(removed, Long.MIN_VALUE);
+        }
+
+        private TagPostings rewrite(Set<Long> removed, long excludedId) {
+            PostingList.Builder builder = new PostingList.Builder();
+            TagCursor cursor = new TagCursor(this, removed);
+            while (cursor.next()) {
+                if (cursor.id() != excludedId) {
+                    builder.add(cursor.time(), cursor.id());
+                }
+            }
+            return new TagPostings(builder.build());
+        }
+
+        /**
+         * Tail index for a new key, or -1 if already present
+         */
+        private int insertionPoint(long time, long videoId) {
+            int low = 0;
+            int high = tailIds.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = PostingList.compare(tailTimes[mid], tailIds[mid], time, videoId);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return -1;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Forward cursor over keys in list order (newest first)
+     */
+    private interface KeyCursor {
+
+        boolean next();
+
+        /**
+         * Position on the first key not newer than the target (may be the current one)
+         */
+        boolean advanceTo(long time, long id);
+
+        long time();
+
+        long id();
+    }
+
+    /**
+     * Merges a tag's base and tail, skipping tombstones and duplicates
+     */
+    private static final class TagCursor implements KeyCursor {
+
+        private final PostingList.Cursor base;
+        private final long[] tailTimes;
+        private final long[] tailIds;
+        private final Set<Long> removed;
+        private final int size;
+
+        private boolean baseHas;
+        private int tailPosition;
+        private boolean positioned;
+        private long time;
+        private long id;
+
+        TagCursor(TagPostings tagPostings, Set<Long> removed) {
+            this.base = tagPostings.base().cursor();
+            this.tailTimes = tagPostings.tailTimes();
+            this.tailIds = tagPostings.tailIds();
+            this.removed = removed;
+            this.size = tagPostings.size();
+            this.baseHas = base.next();
+        }
+
+        int size() {
+            return size;
+        }
+
+        @Override
+        public boolean next() {
+            while (baseHas || tailPosition < tailIds.length) {
+                int cmp = !baseHas ? 1
+                        : tailPosition >= tailIds.length ? -1
+                        : PostingList.compare(base.time(), base.id(), tailTimes[tailPosition], tailIds[tailPosition]);
+
+                if (cmp <= 0) {
+                    time = base.time();
+                    id = base.id();
+                    baseHas = base.next();
+                    if (cmp == 0) {
+                        tailPosition++;
+                    }
+                } else {
+                    time = tailTimes[tailPosition];
+                    id = tailIds[tailPosition];
+                    tailPosition++;
+                }
+
+                if (removed.isEmpty() || !removed.contains(id)) {
+                    positioned = true;
+                    return true;
+                }
+            }
+            positioned = false;
+            return false;
+        }
+
+        @Override
+        public boolean advanceTo(long targetTime, long targetId) {
+            if (positioned && PostingList.compare(time, id, targetTime, targetId) >= 0) {
+                return true;
+            }
+
+            if (baseHas) {
+                baseHas = base.advanceTo(targetTime, targetId);
+            }
+            while (tailPosition < tailIds.length
+                    && PostingList.compare(tailTimes[tailPosition], tailIds[tailPosition], targetTime, targetId) < 0) {
+                tailPosition++;
+            }
+            return next();
+        }
+
+        @Override
+        public long time() {
+            return time;
+        }
+
+        @Override
+        public long id() {
+            return id;
+        }
+    }
+
+    /**
+     * Leapfrog intersection: the smallest list drives, the others seek
+     */
+    private static final class IntersectionCursor implements KeyCursor {
+
+        private final List<TagCursor> cursors;
+        private boolean started;
+        private boolean exhausted;
+
+        IntersectionCursor(List<TagCursor> cursors) {
+            List<TagCursor> ordered = new ArrayList<>(cursors);
+            ordered.sort(Comparator.comparingInt(TagCursor::size));
+            this.cursors = ordered;
+        }
+
+        @Override
+        public boolean next() {
+            if (exhausted) {
+                return false;
+            }
+
+            if (!started) {
+                started = true;
+                for (TagCursor cursor : cursors) {
+                    if (!cursor.next()) {
+                        return exhaust();
+                    }
+                }
+            } else if (!cursors.get(0).next()) {
+                return exhaust();
+            }
+            return align();
+        }
+
+        @Override
+        public boolean advanceTo(long time, long id) {
+            if (exhausted) {
+                return false;
+            }
+            if (started && PostingList.compare(time(), id(), time, id) >= 0) {
+                return true;
+            }
+
+            started = true;
+            for (TagCursor cursor : cursors) {
+                if (!cursor.advanceTo(time, id)) {
+                    return exhaust();
+                }
+            }
+            return align();
+        }
+
+        /**
+         * Seek every list to the oldest current key until all sit on the same one
+         */
+        private boolean align() {
+            while (true) {
+                // Oldest current key is the lower bound every list must reach
+                TagCursor oldest = cursors.get(0);
+                for (TagCursor cursor : cursors) {
+                    if (PostingList.compare(cursor.time(), cursor.id(), oldest.time(), oldest.id()) > 0) {
+                        oldest = cursor;
+                    }
+                }
+
+                boolean aligned = true;
+                long targetTime = oldest.time();
+                long targetId = oldest.id();
+                for (TagCursor cursor : cursors) {
+                    if (!cursor.advanceTo(targetTime, targetId)) {
+                        return exhaust();
+                    }
+                    if (cursor.id() != targetId || cursor.time() != targetTime) {
+                        aligned = false;
+                    }
+                }
+                if (aligned) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public long time() {
+            return cursors.get(0).time();
+        }
+
+        @Override
+        public long id() {
+            return cursors.get(0).id();
+        }
+
+        private boolean exhaust() {
+            exhausted = true;
+            return false;
+        }
+    }
+
+    /**
+     * k-way merge; lists sitting on the same key advance together (no duplicates)
+     */
+    private static final class UnionCursor implements KeyCursor {
+
+        private final PriorityQueue<KeyCursor> heap = new PriorityQueue<>(
+                (a, b) -> PostingList.compare(a.time(), a.id(), b.time(), b.id()));
+        private final List<KeyCursor> pending;
+        private boolean positioned;
+        private long time;
+        private long id;
+
+        UnionCursor(List<? extends KeyCursor> cursors) {
+            this.pending = new ArrayList<>(cursors);
+        }
+
+        @Override
+        public boolean next() {
+            for (KeyCursor cursor : pending) {
+                if (cursor.next()) {
+                    heap.add(cursor);
+                }
+            }
+            pending.clear();
+            return pop();
+        }
+
+        @Override
+        public boolean advanceTo(long targetTime, long targetId) {
+            if (positioned && PostingList.compare(time, id, targetTime, targetId) >= 0) {
+                return true;
+            }
+
+            // Only lists still newer than the target have to seek
+            List<KeyCursor> behind = new ArrayList<>(pending);
+            pending.clear();
+            while (!heap.isEmpty()
+                    && PostingList.compare(heap.peek().time(), heap.peek().id(), targetTime, targetId) < 0) {
+                behind.add(heap.poll());
+            }
+            for (KeyCursor cursor : behind) {
+                if (cursor.advanceTo(targetTime, targetId)) {
+                    heap.add(cursor);
+                }
+            }
+            return pop();
+        }
+
+        private boolean pop() {
+            if (heap.isEmpty()) {
+                positioned = false;
+                return false;
+            }
+
+            KeyCursor top = heap.poll();
+            time = top.time();
+            id = top.id();
+            pending.add(top);
+            while (!heap.isEmpty() && heap.peek().id() == id && heap.peek().time() == time) {
+                pending.add(heap.poll());
+            }
+            positioned = true;
+            return true;
+        }
+
+        @Override
+        public long time() {
+            return time;
+        }
+
+        @Override
+        public long id() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.Video;
+
+/**
+ * Hashtag Service - Normalized hashtag links and usage counts
+ */
+public interface HashtagService {
+
+    /**
+     * Bring a persisted video's tag links in line with its caption.
+     * Call whenever a caption is set or edited; an unchanged tag set writes nothing.
+     */
+    void syncHashtags(Video video);
+
+    /**
+     * Drop every tag link of a video and release its usage counts (row purge)
+     */
+    void unlinkAll(Long videoId);
+
+    /**
+     * Count or uncount a video's links in hashtag usage after it was shown
+     * or hidden; a no-op when they already match its visibility
+     */
+    void refreshUsage(Long videoId);
+}
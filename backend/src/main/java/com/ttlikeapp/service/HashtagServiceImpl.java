@@ -0,0 +1,164 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.Hashtag;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.entity.VideoHashtag;
+import com.ttlikeapp.event.VideoRemovedEvent;
+import com.ttlikeapp.event.VideoUpsertedEvent;
+import com.ttlikeapp.repository.HashtagRepository;
+import com.ttlikeapp.repository.VideoHashtagRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Default HashtagService implementation
+ *
+ * Syncing diffs the caption's tags against the video's current links and
+ * touches only the difference: new links plus one bulk usage increment,
+ * removed links plus one bulk decrement. Unknown tags are created in their
+ * own short transaction so two uploads introducing the same tag cannot
+ * fail each other on the unique name constraint.
+ *
+ * Usage counts include only publicly visible videos. Each link records
+ * whether it is counted; after a video is shown or hidden (VideoUpsertedEvent,
+ * VideoRemovedEvent) the links whose flag disagrees with the video's
+ * committed visibility are flipped and their tags adjusted. Repeated or
+ * redundant events therefore change nothing.
+ */
+@Service
+@Slf4j
+public class HashtagServiceImpl implements HashtagService {
+
+    private final HashtagRepository hashtagRepository;
+    private final VideoHashtagRepository videoHashtagRepository;
+    private final VideoRepository videoRepository;
+    private final TransactionTemplate newTx;
+
+    public HashtagServiceImpl(HashtagRepository hashtagRepository,
+                              VideoHashtagRepository videoHashtagRepository,
+                              VideoRepository videoRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.hashtagRepository = hashtagRepository;
+        this.videoHashtagRepository = videoHashtagRepository;
+        this.videoRepository = videoRepository;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional
+    public void syncHashtags(Video video) {
+        boolean visible = video.isPubliclyVisible();
+        Map<String, Long> wanted = resolve(Video.extractHashtags(video.getCaption()));
+        Set<Long> wantedIds = new HashSet<>(wanted.values());
+        Set<Long> currentIds = new HashSet<>(videoHashtagRepository.findHashtagIdsByVideoId(video.getId()));
+
+        Set<Long> removed = new HashSet<>(currentIds);
+        removed.removeAll(wantedIds);
+        Set<Long> added = new HashSet<>(wantedIds);
+        added.removeAll(currentIds);
+
+        if (!removed.isEmpty()) {
+            Set<Long> counted = new HashSet<>(
+                    videoHashtagRepository.findHashtagIdsByVideoIdAndCounted(video.getId(), true));
+            counted.retainAll(removed);
+            videoHashtagRepository.deleteLinks(video.getId(), removed);
+            if (!counted.isEmpty()) {
+                hashtagRepository.decrementUsageCountIn(counted);
+            }
+        }
+        if (!added.isEmpty()) {
+            videoHashtagRepository.saveAll(added.stream()
+                    .map(id -> new VideoHashtag(video, hashtagRepository.getReferenceById(id), visible))
+                    .toList());
+            if (visible) {
+                hashtagRepository.incrementUsageCountIn(added);
+            }
+        }
+
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            log.debug("Video {} hashtags: +{} -{}", video.getId(), added.size(), removed.size());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void unlinkAll(Long videoId) {
+        List<Long> counted = videoHashtagRepository.findHashtagIdsByVideoIdAndCounted(videoId, true);
+        if (videoHashtagRepository.deleteByVideoId(videoId) > 0 && !counted.isEmpty()) {
+            hashtagRepository.decrementUsageCountIn(counted);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void refreshUsage(Long videoId) {
+        boolean visible = videoRepository.findById(videoId)
+                .map(Video::isPubliclyVisible)
+                .orElse(false);
+        List<Long> stale = videoHashtagRepository.findHashtagIdsByVideoIdAndCounted(videoId, !visible);
+        if (stale.isEmpty() || videoHashtagRepository.setCounted(videoId, visible) == 0) {
+            return;
+        }
+        if (visible) {
+            hashtagRepository.incrementUsageCountIn(stale);
+        } else {
+            hashtagRepository.decrementUsageCountIn(stale);
+        }
+        log.debug("Video {} {}: usage of {} hashtags adjusted", videoId, visible ? "shown" : "hidden", stale.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoUpserted(VideoUpsertedEvent event) {
+        newTx.executeWithoutResult(status -> refreshUsage(event.videoId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoRemoved(VideoRemovedEvent event) {
+        newTx.executeWithoutResult(status -> refreshUsage(event.videoId()));
+    }
+
+    /**
+     * Tag name -> ID, creating missing tags
+     */
+    private Map<String, Long> resolve(Set<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+
+        for (Hashtag hashtag : hashtagRepository.findByNameIn(names)) {
+            ids.put(hashtag.getName(), hashtag.getId());
+        }
+        for (String name : names) {
+            if (!ids.containsKey(name)) {
+                ids.put(name, create(name));
+            }
+        }
+        return ids;
+    }
+
+    private Long create(String name) {
+        try {
+            return newTx.execute(status -> hashtagRepository.saveAndFlush(new Hashtag(name)).getId());
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently; the committed row wins
+            return hashtagRepository.findByName(name)
+                    .map(Hashtag::getId)
+                    .orElseThrow(() -> e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.response.LikeResponse;
+
+/**
+ * Like Service - Video likes
+ */
+public interface LikeService {
+
+    /**
+     * Like a video (no-op when already liked)
+     */
+    LikeResponse like(Long userId, Long videoId);
+
+    /**
+     * Remove a like (no-op when not liked)
+     */
+    LikeResponse unlike(Long userId, Long videoId);
+}
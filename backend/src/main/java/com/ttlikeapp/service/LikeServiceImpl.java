@@ -0,0 +1,104 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.response.LikeResponse;
+import com.ttlikeapp.entity.Like;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.event.LikeChangedEvent;
+import com.ttlikeapp.repository.LikeRepository;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Default LikeService implementation
+ *
+ * Like rows are written through LikeRepository and the video/owner counters
+ * through bulk updates; LikeChangedEvent feeds in-memory consumers
+ * (trending hashtags) once the transaction commits.
+ *
+ * like() is idempotent under concurrency: when two requests both pass the
+ * existence check, the unique (user, video) constraint rejects the second
+ * insert and its transaction rolls back whole, counters included, and it
+ * answers like the first.
+ */
+@Service
+@Slf4j
+public class LikeServiceImpl implements LikeService {
+
+    private final LikeRepository likeRepository;
+    private final VideoRepository videoRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate tx;
+
+    public LikeServiceImpl(LikeRepository likeRepository,
+                           VideoRepository videoRepository,
+                           UserRepository userRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager) {
+        this.likeRepository = likeRepository;
+        this.videoRepository = videoRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public LikeResponse like(Long userId, Long videoId) {
+        try {
+            return tx.execute(status -> insertLike(userId, videoId));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent like of the same video committed first
+            return new LikeResponse(videoId, true, findActiveVideo(videoId).getLikesCount());
+        }
+    }
+
+    private LikeResponse insertLike(Long userId, Long videoId) {
+        Video video = findActiveVideo(videoId);
+
+        if (likeRepository.existsByUserIdAndVideoId(userId, videoId)) {
+            return new LikeResponse(videoId, true, video.getLikesCount());
+        }
+
+        likeRepository.saveAndFlush(new Like(userRepository.getReferenceById(userId), video));
+        videoRepository.incrementLikesCount(videoId);
+        userRepository.incrementTotalLikes(video.getUser().getId());
+
+        eventPublisher.publishEvent(new LikeChangedEvent(userId, videoId, true));
+        log.debug("User {} liked video {}", userId, videoId);
+        return new LikeResponse(videoId, true, video.getLikesCount() + 1);
+    }
+
+    @Override
+    @Transactional
+    public LikeResponse unlike(Long userId, Long videoId) {
+        Video video = findActiveVideo(videoId);
+
+        if (likeRepository.deleteByUserIdAndVideoId(userId, videoId) == 0) {
+            return new LikeResponse(videoId, false, video.getLikesCount());
+        }
+
+        videoRepository.decrementLikesCountIn(List.of(videoId));
+        userRepository.decrementTotalLikes(video.getUser().getId());
+
+        eventPublisher.publishEvent(new LikeChangedEvent(userId, videoId, false));
+        log.debug("User {} unliked video {}", userId, videoId);
+        return new LikeResponse(videoId, false, Math.max(0, video.getLikesCount() - 1));
+    }
+
+    private Video findActiveVideo(Long videoId) {
+        return videoRepository.findById(videoId)
+                .filter(Video::getActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Video not found"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.MediaBlob;
+import com.ttlikeapp.util.VideoProcessor.VideoMetadata;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Media Blob Service - Deduplicated, reference-counted video content
+ */
+public interface MediaBlobService {
+
+    /**
+     * Existing blob for the content, if any; a hint taken outside the
+     * linking transaction (the blob may be collected before acquire)
+     */
+    Optional<MediaBlob> find(String sha256);
+
+    /**
+     * Take a reference on the blob for this content, creating it from
+     * newBlob (the caller's freshly stored copy) when none exists. Call in
+     * the transaction that inserts the referencing Video. The returned
+     * blob's url is the copy to use; when it differs from the caller's,
+     * the caller's copy is redundant.
+     */
+    MediaBlob acquire(String sha256, Supplier<MediaBlob> newBlob);
+
+    /**
+     * Drop a Video's reference; call in the transaction that removes it
+     */
+    void release(Long blobId);
+
+    /**
+     * Store the probe results, thumbnail and HLS ladder of a blob's
+     * content; false if it was already processed (by the job of another
+     * upload sharing it)
+     */
+    boolean recordProcessing(Long blobId, VideoMetadata metadata, String thumbnailUrl, String hlsUrl);
+}
@@ -0,0 +1,195 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.MediaBlob;
+import com.ttlikeapp.repository.MediaBlobRepository;
+import com.ttlikeapp.storage.LocalStorageBackend;
+import com.ttlikeapp.storage.StorageBackend;
+import com.ttlikeapp.storage.StorageBackend.ObjectInfo;
+import com.ttlikeapp.storage.StorageBackend.ObjectPage;
+import com.ttlikeapp.util.VideoProcessor.VideoMetadata;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Default MediaBlobService implementation
+ *
+ * A new blob row is committed on its own at zero references (stamped
+ * unreferenced now) and then linked in the caller's transaction, so a
+ * rolled-back upload leaves a zero-reference blob the collector removes
+ * after the grace period rather than a leaked count. Two uploads of the
+ * same content racing to create it meet on the unique sha256; the loser
+ * links the winner's row.
+ *
+ * Collection runs on a timer: rows unreferenced for longer than
+ * grace-ms are deleted (only if still at zero), then their objects
+ * (copy, thumbnail and every file of the HLS ladder).
+ */
+@Service
+@Slf4j
+public class MediaBlobServiceImpl implements MediaBlobService {
+
+    private final MediaBlobRepository mediaBlobRepository;
+    private final StorageBackend storage;
+    private final LocalStorageBackend localStorage;  // For blobs stored before S3 was enabled
+    private final TransactionTemplate newTx;
+    private final Duration grace;
+    private final int batchSize;
+    private final Counter deduplicated;
+    private final Counter collected;
+
+    public MediaBlobServiceImpl(MediaBlobRepository mediaBlobRepository,
+                                StorageBackend storage,
+                                LocalStorageBackend localStorage,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${media-blob.gc-grace-ms:600000}") long graceMs,
+                                @Value("${media-blob.gc-batch-size:100}") int batchSize) {
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.storage = storage;
+        this.localStorage = localStorage;
+        this.newTx = new TransactionTemplate(transactionManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.grace = Duration.ofMillis(graceMs);
+        this.batchSize = batchSize;
+        this.deduplicated = Counter.builder("media.blobs.deduplicated")
+                .description("Uploads linked to an already stored blob")
+                .register(meterRegistry);
+        this.collected = Counter.builder("media.blobs.collected")
+                .description("Unreferenced blobs deleted from storage")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<MediaBlob> find(String sha256) {
+        return mediaBlobRepository.findBySha256(sha256);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public MediaBlob acquire(String sha256, Supplier<MediaBlob> newBlob) {
+        if (mediaBlobRepository.link(sha256) > 0) {
+            deduplicated.increment();
+        } else {
+            create(sha256, newBlob.get());
+            if (mediaBlobRepository.link(sha256) == 0) {
+                throw new IllegalStateException("Blob " + sha256 + " vanished while being linked");
+            }
+        }
+        return mediaBlobRepository.findBySha256(sha256)
+                .orElseThrow(() -> new IllegalStateException("Blob " + sha256 + " vanished while being linked"));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Long blobId) {
+        if (mediaBlobRepository.release(blobId, LocalDateTime.now()) == 0) {
+            log.warn("Blob {} released with no references left", blobId);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean recordProcessing(Long blobId, VideoMetadata metadata, String thumbnailUrl, String hlsUrl) {
+        return mediaBlobRepository.recordProcessing(blobId,
+                metadata != null ? metadata.duration() : 0,
+                metadata != null ? metadata.width() : null,
+                metadata != null ? metadata.height() : null,
+                thumbnailUrl, hlsUrl, LocalDateTime.now()) > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${media-blob.gc-interval-ms:60000}")
+    public void collect() {
+        List<MediaBlob> candidates = mediaBlobRepository.findCollectable(
+                LocalDateTime.now().minus(grace), PageRequest.of(0, batchSize));
+        int deleted = 0;
+        for (MediaBlob blob : candidates) {
+            Integer rows = newTx.execute(status -> mediaBlobRepository.deleteIfUnreferenced(blob.getId()));
+            if (rows == null || rows == 0) {
+                continue;  // Linked again meanwhile
+            }
+            deleteStored(blob.getUrl());
+            if (blob.getThumbnailUrl() != null) {
+                deleteStored(blob.getThumbnailUrl());
+            }
+            if (blob.getHlsUrl() != null) {
+                deleteStoredLadder(blob.getHlsUrl());
+            }
+            deleted++;
+        }
+        if (deleted > 0) {
+            collected.increment(deleted);
+            log.info("Collected {} unreferenced media blobs", deleted);
+        }
+    }
+
+    private void create(String sha256, MediaBlob blob) {
+        blob.setSha256(sha256);
+        blob.setRefCount(0L);
+        blob.setUnreferencedAt(LocalDateTime.now());
+        try {
+            newTx.executeWithoutResult(status -> mediaBlobRepository.saveAndFlush(blob));
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently; the committed row wins
+            log.debug("Blob {} created concurrently", sha256);
+        }
+    }
+
+    /**
+     * Delete every file next to an HLS master playlist (the whole ladder);
+     * files a failed listing or delete leaves, the orphan collector gets
+     */
+    private void deleteStoredLadder(String masterUrl) {
+        StorageBackend backend = storage.keyFor(masterUrl).isPresent() ? storage : localStorage;
+        String master = backend.keyFor(masterUrl).orElse(null);
+        if (master == null) {
+            log.warn("No storage backend for {}, leaving it", masterUrl);
+            return;
+        }
+        String prefix = master.substring(0, master.lastIndexOf('/') + 1);
+        try {
+            String after = prefix;
+            ObjectPage page;
+            do {
+                page = backend.list(after, 1000).join();
+                for (ObjectInfo object : page.objects()) {
+                    if (!object.key().startsWith(prefix)) {
+                        return;
+                    }
+                    backend.delete(object.key()).join();
+                    after = object.key();
+                }
+            } while (page.truncated());
+        } catch (RuntimeException e) {
+            log.warn("Could not delete HLS ladder {} from {}: {}", prefix, backend.name(), e.getMessage());
+        }
+    }
+
+    private void deleteStored(String url) {
+        StorageBackend backend = storage.keyFor(url).isPresent() ? storage : localStorage;
+        backend.keyFor(url).ifPresentOrElse(
+                key -> backend.delete(key).whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        log.error("Failed to delete {} from {}", key, backend.name(), e);
+                    }
+                }),
+                () -> log.warn("No storage backend for {}, leaving it", url));
+    }
+}
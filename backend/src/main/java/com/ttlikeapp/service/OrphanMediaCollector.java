@@ -0,0 +1,332 @@
+package com.ttlikeapp.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.ttlikeapp.entity.StorageGcCursor;
+import com.ttlikeapp.repository.MediaBlobRepository;
+import com.ttlikeapp.repository.StorageGcCursorRepository;
+import com.ttlikeapp.repository.UploadSessionRepository;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.storage.LocalStorageBackend;
+import com.ttlikeapp.storage.S3StorageBackend;
+import com.ttlikeapp.storage.StorageBackend;
+import com.ttlikeapp.storage.StorageBackend.ObjectInfo;
+import com.ttlikeapp.storage.StorageBackend.ObjectPage;
+import com.ttlikeapp.storage.StorageKeys;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orphaned Media Collector - Deletes stored objects nothing refers to
+ *
+ * Failed uploads, crashed requests and rows removed without their media
+ * leave objects behind. This scans every physical backend (local disk,
+ * and S3 when enabled) page by page and deletes objects that are older
+ * than grace-ms and whose URL appears in none of:
+ * - videos (video, original and thumbnail URL; tombstoned rows included,
+ *   their purge releases the media itself)
+ * - users (avatar URL)
+ * - media_blobs (a blob's copy is the blob collector's to delete)
+ * - pending upload_sessions (a direct upload still being written)
+ * A key counts as referenced under any URL either backend maps to it
+ * (S3 path-style and virtual-hosted alike), since tiered and replicated
+ * storage share keys across backends. The files of
+ * an HLS ladder count as referenced through its master playlist.
+ *
+ * Scanning: the key space is split into fixed ranges (hls/, thumbnails/
+ * and videos/ by first character), scanned by `parallelism` workers at once.
+ * Each page of keys is checked against the database in one batch per
+ * table. Progress is a StorageGcCursor per range, committed after each
+ * page, so a run stopped by max-objects-per-run, a restart or a crash
+ * resumes where it left off; a range starts over once fully scanned,
+ * after the ranges that have waited longer.
+ *
+ * Throttling: every list page and delete takes a permit from one rate
+ * limiter (max-requests-per-second), so a pass never floods S3 or disk.
+ *
+ * Dry run (the default) reports what would be deleted and deletes
+ * nothing. Metrics: storage.gc.scanned{backend},
+ * storage.gc.orphans{backend,action}, storage.gc.orphan.bytes{backend,action}.
+ */
+@Component
+@Slf4j
+public class OrphanMediaCollector {
+
+    private static final List<String> ROOTS = List.of("hls/", "thumbnails/", "videos/");
+    private static final String SPLITS = "123456789abcdef";
+
+    /**
+     * Keys in (start, end); end null for unbounded. Bounds are never keys.
+     */
+    private record Range(String start, String end) {
+    }
+
+    /**
+     * Totals of one run
+     */
+    public record RunResult(long scanned, long orphans, long orphanBytes, boolean dryRun) {
+    }
+
+    private final LocalStorageBackend localStorage;
+    private final S3StorageBackend s3Storage;  // null unless aws.s3.enabled
+    private final List<StorageBackend> backends;
+    private final VideoRepository videoRepository;
+    private final UserRepository userRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final StorageGcCursorRepository cursorRepository;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final List<Range> ranges;
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${storage.gc.enabled:false}")
+    private boolean enabled;
+
+    @Value("${storage.gc.dry-run:true}")
+    private boolean dryRun;
+
+    @Value("${storage.gc.grace-ms:86400000}")
+    private long graceMs;
+
+    @Value("${storage.gc.page-size:1000}")
+    private int pageSize;
+
+    @Value("${storage.gc.parallelism:4}")
+    private int parallelism;
+
+    @Value("${storage.gc.max-objects-per-run:1000000}")
+    private long maxObjectsPerRun;
+
+    public OrphanMediaCollector(LocalStorageBackend localStorage,
+                                Optional<S3StorageBackend> s3Storage,
+                                VideoRepository videoRepository,
+                                UserRepository userRepository,
+                                MediaBlobRepository mediaBlobRepository,
+                                UploadSessionRepository uploadSessionRepository,
+                                StorageGcCursorRepository cursorRepository,
+                                ExecutorService storageExecutor,
+                                MeterRegistry meterRegistry,
+                                @Value("${storage.gc.max-requests-per-second:50}") double maxRequestsPerSecond) {
+        this.localStorage = localStorage;
+        this.s3Storage = s3Storage.orElse(null);
+        this.backends = s3Storage.isPresent() ? List.of(localStorage, s3Storage.get()) : List.of(localStorage);
+        this.videoRepository = videoRepository;
+        this.userRepository = userRepository;
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.cursorRepository = cursorRepository;
+        this.executor = storageExecutor;
+        this.meterRegistry = meterRegistry;
+        this.ranges = ranges();
+        this.rateLimiter = RateLimiter.create(maxRequestsPerSecond);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms:3600000}",
+               initialDelayString = "${storage.gc.initial-delay-ms:600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run(dryRun);
+        }
+    }
+
+    /**
+     * Scan up to max-objects-per-run objects from where the last run
+     * stopped; returns null if a run is already in progress
+     */
+    public RunResult run(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            // Unfinished ranges first, then the longest since a full pass,
+            // so a run cut short by the budget does not starve later ranges
+            Map<String, StorageGcCursor> cursors = new HashMap<>();
+            cursorRepository.findAll().forEach(cursor ->
+                    cursors.put(cursor.getBackend() + " " + cursor.getRangeStart(), cursor));
+            List<Map.Entry<StorageBackend, Range>> order = new ArrayList<>();
+            for (StorageBackend backend : backends) {
+                ranges.forEach(range -> order.add(Map.entry(backend, range)));
+            }
+            order.sort(Comparator.comparing((Map.Entry<StorageBackend, Range> entry) -> {
+                StorageGcCursor cursor = cursors.get(entry.getKey().name() + " " + entry.getValue().start());
+                if (cursor == null || cursor.getCursorKey() != null) {
+                    return LocalDateTime.MIN;
+                }
+                return cursor.getPassCompletedAt() != null ? cursor.getPassCompletedAt() : LocalDateTime.MIN;
+            }));
+            Queue<Map.Entry<StorageBackend, Range>> work = new ConcurrentLinkedQueue<>(order);
+
+            AtomicLong budget = new AtomicLong(maxObjectsPerRun);
+            long[] totals = new long[3];  // scanned, orphans, orphan bytes
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, parallelism); i++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    Map.Entry<StorageBackend, Range> next;
+                    while (budget.get() > 0 && (next = work.poll()) != null) {
+                        long[] result = scan(next.getKey(), next.getValue(), budget, dryRun);
+                        synchronized (totals) {
+                            for (int t = 0; t < totals.length; t++) {
+                                totals[t] += result[t];
+                            }
+                        }
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+
+            RunResult result = new RunResult(totals[0], totals[1], totals[2], dryRun);
+            log.info("Orphaned media collection{}: scanned {} objects, {} orphans ({} bytes){}",
+                    dryRun ? " (dry run)" : "", result.scanned(), result.orphans(), result.orphanBytes(),
+                    budget.get() <= 0 ? ", stopped at max-objects-per-run" : "");
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Scan one range from its cursor until it ends or the budget runs out;
+     * returns scanned, orphans, orphan bytes
+     */
+    private long[] scan(StorageBackend backend, Range range, AtomicLong budget, boolean dryRun) {
+        long[] totals = new long[3];
+        StorageGcCursor cursor = cursorRepository.findByBackendAndRangeStart(backend.name(), range.start())
+                .orElseGet(() -> StorageGcCursor.builder().backend(backend.name()).rangeStart(range.start()).build());
+        String after = cursor.getCursorKey() != null ? cursor.getCursorKey() : range.start();
+        try {
+            while (budget.get() > 0) {
+                rateLimiter.acquire();
+                ObjectPage page = backend.list(after, pageSize).join();
+                List<ObjectInfo> objects = page.objects().stream()
+                        .filter(object -> range.end() == null || object.key().compareTo(range.end()) < 0)
+                        .toList();
+                boolean ended = !page.truncated() || objects.size() < page.objects().size();
+
+                List<ObjectInfo> orphans = orphans(objects);
+                for (ObjectInfo orphan : orphans) {
+                    if (dryRun) {
+                        log.info("Orphaned media (dry run, not deleted): {} {} ({} bytes, modified {})",
+                                backend.name(), orphan.key(), orphan.size(), orphan.lastModified());
+                    } else {
+                        rateLimiter.acquire();
+                        backend.delete(orphan.key()).join();
+                    }
+                    totals[2] += orphan.size();
+                }
+                totals[0] += objects.size();
+                totals[1] += orphans.size();
+                budget.addAndGet(-objects.size());
+                record(backend, objects.size(), orphans, dryRun);
+
+                if (ended) {
+                    cursor.setCursorKey(null);
+                    cursor.setPasses(cursor.getPasses() + 1);
+                    cursor.setPassCompletedAt(LocalDateTime.now());
+                } else if (!objects.isEmpty()) {
+                    after = objects.get(objects.size() - 1).key();
+                    cursor.setCursorKey(after);
+                }
+                cursor = cursorRepository.save(cursor);
+                if (ended) {
+                    break;
+                }
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Range {} of {} is being scanned elsewhere", range.start(), backend.name());
+        } catch (RuntimeException e) {
+            log.warn("Orphaned media scan of {} after {} failed: {}", backend.name(), after, e.getMessage());
+        }
+        return totals;
+    }
+
+    /**
+     * The objects past the grace period that nothing refers to; one query
+     * per table for the whole page
+     */
+    private List<ObjectInfo> orphans(List<ObjectInfo> objects) {
+        Instant cutoff = Instant.now().minus(Duration.ofMillis(graceMs));
+        Map<ObjectInfo, List<String>> candidates = new LinkedHashMap<>();
+        for (ObjectInfo object : objects) {
+            if (object.lastModified().isBefore(cutoff)) {
+                String key = StorageKeys.referencedAs(object.key());
+                List<String> urls = new ArrayList<>(localStorage.urlsFor(key));
+                if (s3Storage != null) {
+                    urls.addAll(s3Storage.urlsFor(key));
+                }
+                candidates.put(object, urls);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> urls = candidates.values().stream().flatMap(List::stream).toList();
+        Set<String> referenced = new HashSet<>(videoRepository.findReferencedUrls(urls));
+        referenced.addAll(userRepository.findReferencedAvatarUrls(urls));
+        referenced.addAll(mediaBlobRepository.findReferencedUrls(urls));
+        Set<String> uploading = new HashSet<>(uploadSessionRepository.findPendingObjectKeys(
+                candidates.keySet().stream().map(ObjectInfo::key).toList()));
+
+        return candidates.entrySet().stream()
+                .filter(candidate -> !uploading.contains(candidate.getKey().key())
+                        && candidate.getValue().stream().noneMatch(referenced::contains))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private void record(StorageBackend backend, int scanned, List<ObjectInfo> orphans, boolean dryRun) {
+        meterRegistry.counter("storage.gc.scanned", "backend", backend.name()).increment(scanned);
+        String action = dryRun ? "dry_run" : "deleted";
+        meterRegistry.counter("storage.gc.orphans", "backend", backend.name(), "action", action)
+                .increment(orphans.size());
+        meterRegistry.counter("storage.gc.orphan.bytes", "backend", backend.name(), "action", action)
+                .increment(orphans.stream().mapToLong(ObjectInfo::size).sum());
+    }
+
+    /**
+     * Contiguous ranges covering every key: split at each root and at its
+     * first characters, so the populated prefixes scan in parallel
+     */
+    private static List<Range> ranges() {
+        List<String> bounds = new ArrayList<>();
+        for (String root : ROOTS) {
+            bounds.add(root);
+            for (char split : SPLITS.toCharArray()) {
+                bounds.add(root + split);
+            }
+        }
+        List<Range> ranges = new ArrayList<>();
+        String start = "";
+        for (String bound : bounds) {
+            ranges.add(new Range(start, bound));
+            start = bound;
+        }
+        ranges.add(new Range(start, null));
+        return ranges;
+    }
+}
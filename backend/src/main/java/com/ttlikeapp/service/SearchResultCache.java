@@ -0,0 +1,274 @@
+package com.ttlikeapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.ttlikeapp.event.VideoUpsertedEvent;
+import com.ttlikeapp.service.HashtagIndexService.Hit;
+import com.ttlikeapp.service.HashtagIndexService.MatchMode;
+import com.ttlikeapp.util.PostingList;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Search Result Cache - Head of each popular search's hit list, in process
+ *
+ * Entries are the first `window` hit IDs of a query as a long[] (8 bytes a
+ * hit, no entity graph; hashtag hits also keep their list position, for
+ * 16); callers hydrate the page they need in one batch query, so edits and
+ * visibility changes show up on a hit without invalidation. Deeper pages
+ * go straight to the index.
+ *
+ * Hashtag pages are addressed by the last hit's position rather than an
+ * offset: the page after it is found in the cached head by binary search,
+ * or past the head by seeking the index, and an invalidation between two
+ * pages neither repeats nor skips hits.
+ *
+ * Admission is Caffeine's W-TinyLFU: a frequency sketch of recent keys
+ * decides whether a new query may evict a resident one, so a burst of
+ * one-off queries cannot flush "#fyp". Bounded by total cached longs.
+ *
+ * Freshness: entries expire after ttl-ms, and are invalidated early when
+ * new matching content becomes searchable:
+ * - hashtag queries when a video gains or loses one of their tags (after
+ *   HashtagIndexService has applied the same event)
+ * - caption queries when CaptionSearchService reports, after a searcher
+ *   refresh, a newly searchable caption sharing one of their terms
+ * - username queries expire only; the username index itself is rebuilt
+ *   on a timer
+ * Removed videos need no invalidation: hydration drops hidden hits.
+ *
+ * Per instance on purpose: the indexes it fronts are per instance too.
+ */
+@Service
+public class SearchResultCache {
+
+    public enum Kind {
+        HASHTAGS_ALL, HASHTAGS_ANY, CAPTION, USERNAME
+    }
+
+    /**
+     * Normalized query; equal keys must always produce the same hit list
+     */
+    public record Key(Kind kind, String query) {
+    }
+
+    /**
+     * Hits in rank order from offset 0
+     */
+    @FunctionalInterface
+    public interface Loader {
+        List<Long> load(long offset, int limit);
+    }
+
+    /**
+     * Hashtag hits strictly after a position (null: from the newest)
+     */
+    @FunctionalInterface
+    public interface HitLoader {
+        List<Hit> load(Hit after, int limit);
+    }
+
+    /**
+     * times is null for rank-ordered (non-hashtag) entries
+     */
+    private record Entry(Key key, long[] ids, long[] times, Set<String> terms) {
+
+        /**
+         * Index of the first cached hit after the position
+         */
+        int positionAfter(Hit after) {
+            int low = 0;
+            int high = ids.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (PostingList.compare(times[mid], ids[mid], after.time(), after.videoId()) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final CaptionSearchService captionSearch;
+    private final Cache<Key, Entry> cache;
+    private final boolean enabled;
+    private final int window;
+
+    // Invalidation term -> keys of cached entries depending on it; only
+    // changed inside the cache's per-key atomic operations
+    private final ConcurrentHashMap<String, Set<Key>> keysByTerm = new ConcurrentHashMap<>();
+
+    public SearchResultCache(CaptionSearchService captionSearch,
+                             MeterRegistry meterRegistry,
+                             @Value("${search-cache.enabled:true}") boolean enabled,
+                             @Value("${search-cache.max-ids:2000000}") long maxIds,
+                             @Value("${search-cache.ttl-ms:30000}") long ttlMs,
+                             @Value("${search-cache.window:200}") int window) {
+        this.captionSearch = captionSearch;
+        this.enabled = enabled;
+        this.window = window;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxIds)
+                .weigher((Key key, Entry entry) ->
+                        entry.ids.length + (entry.times != null ? entry.times.length : 0) + 1)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .evictionListener((Key key, Entry entry, RemovalCause cause) -> unregister(entry))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search.results");
+
+        captionSearch.addRefreshListener(this::invalidateCaptionTerms);
+    }
+
+    public static Key hashtagKey(List<String> normalizedTags, MatchMode mode) {
+        // One tag matches the same videos in either mode
+        Kind kind = mode == MatchMode.ANY && normalizedTags.size() > 1 ? Kind.HASHTAGS_ANY : Kind.HASHTAGS_ALL;
+        return new Key(kind, String.join(" ", normalizedTags.stream().sorted().toList()));
+    }
+
+    public static Key captionKey(String text) {
+        return new Key(Kind.CAPTION, text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+    }
+
+    public static Key usernameKey(String normalizedQuery) {
+        return new Key(Kind.USERNAME, normalizedQuery);
+    }
+
+    /**
+     * Hits [offset, offset + limit) of the query, from the cached head when
+     * it covers the range; concurrent misses on one key load it once
+     */
+    public List<Long> get(Key key, long offset, int limit, Loader loader) {
+        if (!enabled || offset + limit > window) {
+            return loader.load(offset, limit);
+        }
+
+        Entry entry = cache.get(key, k -> {
+            List<Long> hits = loader.load(0, window);
+            long[] ids = new long[hits.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = hits.get(i);
+            }
+            return register(new Entry(k, ids, null, terms(k)));
+        });
+        int from = (int) Math.min(offset, entry.ids.length);
+        int to = (int) Math.min(offset + limit, entry.ids.length);
+        List<Long> ids = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(entry.ids[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Hashtag hits after the position, from the cached head when it covers
+     * the page
+     */
+    public List<Hit> get(Key key, Hit after, int limit, HitLoader loader) {
+        if (!enabled) {
+            return loader.load(after, limit);
+        }
+
+        Entry entry = cache.get(key, k -> {
+            List<Hit> hits = loader.load(null, window);
+            long[] ids = new long[hits.size()];
+            long[] times = new long[hits.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = hits.get(i).videoId();
+                times[i] = hits.get(i).time();
+            }
+            return register(new Entry(k, ids, times, terms(k)));
+        });
+        int from = after == null ? 0 : entry.positionAfter(after);
+        int to = Math.min(from + limit, entry.ids.length);
+        if (to - from < limit && entry.ids.length >= window) {
+            return loader.load(after, limit);  // Runs past the cached head
+        }
+
+        List<Hit> hits = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            hits.add(new Hit(entry.times[i], entry.ids[i]));
+        }
+        return hits;
+    }
+
+    /**
+     * Ordered after HashtagIndexService's listener for the same event, so a
+     * reload after invalidation already sees the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onVideoUpserted(VideoUpsertedEvent event) {
+        invalidate(event.addedHashtags());
+        invalidate(event.removedHashtags());
+    }
+
+    private void invalidateCaptionTerms(Set<String> terms) {
+        invalidate(terms.stream().map(term -> "caption:" + term).toList());
+    }
+
+    private void invalidate(Collection<String> terms) {
+        for (String term : terms) {
+            Set<Key> keys = keysByTerm.get(term);
+            if (keys == null) {
+                continue;
+            }
+            for (Key key : List.copyOf(keys)) {
+                cache.asMap().computeIfPresent(key, (k, entry) -> {
+                    unregister(entry);
+                    return null;
+                });
+            }
+        }
+    }
+
+    private Entry register(Entry entry) {
+        Key key = entry.key;
+        for (String term : entry.terms) {
+            keysByTerm.compute(term, (t, keys) -> {
+                Set<Key> registered = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                registered.add(key);
+                return registered;
+            });
+        }
+        return entry;
+    }
+
+    private void unregister(Entry entry) {
+        for (String term : entry.terms) {
+            keysByTerm.computeIfPresent(term, (t, keys) -> {
+                keys.remove(entry.key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Invalidation terms: hashtags as-is, caption terms prefixed so a tag and
+     * a caption word of the same spelling stay independent
+     */
+    private Set<String> terms(Key key) {
+        return switch (key.kind()) {
+            case HASHTAGS_ALL, HASHTAGS_ANY -> Set.of(key.query().split(" "));
+            case CAPTION -> Set.copyOf(captionSearch.analyze(key.query()).stream()
+                    .map(term -> "caption:" + term).toList());
+            case USERNAME -> Set.of();
+        };
+    }
+}
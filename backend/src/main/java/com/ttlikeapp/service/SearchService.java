@@ -0,0 +1,45 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.FeedRequest;
+import com.ttlikeapp.dto.response.AutocompleteResponse;
+import com.ttlikeapp.dto.response.TrendingHashtagResponse;
+import com.ttlikeapp.dto.response.UserSummaryResponse;
+import com.ttlikeapp.dto.response.VideoFeedResponse;
+import com.ttlikeapp.service.HashtagIndexService.MatchMode;
+import com.ttlikeapp.service.TrendingHashtagService.Window;
+
+import java.util.List;
+
+/**
+ * Search Service - Content discovery queries
+ */
+public interface SearchService {
+
+    /**
+     * Videos tagged with all (ALL) or any (ANY) of the hashtags, newest first
+     */
+    VideoFeedResponse searchHashtags(Long viewerId, List<String> hashtags, MatchMode mode, FeedRequest request);
+
+    /**
+     * Videos whose captions match the text, best match first
+     * (BM25 relevance boosted by engagement)
+     */
+    VideoFeedResponse searchVideos(Long viewerId, String query, FeedRequest request);
+
+    /**
+     * Users whose username contains the query (prefix match below 3 characters),
+     * verified and most-followed first
+     */
+    List<UserSummaryResponse> searchUsers(Long viewerId, String query, int limit);
+
+    /**
+     * Type-ahead completions: "#ca" completes hashtags only, "@ca" usernames
+     * only, anything else both
+     */
+    AutocompleteResponse autocomplete(Long viewerId, String prefix, int limit);
+
+    /**
+     * Most active hashtags over the last hour or day (approximate counts)
+     */
+    List<TrendingHashtagResponse> trendingHashtags(Window window, int limit);
+}
@@ -0,0 +1,222 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.FeedRequest;
+import com.ttlikeapp.dto.response.AutocompleteResponse;
+import com.ttlikeapp.dto.response.TrendingHashtagResponse;
+import com.ttlikeapp.dto.response.UserSummaryResponse;
+import com.ttlikeapp.dto.response.VideoFeedResponse;
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.service.BlockFilterService.ViewerFilter;
+import com.ttlikeapp.service.HashtagIndexService.Hit;
+import com.ttlikeapp.service.HashtagIndexService.MatchMode;
+import com.ttlikeapp.service.SearchResultCache.Key;
+import com.ttlikeapp.service.TrendingHashtagService.Window;
+import com.ttlikeapp.util.BackfillingPager;
+import com.ttlikeapp.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Default SearchService implementation
+ *
+ * Hashtag queries walk HashtagIndexService postings for IDs and hydrate
+ * them in one query; rows whose video has meanwhile been hidden come back
+ * as null and are skipped by the page assembler. Until the index is loaded,
+ * single-tag queries fall back to SQL.
+ *
+ * Username queries go to UsernameIndexService (rank-ordered trigram/prefix
+ * index) and fall back to the LIKE scan while it loads.
+ *
+ * Caption queries go to CaptionSearchService (embedded BM25 index); there is
+ * no SQL fallback, a LIKE scan over captions would not survive real traffic.
+ *
+ * Autocomplete reads AutocompleteService only (hashtag trie, username
+ * prefix index), one prefix walk per keystroke and no SQL; it returns
+ * nothing until they are loaded.
+ *
+ * Trending hashtags are served from TrendingHashtagService sketches.
+ *
+ * Index hits for the first pages of hashtag, caption and username queries
+ * go through SearchResultCache (hit IDs only); pages are still hydrated
+ * per request, so cached hits never serve stale videos or users.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private static final int MAX_HASHTAGS = 10;
+
+    private final HashtagIndexService hashtagIndex;
+    private final UsernameIndexService usernameIndex;
+    private final CaptionSearchService captionSearch;
+    private final AutocompleteService autocompleteService;
+    private final TrendingHashtagService trendingHashtags;
+    private final SearchResultCache resultCache;
+    private final VideoRepository videoRepository;
+    private final UserRepository userRepository;
+    private final VideoPageAssembler pageAssembler;
+    private final BlockFilterService blockFilterService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public VideoFeedResponse searchHashtags(Long viewerId, List<String> hashtags, MatchMode mode, FeedRequest request) {
+        List<String> tags = hashtags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(HashtagIndexService::normalize)
+                .distinct()
+                .toList();
+        if (tags.isEmpty() || tags.size() > MAX_HASHTAGS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Provide between 1 and " + MAX_HASHTAGS + " hashtags");
+        }
+
+        if (hashtagIndex.isReady()) {
+            // Same cursor format as the SQL fallback, so a client paging across a restart keeps its place
+            Key key = SearchResultCache.hashtagKey(tags, mode);
+            BackfillingPager.Source<IndexHit> source = BackfillingPager.keyset(
+                    (KeysetCursor after, int limit) -> hydrateHits(resultCache.get(key,
+                            after == null ? null : Hit.of(after.createdAt(), after.id()), limit,
+                            (from, count) -> hashtagIndex.query(tags, mode, from, count))),
+                    KeysetCursor::decode,
+                    row -> new KeysetCursor(row.hit().createdAt(), row.hit().videoId()).encode());
+            return pageAssembler.assemble(source, IndexHit::video, viewerId, request, "HASHTAG");
+        }
+
+        BackfillingPager.Source<Video> source;
+        if (tags.size() == 1) {
+            source = BackfillingPager.keyset(
+                    (KeysetCursor after, int limit) -> after == null
+                            ? videoRepository.searchByHashtag(tags.get(0), PageRequest.of(0, limit)).getContent()
+                            : videoRepository.searchByHashtagBefore(tags.get(0), after.createdAt(), after.id(),
+                                    PageRequest.of(0, limit)),
+                    KeysetCursor::decode, video -> new KeysetCursor(video.getCreatedAt(), video.getId()).encode());
+        } else {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Hashtag search is warming up");
+        }
+
+        return pageAssembler.assemble(source, viewerId, request, "HASHTAG");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VideoFeedResponse searchVideos(Long viewerId, String query, FeedRequest request) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query is required");
+        }
+        if (!captionSearch.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Video search is warming up");
+        }
+
+        String text = query.trim();
+        Key key = SearchResultCache.captionKey(text);
+        return pageAssembler.assemble(
+                BackfillingPager.offsets((offset, limit) -> hydrate(resultCache.get(key, offset, limit,
+                        (from, count) -> captionSearch.search(text, from, count)))),
+                viewerId, request, "SEARCH");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummaryResponse> searchUsers(Long viewerId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query is required");
+        }
+
+        ViewerFilter filter = blockFilterService.forViewer(viewerId);
+        if (!usernameIndex.isReady()) {
+            return userRepository.searchByUsername(query.trim(), PageRequest.of(0, limit)).stream()
+                    .filter(user -> !filter.hides(user.getId()))
+                    .map(UserSummaryResponse::from)
+                    .toList();
+        }
+
+        String normalized = UsernameIndexService.normalize(query);
+        if (normalized == null) {
+            return List.of();
+        }
+        // Over-fetch a little: hits may be deactivated since the last rebuild, or hidden.
+        // The username index has no offsets; only first pages are ever requested.
+        List<Long> userIds = resultCache.get(SearchResultCache.usernameKey(normalized), 0, limit * 2,
+                (from, count) -> usernameIndex.search(normalized, count));
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return userIds.stream()
+                .map(users::get)
+                .filter(user -> user != null && user.getActive() && !filter.hides(user.getId()))
+                .limit(limit)
+                .map(UserSummaryResponse::from)
+                .toList();
+    }
+
+    @Override
+    public AutocompleteResponse autocomplete(Long viewerId, String prefix, int limit) {
+        String trimmed = prefix == null ? "" : prefix.trim();
+        boolean hashtagsOnly = trimmed.startsWith("#");
+        boolean usernamesOnly = trimmed.startsWith("@");
+
+        List<String> hashtags = usernamesOnly ? List.of() : autocompleteService.completeHashtags(trimmed, limit);
+
+        List<String> usernames = List.of();
+        if (!hashtagsOnly) {
+            ViewerFilter filter = blockFilterService.forViewer(viewerId);
+            // Completions carry a little headroom for hidden users
+            usernames = autocompleteService.completeUsernames(trimmed, limit + 4).stream()
+                    .filter(user -> !filter.hides(user.userId()))
+                    .limit(limit)
+                    .map(UsernameIndexService.UserCompletion::username)
+                    .toList();
+        }
+
+        return new AutocompleteResponse(hashtags, usernames);
+    }
+
+    @Override
+    public List<TrendingHashtagResponse> trendingHashtags(Window window, int limit) {
+        return trendingHashtags.top(window, limit).stream()
+                .map(trend -> new TrendingHashtagResponse(trend.hashtag(), trend.score()))
+                .toList();
+    }
+
+    /**
+     * An index hit with its video, null when no longer visible
+     */
+    private record IndexHit(Hit hit, Video video) {
+    }
+
+    private List<IndexHit> hydrateHits(List<Hit> hits) {
+        List<Video> videos = hydrate(hits.stream().map(Hit::videoId).toList());
+        List<IndexHit> rows = new ArrayList<>(hits.size());
+        for (int i = 0; i < hits.size(); i++) {
+            rows.add(new IndexHit(hits.get(i), videos.get(i)));
+        }
+        return rows;
+    }
+
+    /**
+     * Videos in hit order, null where a hit is no longer visible
+     */
+    private List<Video> hydrate(List<Long> videoIds) {
+        if (videoIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Video> videos = videoRepository.findVisibleByIdIn(videoIds).stream()
+                .collect(Collectors.toMap(Video::getId, Function.identity()));
+        return videoIds.stream().map(videos::get).toList();
+    }
+}
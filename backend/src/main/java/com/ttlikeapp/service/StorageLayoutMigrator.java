@@ -0,0 +1,188 @@
+package com.ttlikeapp.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.ttlikeapp.repository.MediaBlobRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.storage.LocalStorageBackend;
+import com.ttlikeapp.storage.StorageBackend.ObjectInfo;
+import com.ttlikeapp.storage.StorageBackend.ObjectPage;
+import com.ttlikeapp.storage.StorageKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Storage Layout Migrator - Moves local videos into the sharded layout
+ *
+ * Rewrites files stored under an earlier layout (flat videos/<name>, or
+ * per-user videos/<userId>/<name>) to videos/ab/cd/<name> (StorageKeys),
+ * batch-size files at a time:
+ * 1. Hard link each file to its new key (no copy; touching the mtime so
+ *    the orphan collector's grace period covers the not-yet-referenced
+ *    new key)
+ * 2. Rewrite the URLs in videos and media_blobs, one transaction per batch
+ * 3. Unlink the old keys
+ * A crash between steps leaves both keys naming one file, and the next
+ * pass finishes the job. Until then, and for any stale copy of an old URL
+ * (caches, rows written concurrently with the rewrite), LocalStorageBackend
+ * resolves old keys to their new place.
+ *
+ * Runs once per startup when enabled, in the background, throttled to
+ * max-files-per-second; a restart starts a fresh pass, skipping files
+ * already moved. S3 keys are left as they are: an object store has no
+ * directories to overflow. Metrics: storage.layout.migrated,
+ * storage.layout.failed.
+ */
+@Component
+@Slf4j
+public class StorageLayoutMigrator {
+
+    private static final String PREFIX = "videos/";
+
+    /**
+     * Totals of one pass
+     */
+    public record MigrationResult(long scanned, long migrated, long failed) {
+    }
+
+    private final LocalStorageBackend localStorage;
+    private final VideoRepository videoRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final TransactionTemplate tx;
+    private final RateLimiter rateLimiter;
+    private final Counter migratedCounter;
+    private final Counter failedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${storage.layout-migration.enabled:false}")
+    private boolean enabled;
+
+    @Value("${storage.layout-migration.batch-size:200}")
+    private int batchSize;
+
+    public StorageLayoutMigrator(LocalStorageBackend localStorage,
+                                 VideoRepository videoRepository,
+                                 MediaBlobRepository mediaBlobRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${storage.layout-migration.max-files-per-second:100}") double maxFilesPerSecond) {
+        this.localStorage = localStorage;
+        this.videoRepository = videoRepository;
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.rateLimiter = RateLimiter.create(maxFilesPerSecond);
+        this.migratedCounter = Counter.builder("storage.layout.migrated")
+                .description("Local files moved to the sharded layout")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("storage.layout.failed")
+                .description("Local files that could not be moved to the sharded layout")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (enabled) {
+            Thread.ofPlatform().name("storage-layout-migrator").daemon().start(this::migrate);
+        }
+    }
+
+    /**
+     * One pass over local videos; returns null if a pass is already running
+     */
+    public MigrationResult migrate() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            long scanned = 0;
+            long migrated = 0;
+            long failed = 0;
+            String cursor = PREFIX;
+            boolean more = true;
+            while (more) {
+                ObjectPage page = localStorage.list(cursor, batchSize).join();
+                Map<String, String> batch = new LinkedHashMap<>();  // old key -> new key
+                for (ObjectInfo object : page.objects()) {
+                    if (!object.key().startsWith(PREFIX)) {
+                        more = false;
+                        break;
+                    }
+                    scanned++;
+                    cursor = object.key();
+                    if (!StorageKeys.isShardedVideo(object.key())) {
+                        batch.put(object.key(), StorageKeys.shardedVideo(object.key()));
+                    }
+                }
+                more &= page.truncated();
+
+                int legacy = batch.size();
+                failed += legacy - link(batch);
+                if (!batch.isEmpty()) {
+                    rewriteUrls(batch);
+                    batch.keySet().forEach(key -> localStorage.delete(key).join());
+                    migrated += batch.size();
+                    migratedCounter.increment(batch.size());
+                    log.info("Storage layout migration: moved {} files (up to {})", migrated, cursor);
+                }
+            }
+            failedCounter.increment(failed);
+            MigrationResult result = new MigrationResult(scanned, migrated, failed);
+            log.info("Storage layout migration pass finished: scanned {} files, moved {}, failed {}",
+                    scanned, migrated, failed);
+            return result;
+        } catch (RuntimeException e) {
+            log.error("Storage layout migration stopped", e);
+            return null;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Give each file its new key, dropping the ones that could not be
+     * linked from the batch; returns how many were
+     */
+    private int link(Map<String, String> batch) {
+        batch.entrySet().removeIf(move -> {
+            rateLimiter.acquire();
+            try {
+                localStorage.linkIfAbsent(move.getKey(), move.getValue()).join();
+                // Already present means an earlier pass linked it
+                Optional<Path> target = localStorage.localPath(move.getValue());
+                if (target.isEmpty()) {
+                    return true;
+                }
+                Files.setLastModifiedTime(target.get(), FileTime.fromMillis(System.currentTimeMillis()));
+                return false;
+            } catch (RuntimeException | IOException e) {
+                log.warn("Could not move {} to {}: {}", move.getKey(), move.getValue(), e.getMessage());
+                return true;
+            }
+        });
+        return batch.size();
+    }
+
+    private void rewriteUrls(Map<String, String> batch) {
+        tx.executeWithoutResult(status -> batch.forEach((from, to) -> {
+            String fromUrl = localStorage.url(from);
+            String toUrl = localStorage.url(to);
+            videoRepository.replaceUrl(fromUrl, toUrl);
+            mediaBlobRepository.replaceUrl(fromUrl, toUrl);
+        }));
+    }
+}
@@ -0,0 +1,16 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.response.SuggestedUserResponse;
+
+import java.util.List;
+
+/**
+ * Suggestion Service - Who to follow
+ */
+public interface SuggestionService {
+
+    /**
+     * Friends-of-friends suggestions, topped up with popular accounts
+     */
+    List<SuggestedUserResponse> getSuggestions(Long userId, int limit);
+}
@@ -0,0 +1,81 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.response.SuggestedUserResponse;
+import com.ttlikeapp.dto.response.UserSummaryResponse;
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.service.FollowSuggestionEngine.Candidate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Default SuggestionService implementation
+ *
+ * Ranked candidates come from FollowSuggestionEngine (IDs only); users are
+ * loaded in one query and inactive/private/blocked accounts dropped. When the graph
+ * yields too few, the list is topped up with findSuggestedUsers.
+ */
+@Service
+@RequiredArgsConstructor
+public class SuggestionServiceImpl implements SuggestionService {
+
+    private final FollowSuggestionEngine suggestionEngine;
+    private final UserRepository userRepository;
+    private final BlockFilterService blockFilterService;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SuggestedUserResponse> getSuggestions(Long userId, int limit) {
+        List<Candidate> candidates = suggestionEngine.candidatesFor(userId);
+        BlockFilterService.ViewerFilter filter = blockFilterService.forViewer(userId);
+        List<SuggestedUserResponse> suggestions = new ArrayList<>(limit);
+        Set<Long> included = new HashSet<>();
+
+        if (!candidates.isEmpty()) {
+            Map<Long, User> users = userRepository.findAllById(
+                            candidates.stream().map(Candidate::userId).toList()).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            for (Candidate candidate : candidates) {
+                User user = users.get(candidate.userId());
+                if (user == null || !user.getActive() || user.getPrivateAccount() || filter.hides(user.getId())) {
+                    continue;
+                }
+                suggestions.add(toResponse(user, candidate.sharedFollowees()));
+                included.add(user.getId());
+                if (suggestions.size() == limit) {
+                    return suggestions;
+                }
+            }
+        }
+
+        // Cold start or sparse graph: fill with popular accounts
+        PageRequest page = PageRequest.of(0, limit + included.size());
+        for (User user : userRepository.findSuggestedUsers(userId, page)) {
+            if (!filter.hides(user.getId()) && included.add(user.getId())) {
+                suggestions.add(toResponse(user, 0));
+                if (suggestions.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    private SuggestedUserResponse toResponse(User user, int sharedFollowees) {
+        return SuggestedUserResponse.builder()
+                .user(UserSummaryResponse.from(user))
+                .sharedFollowees(sharedFollowees)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ttlikeapp.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.ttlikeapp.storage.StorageBackend.ObjectInfo;
+import com.ttlikeapp.storage.StorageBackend.ObjectPage;
+import com.ttlikeapp.storage.StorageKeys;
+import com.ttlikeapp.storage.TieredStorageBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tiered Storage Demoter - Moves aging media from the hot tier to the cold one
+ *
+ * With storage.tiering enabled, new media lands on local disk and stays
+ * there until this sweep demotes it: objects last written more than
+ * demote-after-ms ago are copied to S3 and removed from disk. Views
+ * concentrate on recent uploads, so age stands in for access; a demoted
+ * object keeps its URL (the media server redirects it to S3).
+ *
+ * Each run walks the hot tier page by page from where the last one
+ * stopped, up to max-objects-per-run, and starts over at the end; the
+ * position is kept in memory, so a restart begins a fresh pass. Copies
+ * are throttled to max-demotions-per-second. A failed demotion leaves
+ * the object hot for the next pass.
+ *
+ * Metrics: storage.tiering.demoted, storage.tiering.demoted.bytes.
+ */
+@Component
+@Slf4j
+public class TieredStorageDemoter {
+
+    private final TieredStorageBackend tiered;  // null unless storage.tiering.enabled
+    private final MeterRegistry meterRegistry;
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile String after = "";
+
+    @Value("${storage.tiering.demote-after-ms:604800000}")
+    private long demoteAfterMs;
+
+    @Value("${storage.tiering.page-size:1000}")
+    private int pageSize;
+
+    @Value("${storage.tiering.max-objects-per-run:100000}")
+    private long maxObjectsPerRun;
+
+    public TieredStorageDemoter(Optional<TieredStorageBackend> tiered,
+                                MeterRegistry meterRegistry,
+                                @Value("${storage.tiering.max-demotions-per-second:20}") double maxDemotionsPerSecond) {
+        this.tiered = tiered.orElse(null);
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = RateLimiter.create(maxDemotionsPerSecond);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.tiering.interval-ms:3600000}",
+               initialDelayString = "${storage.tiering.initial-delay-ms:600000}")
+    public void scheduledRun() {
+        if (tiered != null) {
+            run();
+        }
+    }
+
+    /**
+     * Scan up to max-objects-per-run hot objects from where the last run
+     * stopped, demoting the old ones; returns how many were demoted, or
+     * -1 if a run is already in progress
+     */
+    public long run() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        long scanned = 0;
+        long demoted = 0;
+        try {
+            Instant cutoff = Instant.now().minus(Duration.ofMillis(demoteAfterMs));
+            while (scanned < maxObjectsPerRun) {
+                ObjectPage page = tiered.listHot(after, pageSize).join();
+                for (ObjectInfo object : page.objects()) {
+                    if (object.lastModified().isBefore(cutoff) && demote(object)) {
+                        demoted++;
+                    }
+                    after = object.key();
+                }
+                scanned += page.objects().size();
+                if (!page.truncated()) {
+                    after = "";
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Demotion sweep after {} failed: {}", after, e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        log.info("Demotion sweep: scanned {} hot objects, demoted {}{}", scanned, demoted,
+                scanned >= maxObjectsPerRun ? ", stopped at max-objects-per-run" : "");
+        return demoted;
+    }
+
+    private boolean demote(ObjectInfo object) {
+        rateLimiter.acquire();
+        try {
+            tiered.demote(object.key(), StorageKeys.contentType(object.key())).join();
+        } catch (RuntimeException e) {
+            log.warn("Could not demote {}: {}", object.key(), e.getMessage());
+            return false;
+        }
+        meterRegistry.counter("storage.tiering.demoted").increment();
+        meterRegistry.counter("storage.tiering.demoted.bytes").increment(object.size());
+        return true;
+    }
+}
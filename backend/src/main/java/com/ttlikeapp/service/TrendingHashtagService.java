@@ -0,0 +1,321 @@
+package com.ttlikeapp.service;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.ttlikeapp.event.CommentCreatedEvent;
+import com.ttlikeapp.event.LikeChangedEvent;
+import com.ttlikeapp.event.VideoRemovedEvent;
+import com.ttlikeapp.event.VideoUpsertedEvent;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.util.CountMinSketch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trending Hashtag Service - Sliding-window heavy hitters from a stream of hashtag activity
+ *
+ * Activity (a video published with the tag, a like or a comment on a video
+ * carrying it) is weighted and added to the current bucket of two rings:
+ * - HOUR: 12 buckets of 5 minutes
+ * - DAY: 24 buckets of 1 hour
+ *
+ * Each bucket holds a Count-Min Sketch (fixed size, overcounts by at most
+ * epsilon * bucket activity) and the tags whose estimate reached its
+ * top-candidates set. A window's ranking scores the union of its buckets'
+ * candidates by summing their per-bucket estimates, so memory is fixed
+ * regardless of how many distinct tags are seen. Buckets are recycled
+ * lazily when their slot comes round again; reads ignore expired ones.
+ *
+ * Rankings are cached for ranking-ttl-ms. Engagement is attributed through
+ * a small videoId -> hashtags cache primed by VideoUpsertedEvent.
+ */
+@Service
+@Slf4j
+public class TrendingHashtagService {
+
+    public enum Window {
+        HOUR(Duration.ofMinutes(5), 12),
+        DAY(Duration.ofHours(1), 24);
+
+        private final long bucketMillis;
+        private final int buckets;
+
+        Window(Duration bucket, int buckets) {
+            this.bucketMillis = bucket.toMillis();
+            this.buckets = buckets;
+        }
+    }
+
+    public record Trend(String hashtag, long score) {
+    }
+
+    private final Map<Window, Ring> rings = new EnumMap<>(Window.class);
+    private final Map<Window, Ranking> rankings = new EnumMap<>(Window.class);
+    private final LoadingCache<Long, List<String>> videoHashtags;
+    private final int candidates;
+
+    @Value("${trending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${trending.ranking-ttl-ms:15000}")
+    private long rankingTtlMs;
+
+    @Value("${trending.weight.publish:1}")
+    private int publishWeight;
+
+    @Value("${trending.weight.like:1}")
+    private int likeWeight;
+
+    @Value("${trending.weight.comment:2}")
+    private int commentWeight;
+
+    public TrendingHashtagService(VideoRepository videoRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${trending.epsilon:0.001}") double epsilon,
+                                  @Value("${trending.delta:0.02}") double delta,
+                                  @Value("${trending.candidates:200}") int candidates,
+                                  @Value("${trending.tag-cache-size:100000}") long tagCacheSize) {
+        this.candidates = candidates;
+        for (Window window : Window.values()) {
+            rings.put(window, new Ring(window, epsilon, delta, candidates));
+        }
+        this.videoHashtags = CacheBuilder.newBuilder()
+                .maximumSize(tagCacheSize)
+                .build(CacheLoader.from(videoRepository::findPublicHashtagsByVideoId));
+
+        Gauge.builder("trending.hashtags.window.activity", this, service -> service.windowActivity(Window.HOUR))
+                .description("Weighted hashtag activity in the last hour")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Top hashtags by weighted activity in the window, highest first
+     * (limit is capped at trending.candidates)
+     */
+    public List<Trend> top(Window window, int limit) {
+        long now = System.currentTimeMillis();
+        Ranking ranking;
+        synchronized (rankings) {
+            ranking = rankings.get(window);
+        }
+        if (ranking == null || now - ranking.computedAt() > rankingTtlMs) {
+            ranking = new Ranking(now, rings.get(window).rank(now, candidates));
+            synchronized (rankings) {
+                rankings.put(window, ranking);
+            }
+        }
+
+        List<Trend> trends = ranking.trends();
+        return trends.subList(0, Math.min(limit, trends.size()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoUpserted(VideoUpsertedEvent event) {
+        videoHashtags.put(event.videoId(), List.copyOf(event.hashtags()));
+        record(event.addedHashtags(), publishWeight);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVideoRemoved(VideoRemovedEvent event) {
+        videoHashtags.put(event.videoId(), List.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(LikeChangedEvent event) {
+        if (event.liked()) {
+            record(hashtagsOf(event.videoId()), likeWeight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        record(hashtagsOf(event.videoId()), commentWeight);
+    }
+
+    private List<String> hashtagsOf(Long videoId) {
+        if (!enabled) {
+            return List.of();
+        }
+        try {
+            return videoHashtags.getUnchecked(videoId);
+        } catch (RuntimeException e) {
+            log.warn("Could not load hashtags of video {}: {}", videoId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private void record(Collection<String> hashtags, int weight) {
+        if (!enabled || hashtags.isEmpty() || weight <= 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (String hashtag : hashtags) {
+            long hash = CountMinSketch.hash(hashtag);
+            for (Ring ring : rings.values()) {
+                ring.add(now, hashtag, hash, weight);
+            }
+        }
+    }
+
+    private long windowActivity(Window window) {
+        return rings.get(window).activity(System.currentTimeMillis());
+    }
+
+    private record Ranking(long computedAt, List<Trend> trends) {
+    }
+
+    /**
+     * Ring of time buckets for one window; writers and rankers serialise on the ring
+     */
+    private static final class Ring {
+
+        private final Window window;
+        private final Bucket[] buckets;
+
+        Ring(Window window, double epsilon, double delta, int candidates) {
+            this.window = window;
+            this.buckets = new Bucket[window.buckets];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket(CountMinSketch.withErrorBound(epsilon, delta), candidates);
+            }
+        }
+
+        synchronized void add(long now, String hashtag, long hash, int weight) {
+            long epoch = now / window.bucketMillis;
+            Bucket bucket = buckets[(int) (epoch % buckets.length)];
+            if (bucket.epoch != epoch) {
+                bucket.reset(epoch);
+            }
+            bucket.offer(hashtag, hash, bucket.sketch.add(hash, weight));
+        }
+
+        synchronized List<Trend> rank(long now, int limit) {
+            List<Bucket> live = liveBuckets(now);
+
+            Map<String, Long> candidateHashes = new HashMap<>();
+            for (Bucket bucket : live) {
+                bucket.top.forEach((hashtag, entry) -> candidateHashes.put(hashtag, entry.hash));
+            }
+
+            List<Trend> trends = new ArrayList<>(candidateHashes.size());
+            candidateHashes.forEach((hashtag, hash) -> {
+                long score = 0;
+                for (Bucket bucket : live) {
+                    score += bucket.sketch.estimate(hash);
+                }
+                trends.add(new Trend(hashtag, score));
+            });
+
+            trends.sort(Comparator.comparingLong(Trend::score).reversed().thenComparing(Trend::hashtag));
+            return List.copyOf(trends.subList(0, Math.min(limit, trends.size())));
+        }
+
+        synchronized long activity(long now) {
+            long total = 0;
+            for (Bucket bucket : liveBuckets(now)) {
+                total += bucket.sketch.total();
+            }
+            return total;
+        }
+
+        private List<Bucket> liveBuckets(long now) {
+            long current = now / window.bucketMillis;
+            List<Bucket> live = new ArrayList<>(buckets.length);
+            for (Bucket bucket : buckets) {
+                if (bucket.epoch > current - buckets.length && bucket.epoch <= current) {
+                    live.add(bucket);
+                }
+            }
+            return live;
+        }
+    }
+
+    /**
+     * One time bucket: sketch plus the tags with the highest estimates seen in it
+     */
+    private static final class Bucket {
+
+        private final CountMinSketch sketch;
+        private final Map<String, Candidate> top;
+        private final int capacity;
+        private long epoch = -1;
+        private String minTag;  // null when unknown
+
+        Bucket(CountMinSketch sketch, int capacity) {
+            this.sketch = sketch;
+            this.capacity = capacity;
+            this.top = new HashMap<>(capacity * 2);
+        }
+
+        void reset(long epoch) {
+            this.epoch = epoch;
+            sketch.clear();
+            top.clear();
+            minTag = null;
+        }
+
+        void offer(String hashtag, long hash, int estimate) {
+            Candidate existing = top.get(hashtag);
+            if (existing != null) {
+                existing.estimate = estimate;
+                if (hashtag.equals(minTag)) {
+                    minTag = null;
+                }
+                return;
+            }
+
+            if (top.size() < capacity) {
+                top.put(hashtag, new Candidate(hash, estimate));
+                minTag = null;
+                return;
+            }
+
+            if (minTag == null) {
+                minTag = findMin();
+            }
+            if (estimate > top.get(minTag).estimate) {
+                top.remove(minTag);
+                top.put(hashtag, new Candidate(hash, estimate));
+                minTag = null;
+            }
+        }
+
+        private String findMin() {
+            String min = null;
+            int minEstimate = Integer.MAX_VALUE;
+            for (Map.Entry<String, Candidate> entry : top.entrySet()) {
+                if (entry.getValue().estimate < minEstimate) {
+                    minEstimate = entry.getValue().estimate;
+                    min = entry.getKey();
+                }
+            }
+            return min;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final long hash;
+        private int estimate;
+
+        Candidate(long hash, int estimate) {
+            this.hash = hash;
+            this.estimate = estimate;
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.projection.UsernameEntry;
+import com.ttlikeapp.util.WeightedPrefixIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Username Index Service - In-process username search
+ *
+ * Every active user gets a rank ordinal (verified first, then followers), so
+ * ascending ordinal order is result order and scans stop at the limit.
+ *
+ * - Substring queries (3+ chars): usernames are [a-z0-9_], so each trigram
+ *   maps to one of 37^3 slots holding a RoaringBitmap of ordinals. The query's
+ *   trigram bitmaps are intersected and the candidates verified against the
+ *   username bytes (trigrams can match out of order)
+ * - Shorter queries are type-ahead: top-K by prefix from a WeightedPrefixIndex
+ * - complete() serves the search box's username completions from the same
+ *   prefix index, with usernames as registered (the name pool keeps their
+ *   case; matching folds it)
+ *
+ * The whole snapshot is rebuilt periodically from one streaming scan and
+ * swapped atomically; readers never lock. Hits are user IDs; callers hydrate
+ * and re-check that the account is still active.
+ */
+@Service
+@Slf4j
+public class UsernameIndexService {
+
+    private static final int ALPHABET = 37;
+    private static final int MIN_SUBSTRING = 3;
+
+    public record UserCompletion(long userId, String username) {
+    }
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final Timer searchTimer;
+
+    @Value("${username-index.enabled:true}")
+    private boolean enabled;
+
+    private volatile Snapshot snapshot;
+
+    public UsernameIndexService(UserRepository userRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.searchTimer = Timer.builder("search.users.index")
+                .description("In-memory username search latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            Thread.ofPlatform().name("username-index-loader").daemon().start(this::rebuild);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${username-index.rebuild-interval-ms:600000}",
+               initialDelayString = "${username-index.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        if (enabled && snapshot != null) {
+            rebuild();
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Normalized query ("@Some_User" -> "some_user"), or null if it cannot match
+     */
+    public static String normalize(String query) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("@")) {
+            normalized = normalized.substring(1);
+        }
+        for (int i = 0; i < normalized.length(); i++) {
+            if (code(normalized.charAt(i)) < 0) {
+                return null;
+            }
+        }
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Best-ranked user IDs whose username contains (3+ chars) or starts with
+     * (shorter) the query
+     */
+    public List<Long> search(String query, int limit) {
+        Snapshot current = snapshot;
+        String normalized = normalize(query);
+        if (current == null || normalized == null) {
+            return List.of();
+        }
+        return searchTimer.record(() -> normalized.length() >= MIN_SUBSTRING
+                ? current.substring(normalized, limit)
+                : current.prefix(normalized, limit));
+    }
+
+    /**
+     * Best-ranked users whose username starts with the prefix, any length
+     */
+    public List<UserCompletion> complete(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String normalized = normalize(prefix);
+        if (current == null || normalized == null) {
+            return List.of();
+        }
+        return searchTimer.record(() -> current.complete(normalized, limit));
+    }
+
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            Snapshot built = readOnlyTx.execute(status -> load());
+            snapshot = built;
+            log.info("Username index loaded: {} users in {} ms", built.size(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Failed to build username index, searches stay on the database", e);
+        }
+    }
+
+    private Snapshot load() {
+        SnapshotBuilder builder = new SnapshotBuilder();
+        try (Stream<UsernameEntry> stream = userRepository.streamActiveUsernamesByRank()) {
+            stream.forEach(entry -> builder.add(entry.userId(), entry.username()));
+        }
+        return builder.build();
+    }
+
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        return c == '_' ? 36 : -1;
+    }
+
+    private static int trigram(byte a, byte b, byte c) {
+        int x = code((char) a);
+        int y = code((char) b);
+        int z = code((char) c);
+        return x < 0 || y < 0 || z < 0 ? -1 : (x * ALPHABET + y) * ALPHABET + z;
+    }
+
+    /**
+     * Immutable index generation
+     */
+    private static final class Snapshot {
+
+        private final long[] userIds;       // ordinal -> user ID
+        private final byte[] names;         // usernames as registered, concatenated
+        private final int[] offsets;        // ordinal -> start in names (length n + 1)
+        private final RoaringBitmap[] trigrams;
+        private final WeightedPrefixIndex prefixes;
+
+        Snapshot(long[] userIds, byte[] names, int[] offsets, RoaringBitmap[] trigrams, WeightedPrefixIndex prefixes) {
+            this.userIds = userIds;
+            this.names = names;
+            this.offsets = offsets;
+            this.trigrams = trigrams;
+            this.prefixes = prefixes;
+        }
+
+        int size() {
+            return userIds.length;
+        }
+
+        List<Long> prefix(String query, int limit) {
+            int[] ordinals = prefixes.topK(query, limit);
+            List<Long> result = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) {
+                result.add(userIds[ordinal]);
+            }
+            return result;
+        }
+
+        List<UserCompletion> complete(String query, int limit) {
+            int[] ordinals = prefixes.topK(query, limit);
+            List<UserCompletion> result = new ArrayList<>(ordinals.length);
+            for (int ordinal : ordinals) {
+                String username = new String(names, offsets[ordinal], offsets[ordinal + 1] - offsets[ordinal],
+                        StandardCharsets.US_ASCII);
+                result.add(new UserCompletion(userIds[ordinal], username));
+            }
+            return result;
+        }
+
+        List<Long> substring(String query, int limit) {
+            byte[] needle = query.getBytes(StandardCharsets.US_ASCII);
+
+            List<RoaringBitmap> postings = new ArrayList<>(needle.length - 2);
+            for (int i = 0; i + 2 < needle.length; i++) {
+                RoaringBitmap bitmap = trigrams[trigram(needle[i], needle[i + 1], needle[i + 2])];
+                if (bitmap == null) {
+                    return List.of();
+                }
+                postings.add(bitmap);
+            }
+            postings.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+
+            RoaringBitmap candidates = postings.get(0);
+            for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+                candidates = RoaringBitmap.and(candidates, postings.get(i));
+            }
+
+            List<Long> result = new ArrayList<>(limit);
+            IntIterator ordinals = candidates.getIntIterator();
+            while (ordinals.hasNext() && result.size() < limit) {
+                int ordinal = ordinals.next();
+                if (contains(ordinal, needle)) {
+                    result.add(userIds[ordinal]);
+                }
+            }
+            return result;
+        }
+
+        private boolean contains(int ordinal, byte[] needle) {
+            int start = offsets[ordinal];
+            int last = offsets[ordinal + 1] - needle.length;
+            for (int from = start; from <= last; from++) {
+                if (matchesAt(from, needle)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Needle is lower case; usernames are ASCII letters, digits and '_'
+         */
+        private boolean matchesAt(int from, byte[] needle) {
+            for (int i = 0; i < needle.length; i++) {
+                byte b = names[from + i];
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != needle[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Accumulates users in rank order
+     */
+    private static final class SnapshotBuilder {
+
+        private long[] userIds = new long[1024];
+        private int[] offsets = new int[1025];
+        private byte[] names = new byte[16 * 1024];
+        private final List<String> keys = new ArrayList<>();
+        private final RoaringBitmap[] trigrams = new RoaringBitmap[ALPHABET * ALPHABET * ALPHABET];
+        private int count;
+        private int length;
+
+        void add(long userId, String username) {
+            byte[] display = username.getBytes(StandardCharsets.US_ASCII);
+            byte[] name = username.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII);
+            if (count == userIds.length) {
+                userIds = Arrays.copyOf(userIds, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2 + 1);
+            }
+            while (length + name.length > names.length) {
+                names = Arrays.copyOf(names, names.length * 2);
+            }
+
+            userIds[count] = userId;
+            offsets[count] = length;
+            System.arraycopy(display, 0, names, length, display.length);
+            length += name.length;
+
+            for (int i = 0; i + 2 < name.length; i++) {
+                int slot = trigram(name[i], name[i + 1], name[i + 2]);
+                if (slot >= 0) {
+                    RoaringBitmap bitmap = trigrams[slot];
+                    if (bitmap == null) {
+                        bitmap = new RoaringBitmap();
+                        trigrams[slot] = bitmap;
+                    }
+                    // Ordinals only grow, so this is an append
+                    bitmap.add(count);
+                }
+            }
+
+            keys.add(new String(name, StandardCharsets.US_ASCII));
+            count++;
+        }
+
+        Snapshot build() {
+            offsets[count] = length;
+            for (RoaringBitmap bitmap : trigrams) {
+                if (bitmap != null) {
+                    bitmap.runOptimize();
+                }
+            }
+
+            // Weight = -ordinal: better-ranked users win the prefix top-K
+            long[] weights = new long[count];
+            for (int i = 0; i < count; i++) {
+                weights[i] = -i;
+            }
+            WeightedPrefixIndex prefixes = WeightedPrefixIndex.build(keys.toArray(String[]::new), weights);
+
+            return new Snapshot(Arrays.copyOf(userIds, count), Arrays.copyOf(names, length),
+                    Arrays.copyOf(offsets, count + 1), trigrams, prefixes);
+        }
+    }
+}
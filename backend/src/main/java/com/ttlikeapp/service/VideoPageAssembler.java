@@ -0,0 +1,65 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.FeedRequest;
+import com.ttlikeapp.dto.response.VideoFeedResponse;
+import com.ttlikeapp.dto.response.VideoResponse;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.service.BlockFilterService.ViewerFilter;
+import com.ttlikeapp.util.BackfillingPager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Shared last stage of every video listing: block/mute post-filter,
+ * backfill to a full page, map to VideoFeedResponse.
+ *
+ * Sources may return null rows (e.g. index hits whose video is no longer
+ * visible); they are skipped like hidden authors and still advance the cursor.
+ * Rows may also wrap the video (ranked feeds carry their score for the
+ * cursor), unwrapped by the given function.
+ */
+@Component
+@RequiredArgsConstructor
+public class VideoPageAssembler {
+
+    private static final String ALGORITHM_VERSION = "v1";
+
+    private final BlockFilterService blockFilterService;
+
+    @Value("${block-filter.overfetch-factor:2}")
+    private int overfetchFactor;
+
+    public VideoFeedResponse assemble(BackfillingPager.Source<Video> source, Long viewerId,
+                                      FeedRequest request, String feedType) {
+        return assemble(source, Function.identity(), viewerId, request, feedType);
+    }
+
+    public <T> VideoFeedResponse assemble(BackfillingPager.Source<T> source, Function<T, Video> toVideo,
+                                          Long viewerId, FeedRequest request, String feedType) {
+        int page = request.getPage() != null ? request.getPage() : 0;
+        int size = request.getSize() != null ? request.getSize() : 10;
+        String cursor = request.getCursor() != null && !request.getCursor().isBlank() ? request.getCursor() : null;
+
+        ViewerFilter filter = blockFilterService.forViewer(viewerId);
+        BackfillingPager.Result<T> result = BackfillingPager.fetch(
+                source, row -> {
+                    Video video = row == null ? null : toVideo.apply(row);
+                    return video != null && !filter.hides(video.getUser().getId());
+                },
+                cursor, size, filter.isEmpty() ? 1 : overfetchFactor);
+
+        return VideoFeedResponse.builder()
+                .content(result.items().stream().map(toVideo).map(VideoResponse::from).toList())
+                .page(page)
+                .size(size)
+                .first(cursor == null)
+                .last(result.exhausted())
+                .nextCursor(result.exhausted() ? null : result.nextCursor())
+                .feedType(feedType)
+                .algorithmVersion(ALGORITHM_VERSION)
+                .build();
+    }
+}
@@ -0,0 +1,521 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.MediaBlob;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.entity.VideoProcessingJob;
+import com.ttlikeapp.repository.MediaBlobRepository;
+import com.ttlikeapp.repository.VideoProcessingJobRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.storage.StorageBackend;
+import com.ttlikeapp.storage.StorageKeys;
+import com.ttlikeapp.util.VideoProcessor;
+import com.ttlikeapp.util.VideoProcessor.InvalidMediaException;
+import com.ttlikeapp.util.VideoProcessor.ProcessingException;
+import com.ttlikeapp.util.VideoProcessor.Rendition;
+import com.ttlikeapp.util.VideoProcessor.VideoMetadata;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Video Processing Job Processor - Probes one upload and publishes it
+ *
+ * A job moves its Video out of reviewStatus PENDING:
+ * - APPROVED, with duration, dimensions, thumbnail, HLS ladder and
+ *   processedAt set (processedAt stays null where neither the movie
+ *   header nor an installed ffprobe says, hlsUrl where ffmpeg is not
+ *   installed)
+ * - REJECTED when the file is not a readable video or is too long
+ * - FAILED once max-attempts attempts have failed
+ * Content shared through a MediaBlob is probed once: the first job stores
+ * the results on the blob, later ones copy them.
+ *
+ * Probing reads MP4/MOV headers in process, ffprobe only the rest
+ * (VideoProcessor.extractMetadata). A remote object is downloaded only
+ * for what needs a file (ffmpeg, ffprobe); when its movie header is all
+ * that is needed, it is read off the object's stream.
+ *
+ * The HLS ladder (VideoProcessor.transcodeHls) is stored under
+ * hls/ab/cd/<id>/, master playlist last, so a stored master always has
+ * its renditions. A failed transcode fails the attempt like a failed
+ * probe, except on the last attempt: the video is then published without
+ * a ladder (players use videoUrl) rather than not at all.
+ *
+ * Every step of an attempt, storage transfers as well as the tools, ends
+ * by the job-timeout deadline, so no attempt outlives its lease; a
+ * transfer given up on has its stream closed.
+ *
+ * The probe and the storage I/O run outside any transaction; reading the
+ * job, and publishing the results together with completing the job, run
+ * in short ones. Completion checks the job's version, so a worker whose
+ * lease lapsed and was taken over cannot publish twice.
+ */
+@Component
+@Slf4j
+public class VideoProcessingJobProcessor {
+
+    private static final String PENDING = "PENDING";
+    private static final String HLS_PLAYLIST = "application/vnd.apple.mpegurl";
+    private static final String HLS_SEGMENT = "video/mp2t";
+
+    /**
+     * How a job ended, reported to metrics by the worker
+     */
+    public enum Outcome {
+        APPROVED,
+        REJECTED,
+        SKIPPED  // Video deleted or no longer pending
+    }
+
+    /**
+     * A claimed job's video, read before probing; outcome set when the
+     * job was finished without probing
+     */
+    private record Work(Outcome outcome, Long videoId, String url, long fileSize, String format, Long blobId,
+                        boolean lastAttempt) {
+    }
+
+    private final VideoProcessingJobRepository jobRepository;
+    private final VideoRepository videoRepository;
+    private final MediaBlobRepository mediaBlobRepository;
+    private final MediaBlobService mediaBlobService;
+    private final StorageBackend storage;
+    private final VideoProcessor videoProcessor;
+    private final TransactionTemplate tx;
+    private final ExecutorService executor;
+    private final Duration jobTimeout;
+    private final Duration leaseMargin = Duration.ofSeconds(30);
+    private boolean probeAvailable;
+    private boolean ffmpegAvailable;
+
+    @Value("${video-processing.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${video-processing.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Value("${video-processing.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    @Value("${video-processing.hls.enabled:true}")
+    private boolean hlsEnabled;
+
+    @Value("${video-processing.hls.segment-seconds:4}")
+    private int hlsSegmentSeconds;
+
+    public VideoProcessingJobProcessor(VideoProcessingJobRepository jobRepository,
+                                       VideoRepository videoRepository,
+                                       MediaBlobRepository mediaBlobRepository,
+                                       MediaBlobService mediaBlobService,
+                                       StorageBackend storage,
+                                       VideoProcessor videoProcessor,
+                                       PlatformTransactionManager transactionManager,
+                                       ExecutorService storageExecutor,
+                                       @Value("${video-processing.job-timeout-ms:600000}") long jobTimeoutMs) {
+        this.jobRepository = jobRepository;
+        this.videoRepository = videoRepository;
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.mediaBlobService = mediaBlobService;
+        this.storage = storage;
+        this.videoProcessor = videoProcessor;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.executor = storageExecutor;
+        this.jobTimeout = Duration.ofMillis(jobTimeoutMs);
+    }
+
+    @PostConstruct
+    void detectTools() {
+        probeAvailable = videoProcessor.isFfprobeAvailable();
+        ffmpegAvailable = videoProcessor.isFfmpegAvailable();
+        if (!probeAvailable) {
+            log.warn("ffprobe not found: only MP4/MOV uploads get duration and dimensions");
+        }
+        if (!ffmpegAvailable) {
+            log.warn("ffmpeg not found: uploads are published without thumbnails or HLS ladders");
+        }
+    }
+
+    /**
+     * Take a runnable job under a lease; false if it is not runnable or
+     * another worker took it first
+     */
+    public boolean claim(Long jobId) {
+        try {
+            Boolean claimed = tx.execute(status -> {
+                VideoProcessingJob job = jobRepository.findById(jobId).orElse(null);
+                LocalDateTime now = LocalDateTime.now();
+                if (job == null || !job.isRunnable(now)) {
+                    return false;
+                }
+                if (job.getAttempts() >= maxAttempts) {
+                    // Lease of the last attempt ran out: its worker died
+                    fail(job, "Worker lost on the last attempt");
+                    return false;
+                }
+                job.claim(now.plus(jobTimeout).plus(leaseMargin));
+                jobRepository.save(job);
+                return true;
+            });
+            return Boolean.TRUE.equals(claimed);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Run a claimed job to completion; throws when the attempt failed
+     */
+    public Outcome process(Long jobId) {
+        LocalDateTime deadline = LocalDateTime.now().plus(jobTimeout);
+        Work work = tx.execute(status -> prepare(jobId));
+        if (work.outcome() != null) {
+            return work.outcome();
+        }
+
+        Path temp = null;
+        try {
+            String key = storage.keyFor(work.url())
+                    .orElseThrow(() -> new InvalidMediaException("Not a stored URL: " + work.url()));
+            Path path = storage.localPath(key).orElse(null);
+            VideoMetadata metadata = null;
+            if (path == null && !ffmpegAvailable && videoProcessor.readsContainer(work.format())) {
+                metadata = readRemote(key, work, deadline);
+            }
+            if (path == null && (ffmpegAvailable || (metadata == null && probeAvailable))) {
+                temp = download(key, work.format(), deadline);
+                path = temp;
+            }
+
+            if (metadata == null && path != null) {
+                metadata = probeAvailable
+                        ? videoProcessor.extractMetadata(path, work.fileSize(), work.format(), remaining(deadline))
+                        : videoProcessor.readContainer(path, work.fileSize(), work.format()).orElse(null);
+            }
+            if (metadata != null && metadata.duration() > videoProcessor.getMaxDuration()) {
+                finish(jobId, work, metadata, null, null, "REJECTED",
+                        "Video exceeds " + videoProcessor.getMaxDuration() + " seconds");
+                return Outcome.REJECTED;
+            }
+            String thumbnailUrl = ffmpegAvailable ? thumbnail(path, key, deadline) : null;
+            String hlsUrl = hlsEnabled && ffmpegAvailable && metadata != null
+                    ? ladder(path, key, metadata, deadline, work.lastAttempt())
+                    : null;
+            finish(jobId, work, metadata, thumbnailUrl, hlsUrl, "APPROVED", null);
+            return Outcome.APPROVED;
+        } catch (InvalidMediaException e) {
+            finish(jobId, work, null, null, null, "REJECTED", e.getMessage());
+            return Outcome.REJECTED;
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", temp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule a retry with exponential backoff, or fail the job and its
+     * video after the last attempt; true if it will be retried
+     */
+    public boolean recordFailure(Long jobId, Exception error) {
+        Boolean retrying = tx.execute(status -> {
+            VideoProcessingJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null || job.getStatus() != VideoProcessingJob.Status.RUNNING) {
+                return false;
+            }
+            if (job.getAttempts() >= maxAttempts) {
+                fail(job, error.getMessage());
+                return false;
+            }
+            long backoff = Math.min(maxBackoffMs, retryBackoffMs << Math.min(job.getAttempts() - 1, 20));
+            job.recordFailure(error.getMessage(), LocalDateTime.now().plus(Duration.ofMillis(backoff)));
+            jobRepository.save(job);
+            return true;
+        });
+        return Boolean.TRUE.equals(retrying);
+    }
+
+    /**
+     * Read the job's video; finishes right away when there is nothing to
+     * probe (video gone, or its blob already probed)
+     */
+    private Work prepare(Long jobId) {
+        VideoProcessingJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Processing job " + jobId + " vanished"));
+        Video video = videoRepository.findById(job.getVideoId()).orElse(null);
+        if (video == null || !Boolean.TRUE.equals(video.getActive()) || !PENDING.equals(video.getReviewStatus())) {
+            job.complete();
+            jobRepository.save(job);
+            return new Work(Outcome.SKIPPED, null, null, 0, null, null, false);
+        }
+
+        MediaBlob blob = video.getMediaBlobId() != null
+                ? mediaBlobRepository.findById(video.getMediaBlobId()).orElse(null)
+                : null;
+        if (blob != null && blob.getProcessedAt() != null) {
+            VideoMetadata metadata = new VideoMetadata(blob.getDuration(), blob.getWidth(), blob.getHeight(),
+                    blob.getFileSize(), blob.getFormat(), false);  // Audio only matters for transcoding
+            boolean tooLong = metadata.duration() > videoProcessor.getMaxDuration();
+            publish(video, metadata, blob.getThumbnailUrl(), blob.getHlsUrl(), tooLong ? "REJECTED" : "APPROVED");
+            job.complete();
+            jobRepository.save(job);
+            return new Work(tooLong ? Outcome.REJECTED : Outcome.APPROVED, null, null, 0, null, null, false);
+        }
+        return new Work(null, video.getId(), video.getOriginalUrl(), video.getFileSize(), video.getFormat(),
+                video.getMediaBlobId(), job.getAttempts() >= maxAttempts);
+    }
+
+    /**
+     * Publish the results and complete the job in one transaction
+     */
+    private void finish(Long jobId, Work work, VideoMetadata metadata, String thumbnailUrl, String hlsUrl,
+                        String reviewStatus, String error) {
+        tx.executeWithoutResult(status -> {
+            VideoProcessingJob job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new IllegalStateException("Processing job " + jobId + " vanished"));
+            if (work.blobId() != null && metadata != null) {
+                mediaBlobService.recordProcessing(work.blobId(), metadata, thumbnailUrl, hlsUrl);
+            }
+            videoRepository.findById(work.videoId())
+                    .filter(video -> PENDING.equals(video.getReviewStatus()))
+                    .ifPresent(video -> publish(video, metadata, thumbnailUrl, hlsUrl, reviewStatus));
+            job.setLastError(error);
+            job.complete();
+            jobRepository.saveAndFlush(job);  // Version check before commit
+        });
+        if (error != null) {
+            log.info("Video {} {}: {}", work.videoId(), reviewStatus.toLowerCase(Locale.ROOT), error);
+        }
+    }
+
+    private void publish(Video video, VideoMetadata metadata, String thumbnailUrl, String hlsUrl,
+                         String reviewStatus) {
+        if (metadata != null) {
+            video.setDuration(metadata.duration());
+            video.setWidth(metadata.width());
+            video.setHeight(metadata.height());
+            video.setProcessedAt(LocalDateTime.now());
+        }
+        if (thumbnailUrl != null) {
+            video.setThumbnailUrl(thumbnailUrl);
+        }
+        if (hlsUrl != null) {
+            video.setHlsUrl(hlsUrl);
+        }
+        video.setReviewStatus(reviewStatus);
+        videoRepository.save(video);
+    }
+
+    private void fail(VideoProcessingJob job, String error) {
+        job.recordFailure(error, null);
+        jobRepository.save(job);
+        videoRepository.findById(job.getVideoId())
+                .filter(video -> PENDING.equals(video.getReviewStatus()))
+                .ifPresent(video -> {
+                    video.setReviewStatus("FAILED");
+                    videoRepository.save(video);
+                });
+        log.warn("Processing of video {} failed after {} attempts: {}", job.getVideoId(), job.getAttempts(), error);
+    }
+
+    /**
+     * Thumbnail stored next to the video; a failure only costs the thumbnail
+     */
+    private String thumbnail(Path path, String videoKey, LocalDateTime deadline) {
+        byte[] jpeg;
+        try {
+            jpeg = videoProcessor.generateThumbnail(path, remaining(deadline));
+        } catch (ProcessingException e) {
+            log.warn("No thumbnail for {}: {}", videoKey, e.getMessage());
+            return null;
+        }
+        String key = StorageKeys.thumbnailFor(videoKey);
+        await(storage.put(key, new ByteArrayInputStream(jpeg), "image/jpeg"), deadline);
+        return storage.url(key);
+    }
+
+    /**
+     * Transcode the HLS ladder and store it; returns the master playlist
+     * URL, or null when the transcode failed on the last attempt
+     */
+    private String ladder(Path path, String videoKey, VideoMetadata metadata, LocalDateTime deadline,
+                          boolean lastAttempt) {
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("hls_");
+            List<Rendition> renditions;
+            try {
+                renditions = videoProcessor.transcodeHls(path, metadata, dir, hlsSegmentSeconds, remaining(deadline));
+            } catch (ProcessingException e) {
+                if (!lastAttempt) {
+                    throw e;
+                }
+                log.warn("No HLS ladder for {}: {}", videoKey, e.getMessage());
+                return null;
+            }
+
+            String prefix = StorageKeys.hlsFor(videoKey);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(dir)) {
+                files = listing.filter(file -> !file.getFileName().toString().equals(VideoProcessor.HLS_MASTER))
+                        .toList();
+            }
+            store(prefix, files, deadline);
+            String master = prefix + VideoProcessor.HLS_MASTER;
+            store(prefix, List.of(dir.resolve(VideoProcessor.HLS_MASTER)), deadline);
+            log.info("Stored HLS ladder {} ({} files) for {}", renditions.stream().map(Rendition::name).toList(),
+                    files.size() + 1, videoKey);
+            return storage.url(master);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store HLS ladder of " + videoKey, e);
+        } finally {
+            if (dir != null) {
+                deleteTree(dir);
+            }
+        }
+    }
+
+    /**
+     * Store files under prefix in parallel. Their streams are closed once
+     * the puts are over or given up on, which stops any still reading.
+     */
+    private void store(String prefix, List<Path> files, LocalDateTime deadline) {
+        List<InputStream> streams = new ArrayList<>(files.size());
+        try {
+            List<CompletableFuture<?>> puts = new ArrayList<>(files.size());
+            for (Path file : files) {
+                InputStream in = open(file);
+                streams.add(in);
+                puts.add(storage.put(prefix + file.getFileName(), in, contentType(file)));
+            }
+            await(CompletableFuture.allOf(puts.toArray(CompletableFuture[]::new)), deadline);
+        } finally {
+            streams.forEach(VideoProcessingJobProcessor::closeQuietly);
+        }
+    }
+
+    private static InputStream open(Path file) {
+        try {
+            return Files.newInputStream(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String contentType(Path file) {
+        return file.getFileName().toString().endsWith(".m3u8") ? HLS_PLAYLIST : HLS_SEGMENT;
+    }
+
+    private static void deleteTree(Path dir) {
+        try (Stream<Path> listing = Files.list(dir)) {
+            for (Path file : listing.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", dir);
+        }
+    }
+
+    /**
+     * Metadata from the movie header of a remote object, reading only up
+     * to its end; null when ffprobe has to look at the file
+     */
+    private VideoMetadata readRemote(String key, Work work, LocalDateTime deadline) {
+        CompletableFuture<InputStream> opened = storage.get(key);
+        try {
+            return await(opened.thenApplyAsync(in -> {
+                try (in) {
+                    return videoProcessor.readContainer(in, work.fileSize(), work.format()).orElse(null);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read " + key, e);
+                }
+            }, executor), deadline);
+        } finally {
+            opened.thenAccept(VideoProcessingJobProcessor::closeQuietly);  // Stops a read given up on
+        }
+    }
+
+    /**
+     * Copy of a remote object for the tools, which need a file
+     */
+    private Path download(String key, String format, LocalDateTime deadline) {
+        CompletableFuture<InputStream> opened = storage.get(key);
+        try {
+            Path temp = Files.createTempFile("probe_", "." + format);
+            try {
+                await(opened.thenAcceptAsync(in -> {
+                    try (in) {
+                        Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not download " + key, e);
+                    }
+                }, executor), deadline);
+            } catch (RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            return temp;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not download " + key, e);
+        } finally {
+            opened.thenAccept(VideoProcessingJobProcessor::closeQuietly);  // Stops a copy given up on
+        }
+    }
+
+    /**
+     * Wait for a storage call no longer than the job may run
+     */
+    private static <T> T await(CompletableFuture<T> call, LocalDateTime deadline) {
+        try {
+            return call.orTimeout(remaining(deadline).toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ProcessingException("Job timed out");
+            }
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Close failed: {}", e.getMessage());
+        }
+    }
+
+    private static Duration remaining(LocalDateTime deadline) {
+        Duration left = Duration.between(LocalDateTime.now(), deadline);
+        if (left.isNegative() || left.isZero()) {
+            throw new ProcessingException("Job timed out");
+        }
+        return left;
+    }
+}
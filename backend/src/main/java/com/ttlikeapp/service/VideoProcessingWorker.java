@@ -0,0 +1,141 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.entity.VideoProcessingJob;
+import com.ttlikeapp.repository.VideoProcessingJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Video Processing Worker - Background driver for VideoProcessingJob rows
+ *
+ * Throttling: a fixed pool of `workers` threads (default one per core)
+ * runs jobs, and a poll only claims as many jobs as there are idle
+ * threads, so at most that many ffprobe/ffmpeg processes exist at once
+ * however many uploads arrive; the rest wait in the table.
+ *
+ * The HLS transcode dominates an attempt (VideoProcessor.transcodeHls
+ * encodes the whole ladder from one decode), which is why workers are
+ * sized by cores rather than by I/O.
+ *
+ * Each attempt is bounded by job-timeout-ms (the tools are killed when
+ * it runs out) and retried with exponential backoff up to max-attempts
+ * (VideoProcessingJobProcessor).
+ *
+ * Metrics:
+ * - video.processing.jobs{outcome}  APPROVED, REJECTED, SKIPPED, RETRIED, FAILED
+ * - video.processing.duration       time per attempt
+ * - video.processing.jobs.pending   gauge: queued or running, refreshed every poll
+ * - video.processing.active         gauge: attempts running now
+ */
+@Component
+@Slf4j
+public class VideoProcessingWorker {
+
+    private final VideoProcessingJobRepository jobRepository;
+    private final VideoProcessingJobProcessor processor;
+    private final MeterRegistry meterRegistry;
+    private final int workers;
+    private final ExecutorService pool;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong pendingJobs = new AtomicLong();
+    private final Timer duration;
+
+    public VideoProcessingWorker(VideoProcessingJobRepository jobRepository,
+                                 VideoProcessingJobProcessor processor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${video-processing.workers:0}") int workers) {
+        this.jobRepository = jobRepository;
+        this.processor = processor;
+        this.meterRegistry = meterRegistry;
+        this.workers = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.pool = Executors.newFixedThreadPool(this.workers,
+                Thread.ofPlatform().name("video-processing-", 0).daemon().factory());
+        this.duration = Timer.builder("video.processing.duration")
+                .description("Time per processing attempt (download, probe, thumbnail, transcode)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("video.processing.jobs.pending", pendingJobs, AtomicLong::get)
+                .description("Processing jobs queued or running")
+                .register(meterRegistry);
+        Gauge.builder("video.processing.active", active, AtomicInteger::get)
+                .description("Processing attempts running now")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupts running attempts, which kills their tools; the jobs'
+        // leases run out and another instance (or the next start) retries
+        pool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${video-processing.poll-interval-ms:1000}")
+    public void poll() {
+        pendingJobs.set(jobRepository.countByStatusIn(
+                List.of(VideoProcessingJob.Status.PENDING, VideoProcessingJob.Status.RUNNING)));
+        int idle = workers - active.get();
+        if (idle <= 0) {
+            return;
+        }
+        for (Long jobId : jobRepository.findRunnableIds(LocalDateTime.now(), PageRequest.of(0, idle))) {
+            if (!processor.claim(jobId)) {
+                continue;
+            }
+            active.incrementAndGet();
+            try {
+                pool.execute(() -> run(jobId));
+            } catch (RejectedExecutionException e) {
+                active.decrementAndGet();  // Shutting down; the lease runs out
+                return;
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            outcome = processor.process(jobId).name();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Processing job {} was taken over by another worker", jobId);
+            outcome = "SKIPPED";
+        } catch (Exception e) {
+            log.warn("Processing job {} attempt failed: {}", jobId, e.getMessage());
+            outcome = recordFailure(jobId, e) ? "RETRIED" : "FAILED";
+        } finally {
+            sample.stop(duration);
+            active.decrementAndGet();
+        }
+        meterRegistry.counter("video.processing.jobs", "outcome", outcome).increment();
+    }
+
+    private boolean recordFailure(Long jobId, Exception error) {
+        try {
+            return processor.recordFailure(jobId, error);
+        } catch (RuntimeException e) {
+            // The lease runs out and the job is claimed again
+            log.warn("Could not record failure of processing job {}: {}", jobId, e.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.UploadSlotRequest;
+import com.ttlikeapp.dto.request.VideoUploadRequest;
+import com.ttlikeapp.dto.response.UploadSlotResponse;
+import com.ttlikeapp.dto.response.VideoResponse;
+
+import java.io.InputStream;
+
+/**
+ * Video Upload Service - Publishing new videos
+ */
+public interface VideoUploadService {
+
+    /**
+     * Stream a video body into storage and create its Video.
+     * contentLength is -1 when the client did not declare it.
+     */
+    VideoResponse upload(Long userId, VideoUploadRequest request, InputStream body,
+                         long contentLength, String contentType);
+
+    /**
+     * Reserve a direct-to-storage upload: presigned URLs the client PUTs
+     * the file to without passing through this server
+     */
+    UploadSlotResponse createUploadSlot(Long userId, UploadSlotRequest request);
+
+    /**
+     * Verify a direct upload in storage and create its Video; repeating a
+     * successful completion returns the same Video
+     */
+    VideoResponse completeUpload(Long userId, Long uploadId, VideoUploadRequest request);
+
+    /**
+     * Give up a direct upload and discard whatever was uploaded
+     */
+    void cancelUpload(Long userId, Long uploadId);
+}
@@ -0,0 +1,577 @@
+package com.ttlikeapp.service;
+
+import com.ttlikeapp.dto.request.UploadSlotRequest;
+import com.ttlikeapp.dto.request.VideoUploadRequest;
+import com.ttlikeapp.dto.response.UploadSlotResponse;
+import com.ttlikeapp.dto.response.VideoResponse;
+import com.ttlikeapp.entity.MediaBlob;
+import com.ttlikeapp.entity.UploadSession;
+import com.ttlikeapp.entity.User;
+import com.ttlikeapp.entity.Video;
+import com.ttlikeapp.entity.VideoProcessingJob;
+import com.ttlikeapp.repository.UploadSessionRepository;
+import com.ttlikeapp.repository.UserRepository;
+import com.ttlikeapp.repository.VideoProcessingJobRepository;
+import com.ttlikeapp.repository.VideoRepository;
+import com.ttlikeapp.storage.S3MultipartUploader;
+import com.ttlikeapp.storage.S3StorageBackend;
+import com.ttlikeapp.storage.S3StorageBackend.SignedRequest;
+import com.ttlikeapp.storage.StorageBackend;
+import com.ttlikeapp.storage.StorageKeys;
+import com.ttlikeapp.util.ContainerSniffer;
+import com.ttlikeapp.util.UploadStream;
+import com.ttlikeapp.util.VideoProcessor;
+import com.ttlikeapp.util.VideoProcessor.VideoMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Default VideoUploadService implementation
+ *
+ * Single pass: the request body goes through an UploadStream straight
+ * into the storage backend, which hashes, sniffs and size-checks it on
+ * the way; nothing is spooled to a temp file or buffered in heap.
+ *
+ * Probing (ffprobe, thumbnail) happens off the request path: a new Video
+ * is inserted with reviewStatus PENDING together with a
+ * VideoProcessingJob, and the response returns right away. The job
+ * publishes it (VideoProcessingWorker). Content already probed as a blob
+ * is published at once.
+ *
+ * Storage I/O happens outside any transaction; only the Video insert,
+ * counter and hashtag writes run in one. A failed insert removes the
+ * stored object again.
+ *
+ * Content is deduplicated by SHA-256 through MediaBlobService: an upload
+ * of bytes already stored links that blob (its probe, thumbnail and
+ * stored copy) and drops its own copy. The hash is only known once the
+ * body has been read, so the duplicate is still written once; what is
+ * saved is the storage and the processing.
+ *
+ * Direct uploads (S3 only) skip this server entirely for the bytes: a
+ * slot records the key, exact size and optional SHA-256 that were signed
+ * into presigned PUT URLs (one, or one per part for large files).
+ * Completion re-checks size, checksum and container in storage before
+ * the Video is created; a slot that fails the check, is cancelled or
+ * expires has its object or parts removed.
+ */
+@Service
+@Slf4j
+public class VideoUploadServiceImpl implements VideoUploadService {
+
+    // Declared type -> stored extension; anything else is refused up front
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "video/mp4", "mp4",
+            "video/quicktime", "mov",
+            "video/3gpp", "3gp",
+            "video/webm", "webm",
+            "video/x-matroska", "mkv");
+
+    private final StorageBackend storage;
+    private final S3StorageBackend s3Storage;  // null unless aws.s3.enabled
+    private final VideoProcessor videoProcessor;
+    private final VideoRepository videoRepository;
+    private final UserRepository userRepository;
+    private final HashtagService hashtagService;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MediaBlobService mediaBlobService;
+    private final VideoProcessingJobRepository videoProcessingJobRepository;
+    private final TransactionTemplate tx;
+    private final boolean s3Enabled;
+    private final long partSize;
+    private final Duration slotTtl;
+    private final int maxPendingPerUser;
+
+    public VideoUploadServiceImpl(StorageBackend storage,
+                                  Optional<S3StorageBackend> s3Storage,
+                                  VideoProcessor videoProcessor,
+                                  VideoRepository videoRepository,
+                                  UserRepository userRepository,
+                                  HashtagService hashtagService,
+                                  UploadSessionRepository uploadSessionRepository,
+                                  MediaBlobService mediaBlobService,
+                                  VideoProcessingJobRepository videoProcessingJobRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${aws.s3.multipart.part-size:8388608}") long partSize,
+                                  @Value("${aws.s3.direct-upload.ttl-seconds:3600}") long slotTtlSeconds,
+                                  @Value("${aws.s3.direct-upload.max-pending-per-user:5}") int maxPendingPerUser) {
+        this.storage = storage;
+        this.s3Storage = s3Storage.orElse(null);
+        this.s3Enabled = s3Storage.isPresent();
+        this.videoProcessor = videoProcessor;
+        this.videoRepository = videoRepository;
+        this.userRepository = userRepository;
+        this.hashtagService = hashtagService;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.mediaBlobService = mediaBlobService;
+        this.videoProcessingJobRepository = videoProcessingJobRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        // Same floor as S3MultipartUploader: S3 rejects smaller non-final parts
+        this.partSize = Math.max(partSize, 5L * 1024 * 1024);
+        this.slotTtl = Duration.ofSeconds(slotTtlSeconds);
+        this.maxPendingPerUser = maxPendingPerUser;
+    }
+
+    @Override
+    public VideoResponse upload(Long userId, VideoUploadRequest request, InputStream body,
+                                long contentLength, String contentType) {
+        String mediaType = mediaType(contentType);
+        String extension = extensionFor(mediaType);
+        long maxBytes = checkSize(contentLength);
+        User user = activeUser(userId);
+
+        UploadStream stream = new UploadStream(body, maxBytes);
+        String key;
+        try {
+            key = storage.put(StorageKeys.newVideo(extension), stream, mediaType).join().key();
+        } catch (RuntimeException e) {
+            throw storeFailure(userId, e);
+        }
+
+        String sha256 = stream.sha256();
+        long fileSize = stream.bytesRead();
+        String ownUrl = storage.url(key);
+        try {
+            String format = stream.format();
+            if (format == null) {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Not a supported video container");
+            }
+
+            // Known content: reuse its probe instead of queueing another
+            Optional<MediaBlob> known = mediaBlobService.find(sha256);
+            VideoMetadata metadata = known.map(VideoUploadServiceImpl::metadataOf).orElse(null);
+            if (known.isEmpty()) {
+                // Never replaces: a taken address may be a copy awaiting
+                // collection, which must not be re-pointed at
+                String address = StorageKeys.contentAddressedVideo(sha256, format);
+                if (storage.moveIfAbsent(key, address).join()) {
+                    ownUrl = storage.url(address);
+                }
+            }
+            if (metadata != null && metadata.duration() > videoProcessor.getMaxDuration()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Video exceeds " + videoProcessor.getMaxDuration() + " seconds");
+            }
+
+            Video saved = publishBlob(user, request, sha256, newBlob(ownUrl, fileSize, format));
+            if (!saved.getVideoUrl().equals(ownUrl)) {
+                discard(ownUrl);
+            }
+
+            log.info("User {} uploaded video {} ({} bytes, {}, sha256 {}{}, {})", userId, saved.getId(),
+                    saved.getFileSize(), format, sha256, known.isPresent() ? ", deduplicated" : "",
+                    saved.getReviewStatus());
+            return VideoResponse.from(saved);
+        } catch (RuntimeException e) {
+            discardUnlessBlob(ownUrl, sha256);
+            throw e;
+        }
+    }
+
+    @Override
+    public UploadSlotResponse createUploadSlot(Long userId, UploadSlotRequest request) {
+        requireDirectUploads();
+        String mediaType = mediaType(request.getContentType());
+        String extension = extensionFor(mediaType);
+        long size = request.getSize();
+        checkSize(size);
+        activeUser(userId);
+        long open = uploadSessionRepository.countByUserIdAndStatusAndExpiresAtAfter(
+                userId, UploadSession.Status.PENDING, LocalDateTime.now());
+        if (open >= maxPendingPerUser) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many uploads in progress");
+        }
+
+        String key = StorageKeys.newVideo(extension);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(slotTtl);
+        UploadSession.UploadSessionBuilder session = UploadSession.builder()
+                .userId(userId)
+                .objectKey(key)
+                .contentType(mediaType)
+                .declaredSize(size)
+                .expiresAt(expiresAt);
+
+        if (size <= partSize) {
+            String sha256 = request.getSha256() != null ? request.getSha256().toLowerCase(Locale.ROOT) : null;
+            SignedRequest put = s3Storage.presignPut(key, mediaType, size, sha256, slotTtl);
+            UploadSession saved = uploadSessionRepository.save(session.contentHash(sha256).build());
+            return UploadSlotResponse.builder()
+                    .uploadId(saved.getId())
+                    .method("PUT")
+                    .url(put.url())
+                    .headers(put.headers())
+                    .expiresAt(expiresAt)
+                    .build();
+        }
+
+        // A whole-object SHA-256 cannot be signed into part uploads; the
+        // Video gets no content hash on this path
+        String multipartUploadId = s3Storage.createMultipartUpload(key, mediaType);
+        try {
+            List<UploadSlotResponse.Part> parts = new ArrayList<>();
+            int partCount = (int) ((size + partSize - 1) / partSize);
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                long length = Math.min(partSize, size - (partNumber - 1) * partSize);
+                SignedRequest put = s3Storage.presignUploadPart(key, multipartUploadId, partNumber, length, slotTtl);
+                parts.add(UploadSlotResponse.Part.builder()
+                        .partNumber(partNumber)
+                        .url(put.url())
+                        .headers(put.headers())
+                        .build());
+            }
+
+            UploadSession saved = uploadSessionRepository.save(session
+                    .multipartUploadId(multipartUploadId)
+                    .partSize(partSize)
+                    .build());
+            return UploadSlotResponse.builder()
+                    .uploadId(saved.getId())
+                    .method("PUT")
+                    .partSize(partSize)
+                    .parts(parts)
+                    .expiresAt(expiresAt)
+                    .build();
+        } catch (RuntimeException e) {
+            s3Storage.abortMultipartUpload(key, multipartUploadId);
+            throw e;
+        }
+    }
+
+    @Override
+    public VideoResponse completeUpload(Long userId, Long uploadId, VideoUploadRequest request) {
+        requireDirectUploads();
+        UploadSession session = ownSession(userId, uploadId);
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            return videoRepository.findById(session.getVideoId())
+                    .map(VideoResponse::from)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.GONE, "Video no longer exists"));
+        }
+        if (session.getStatus() != UploadSession.Status.PENDING || session.isExpired()) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Upload slot is no longer open");
+        }
+        User user = activeUser(userId);
+
+        String key = session.getObjectKey();
+        if (session.isMultipart()) {
+            try {
+                if (s3Storage.completeMultipartUpload(key, session.getMultipartUploadId()) == 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No parts have been uploaded");
+                }
+            } catch (NoSuchUploadException e) {
+                // Assembled by an earlier attempt that failed afterwards
+                log.debug("Multipart upload for slot {} already completed", uploadId);
+            }
+        }
+
+        HeadObjectResponse head = s3Storage.head(key);
+        if (head == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Video has not been uploaded");
+        }
+        if (head.contentLength() != session.getDeclaredSize().longValue()) {
+            throw reject(session, HttpStatus.BAD_REQUEST, "Uploaded size does not match the declared size");
+        }
+        String sha256 = verifiedContentHash(session, head);
+        String format = sniff(key);
+        if (format == null) {
+            throw reject(session, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Not a supported video container");
+        }
+
+        String ownUrl = s3Storage.url(key);
+        Video saved;
+        try {
+            saved = tx.execute(status -> {
+                // Without a verified hash the upload cannot be deduplicated
+                Video created = sha256 != null
+                        ? publish(newVideo(user, request, sha256,
+                                mediaBlobService.acquire(sha256, () -> newBlob(ownUrl, head.contentLength(), format))))
+                        : publish(newVideo(user, ownUrl, request, null, head.contentLength(), format, null));
+                session.setStatus(UploadSession.Status.COMPLETED);
+                session.setVideoId(created.getId());
+                session.setCompletedAt(LocalDateTime.now());
+                uploadSessionRepository.save(session);
+                return created;
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is being completed by another request");
+        }
+        if (!saved.getVideoUrl().equals(ownUrl)) {
+            discardKey(s3Storage, key);
+        }
+
+        log.info("User {} completed direct upload {} as video {} ({} bytes, {})",
+                userId, uploadId, saved.getId(), saved.getFileSize(), format);
+        return VideoResponse.from(saved);
+    }
+
+    @Override
+    public void cancelUpload(Long userId, Long uploadId) {
+        requireDirectUploads();
+        UploadSession session = ownSession(userId, uploadId);
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already completed");
+        }
+        if (session.getStatus() == UploadSession.Status.PENDING) {
+            close(session, UploadSession.Status.CANCELLED);
+        }
+    }
+
+    /**
+     * Remove what abandoned slots left in the bucket
+     */
+    @Scheduled(fixedDelayString = "${aws.s3.direct-upload.sweep-interval-ms:300000}")
+    public void expireUploadSlots() {
+        if (!s3Enabled) {
+            return;
+        }
+        List<UploadSession> expired = uploadSessionRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, 100));
+        for (UploadSession session : expired) {
+            try {
+                close(session, UploadSession.Status.EXPIRED);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                log.debug("Upload slot {} changed while expiring it", session.getId());
+            } catch (RuntimeException e) {
+                log.warn("Failed to expire upload slot {}: {}", session.getId(), e.getMessage());
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Expired {} abandoned upload slots", expired.size());
+        }
+    }
+
+    /**
+     * Fail a completion: the object is discarded and the slot closed, so a
+     * retry needs a new slot
+     */
+    private ResponseStatusException reject(UploadSession session, HttpStatus status, String reason) {
+        log.info("Rejected direct upload {} of user {}: {}", session.getId(), session.getUserId(), reason);
+        close(session, UploadSession.Status.CANCELLED);
+        return new ResponseStatusException(status, reason);
+    }
+
+    private void close(UploadSession session, UploadSession.Status status) {
+        // Version check first: a concurrent completion wins over the discard
+        session.setStatus(status);
+        uploadSessionRepository.saveAndFlush(session);
+        if (session.isMultipart()) {
+            s3Storage.abortMultipartUpload(session.getObjectKey(), session.getMultipartUploadId());
+        }
+        discardKey(s3Storage, session.getObjectKey());
+    }
+
+    /**
+     * The declared SHA-256 once the store's own checksum confirms it, else
+     * null. S3 already refuses a body not matching a signed checksum, but
+     * multipart objects and stores keeping no checksum report none, and an
+     * unconfirmed claim must never link a blob: it could be someone else's
+     * content, or junk that later honest uploads would dedupe onto.
+     */
+    private String verifiedContentHash(UploadSession session, HeadObjectResponse head) {
+        if (session.getContentHash() == null || head.checksumSHA256() == null) {
+            return null;
+        }
+        if (!head.checksumSHA256().equals(S3StorageBackend.base64Sha256(session.getContentHash()))) {
+            throw reject(session, HttpStatus.BAD_REQUEST, "Uploaded content does not match the declared SHA-256");
+        }
+        return session.getContentHash();
+    }
+
+    /**
+     * Container format from the head of a stored object, null if unknown
+     */
+    private String sniff(String key) {
+        try (InputStream in = s3Storage.get(key, 0, ContainerSniffer.HEAD_SIZE).join()) {
+            byte[] head = in.readNBytes(ContainerSniffer.HEAD_SIZE);
+            ContainerSniffer sniffer = new ContainerSniffer();
+            sniffer.feed(head, 0, head.length);
+            return sniffer.format();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private UploadSession ownSession(Long userId, Long uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+                .filter(session -> session.getUserId().equals(userId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+    }
+
+    private void requireDirectUploads() {
+        if (!s3Enabled) {
+            throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Direct uploads require S3 storage");
+        }
+    }
+
+    private static String mediaType(String contentType) {
+        return contentType != null ? contentType.split(";")[0].trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static String extensionFor(String mediaType) {
+        String extension = EXTENSIONS.get(mediaType);
+        if (extension == null) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported video type");
+        }
+        return extension;
+    }
+
+    private long checkSize(long size) {
+        long maxBytes = videoProcessor.getMaxFileSize();
+        if (size > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Video exceeds " + maxBytes + " bytes");
+        }
+        return maxBytes;
+    }
+
+    private User activeUser(Long userId) {
+        return userRepository.findById(userId)
+                .filter(User::getActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
+    private static Video newVideo(User user, String url, VideoUploadRequest request, VideoMetadata metadata,
+                                  long fileSize, String format, String contentHash) {
+        return Video.builder()
+                .user(user)
+                .videoUrl(url)
+                .originalUrl(url)
+                .caption(request.getCaption())
+                .duration(metadata != null ? metadata.duration() : 0)
+                .width(metadata != null ? metadata.width() : null)
+                .height(metadata != null ? metadata.height() : null)
+                .fileSize(fileSize)
+                .format(format)
+                .contentHash(contentHash)
+                .isPrivate(Boolean.TRUE.equals(request.getIsPrivate()))
+                .allowComments(!Boolean.FALSE.equals(request.getAllowComments()))
+                .allowDuet(!Boolean.FALSE.equals(request.getAllowDuet()))
+                .allowStitch(!Boolean.FALSE.equals(request.getAllowStitch()))
+                .processedAt(metadata != null ? LocalDateTime.now() : null)
+                .reviewStatus(metadata != null ? "APPROVED" : "PENDING")  // Unprobed: published by its job
+                .build();
+    }
+
+    /**
+     * Video sharing a blob's stored copy, metadata and thumbnail
+     */
+    private static Video newVideo(User user, VideoUploadRequest request, String sha256, MediaBlob blob) {
+        Video video = newVideo(user, blob.getUrl(), request, metadataOf(blob), blob.getFileSize(),
+                blob.getFormat(), sha256);
+        video.setThumbnailUrl(blob.getThumbnailUrl());
+        video.setHlsUrl(blob.getHlsUrl());
+        video.setMediaBlobId(blob.getId());
+        video.setProcessedAt(blob.getProcessedAt());
+        return video;
+    }
+
+    /**
+     * Unprobed blob; the first processing job of a Video linking it
+     * records the probe (MediaBlobService.recordProcessing)
+     */
+    private static MediaBlob newBlob(String url, long fileSize, String format) {
+        return MediaBlob.builder()
+                .url(url)
+                .fileSize(fileSize)
+                .format(format)
+                .duration(0)
+                .build();
+    }
+
+    /**
+     * The blob's probe results, or null when it was never probed
+     */
+    private static VideoMetadata metadataOf(MediaBlob blob) {
+        if (blob.getProcessedAt() == null) {
+            return null;
+        }
+        return new VideoMetadata(blob.getDuration(), blob.getWidth(), blob.getHeight(),
+                blob.getFileSize(), blob.getFormat(), false);  // Audio only matters for transcoding
+    }
+
+    /**
+     * Link (or create) the blob and insert the Video referencing it
+     */
+    private Video publishBlob(User user, VideoUploadRequest request, String sha256, MediaBlob candidate) {
+        return tx.execute(status ->
+                publish(newVideo(user, request, sha256, mediaBlobService.acquire(sha256, () -> candidate))));
+    }
+
+    /**
+     * Discard a failed upload's copy, unless it became a blob's stored copy
+     * (which other videos may link by now; the collector owns it)
+     */
+    private void discardUnlessBlob(String url, String sha256) {
+        boolean blobCopy = mediaBlobService.find(sha256)
+                .map(blob -> blob.getUrl().equals(url))
+                .orElse(false);
+        if (!blobCopy) {
+            discard(url);
+        }
+    }
+
+    /**
+     * Insert plus counter and hashtag writes, and the processing job of a
+     * pending video; call inside a transaction
+     */
+    private Video publish(Video video) {
+        Video created = videoRepository.save(video);
+        userRepository.incrementVideosCount(video.getUser().getId());
+        hashtagService.syncHashtags(created);
+        if ("PENDING".equals(created.getReviewStatus())) {
+            videoProcessingJobRepository.save(VideoProcessingJob.forVideo(created.getId()));
+        }
+        return created;
+    }
+
+    private ResponseStatusException storeFailure(Long userId, Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UploadStream.LimitExceededException) {
+                return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, cause.getMessage());
+            }
+            if (cause instanceof UploadStream.UnsupportedFormatException) {
+                return new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, cause.getMessage());
+            }
+            if (cause instanceof S3MultipartUploader.CapacityExceededException) {
+                return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, cause.getMessage());
+            }
+        }
+        log.error("Failed to store upload from user {}", userId, e);
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to store video");
+    }
+
+    private void discard(String url) {
+        storage.keyFor(url).ifPresentOrElse(
+                key -> discardKey(storage, key),
+                () -> log.warn("Not a stored URL, leaving it: {}", url));
+    }
+
+    /**
+     * Delete in the background; a leftover object is only wasted space
+     */
+    private static void discardKey(StorageBackend backend, String key) {
+        backend.delete(key).whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.error("Failed to delete {} from {}", key, backend.name(), e);
+            }
+        });
+    }
+}
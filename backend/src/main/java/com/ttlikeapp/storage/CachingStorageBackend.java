@@ -0,0 +1,489 @@
+package com.ttlikeapp.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.io.ByteStreams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caching Storage Backend - Local disk read-through cache for a remote one
+ *
+ * Reads of a key copy the whole object to a cache directory once (on a
+ * fast local SSD) and are served from the file afterwards, ranges
+ * included. Writes and deletes go to the delegate and drop the cached
+ * copy (write-around), so the cache never holds what the delegate lost.
+ *
+ * - Index: in memory, a Caffeine cache weighted by object size in KiB and
+ *   bounded by max-bytes. Eviction is W-TinyLFU: a frequency sketch
+ *   guards resident objects, so a scan of one-off reads cannot flush the
+ *   few viral videos that take most of the traffic. An evicted object's
+ *   files are deleted; readers that already opened it keep reading.
+ * - Single flight: concurrent misses on a key share one download.
+ * - Checksums: every fill is hashed (SHA-256) into a sidecar file, and a
+ *   content-addressed key (videos/ab/cd/<sha256>.<ext>) must match its hash or
+ *   the fill fails. Entries recovered after a restart are re-hashed on
+ *   their first read; a mismatch (torn write, disk error) is dropped and
+ *   fetched again.
+ * - Restart: the index is rebuilt from the sidecars, oldest first;
+ *   leftovers of interrupted fills are removed.
+ * - Objects over max-object-bytes are not cached; reads of them go to the
+ *   delegate, which is remembered so they are not downloaded twice.
+ *
+ * Layout: <dir>/<2 hex>/<sha256(key)>-<nonce>.data plus .meta. The nonce
+ * keeps a refill from reusing the file an evicted copy is being deleted
+ * from.
+ */
+@Slf4j
+public class CachingStorageBackend implements StorageBackend {
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("(?:^|/)([0-9a-f]{64})\\.[a-z0-9]+$");
+
+    /**
+     * An object over max-object-bytes; thrown by a fill, which is dropped
+     */
+    private static class TooLargeException extends IOException {
+        TooLargeException(String key) {
+            super("Object too large to cache: " + key);
+        }
+    }
+
+    /**
+     * A cached copy. Recovered copies start unverified and are hashed once,
+     * by the first read.
+     */
+    private static final class CachedObject {
+        final String key;
+        final Path data;
+        final Path meta;
+        final long size;
+        final String sha256;
+        private CompletableFuture<Boolean> verification;
+
+        CachedObject(String key, Path data, Path meta, long size, String sha256, boolean verified) {
+            this.key = key;
+            this.data = data;
+            this.meta = meta;
+            this.size = size;
+            this.sha256 = sha256;
+            this.verification = verified ? CompletableFuture.completedFuture(true) : null;
+        }
+
+        int weight() {
+            return (int) Math.min(Integer.MAX_VALUE, size / 1024 + 1);
+        }
+    }
+
+    private final StorageBackend delegate;
+    private final Path directory;
+    private final long maxObjectBytes;
+    private final Executor executor;
+    private final Cache<String, CachedObject> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedObject>> fills = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> oversized;
+    private final Counter corrupt;
+
+    public CachingStorageBackend(StorageBackend delegate, Path directory, long maxBytes, long maxObjectBytes,
+                                 Executor executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxObjectBytes = Math.min(maxObjectBytes, maxBytes);
+        this.executor = executor;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, maxBytes / 1024))
+                .weigher((String key, CachedObject object) -> object.weight())
+                .removalListener((String key, CachedObject object, RemovalCause cause) -> {
+                    if (object != null) {
+                        deleteFiles(object);
+                    }
+                })
+                .executor(executor)
+                .recordStats()
+                .build();
+        this.oversized = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .build();
+        this.corrupt = Counter.builder("storage.cache.corrupt")
+                .description("Cached copies dropped for failing their checksum")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "storage.cache");
+        Gauge.builder("storage.cache.size", cache,
+                        c -> c.policy().eviction().orElseThrow().weightedSize().orElse(0) * 1024.0)
+                .description("Approximate bytes held by the local read-through cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        try {
+            Files.createDirectories(this.directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not initialize storage cache", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "cached(" + delegate.name() + ")";
+    }
+
+    @Override
+    public CompletableFuture<StoredObject> put(String key, InputStream in, String contentType) {
+        invalidate(key);
+        // Again afterwards: a read racing the put may have cached the old bytes
+        return delegate.put(key, in, contentType).whenComplete((stored, e) -> invalidate(key));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> get(String key, long offset, long length) {
+        if (oversized.getIfPresent(key) != null) {
+            return delegate.get(key, offset, length);
+        }
+        return cached(key)
+                .thenComposeAsync(object -> {
+                    InputStream in = open(object, offset, length);
+                    if (in != null) {
+                        return CompletableFuture.completedFuture(in);
+                    }
+                    // Evicted between lookup and open; the delegate still has it
+                    return delegate.get(key, offset, length);
+                }, executor)
+                .exceptionallyCompose(e -> {
+                    if (unwrap(e) instanceof TooLargeException) {
+                        oversized.put(key, Boolean.TRUE);
+                        return delegate.get(key, offset, length);
+                    }
+                    return CompletableFuture.failedFuture(unwrap(e));
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        invalidate(key);
+        return delegate.delete(key);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String key) {
+        return present(key) != null ? CompletableFuture.completedFuture(true) : delegate.exists(key);
+    }
+
+    @Override
+    public CompletableFuture<ObjectPage> list(String startAfter, int limit) {
+        return delegate.list(startAfter, limit);
+    }
+
+    /**
+     * The cached file, if the object is cached and verified; it may be
+     * evicted (deleted) at any time, so open it promptly
+     */
+    @Override
+    public Optional<Path> localPath(String key) {
+        CachedObject object = present(key);
+        return object != null && object.verification != null && Boolean.TRUE.equals(object.verification.getNow(false))
+                ? Optional.of(object.data)
+                : Optional.empty();
+    }
+
+    @Override
+    public String url(String key) {
+        return delegate.url(key);
+    }
+
+    @Override
+    public Optional<String> keyFor(String url) {
+        return delegate.keyFor(url);
+    }
+
+    @Override
+    public List<String> urlsFor(String key) {
+        return delegate.urlsFor(key);
+    }
+
+    /**
+     * Bring an object into the cache and return its file, e.g. for tools
+     * that need a path; fails for objects over max-object-bytes
+     */
+    public CompletableFuture<Path> fetch(String key) {
+        return cached(key).thenApply(object -> object.data);
+    }
+
+    /**
+     * Verified cached copy, filling it on a miss
+     */
+    private CompletableFuture<CachedObject> cached(String key) {
+        CachedObject object = cache.getIfPresent(key);
+        if (object == null) {
+            return fillOnce(key);
+        }
+        return verify(object).thenCompose(valid -> {
+            if (valid) {
+                return CompletableFuture.completedFuture(object);
+            }
+            corrupt.increment();
+            log.warn("Cached copy of {} failed its checksum, fetching it again", key);
+            cache.asMap().remove(key, object);
+            return fillOnce(key);
+        });
+    }
+
+    /**
+     * Join the fill in progress for key, or start one
+     */
+    private CompletableFuture<CachedObject> fillOnce(String key) {
+        CompletableFuture<CachedObject> created = new CompletableFuture<>();
+        CompletableFuture<CachedObject> running = fills.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+        fill(key).whenComplete((object, e) -> {
+            boolean current = fills.remove(key, created);
+            if (e != null) {
+                created.completeExceptionally(unwrap(e));
+                return;
+            }
+            if (current) {
+                cache.put(key, object);
+            } else {
+                // Invalidated while it ran: waiting readers get it, the cache does not
+                deleteFiles(object);
+            }
+            created.complete(object);
+        });
+        return created;
+    }
+
+    private CompletableFuture<Boolean> verify(CachedObject object) {
+        synchronized (object) {
+            if (object.verification == null) {
+                object.verification = CompletableFuture.supplyAsync(() -> {
+                    try (InputStream in = Files.newInputStream(object.data)) {
+                        MessageDigest digest = sha256();
+                        DigestInputStream hashed = new DigestInputStream(in, digest);
+                        long size = hashed.transferTo(OutputStream.nullOutputStream());
+                        return size == object.size && HexFormat.of().formatHex(digest.digest()).equals(object.sha256);
+                    } catch (IOException e) {
+                        return false;
+                    }
+                }, executor);
+            }
+            return object.verification;
+        }
+    }
+
+    private CompletableFuture<CachedObject> fill(String key) {
+        return delegate.get(key).thenApplyAsync(in -> {
+            try (in) {
+                return write(key, in);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private CachedObject write(String key, InputStream in) throws IOException {
+        String name = HexFormat.of().formatHex(sha256().digest(key.getBytes(StandardCharsets.UTF_8)))
+                + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        Path shard = directory.resolve(name.substring(0, 2));
+        Files.createDirectories(shard);
+        Path data = shard.resolve(name + ".data");
+        Path meta = shard.resolve(name + ".meta");
+        Path temp = shard.resolve(name + ".part");
+
+        MessageDigest digest = sha256();
+        long size;
+        try {
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                InputStream limited = ByteStreams.limit(new DigestInputStream(in, digest), maxObjectBytes + 1);
+                size = limited.transferTo(out);
+            }
+            if (size > maxObjectBytes) {
+                throw new TooLargeException(key);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Matcher address = CONTENT_ADDRESSED.matcher(key);
+            if (address.find() && !address.group(1).equals(sha256)) {
+                corrupt.increment();
+                throw new IOException("Fetched " + key + " does not match its content address (sha256 " + sha256 + ")");
+            }
+
+            Files.move(temp, data, StandardCopyOption.ATOMIC_MOVE);
+            // The sidecar lands last: a .data without one is an interrupted fill
+            Properties properties = new Properties();
+            properties.setProperty("key", key);
+            properties.setProperty("size", Long.toString(size));
+            properties.setProperty("sha256", sha256);
+            Path metaTemp = shard.resolve(name + ".meta.part");
+            try (Writer writer = Files.newBufferedWriter(metaTemp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(metaTemp, meta, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Cached {} ({} bytes)", key, size);
+            return new CachedObject(key, data, meta, size, sha256, true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            Files.deleteIfExists(data);
+            throw e;
+        }
+    }
+
+    /**
+     * Stream over the cached file, or null if it is gone
+     */
+    private InputStream open(CachedObject object, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(object.data, StandardOpenOption.READ);
+            channel.position(offset);
+            InputStream in = Channels.newInputStream(channel);
+            return length < 0 ? in : ByteStreams.limit(in, length);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Rebuild the index from the sidecars, oldest first so that recency
+     * roughly survives; everything else in the directory is a leftover
+     */
+    private void recover() throws IOException {
+        List<CachedObject> recovered = new ArrayList<>();
+        List<Path> leftovers = new ArrayList<>();
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path shard : shards) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(shard)) {
+                    for (Path file : files) {
+                        String filename = file.getFileName().toString();
+                        if (filename.endsWith(".meta")) {
+                            CachedObject object = readMeta(file);
+                            if (object != null) {
+                                recovered.add(object);
+                                continue;
+                            }
+                        } else if (filename.endsWith(".data")
+                                && Files.exists(file.resolveSibling(filename.replace(".data", ".meta")))) {
+                            continue;
+                        }
+                        leftovers.add(file);
+                    }
+                }
+            }
+        }
+        for (Path leftover : leftovers) {
+            Files.deleteIfExists(leftover);
+        }
+
+        recovered.sort(Comparator.comparing(object -> lastModified(object.meta)));
+        long bytes = 0;
+        for (CachedObject object : recovered) {
+            CachedObject previous = cache.asMap().put(object.key, object);
+            if (previous != null) {
+                log.debug("Duplicate cached copy of {}, keeping the newest", object.key);
+            }
+            bytes += object.size;
+        }
+        log.info("Storage cache at {}: recovered {} objects ({} bytes), removed {} leftover files",
+                directory, recovered.size(), bytes, leftovers.size());
+    }
+
+    private static CachedObject readMeta(Path meta) {
+        Path data = meta.resolveSibling(meta.getFileName().toString().replace(".meta", ".data"));
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            String key = properties.getProperty("key");
+            long size = Long.parseLong(properties.getProperty("size", "-1"));
+            String sha256 = properties.getProperty("sha256");
+            if (key == null || sha256 == null || !Files.isRegularFile(data) || Files.size(data) != size) {
+                Files.deleteIfExists(data);
+                return null;
+            }
+            return new CachedObject(key, data, meta, size, sha256, false);
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Unreadable cache entry {}: {}", meta, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The cached entry, without counting a hit or miss
+     */
+    private CachedObject present(String key) {
+        return cache.asMap().get(key);
+    }
+
+    private void invalidate(String key) {
+        fills.remove(key);
+        cache.invalidate(key);
+        oversized.invalidate(key);
+    }
+
+    private static void deleteFiles(CachedObject object) {
+        try {
+            // Sidecar first: without it a leftover .data is cleaned up on restart
+            Files.deleteIfExists(object.meta);
+            Files.deleteIfExists(object.data);
+        } catch (IOException e) {
+            log.warn("Could not delete cached copy of {}: {}", object.key, e.getMessage());
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
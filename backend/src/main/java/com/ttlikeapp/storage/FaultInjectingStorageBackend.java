@@ -0,0 +1,105 @@
+package com.ttlikeapp.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fault Injecting Storage Backend - Chaos wrapper for testing resilience
+ *
+ * Delays every put/get/delete/exists/list by up to latencyMs and fails a
+ * fraction of them (failureRate, 0..1) with an IOException before they
+ * reach the delegate. Never enable in production.
+ */
+@Slf4j
+public class FaultInjectingStorageBackend implements StorageBackend {
+
+    private final StorageBackend delegate;
+    private final double failureRate;
+    private final long latencyMs;
+
+    public FaultInjectingStorageBackend(StorageBackend delegate, double failureRate, long latencyMs) {
+        this.delegate = delegate;
+        this.failureRate = failureRate;
+        this.latencyMs = latencyMs;
+        log.warn("Storage fault injection enabled: failure rate {}, latency up to {} ms", failureRate, latencyMs);
+    }
+
+    @Override
+    public String name() {
+        return "faulty(" + delegate.name() + ")";
+    }
+
+    @Override
+    public CompletableFuture<StoredObject> put(String key, InputStream in, String contentType) {
+        return inject("put", key, () -> delegate.put(key, in, contentType));
+    }
+
+    @Override
+    public CompletableFuture<InputStream> get(String key, long offset, long length) {
+        return inject("get", key, () -> delegate.get(key, offset, length));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        return inject("delete", key, () -> delegate.delete(key));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String key) {
+        return inject("exists", key, () -> delegate.exists(key));
+    }
+
+    @Override
+    public CompletableFuture<ObjectPage> list(String startAfter, int limit) {
+        return inject("list", startAfter, () -> delegate.list(startAfter, limit));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> moveIfAbsent(String sourceKey, String targetKey) {
+        return delegate.moveIfAbsent(sourceKey, targetKey);
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return delegate.localPath(key);
+    }
+
+    @Override
+    public String url(String key) {
+        return delegate.url(key);
+    }
+
+    @Override
+    public Optional<String> keyFor(String url) {
+        return delegate.keyFor(url);
+    }
+
+    @Override
+    public List<String> urlsFor(String key) {
+        return delegate.urlsFor(key);
+    }
+
+    private <T> CompletableFuture<T> inject(String operation, String key, Supplier<CompletableFuture<T>> call) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs > 0 ? random.nextLong(latencyMs + 1) : 0;
+        boolean fail = random.nextDouble() < failureRate;
+        Executor after = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> null, after).thenCompose(ignored -> {
+            if (fail) {
+                throw new CompletionException(new IOException("Injected " + operation + " failure for " + key));
+            }
+            return call.get();
+        });
+    }
+}
@@ -0,0 +1,296 @@
+package com.ttlikeapp.storage;
+
+import com.google.common.io.ByteStreams;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Local Storage Backend - Objects as files under a root directory
+ *
+ * Used when S3 is disabled (development mode), and as the hot tier in
+ * front of S3. Keys map to relative paths, URLs to "/uploads/<key>"
+ * (served by MediaController).
+ *
+ * Writes go to a temporary sibling and are renamed into place, so a
+ * reader never sees a partial file and a failed put leaves nothing.
+ *
+ * Reads and deletes of a video key in an earlier layout fall back to the
+ * key's place in the sharded one (StorageKeys), so URLs stored before
+ * StorageLayoutMigrator moved a file keep resolving until it rewrites them.
+ */
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final String URL_PREFIX = "/uploads/";
+
+    private final Path root;
+    private final Executor executor;
+
+    public LocalStorageBackend(Path root, Executor executor) {
+        this.root = root.toAbsolutePath().normalize();
+        this.executor = executor;
+        try {
+            Files.createDirectories(this.root.resolve("videos"));
+            Files.createDirectories(this.root.resolve("thumbnails"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not initialize storage", e);
+        }
+        log.info("Local storage initialized at {}", this.root);
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public CompletableFuture<StoredObject> put(String key, InputStream in, String contentType) {
+        return write(key, temp -> Files.copy(in, temp));
+    }
+
+    @Override
+    public CompletableFuture<StoredObject> put(String key, ReadableByteChannel in, String contentType) {
+        // FileChannel.transferFrom: kernel-side copy when the source is a file
+        return write(key, temp -> {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long n;
+                while ((n = out.transferFrom(in, position, 1L << 30)) > 0) {
+                    position += n;
+                }
+                return position;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<InputStream> get(String key, long offset, long length) {
+        return supply(() -> {
+            FileChannel channel = FileChannel.open(existing(key), StandardOpenOption.READ);
+            channel.position(offset);
+            InputStream in = Channels.newInputStream(channel);
+            return length < 0 ? in : ByteStreams.limit(in, length);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        return supply(() -> {
+            if (Files.deleteIfExists(existing(key))) {
+                log.info("Deleted file: {}", key);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String key) {
+        return supply(() -> Files.isRegularFile(existing(key)));
+    }
+
+    /**
+     * Walks the tree depth first in key order, skipping whole directories
+     * that sort before startAfter, so a page costs about one directory
+     * listing per level rather than a walk of everything before it
+     */
+    @Override
+    public CompletableFuture<ObjectPage> list(String startAfter, int limit) {
+        return supply(() -> {
+            List<ObjectInfo> objects = new ArrayList<>();
+            boolean truncated = collect(root, "", startAfter, limit, objects);
+            return new ObjectPage(objects, truncated);
+        });
+    }
+
+    /**
+     * Append the keys after startAfter under dir; true once one more key
+     * than limit was found
+     */
+    private static boolean collect(Path dir, String prefix, String startAfter, int limit,
+                                   List<ObjectInfo> objects) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (name.startsWith(".")) {
+                    continue;  // Writes in progress
+                }
+                // "/" so that a directory sorts where its keys do
+                names.add(Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS) ? name + "/" : name);
+            }
+        } catch (NoSuchFileException e) {
+            return false;  // Removed while listing
+        }
+        names.sort(null);
+
+        for (String name : names) {
+            String key = prefix + name;
+            if (name.endsWith("/")) {
+                if (key.compareTo(startAfter) < 0 && !startAfter.startsWith(key)) {
+                    continue;
+                }
+                if (collect(dir.resolve(name.substring(0, name.length() - 1)), key, startAfter, limit, objects)) {
+                    return true;
+                }
+            } else if (key.compareTo(startAfter) > 0) {
+                if (objects.size() == limit) {
+                    return true;
+                }
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(dir.resolve(name),
+                            BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attributes.isRegularFile()) {
+                        objects.add(new ObjectInfo(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+                    }
+                } catch (NoSuchFileException e) {
+                    // Deleted while listing
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hard link then unlink: link(2) fails atomically if the target
+     * exists, which a plain move does not guarantee
+     */
+    @Override
+    public CompletableFuture<Boolean> moveIfAbsent(String sourceKey, String targetKey) {
+        return supply(() -> {
+            if (!link(sourceKey, targetKey)) {
+                return false;
+            }
+            Files.delete(path(sourceKey));
+            return true;
+        });
+    }
+
+    /**
+     * Give the object at sourceKey a second key, sharing its bytes; false
+     * if targetKey already exists. The source stays until deleted.
+     */
+    public CompletableFuture<Boolean> linkIfAbsent(String sourceKey, String targetKey) {
+        return supply(() -> link(sourceKey, targetKey));
+    }
+
+    private boolean link(String sourceKey, String targetKey) throws IOException {
+        Path target = path(targetKey);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, path(sourceKey));
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            log.warn("Hard links not supported under {}; {} keeps its key", root, sourceKey);
+            return false;
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        try {
+            Path path = existing(key);
+            return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+        } catch (IOException e) {  // Key outside the root
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String url(String key) {
+        return URL_PREFIX + key;
+    }
+
+    @Override
+    public Optional<String> keyFor(String url) {
+        return url != null && url.startsWith(URL_PREFIX) && resolve(url.substring(URL_PREFIX.length())) != null
+                ? Optional.of(url.substring(URL_PREFIX.length()))
+                : Optional.empty();
+    }
+
+    /**
+     * Path of a key, or null when it would escape the root ("..", absolute)
+     */
+    private Path resolve(String key) {
+        Path resolved = root.resolve(key).normalize();
+        return resolved.startsWith(root) && !resolved.equals(root) ? resolved : null;
+    }
+
+    private Path path(String key) throws IOException {
+        Path path = resolve(key);
+        if (path == null) {
+            throw new NoSuchFileException(key, null, "Key outside the storage root");
+        }
+        return path;
+    }
+
+    /**
+     * Path of the file holding key: its own, or for a legacy video key
+     * already migrated, the sharded one
+     */
+    private Path existing(String key) throws IOException {
+        Path path = path(key);
+        if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return path;
+        }
+        String sharded = StorageKeys.shardedVideo(key);
+        return sharded.equals(key) ? path : path(sharded);
+    }
+
+    private interface Writer {
+        long write(Path temp) throws IOException;
+    }
+
+    private CompletableFuture<StoredObject> write(String key, Writer writer) {
+        return supply(() -> {
+            Path target = path(key);
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".part");
+            try {
+                long size = writer.write(temp);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Stored file: {}", key);
+                return new StoredObject(key, size);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        });
+    }
+
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private <T> CompletableFuture<T> supply(IoSupplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.get();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ttlikeapp.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Replicated Storage Backend - A primary with asynchronous replicas
+ *
+ * A put completes once the primary has the object (the input stream can
+ * only be read once); each replica is then filled by copying from the
+ * primary in the background. Reads that fail on the primary are retried
+ * on the replicas in order. Deletes go to every copy. Listings are the
+ * primary's, like exists.
+ *
+ * Replication is best-effort: a failed copy is logged, not retried, so
+ * replicas may lag or miss objects. URLs are the primary's.
+ */
+@Slf4j
+public class ReplicatedStorageBackend implements StorageBackend {
+
+    private final StorageBackend primary;
+    private final List<StorageBackend> replicas;
+
+    public ReplicatedStorageBackend(StorageBackend primary, List<StorageBackend> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    @Override
+    public String name() {
+        List<String> names = new ArrayList<>();
+        names.add(primary.name());
+        replicas.forEach(replica -> names.add(replica.name()));
+        return "replicated(" + String.join(",", names) + ")";
+    }
+
+    @Override
+    public CompletableFuture<StoredObject> put(String key, InputStream in, String contentType) {
+        return primary.put(key, in, contentType).whenComplete((stored, e) -> {
+            if (e == null) {
+                replicas.forEach(replica -> replicate(key, contentType, replica));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<InputStream> get(String key, long offset, long length) {
+        CompletableFuture<InputStream> read = primary.get(key, offset, length);
+        for (StorageBackend replica : replicas) {
+            read = read.exceptionallyCompose(e -> {
+                log.debug("Read of {} failed ({}), trying {}", key, e.getMessage(), replica.name());
+                return replica.get(key, offset, length);
+            });
+        }
+        return read;
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        List<CompletableFuture<Void>> deletes = new ArrayList<>();
+        deletes.add(primary.delete(key));
+        replicas.forEach(replica -> deletes.add(replica.delete(key)));
+        return CompletableFuture.allOf(deletes.toArray(CompletableFuture[]::new));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String key) {
+        return primary.exists(key);
+    }
+
+    @Override
+    public CompletableFuture<ObjectPage> list(String startAfter, int limit) {
+        return primary.list(startAfter, limit);
+    }
+
+    /**
+     * Renames only the primary copy, so it is not offered: replicas would
+     * keep the object under its old key
+     */
+    @Override
+    public CompletableFuture<Boolean> moveIfAbsent(String sourceKey, String targetKey) {
+        return replicas.isEmpty()
+                ? primary.moveIfAbsent(sourceKey, targetKey)
+                : CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return primary.localPath(key);
+    }
+
+    @Override
+    public String url(String key) {
+        return primary.url(key);
+    }
+
+    @Override
+    public Optional<String> keyFor(String url) {
+        return primary.keyFor(url);
+    }
+
+    @Override
+    public List<String> urlsFor(String key) {
+        return primary.urlsFor(key);
+    }
+
+    private void replicate(String key, String contentType, StorageBackend replica) {
+        primary.get(key)
+                .thenCompose(in -> replica.put(key, in, contentType)
+                        .whenComplete((stored, e) -> TieredStorageBackend.closeQuietly(in)))
+                .whenComplete((stored, e) -> {
+                    if (e != null) {
+                        log.warn("Replication of {} to {} failed: {}", key, replica.name(), e.getMessage());
+                    }
+                });
+    }
+}
@@ -0,0 +1,273 @@
+package com.ttlikeapp.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel S3 multipart upload from a stream
+ *
+ * The caller's thread reads the stream one part at a time and hands each
+ * part to S3AsyncClient; up to `concurrency` parts of one upload are in
+ * flight on separate connections while the next part is read. Bodies
+ * smaller than one part go up as a single PUT.
+ *
+ * Memory: part buffers are capped at max-buffered-parts across all
+ * uploads, so heap stays bounded under an upload burst; a reader waits
+ * up to buffer-wait-ms for a buffer to be freed instead of allocating past
+ * the cap, then gives up with CapacityExceededException (a 503 to the
+ * client) rather than queueing behind slow uploads indefinitely.
+ *
+ * Failures: each part is retried with exponential backoff from its
+ * in-memory buffer; once a part gives up, reading stops and the upload
+ * is aborted (after in-flight parts settle) so no orphaned parts are
+ * billed.
+ */
+@Component
+@ConditionalOnProperty(name = "aws.s3.enabled", havingValue = "true")
+@Slf4j
+public class S3MultipartUploader {
+
+    // S3 rejects non-final parts below 5 MiB
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    /**
+     * No part buffer was freed within buffer-wait-ms; the upload is
+     * aborted and may be retried later
+     */
+    public static class CapacityExceededException extends IOException {
+        public CapacityExceededException() {
+            super("Upload capacity exhausted, retry later");
+        }
+    }
+
+    private final S3AsyncClient s3AsyncClient;
+    private final String bucketName;
+    private final int partSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final PartBuffers buffers;
+    private final Counter partRetries;
+
+    public S3MultipartUploader(S3AsyncClient s3AsyncClient,
+                               MeterRegistry meterRegistry,
+                               @Value("${aws.s3.bucket:tt-like-app-videos}") String bucketName,
+                               @Value("${aws.s3.multipart.part-size:8388608}") int partSize,
+                               @Value("${aws.s3.multipart.concurrency:4}") int concurrency,
+                               @Value("${aws.s3.multipart.max-buffered-parts:32}") int maxBufferedParts,
+                               @Value("${aws.s3.multipart.buffer-wait-ms:10000}") long bufferWaitMs,
+                               @Value("${aws.s3.multipart.max-attempts:3}") int maxAttempts,
+                               @Value("${aws.s3.multipart.retry-backoff-ms:200}") long retryBackoffMs) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.bucketName = bucketName;
+        this.partSize = Math.max(partSize, MIN_PART_SIZE);
+        this.concurrency = Math.max(1, concurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.buffers = new PartBuffers(Math.max(1, maxBufferedParts), this.partSize, bufferWaitMs);
+        this.partRetries = Counter.builder("storage.s3.part.retries")
+                .description("Multipart upload parts re-sent after a failed attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Upload the rest of the stream to key. Returns once the stream has
+     * been read to the end; the future completes with the object's size
+     * once it exists. Read errors (including UploadStream rejections) are
+     * thrown here, after the multipart upload has been aborted.
+     */
+    public CompletableFuture<Long> upload(InputStream in, String key, String contentType) throws IOException {
+        byte[] first = buffers.acquire();
+        int firstLength;
+        try {
+            firstLength = in.readNBytes(first, 0, partSize);
+        } catch (IOException | RuntimeException e) {
+            buffers.release(first);
+            throw e;
+        }
+
+        if (firstLength < partSize) {
+            return s3AsyncClient.putObject(
+                            request -> request.bucket(bucketName).key(key).contentType(contentType)
+                                    .contentLength((long) firstLength),
+                            body(first, firstLength))
+                    .whenComplete((response, error) -> buffers.release(first))
+                    .thenApply(response -> (long) firstLength);
+        }
+
+        String uploadId;
+        try {
+            uploadId = s3AsyncClient.createMultipartUpload(
+                            request -> request.bucket(bucketName).key(key).contentType(contentType))
+                    .join()
+                    .uploadId();
+        } catch (RuntimeException e) {
+            buffers.release(first);
+            throw e;
+        }
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        // Acquired but not yet handed to a part upload
+        byte[] buffer = first;
+        int length = firstLength;
+        long total = 0;
+        try {
+            for (int partNumber = 1; buffer != null; partNumber++) {
+                acquire(inFlight);
+                if (failed.isDone()) {
+                    inFlight.release();
+                    break;
+                }
+
+                byte[] part = buffer;
+                CompletableFuture<CompletedPart> upload = uploadPart(uploadId, key, partNumber, part, length, 1);
+                buffer = null;
+                total += length;
+                parts.add(upload.whenComplete((completed, error) -> {
+                    buffers.release(part);
+                    inFlight.release();
+                    if (error != null) {
+                        failed.complete(null);
+                    }
+                }));
+
+                if (length == partSize) {
+                    buffer = buffers.acquire();
+                    length = in.readNBytes(buffer, 0, partSize);
+                    if (length == 0) {
+                        buffers.release(buffer);
+                        buffer = null;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            abort(uploadId, key, parts);
+            throw e;
+        } finally {
+            buffers.release(buffer);
+        }
+
+        long size = total;
+        return CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .thenCompose(done -> s3AsyncClient.completeMultipartUpload(request -> request
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .multipartUpload(upload -> upload.parts(parts.stream()
+                                .map(CompletableFuture::join)
+                                .sorted(Comparator.comparing(CompletedPart::partNumber))
+                                .toList()))))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        abort(uploadId, key, parts);
+                    } else {
+                        log.debug("Multipart upload of {} completed in {} parts", key, parts.size());
+                    }
+                })
+                .thenApply(response -> size);
+    }
+
+    private CompletableFuture<CompletedPart> uploadPart(String uploadId, String key, int partNumber,
+                                                        byte[] data, int length, int attempt) {
+        return s3AsyncClient.uploadPart(
+                        request -> request.bucket(bucketName).key(key).uploadId(uploadId)
+                                .partNumber(partNumber).contentLength((long) length),
+                        body(data, length))
+                .thenApply(response -> CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build())
+                .exceptionallyCompose(error -> {
+                    if (attempt >= maxAttempts) {
+                        log.warn("Part {} of {} failed after {} attempts: {}", partNumber, key, attempt, error.getMessage());
+                        return CompletableFuture.failedFuture(error);
+                    }
+                    partRetries.increment();
+                    long delay = retryBackoffMs << (attempt - 1);
+                    return CompletableFuture
+                            .supplyAsync(() -> null, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> uploadPart(uploadId, key, partNumber, data, length, attempt + 1));
+                });
+    }
+
+    private void abort(String uploadId, String key, List<CompletableFuture<CompletedPart>> parts) {
+        // Parts still uploading would otherwise outlive the abort
+        CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                .handle((done, error) -> null)
+                .thenCompose(ignored -> s3AsyncClient.abortMultipartUpload(
+                        request -> request.bucket(bucketName).key(key).uploadId(uploadId)))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.error("Failed to abort multipart upload {} of {}", uploadId, key, error);
+                    } else {
+                        log.info("Aborted multipart upload of {}", key);
+                    }
+                });
+    }
+
+    private static AsyncRequestBody body(byte[] data, int length) {
+        // No copy: the buffer is not reused until the request completes
+        return AsyncRequestBody.fromRemainingByteBufferUnsafe(ByteBuffer.wrap(data, 0, length));
+    }
+
+    private static void acquire(Semaphore semaphore) throws InterruptedIOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for upload capacity");
+        }
+    }
+
+    /**
+     * Part buffers, at most `capacity` alive across all uploads. Not pooled:
+     * idle capacity is returned to the heap rather than pinned after a burst.
+     */
+    private static final class PartBuffers {
+
+        private final Semaphore permits;
+        private final int bufferSize;
+        private final long waitMs;
+
+        PartBuffers(int capacity, int bufferSize, long waitMs) {
+            this.permits = new Semaphore(capacity);
+            this.bufferSize = bufferSize;
+            this.waitMs = waitMs;
+        }
+
+        byte[] acquire() throws IOException {
+            try {
+                if (!permits.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+                    throw new CapacityExceededException();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for upload capacity");
+            }
+            return new byte[bufferSize];
+        }
+
+        void release(byte[] buffer) {
+            if (buffer != null) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.ttlikeapp.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.awscore.presigner.PresignedRequest;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * S3 Storage Backend - AWS S3 or compatible (MinIO, LocalStack)
+ *
+ * Puts stream through S3MultipartUploader (parallel parts, no length
+ * needed); other calls use the blocking client on the backend's threads.
+ * URLs are path style, https://s3.amazonaws.com/<bucket>/<key>; stored
+ * virtual-hosted ones (https://<bucket>.s3.amazonaws.com/<key>) are
+ * accepted too.
+ *
+ * Also the home of the S3-only operations direct client uploads need:
+ * presigned PUTs, client-driven multipart uploads and checksum heads.
+ */
+@Slf4j
+public class S3StorageBackend implements StorageBackend {
+
+    /**
+     * A presigned request: the client sends it as-is, with these headers
+     */
+    public record SignedRequest(String url, Map<String, String> headers) {
+    }
+
+    private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
+    private final S3MultipartUploader multipartUploader;
+    private final String bucketName;
+    private final List<String> urlPrefixes;  // Path style first
+    private final Executor executor;
+
+    public S3StorageBackend(S3Client s3Client, S3Presigner s3Presigner, S3MultipartUploader multipartUploader,
+                            String bucketName, Executor executor) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.multipartUploader = multipartUploader;
+        this.bucketName = bucketName;
+        this.urlPrefixes = List.of(
+                "https://s3.amazonaws.com/" + bucketName + "/",
+                "https://" + bucketName + ".s3.amazonaws.com/");
+        this.executor = executor;
+    }
+
+    @Override
+    public String name() {
+        return "s3";
+    }
+
+    @Override
+    public CompletableFuture<StoredObject> put(String key, InputStream in, String contentType) {
+        // The uploader reads the stream on the calling thread; make that ours
+        return supply(() -> multipartUploader.upload(in, key, contentType))
+                .thenCompose(upload -> upload)
+                .thenApply(size -> {
+                    log.info("Uploaded {} to S3 ({} bytes)", key, size);
+                    return new StoredObject(key, size);
+                });
+    }
+
+    @Override
+    public CompletableFuture<InputStream> get(String key, long offset, long length) {
+        return supply(() -> {
+            try {
+                return s3Client.getObject(request -> {
+                    request.bucket(bucketName).key(key);
+                    if (offset > 0 || length >= 0) {
+                        request.range("bytes=" + offset + "-" + (length >= 0 ? offset + length - 1 : ""));
+                    }
+                });
+            } catch (NoSuchKeyException e) {
+                throw new NoSuchFileException(key);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        return supply(() -> {
+            s3Client.deleteObject(request -> request.bucket(bucketName).key(key));
+            log.info("Deleted from S3: {}", key);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String key) {
+        return supply(() -> head(key) != null);
+    }
+
+    /**
+     * ListObjectsV2 with StartAfter, so a listing resumes from any key
+     */
+    @Override
+    public CompletableFuture<ObjectPage> list(String startAfter, int limit) {
+        return supply(() -> {
+            ListObjectsV2Response response = s3Client.listObjectsV2(request -> request
+                    .bucket(bucketName)
+                    .startAfter(startAfter.isEmpty() ? null : startAfter)
+                    .maxKeys(limit));
+            return new ObjectPage(response.contents().stream()
+                    .map(object -> new ObjectInfo(object.key(), object.size(), object.lastModified()))
+                    .toList(), response.isTruncated());
+        });
+    }
+
+    @Override
+    public String url(String key) {
+        return urlPrefixes.get(0) + key;
+    }
+
+    /**
+     * Path-style URLs of this bucket, and virtual-hosted ones
+     */
+    @Override
+    public Optional<String> keyFor(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        return urlPrefixes.stream()
+                .filter(url::startsWith)
+                .map(prefix -> url.substring(prefix.length()))
+                .findFirst();
+    }
+
+    @Override
+    public List<String> urlsFor(String key) {
+        return urlPrefixes.stream().map(prefix -> prefix + key).toList();
+    }
+
+    // ----- Direct upload support -----
+
+    /**
+     * Presigned single PUT. Content type and exact length are signed, and so
+     * is the SHA-256 when given: S3 rejects a body that does not match.
+     */
+    public SignedRequest presignPut(String key, String contentType, long contentLength,
+                                    String sha256Hex, Duration ttl) {
+        PutObjectRequest.Builder put = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength);
+        if (sha256Hex != null) {
+            put.checksumSHA256(base64Sha256(sha256Hex));
+        }
+
+        return signed(s3Presigner.presignPutObject(request -> request
+                .signatureDuration(ttl)
+                .putObjectRequest(put.build())));
+    }
+
+    /**
+     * Start a multipart upload whose parts the client sends directly
+     */
+    public String createMultipartUpload(String key, String contentType) {
+        return s3Client.createMultipartUpload(request -> request
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType))
+                .uploadId();
+    }
+
+    /**
+     * Presigned PUT for one part of a multipart upload, length signed
+     */
+    public SignedRequest presignUploadPart(String key, String uploadId, int partNumber,
+                                           long contentLength, Duration ttl) {
+        return signed(s3Presigner.presignUploadPart(request -> request
+                .signatureDuration(ttl)
+                .uploadPartRequest(part -> part
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength(contentLength))));
+    }
+
+    /**
+     * Assemble a multipart upload from the parts S3 actually holds (the
+     * client's word is not needed for ETags); returns the part count
+     */
+    public int completeMultipartUpload(String key, String uploadId) {
+        List<CompletedPart> parts = s3Client.listPartsPaginator(request -> request
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId))
+                .parts()
+                .stream()
+                .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build())
+                .toList();
+        if (parts.isEmpty()) {
+            return 0;
+        }
+
+        s3Client.completeMultipartUpload(request -> request
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(upload -> upload.parts(parts)));
+        return parts.size();
+    }
+
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(request -> request.bucket(bucketName).key(key).uploadId(uploadId));
+        } catch (NoSuchUploadException e) {
+            log.debug("Multipart upload {} of {} already gone", uploadId, key);
+        }
+    }
+
+    /**
+     * Object metadata including its stored SHA-256 checksum, or null if absent
+     */
+    public HeadObjectResponse head(String key) {
+        try {
+            return s3Client.headObject(request -> request
+                    .bucket(bucketName)
+                    .key(key)
+                    .checksumMode(ChecksumMode.ENABLED));
+        } catch (NoSuchKeyException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Create the bucket if it doesn't exist
+     */
+    public void ensureBucketExists() {
+        try {
+            s3Client.headBucket(request -> request.bucket(bucketName));
+            log.info("S3 bucket {} exists", bucketName);
+        } catch (NoSuchBucketException e) {
+            s3Client.createBucket(request -> request.bucket(bucketName));
+            log.info("Created S3 bucket: {}", bucketName);
+        }
+    }
+
+    /**
+     * Hex SHA-256 as the base64 form S3 checksums use
+     */
+    public static String base64Sha256(String sha256Hex) {
+        return Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256Hex));
+    }
+
+    private static SignedRequest signed(PresignedRequest presigned) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            // Set by the HTTP client itself
+            if (!name.equalsIgnoreCase("host")) {
+                headers.put(name.toLowerCase(Locale.ROOT), String.join(",", values));
+            }
+        });
+        return new SignedRequest(presigned.url().toString(), headers);
+    }
+
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private <T> CompletableFuture<T> supply(IoSupplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.get();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
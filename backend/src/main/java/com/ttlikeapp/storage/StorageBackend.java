@@ -0,0 +1,124 @@
+package com.ttlikeapp.storage;
+
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage Backend - Asynchronous object storage for media
+ *
+ * Objects are addressed by key ("videos/42/<uuid>.mp4"); url(key) is the
+ * form stored on entities and keyFor(url) maps it back. Every operation
+ * returns at once with a future, so callers can overlap storage I/O with
+ * other work; blocking work runs on the backend's own threads.
+ *
+ * Inputs are consumed as streams, once, front to back: nothing is
+ * buffered whole in heap or spooled. A failed put leaves no object.
+ * A missing object fails get with java.nio.file.NoSuchFileException.
+ *
+ * Backends compose by wrapping (see TieredStorageBackend,
+ * ReplicatedStorageBackend, FaultInjectingStorageBackend); StorageConfig
+ * assembles the application's backend from configuration.
+ */
+public interface StorageBackend {
+
+    /**
+     * Result of a completed put
+     */
+    record StoredObject(String key, long size) {
+    }
+
+    /**
+     * A listed object
+     */
+    record ObjectInfo(String key, long size, Instant lastModified) {
+    }
+
+    /**
+     * One page of a listing; truncated when more keys follow the last one
+     */
+    record ObjectPage(List<ObjectInfo> objects, boolean truncated) {
+    }
+
+    /**
+     * Short name for logs and metrics ("local", "s3", "tiered(local,s3)")
+     */
+    String name();
+
+    /**
+     * Store the stream under key, replacing any existing object. The
+     * stream is read to its end but not closed.
+     */
+    CompletableFuture<StoredObject> put(String key, InputStream in, String contentType);
+
+    /**
+     * Store a channel's remaining bytes under key; backends that can move
+     * bytes channel to channel (file to file) avoid user-space copies
+     */
+    default CompletableFuture<StoredObject> put(String key, ReadableByteChannel in, String contentType) {
+        return put(key, Channels.newInputStream(in), contentType);
+    }
+
+    /**
+     * Read length bytes from offset (-1: to the end). The caller closes
+     * the stream.
+     */
+    CompletableFuture<InputStream> get(String key, long offset, long length);
+
+    default CompletableFuture<InputStream> get(String key) {
+        return get(key, 0, -1);
+    }
+
+    /**
+     * Remove the object; succeeds when it does not exist
+     */
+    CompletableFuture<Void> delete(String key);
+
+    CompletableFuture<Boolean> exists(String key);
+
+    /**
+     * Up to limit objects with keys after startAfter ("" for the first
+     * page), in key order. Resumable: the last key of a page is the
+     * startAfter of the next. Wrappers list what their reads can reach.
+     */
+    CompletableFuture<ObjectPage> list(String startAfter, int limit);
+
+    /**
+     * Rename an object, never replacing: completes false (object left
+     * where it was) when target exists or the backend cannot rename cheaply
+     */
+    default CompletableFuture<Boolean> moveIfAbsent(String sourceKey, String targetKey) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * The object as a local file, for tools that need a path (ffprobe,
+     * sendfile); empty for remote backends or missing objects
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * URL of key as stored on entities
+     */
+    String url(String key);
+
+    /**
+     * Key of a URL this backend produced, or empty if it is not one of its
+     */
+    Optional<String> keyFor(String url);
+
+    /**
+     * Every URL keyFor maps to key, url(key) first; rows may store any of
+     * them
+     */
+    default List<String> urlsFor(String key) {
+        return List.of(url(key));
+    }
+}
@@ -0,0 +1,135 @@
+package com.ttlikeapp.storage;
+
+import com.ttlikeapp.util.VideoProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Object key layout, shared by every backend
+ *
+ * Videos fan out over two levels of 256 directories,
+ * videos/ab/cd/<id>.<ext>, so no directory grows past a few thousand
+ * entries at millions of files. The shard is the id's leading hex digits
+ * when the id is a UUID or SHA-256 (uniformly distributed already), and
+ * a hash of the file name otherwise.
+ *
+ * Derived media sits in parallel trees under the same shard:
+ * thumbnails/ab/cd/<id>.jpg and an HLS ladder in hls/ab/cd/<id>/.
+ *
+ * Earlier layouts, still found in stored URLs until they are migrated:
+ * flat videos/<userId>_<uuid>.<ext> and videos/<sha256>.<ext>, and
+ * per-user videos/<userId>/<uuid>.<ext>. shardedVideo maps them to their
+ * place in the current one.
+ */
+public final class StorageKeys {
+
+    private static final Pattern SHARDED = Pattern.compile("^videos/[0-9a-f]{2}/[0-9a-f]{2}/[^/]+$");
+    private static final Pattern RANDOM_ID = Pattern.compile(
+            "^(?:[0-9a-f]{64}|[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12})\\.[^/]*$");
+
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("mp4", "video/mp4"),
+            Map.entry("mov", "video/quicktime"),
+            Map.entry("3gp", "video/3gpp"),
+            Map.entry("webm", "video/webm"),
+            Map.entry("mkv", "video/x-matroska"),
+            Map.entry("m3u8", "application/vnd.apple.mpegurl"),
+            Map.entry("ts", "video/mp2t"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("png", "image/png"),
+            Map.entry("webp", "image/webp"));
+
+    private StorageKeys() {
+    }
+
+    /**
+     * Fresh key for an upload: videos/ab/cd/<uuid>.<ext>
+     */
+    public static String newVideo(String extension) {
+        return shard(UUID.randomUUID() + "." + extension);
+    }
+
+    /**
+     * Content address of video bytes: videos/ab/cd/<sha256>.<ext>
+     */
+    public static String contentAddressedVideo(String sha256, String extension) {
+        return shard(sha256 + "." + extension);
+    }
+
+    /**
+     * Key for the thumbnail of a video: thumbnails/ab/cd/<id>.jpg, next
+     * to where the video itself is sharded
+     */
+    public static String thumbnailFor(String videoKey) {
+        String sharded = shardedVideo(videoKey);
+        int dot = sharded.lastIndexOf('.');
+        String base = dot > sharded.lastIndexOf('/') ? sharded.substring(0, dot) : sharded;
+        return "thumbnails/" + base.substring("videos/".length()) + ".jpg";
+    }
+
+    /**
+     * Prefix under which the HLS ladder of a video is stored:
+     * hls/ab/cd/<id>/
+     */
+    public static String hlsFor(String videoKey) {
+        String thumbnail = thumbnailFor(videoKey);
+        return "hls/" + thumbnail.substring("thumbnails/".length(), thumbnail.length() - ".jpg".length()) + "/";
+    }
+
+    /**
+     * The key whose URL rows store for an object: itself, or for a file
+     * of an HLS ladder, the ladder's master playlist
+     */
+    public static String referencedAs(String key) {
+        if (!key.startsWith("hls/")) {
+            return key;
+        }
+        return key.substring(0, key.lastIndexOf('/') + 1) + VideoProcessor.HLS_MASTER;
+    }
+
+    /**
+     * Media type of a key (or file name) by its extension
+     */
+    public static String contentType(String key) {
+        int dot = key.lastIndexOf('.');
+        String extension = dot < key.lastIndexOf('/') + 1 ? "" : key.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+
+    public static boolean isShardedVideo(String key) {
+        return SHARDED.matcher(key).matches();
+    }
+
+    /**
+     * The current-layout key of a video key from an earlier layout; the
+     * key itself if it is current or not a video key
+     */
+    public static String shardedVideo(String key) {
+        if (!key.startsWith("videos/") || isShardedVideo(key)) {
+            return key;
+        }
+        return shard(key.substring(key.lastIndexOf('/') + 1));
+    }
+
+    private static String shard(String filename) {
+        String digits = RANDOM_ID.matcher(filename).matches() ? filename : sha256(filename);
+        return "videos/" + digits.substring(0, 2) + "/" + digits.substring(2, 4) + "/" + filename;
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
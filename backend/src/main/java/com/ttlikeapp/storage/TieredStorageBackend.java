@@ -0,0 +1,169 @@
+package com.ttlikeapp.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Tiered Storage Backend - A fast hot tier in front of a cold one
+ *
+ * New objects land in the hot tier. Reads try hot first and fall back to
+ * cold; deletes clear both; listings merge both tiers. demote(key) moves
+ * an object down once it is no longer hot (TieredStorageDemoter sweeps
+ * the hot tier by age). Keys are shared across tiers, so URLs are the
+ * hot tier's and stay valid after demotion (keyFor accepts either
+ * tier's; coldUrl is where a demoted object is served from).
+ */
+@Slf4j
+public class TieredStorageBackend implements StorageBackend {
+
+    private final StorageBackend hot;
+    private final StorageBackend cold;
+
+    public TieredStorageBackend(StorageBackend hot, StorageBackend cold) {
+        this.hot = hot;
+        this.cold = cold;
+    }
+
+    @Override
+    public String name() {
+        return "tiered(" + hot.name() + "," + cold.name() + ")";
+    }
+
+    @Override
+    public CompletableFuture<StoredObject> put(String key, InputStream in, String contentType) {
+        return hot.put(key, in, contentType);
+    }
+
+    @Override
+    public CompletableFuture<InputStream> get(String key, long offset, long length) {
+        return hot.get(key, offset, length)
+                .exceptionallyCompose(e -> isMissing(e)
+                        ? cold.get(key, offset, length)
+                        : CompletableFuture.failedFuture(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String key) {
+        return CompletableFuture.allOf(hot.delete(key), cold.delete(key));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(String key) {
+        return hot.exists(key).thenCompose(found -> found
+                ? CompletableFuture.completedFuture(true)
+                : cold.exists(key));
+    }
+
+    /**
+     * Both tiers' pages merged in key order, a key in both once (the hot
+     * copy). The page stops at the last key of a tier with more to come,
+     * so the next page cannot skip that tier's keys before it.
+     */
+    @Override
+    public CompletableFuture<ObjectPage> list(String startAfter, int limit) {
+        return hot.list(startAfter, limit).thenCombine(cold.list(startAfter, limit), (hotPage, coldPage) -> {
+            String bound = null;
+            for (ObjectPage page : List.of(hotPage, coldPage)) {
+                if (page.truncated() && !page.objects().isEmpty()) {
+                    String last = page.objects().get(page.objects().size() - 1).key();
+                    bound = bound == null || last.compareTo(bound) < 0 ? last : bound;
+                }
+            }
+
+            List<ObjectInfo> merged = new ArrayList<>(limit);
+            List<ObjectInfo> hotObjects = hotPage.objects();
+            List<ObjectInfo> coldObjects = coldPage.objects();
+            int h = 0;
+            int c = 0;
+            while (h < hotObjects.size() || c < coldObjects.size()) {
+                int order = h == hotObjects.size() ? 1
+                        : c == coldObjects.size() ? -1
+                        : hotObjects.get(h).key().compareTo(coldObjects.get(c).key());
+                ObjectInfo next = order <= 0 ? hotObjects.get(h) : coldObjects.get(c);
+                if (merged.size() == limit || (bound != null && next.key().compareTo(bound) > 0)) {
+                    return new ObjectPage(merged, true);
+                }
+                merged.add(next);
+                h += order <= 0 ? 1 : 0;
+                c += order >= 0 ? 1 : 0;
+            }
+            return new ObjectPage(merged, hotPage.truncated() || coldPage.truncated());
+        });
+    }
+
+    /**
+     * The hot tier's objects alone, for demotion sweeps
+     */
+    public CompletableFuture<ObjectPage> listHot(String startAfter, int limit) {
+        return hot.list(startAfter, limit);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> moveIfAbsent(String sourceKey, String targetKey) {
+        return hot.moveIfAbsent(sourceKey, targetKey);
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return hot.localPath(key);
+    }
+
+    @Override
+    public String url(String key) {
+        return hot.url(key);
+    }
+
+    @Override
+    public Optional<String> keyFor(String url) {
+        return hot.keyFor(url).or(() -> cold.keyFor(url));
+    }
+
+    @Override
+    public List<String> urlsFor(String key) {
+        List<String> urls = new ArrayList<>(hot.urlsFor(key));
+        urls.addAll(cold.urlsFor(key));
+        return urls;
+    }
+
+    /**
+     * URL of key in the cold tier, where it is read from once demoted
+     */
+    public String coldUrl(String key) {
+        return cold.url(key);
+    }
+
+    /**
+     * Copy the object to the cold tier, then drop it from the hot one
+     */
+    public CompletableFuture<Void> demote(String key, String contentType) {
+        return hot.get(key)
+                .thenCompose(in -> cold.put(key, in, contentType).whenComplete((stored, e) -> closeQuietly(in)))
+                .thenCompose(stored -> hot.delete(key))
+                .whenComplete((ignored, e) -> {
+                    if (e == null) {
+                        log.info("Demoted {} to {}", key, cold.name());
+                    }
+                });
+    }
+
+    static boolean isMissing(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof NoSuchFileException;
+    }
+
+    static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (Exception e) {
+            log.debug("Close failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ttlikeapp.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Filter-and-backfill over a cursor-addressed source
+ *
+ * Reads windows of rows after a cursor, keeps rows passing the filter and
+ * keeps reading until a full page is collected or the source runs dry, so
+ * a page is only ever short when it is the last one. Windows start at
+ * size * overfetch rows and double while the page is still short (up to
+ * MAX_WINDOW), so a viewer hiding most candidates costs a few more round
+ * trips, not a short page. nextCursor points just past the last row
+ * consumed: the following page resumes exactly where this one stopped,
+ * however many rows were dropped.
+ *
+ * Sources:
+ * - keyset(): the cursor is the last row's sort key; exact while rows are
+ *   inserted or removed ahead of it (live tables)
+ * - offsets(): the cursor is a row count; only for sources that do not
+ *   shift between pages (cached search results)
+ */
+public final class BackfillingPager {
+
+    public static final int MAX_WINDOW = 500;
+
+    private BackfillingPager() {
+    }
+
+    /**
+     * Source of raw rows addressed by an opaque cursor (null: the start)
+     */
+    public interface Source<T> {
+
+        List<T> fetch(String cursor, int limit);
+
+        /**
+         * Cursor past `consumed` more rows after `cursor`, the last of them
+         * being `last`
+         */
+        String advance(String cursor, int consumed, T last);
+    }
+
+    @FunctionalInterface
+    public interface OffsetFetch<T> {
+        List<T> fetch(long offset, int limit);
+    }
+
+    /**
+     * Rows strictly after the key (null: from the first row)
+     */
+    @FunctionalInterface
+    public interface KeysetFetch<T, K> {
+        List<T> fetch(K after, int limit);
+    }
+
+    public record Result<T>(List<T> items, String nextCursor, boolean exhausted) {
+    }
+
+    public static <T, K> Source<T> keyset(KeysetFetch<T, K> fetch, Function<String, K> decode,
+                                          Function<T, String> encode) {
+        return new Source<>() {
+            @Override
+            public List<T> fetch(String cursor, int limit) {
+                return fetch.fetch(decode.apply(cursor), limit);
+            }
+
+            @Override
+            public String advance(String cursor, int consumed, T last) {
+                return encode.apply(last);
+            }
+        };
+    }
+
+    public static <T> Source<T> offsets(OffsetFetch<T> fetch) {
+        return new Source<>() {
+            @Override
+            public List<T> fetch(String cursor, int limit) {
+                return fetch.fetch(parseOffset(cursor), limit);
+            }
+
+            @Override
+            public String advance(String cursor, int consumed, T last) {
+                return Long.toString(parseOffset(cursor) + consumed);
+            }
+        };
+    }
+
+    public static <T> Result<T> fetch(Source<T> source, Predicate<? super T> keep,
+                                      String startCursor, int size, int overfetch) {
+        int window = size * Math.max(1, overfetch);
+        List<T> items = new ArrayList<>(size);
+        String cursor = startCursor;
+
+        while (true) {
+            List<T> rows = source.fetch(cursor, window);
+
+            for (int i = 0; i < rows.size(); i++) {
+                if (keep.test(rows.get(i))) {
+                    items.add(rows.get(i));
+                    if (items.size() == size) {
+                        boolean lastRow = rows.size() < window && i == rows.size() - 1;
+                        return new Result<>(items, source.advance(cursor, i + 1, rows.get(i)), lastRow);
+                    }
+                }
+            }
+
+            if (!rows.isEmpty()) {
+                cursor = source.advance(cursor, rows.size(), rows.get(rows.size() - 1));
+            }
+            if (rows.size() < window) {
+                return new Result<>(items, cursor, true);
+            }
+            window = Math.min(window * 2, Math.max(MAX_WINDOW, size));
+        }
+    }
+
+    private static long parseOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            long offset = Long.parseLong(cursor);
+            if (offset >= 0) {
+                return offset;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
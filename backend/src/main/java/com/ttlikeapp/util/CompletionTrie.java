@@ -0,0 +1,447 @@
+package com.ttlikeapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable weighted radix trie with precomputed completions (autocomplete)
+ *
+ * Layout (parallel arrays, node 0 is the root):
+ * - Edge labels are substrings of the sorted keys (key index, start, end),
+ *   so labels cost three ints whatever their length
+ * - Children of a node are contiguous and ordered by first label char,
+ *   found by binary search
+ * - Every node whose subtree holds more than maxK keys stores its top maxK
+ *   key positions by weight; smaller subtrees are gathered on demand
+ *   (at most maxK keys)
+ *
+ * A lookup walks the prefix (O(prefix length) with the binary searches)
+ * and reads the stored list, so the cost does not depend on how many keys
+ * share the prefix. Lookups return the keys' positions in the input array.
+ */
+public final class CompletionTrie {
+
+    public static final CompletionTrie EMPTY = build(new String[0], new long[0], 1);
+
+    private final String[] keys;        // sorted
+    private final long[] weights;       // sorted position -> weight
+    private final int[] sourceIndex;    // sorted position -> input index
+    private final int maxK;
+
+    private final int[] labelKey;
+    private final int[] labelStart;
+    private final int[] labelEnd;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] terminal;       // sorted position ending at this node, or -1
+    private final int[] topOffset;      // node -> start in tops (length nodes + 1)
+    private final int[] tops;
+
+    private CompletionTrie(String[] keys, long[] weights, int[] sourceIndex, int maxK, Nodes nodes) {
+        this.keys = keys;
+        this.weights = weights;
+        this.sourceIndex = sourceIndex;
+        this.maxK = maxK;
+        this.labelKey = nodes.labelKey;
+        this.labelStart = nodes.labelStart;
+        this.labelEnd = nodes.labelEnd;
+        this.firstChild = nodes.firstChild;
+        this.childCount = nodes.childCount;
+        this.terminal = nodes.terminal;
+        this.topOffset = new int[nodes.size + 1];
+
+        // Children always have higher IDs than their parent, so a reverse
+        // sweep sees every child list before the parent merges it
+        int[][] lists = new int[nodes.size][];
+        int total = 0;
+        for (int node = nodes.size - 1; node >= 0; node--) {
+            if (nodes.keyCount[node] > maxK) {
+                lists[node] = mergeChildren(node, lists);
+                total += lists[node].length;
+            }
+        }
+        this.tops = new int[total];
+        int offset = 0;
+        for (int node = 0; node < nodes.size; node++) {
+            topOffset[node] = offset;
+            if (lists[node] != null) {
+                System.arraycopy(lists[node], 0, tops, offset, lists[node].length);
+                offset += lists[node].length;
+            }
+        }
+        topOffset[nodes.size] = offset;
+    }
+
+    /**
+     * Build from keys and their weights; duplicate keys keep the heaviest weight
+     */
+    public static CompletionTrie build(String[] keys, long[] weights, int maxK) {
+        if (keys.length != weights.length || maxK < 1) {
+            throw new IllegalArgumentException("keys and weights must align and maxK must be positive");
+        }
+
+        int[] order = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        sortByKey(keys, order, 0, order.length - 1, 0);
+
+        String[] sortedKeys = new String[keys.length];
+        long[] sortedWeights = new long[keys.length];
+        int[] sourceIndex = new int[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedWeights[i] = weights[order[i]];
+            sourceIndex[i] = order[i];
+        }
+
+        return new CompletionTrie(sortedKeys, sortedWeights, sourceIndex, maxK, Nodes.build(sortedKeys, sortedWeights));
+    }
+
+    /**
+     * Three-way radix quicksort of indices by key (String.compareTo order);
+     * compares one char per level, so long shared prefixes are cheap
+     */
+    private static void sortByKey(String[] keys, int[] order, int lo, int hi, int depth) {
+        while (hi - lo > 0) {
+            if (hi - lo < 12) {
+                insertionSort(keys, order, lo, hi, depth);
+                return;
+            }
+            swap(order, lo, lo + (hi - lo) / 2);
+            int pivot = charAt(keys[order[lo]], depth);
+            int lt = lo;
+            int gt = hi;
+            int i = lo + 1;
+            while (i <= gt) {
+                int c = charAt(keys[order[i]], depth);
+                if (c < pivot) {
+                    swap(order, lt++, i++);
+                } else if (c > pivot) {
+                    swap(order, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            sortByKey(keys, order, lo, lt - 1, depth);
+            sortByKey(keys, order, gt + 1, hi, depth);
+            if (pivot < 0) {
+                return;
+            }
+            // Equal-char partition continues one char deeper
+            lo = lt;
+            hi = gt;
+            depth++;
+        }
+    }
+
+    private static void insertionSort(String[] keys, int[] order, int lo, int hi, int depth) {
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && compareFrom(keys[order[j]], keys[order[j - 1]], depth) < 0; j--) {
+                swap(order, j, j - 1);
+            }
+        }
+    }
+
+    private static int compareFrom(String a, String b, int depth) {
+        int max = Math.min(a.length(), b.length());
+        for (int i = depth; i < max; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return a.charAt(i) - b.charAt(i);
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    private static int charAt(String key, int depth) {
+        return depth < key.length() ? key.charAt(depth) : -1;
+    }
+
+    private static void swap(int[] order, int a, int b) {
+        int tmp = order[a];
+        order[a] = order[b];
+        order[b] = tmp;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Input positions of the (up to) k heaviest keys starting with prefix, heaviest first;
+     * k is capped at the maxK the trie was built with
+     */
+    public int[] topK(String prefix, int k) {
+        if (keys.length == 0 || k <= 0) {
+            return new int[0];
+        }
+
+        int node = find(prefix);
+        if (node < 0) {
+            return new int[0];
+        }
+
+        int[] positions;
+        if (topOffset[node + 1] > topOffset[node]) {
+            positions = Arrays.copyOfRange(tops, topOffset[node], topOffset[node + 1]);
+        } else {
+            positions = gather(node);
+        }
+
+        int[] result = new int[Math.min(Math.min(k, maxK), positions.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = sourceIndex[positions[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Node whose path covers the prefix (the prefix may end inside its label), or -1
+     */
+    private int find(String prefix) {
+        int node = 0;
+        int matched = 0;
+        while (true) {
+            String label = keys[labelKey[node]];
+            int start = labelStart[node];
+            int end = labelEnd[node];
+            for (int i = start; i < end; i++, matched++) {
+                if (matched == prefix.length()) {
+                    return node;
+                }
+                if (label.charAt(i) != prefix.charAt(matched)) {
+                    return -1;
+                }
+            }
+            if (matched == prefix.length()) {
+                return node;
+            }
+            node = child(node, prefix.charAt(matched));
+            if (node < 0) {
+                return -1;
+            }
+        }
+    }
+
+    private int child(int node, char c) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = keys[labelKey[mid]].charAt(labelStart[mid]);
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int[] mergeChildren(int node, int[][] lists) {
+        int count = terminal[node] >= 0 ? 1 : 0;
+        int[][] childLists = new int[childCount[node]][];
+        for (int i = 0; i < childLists.length; i++) {
+            int child = firstChild[node] + i;
+            childLists[i] = lists[child] != null ? lists[child] : gather(child);
+            count += childLists[i].length;
+        }
+
+        int[] candidates = new int[count];
+        int n = 0;
+        if (terminal[node] >= 0) {
+            candidates[n++] = terminal[node];
+        }
+        for (int[] list : childLists) {
+            System.arraycopy(list, 0, candidates, n, list.length);
+            n += list.length;
+        }
+        return heaviest(candidates);
+    }
+
+    /**
+     * Every key position in a small subtree, heaviest first
+     */
+    private int[] gather(int root) {
+        int[] found = new int[maxK];
+        int n = 0;
+        int[] stack = new int[16];
+        int depth = 0;
+        stack[depth++] = root;
+        while (depth > 0) {
+            int node = stack[--depth];
+            if (terminal[node] >= 0) {
+                if (n == found.length) {
+                    found = Arrays.copyOf(found, n * 2);
+                }
+                found[n++] = terminal[node];
+            }
+            for (int i = 0; i < childCount[node]; i++) {
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = firstChild[node] + i;
+            }
+        }
+        return heaviest(Arrays.copyOf(found, n));
+    }
+
+    /**
+     * Top maxK positions, heaviest first, ties alphabetically (lower sorted position).
+     * Insertion into a bounded array: inputs are at most maxK per child.
+     */
+    private int[] heaviest(int[] positions) {
+        int[] best = new int[Math.min(maxK, positions.length)];
+        int n = 0;
+        for (int position : positions) {
+            if (n == best.length && !heavier(position, best[n - 1])) {
+                continue;
+            }
+            int i = n < best.length ? n++ : n - 1;
+            while (i > 0 && heavier(position, best[i - 1])) {
+                best[i] = best[i - 1];
+                i--;
+            }
+            best[i] = position;
+        }
+        return best;
+    }
+
+    private boolean heavier(int a, int b) {
+        return weights[a] != weights[b] ? weights[a] > weights[b] : a < b;
+    }
+
+    /**
+     * Growable node arrays, filled breadth-first so siblings are contiguous
+     */
+    private static final class Nodes {
+
+        int size;
+        int[] labelKey = new int[16];
+        int[] labelStart = new int[16];
+        int[] labelEnd = new int[16];
+        int[] firstChild = new int[16];
+        int[] childCount = new int[16];
+        int[] terminal = new int[16];
+        int[] keyCount = new int[16];
+
+        // Pending (node, lo, hi, depth) ranges
+        private int[] queue = new int[64];
+        private int head;
+        private int tail;
+
+        static Nodes build(String[] keys, long[] weights) {
+            Nodes nodes = new Nodes();
+            int root = nodes.allocate(1);
+            nodes.enqueue(root, 0, keys.length, 0);
+            while (nodes.head < nodes.tail) {
+                int node = nodes.queue[nodes.head++];
+                int lo = nodes.queue[nodes.head++];
+                int hi = nodes.queue[nodes.head++];
+                int depth = nodes.queue[nodes.head++];
+                nodes.expand(keys, weights, node, lo, hi, depth);
+            }
+            nodes.trim();
+            return nodes;
+        }
+
+        private void expand(String[] keys, long[] weights, int node, int lo, int hi, int depth) {
+            terminal[node] = -1;
+            keyCount[node] = hi - lo;
+            if (lo == hi) {
+                return;
+            }
+
+            // Keys are sorted, so the range's common prefix is that of its first and last key
+            int end = depth + commonPrefix(keys[lo], keys[hi - 1], depth);
+            labelKey[node] = lo;
+            labelStart[node] = depth;
+            labelEnd[node] = end;
+
+            int i = lo;
+            while (i < hi && keys[i].length() == end) {
+                if (terminal[node] < 0 || weights[i] > weights[terminal[node]]) {
+                    terminal[node] = i;
+                }
+                i++;
+            }
+            keyCount[node] -= (i - lo) - (terminal[node] >= 0 ? 1 : 0);
+
+            // Group the rest by the next char; each group becomes a child
+            int groups = 0;
+            for (int j = i; j < hi; j++) {
+                if (j == i || keys[j].charAt(end) != keys[j - 1].charAt(end)) {
+                    groups++;
+                }
+            }
+            if (groups == 0) {
+                return;
+            }
+
+            int first = allocate(groups);
+            firstChild[node] = first;
+            childCount[node] = groups;
+            int child = first;
+            int groupStart = i;
+            for (int j = i + 1; j <= hi; j++) {
+                if (j == hi || keys[j].charAt(end) != keys[j - 1].charAt(end)) {
+                    enqueue(child++, groupStart, j, end);
+                    groupStart = j;
+                }
+            }
+        }
+
+        private static int commonPrefix(String a, String b, int from) {
+            int max = Math.min(a.length(), b.length());
+            int i = from;
+            while (i < max && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            return i - from;
+        }
+
+        private int allocate(int count) {
+            int first = size;
+            size += count;
+            if (size > labelKey.length) {
+                int capacity = Math.max(size, labelKey.length * 2);
+                labelKey = Arrays.copyOf(labelKey, capacity);
+                labelStart = Arrays.copyOf(labelStart, capacity);
+                labelEnd = Arrays.copyOf(labelEnd, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                terminal = Arrays.copyOf(terminal, capacity);
+                keyCount = Arrays.copyOf(keyCount, capacity);
+            }
+            return first;
+        }
+
+        private void enqueue(int node, int lo, int hi, int depth) {
+            if (tail + 4 > queue.length) {
+                // Compact consumed entries before growing
+                System.arraycopy(queue, head, queue, 0, tail - head);
+                tail -= head;
+                head = 0;
+                if (tail + 4 > queue.length) {
+                    queue = Arrays.copyOf(queue, queue.length * 2);
+                }
+            }
+            queue[tail++] = node;
+            queue[tail++] = lo;
+            queue[tail++] = hi;
+            queue[tail++] = depth;
+        }
+
+        private void trim() {
+            labelKey = Arrays.copyOf(labelKey, size);
+            labelStart = Arrays.copyOf(labelStart, size);
+            labelEnd = Arrays.copyOf(labelEnd, size);
+            firstChild = Arrays.copyOf(firstChild, size);
+            childCount = Arrays.copyOf(childCount, size);
+            terminal = Arrays.copyOf(terminal, size);
+            keyCount = Arrays.copyOf(keyCount, size);
+            queue = null;
+        }
+    }
+}
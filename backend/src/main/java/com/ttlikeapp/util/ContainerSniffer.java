@@ -0,0 +1,77 @@
+package com.ttlikeapp.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Push-fed container detector for uploads
+ *
+ * Sees the bytes as they stream past and keeps only the first HEAD_SIZE
+ * of them, so it works on bodies that are never held in memory or re-read:
+ * - ISO-BMFF (MP4/MOV/3GP): a leading "ftyp" box, format from its major brand
+ * - Matroska/WebM: EBML magic, format from the DocType
+ *
+ * The declared Content-Type and file name are client-controlled; the
+ * container format is what an upload is accepted or rejected on.
+ */
+public class ContainerSniffer {
+
+    public static final int HEAD_SIZE = 64;
+
+    private static final byte[] EBML_MAGIC = {0x1A, 0x45, (byte) 0xDF, (byte) 0xA3};
+    private static final byte[] WEBM_DOCTYPE = "webm".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] head = new byte[HEAD_SIZE];
+    private int headLength;
+
+    public void feed(byte[] buffer, int offset, int length) {
+        if (headLength < HEAD_SIZE) {
+            int copied = Math.min(length, HEAD_SIZE - headLength);
+            System.arraycopy(buffer, offset, head, headLength, copied);
+            headLength += copied;
+        }
+    }
+
+    /**
+     * File extension for the detected container ("mp4", "mov", "3gp",
+     * "webm", "mkv"), or null when the bytes are not a supported video
+     */
+    public String format() {
+        if (headLength >= 12 && ascii(4, 4).equals("ftyp")) {
+            return switch (ascii(8, 4)) {
+                case "qt  " -> "mov";
+                case "3gp4", "3gp5", "3gp6", "3g2a" -> "3gp";
+                default -> "mp4";
+            };
+        }
+        if (headLength >= EBML_MAGIC.length && startsWith(EBML_MAGIC)) {
+            return indexOf(WEBM_DOCTYPE) >= 0 ? "webm" : "mkv";
+        }
+        return null;
+    }
+
+    private String ascii(int offset, int length) {
+        return new String(head, offset, length, StandardCharsets.US_ASCII);
+    }
+
+    private boolean startsWith(byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (head[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(byte[] needle) {
+        outer:
+        for (int i = 0; i + needle.length <= headLength; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (head[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
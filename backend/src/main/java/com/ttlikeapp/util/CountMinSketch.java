@@ -0,0 +1,112 @@
+package com.ttlikeapp.util;
+
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Count-Min Sketch with conservative update (frequency estimates in fixed memory)
+ *
+ * Layout:
+ * - depth rows of width int counters, width a power of two
+ * - Row i uses index (h1 + i * h2) & (width - 1), where h1/h2 are the two
+ *   halves of one 64-bit murmur3 hash computed per key (see {@link #hash})
+ *
+ * Estimates never undercount; with width >= e / epsilon and
+ * depth >= ln(1 / delta) they overcount by at most epsilon * total with
+ * probability 1 - delta. Conservative update only raises the counters that
+ * hold the current minimum, which tightens that bound in practice but means
+ * counts can only be added, never subtracted.
+ *
+ * Not thread-safe; callers serialise writers.
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("depth must be >= 1 and width a power of two");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.counters = new int[depth * width];
+    }
+
+    /**
+     * Sketch sized for the given error bound: width = e / epsilon (rounded up
+     * to a power of two), depth = ln(1 / delta)
+     */
+    public static CountMinSketch withErrorBound(double epsilon, double delta) {
+        int width = Integer.highestOneBit((int) Math.ceil(Math.E / epsilon) - 1) << 1;
+        int depth = (int) Math.ceil(Math.log(1 / delta));
+        return new CountMinSketch(Math.max(1, depth), Math.max(1, width));
+    }
+
+    /**
+     * 64-bit key hash; compute once and reuse across sketches with the same key
+     */
+    public static long hash(String key) {
+        return Hashing.murmur3_128().hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+
+    /**
+     * Add count to the key and return its new estimate
+     */
+    public int add(long hash, int count) {
+        int estimate = estimate(hash);
+        int target = saturatedAdd(estimate, count);
+
+        int width = mask + 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & mask);
+            if (counters[index] < target) {
+                counters[index] = target;
+            }
+        }
+        total += count;
+        return target;
+    }
+
+    public int estimate(long hash) {
+        int width = mask + 1;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + ((h1 + row * h2) & mask)]);
+        }
+        return min;
+    }
+
+    /**
+     * Sum of all counts added since the last clear (N in the epsilon * N bound)
+     */
+    public long total() {
+        return total;
+    }
+
+    public int width() {
+        return mask + 1;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+        total = 0;
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+}
@@ -0,0 +1,245 @@
+package com.ttlikeapp.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-process ISO-BMFF (MP4/MOV/3GP) movie header reader
+ *
+ * Reads what processing needs from the moov box, without forking ffprobe
+ * or touching a single sample:
+ * - moov/mvhd: duration and its timescale
+ * - moov/trak/tkhd: display width and height (16.16 fixed point) of the
+ *   first video track, swapped when its matrix rotates by 90 or 270
+ *   degrees (phones record portrait video as rotated landscape)
+ * - moov/trak/mdia/hdlr: each track's handler, 'vide' or 'soun'
+ *
+ * Top-level boxes are walked by their headers alone, so an mdat of any
+ * size ahead of the moov (files not written "fast start") is skipped
+ * rather than read: in a file by seeking, mapping only the moov into
+ * memory; in a stream by skipping.
+ *
+ * Anything it cannot answer with certainty comes back empty, for ffprobe
+ * to decide: no leading ftyp, fragmented movies (mvex; the duration lives
+ * in the fragments), compressed moov (cmov), a moov over MAX_MOOV_SIZE,
+ * no video track, malformed or truncated boxes.
+ */
+public final class IsoBmffParser {
+
+    /**
+     * Larger movie headers (hours of samples tables) are left to ffprobe
+     * rather than held in memory
+     */
+    public static final int MAX_MOOV_SIZE = 64 << 20;
+
+    private static final int FTYP = type("ftyp");
+    private static final int MOOV = type("moov");
+    private static final int MVHD = type("mvhd");
+    private static final int MVEX = type("mvex");
+    private static final int TRAK = type("trak");
+    private static final int TKHD = type("tkhd");
+    private static final int MDIA = type("mdia");
+    private static final int HDLR = type("hdlr");
+    private static final int VIDE = type("vide");
+    private static final int SOUN = type("soun");
+
+    /**
+     * Duration in seconds, display size in pixels
+     */
+    public record Movie(double duration, int width, int height, boolean hasAudio) {}
+
+    private IsoBmffParser() {
+    }
+
+    /**
+     * Read a file, mapping its moov box; empty when ffprobe has to
+     */
+    public static Optional<Movie> parse(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(16);
+            long position = 0;
+            while (position + 8 <= fileSize) {
+                header.clear();
+                while (header.hasRemaining() && channel.read(header, position + header.position()) > 0) {
+                    // Positional reads may return short
+                }
+                header.flip();
+
+                long size = header.getInt() & 0xFFFFFFFFL;
+                int type = header.getInt();
+                int headerSize = 8;
+                if (size == 1) {
+                    if (header.remaining() < 8) {
+                        return Optional.empty();
+                    }
+                    size = header.getLong();
+                    headerSize = 16;
+                } else if (size == 0) {
+                    size = fileSize - position;  // Runs to the end of the file
+                }
+                if (size < headerSize || size > fileSize - position || (position == 0 && type != FTYP)) {
+                    return Optional.empty();
+                }
+                if (type == MOOV) {
+                    long length = size - headerSize;
+                    if (length > MAX_MOOV_SIZE) {
+                        return Optional.empty();
+                    }
+                    return readMovie(channel.map(FileChannel.MapMode.READ_ONLY, position + headerSize, length));
+                }
+                position += size;
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Read a stream up to the end of its moov box (the stream is not
+     * closed); empty when ffprobe has to
+     */
+    public static Optional<Movie> parse(InputStream in) throws IOException {
+        boolean first = true;
+        while (true) {
+            byte[] header = in.readNBytes(8);
+            if (header.length < 8) {
+                return Optional.empty();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            long size = buffer.getInt() & 0xFFFFFFFFL;
+            int type = buffer.getInt();
+            int headerSize = 8;
+            if (size == 1) {
+                byte[] large = in.readNBytes(8);
+                if (large.length < 8) {
+                    return Optional.empty();
+                }
+                size = ByteBuffer.wrap(large).getLong();
+                headerSize = 16;
+            }
+            if ((first && type != FTYP) || (size != 0 && size < headerSize)) {
+                return Optional.empty();
+            }
+            first = false;
+
+            if (type == MOOV) {
+                // A size of 0 runs to the end of the stream
+                long length = size == 0 ? MAX_MOOV_SIZE + 1L : size - headerSize;
+                byte[] moov = in.readNBytes((int) Math.min(length, MAX_MOOV_SIZE + 1L));
+                if (moov.length > MAX_MOOV_SIZE || (size != 0 && moov.length < length)) {
+                    return Optional.empty();
+                }
+                return readMovie(ByteBuffer.wrap(moov));
+            }
+            if (size == 0) {
+                return Optional.empty();
+            }
+            try {
+                in.skipNBytes(size - headerSize);
+            } catch (EOFException e) {
+                return Optional.empty();  // Truncated before any moov
+            }
+        }
+    }
+
+    private static Optional<Movie> readMovie(ByteBuffer moov) {
+        try {
+            Optional<ByteBuffer> mvhd = first(moov, MVHD);
+            if (mvhd.isEmpty() || first(moov, MVEX).isPresent()) {
+                return Optional.empty();
+            }
+            ByteBuffer header = mvhd.get();
+            long timescale;
+            long duration;
+            if (header.get(0) == 1) {
+                timescale = header.getInt(20) & 0xFFFFFFFFL;
+                duration = header.getLong(24);
+            } else {
+                timescale = header.getInt(12) & 0xFFFFFFFFL;
+                duration = header.getInt(16) & 0xFFFFFFFFL;
+                if (duration == 0xFFFFFFFFL) {
+                    duration = -1;  // Unknown
+                }
+            }
+            if (timescale == 0 || duration <= 0) {
+                return Optional.empty();
+            }
+
+            int width = 0;
+            int height = 0;
+            boolean hasAudio = false;
+            for (ByteBuffer trak : children(moov, TRAK)) {
+                Optional<ByteBuffer> tkhd = first(trak, TKHD);
+                Optional<ByteBuffer> hdlr = first(trak, MDIA).flatMap(mdia -> first(mdia, HDLR));
+                if (tkhd.isEmpty() || hdlr.isEmpty()) {
+                    continue;
+                }
+                int handler = hdlr.get().getInt(8);
+                if (handler == SOUN) {
+                    hasAudio = true;
+                } else if (handler == VIDE && width == 0) {
+                    ByteBuffer track = tkhd.get();
+                    int matrix = track.get(0) == 1 ? 52 : 40;
+                    int w = track.getInt(matrix + 36) >>> 16;
+                    int h = track.getInt(matrix + 40) >>> 16;
+                    boolean quarterTurn = track.getInt(matrix) == 0 && track.getInt(matrix + 16) == 0;
+                    width = quarterTurn ? h : w;
+                    height = quarterTurn ? w : h;
+                }
+            }
+            if (width == 0 || height == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new Movie((double) duration / timescale, width, height, hasAudio));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | BufferUnderflowException e) {
+            return Optional.empty();  // Malformed box
+        }
+    }
+
+    private static Optional<ByteBuffer> first(ByteBuffer parent, int type) {
+        List<ByteBuffer> found = children(parent, type);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    /**
+     * Bodies of the child boxes of the given type
+     */
+    private static List<ByteBuffer> children(ByteBuffer parent, int type) {
+        List<ByteBuffer> found = new ArrayList<>();
+        int limit = parent.limit();
+        int position = 0;
+        while (position + 8 <= limit) {
+            long size = parent.getInt(position) & 0xFFFFFFFFL;
+            int boxType = parent.getInt(position + 4);
+            int headerSize = 8;
+            if (size == 1) {
+                size = parent.getLong(position + 8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = limit - position;
+            }
+            if (size < headerSize || size > limit - position) {
+                throw new IllegalArgumentException("Box overruns its parent");
+            }
+            if (boxType == type) {
+                found.add(parent.slice(position + headerSize, (int) size - headerSize));
+            }
+            position += (int) size;
+        }
+        return found;
+    }
+
+    private static int type(String fourcc) {
+        return ByteBuffer.wrap(fourcc.getBytes(StandardCharsets.US_ASCII)).getInt();
+    }
+}
@@ -0,0 +1,245 @@
+package com.ttlikeapp.util;
+
+import com.ttlikeapp.storage.LocalStorageBackend;
+import com.ttlikeapp.storage.StorageKeys;
+import com.ttlikeapp.storage.TieredStorageBackend;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local Media Server - HTTP delivery of files in local storage
+ *
+ * Built for video scrubbing, where players issue many Range requests:
+ * - Single byte ranges (206), unsatisfiable ranges (416), If-Range;
+ *   multi-range requests get the whole file, as RFC 9110 allows
+ * - Strong ETags and If-None-Match (304). Content-addressed files
+ *   (<sha256>.<ext>) use the hash as ETag and are immutable for a year;
+ *   other files revalidate after max-age-seconds
+ * - Zero copy: the file region is handed to Tomcat's sendfile, so the
+ *   bytes go kernel to socket and the request thread is released before
+ *   the transfer; without sendfile support, FileChannel.transferTo into
+ *   the response stream (bounded buffer, never the whole file in heap)
+ * - With tiered storage, a file demoted to the cold tier is answered with
+ *   a redirect (302) to its cold URL
+ *
+ * Metrics: media.serve.bytes{mode,status}; for transfers done on the
+ * request thread also media.serve.duration and media.serve.throughput
+ * (bytes/s). Sendfile transfers finish after the handler returns, so
+ * only their bytes are counted here.
+ */
+@Component
+@Slf4j
+public class LocalMediaServer {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("^([0-9a-f]{64})\\.[a-z0-9]+$");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private final LocalStorageBackend storage;
+    private final TieredStorageBackend tiered;  // null unless storage.tiering.enabled
+    private final MeterRegistry meterRegistry;
+    private final boolean sendfileEnabled;
+    private final String revalidatingCacheControl;
+    private final Timer streamDuration;
+    private final DistributionSummary streamThroughput;
+
+    public LocalMediaServer(LocalStorageBackend storage,
+                            Optional<TieredStorageBackend> tiered,
+                            MeterRegistry meterRegistry,
+                            @Value("${media.sendfile:true}") boolean sendfileEnabled,
+                            @Value("${media.max-age-seconds:300}") long maxAgeSeconds) {
+        this.storage = storage;
+        this.tiered = tiered.orElse(null);
+        this.meterRegistry = meterRegistry;
+        this.sendfileEnabled = sendfileEnabled;
+        this.revalidatingCacheControl = "public, max-age=" + maxAgeSeconds;
+        this.streamDuration = Timer.builder("media.serve.duration")
+                .description("Time to send a media response on the request thread")
+                .register(meterRegistry);
+        this.streamThroughput = DistributionSummary.builder("media.serve.throughput")
+                .description("Per-response send rate on the request thread")
+                .baseUnit("bytes_per_second")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Serve the stored file at fileUrl ("/uploads/..."); GET and HEAD
+     */
+    public void serve(String fileUrl, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = storage.keyFor(fileUrl).flatMap(storage::localPath).orElse(null);
+        BasicFileAttributes attributes;
+        try {
+            attributes = path != null ? Files.readAttributes(path, BasicFileAttributes.class) : null;
+        } catch (NoSuchFileException e) {
+            attributes = null;
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            String demoted = demotedUrl(fileUrl);
+            if (demoted != null) {
+                response.sendRedirect(demoted);
+                record("redirect", HttpServletResponse.SC_FOUND, 0);
+                return;
+            }
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String filename = path.getFileName().toString();
+        Matcher contentAddressed = CONTENT_ADDRESSED.matcher(filename);
+        long size = attributes.size();
+        String etag = contentAddressed.matches()
+                ? "\"" + contentAddressed.group(1) + "\""
+                : "\"" + Long.toHexString(size) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentAddressed.matches() ? IMMUTABLE : revalidatingCacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            record("none", HttpServletResponse.SC_NOT_MODIFIED, 0);
+            return;
+        }
+
+        long start = 0;
+        long end = size;  // exclusive
+        int status = HttpServletResponse.SC_OK;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            if (matcher.matches() && !(matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                long[] bounds = bounds(matcher.group(1), matcher.group(2), size);
+                if (bounds == null) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    record("none", HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, 0);
+                    return;
+                }
+                start = bounds[0];
+                end = bounds[1];
+                status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+
+        long length = end - start;
+        response.setStatus(status);
+        response.setContentType(StorageKeys.contentType(filename));
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            record("none", status, 0);
+            return;
+        }
+
+        if (sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            record("sendfile", status, length);
+            return;
+        }
+
+        long began = System.nanoTime();
+        long sent = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (sent < length) {
+                long n = channel.transferTo(start + sent, length - sent, out);
+                if (n <= 0) {
+                    break;
+                }
+                sent += n;
+            }
+            response.flushBuffer();
+        } catch (IOException e) {
+            // Players abort range requests all the time while scrubbing
+            log.debug("Media response for {} ended after {} of {} bytes: {}", fileUrl, sent, length, e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - began;
+            streamDuration.record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed > 0 && sent > 0) {
+                streamThroughput.record(sent * 1_000_000_000.0 / elapsed);
+            }
+            record("stream", status, sent);
+        }
+    }
+
+    /**
+     * [start, end) for a single byte-range spec, or null if unsatisfiable
+     */
+    private static long[] bounds(String first, String last, long size) {
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                return suffix == 0 || size == 0 ? null : new long[]{Math.max(0, size - suffix), size};
+            }
+            long start = Long.parseLong(first);
+            if (start >= size) {
+                return null;
+            }
+            long end = last.isEmpty() ? size : Math.min(size, Long.parseLong(last) + 1);
+            return end <= start ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;  // Out of long range
+        }
+    }
+
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Where a file demoted to the cold tier is read from now, or null
+     */
+    private String demotedUrl(String fileUrl) {
+        if (tiered == null) {
+            return null;
+        }
+        return storage.keyFor(fileUrl)
+                .filter(key -> tiered.exists(key).join())
+                .map(tiered::coldUrl)
+                .orElse(null);
+    }
+
+    private void record(String mode, int status, long bytes) {
+        meterRegistry.counter("media.serve.bytes", "mode", mode, "status", String.valueOf(status)).increment(bytes);
+    }
+}
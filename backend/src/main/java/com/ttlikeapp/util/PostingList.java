@@ -0,0 +1,221 @@
+package com.ttlikeapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Immutable posting list of (time, id) keys, newest first
+ *
+ * Encoding:
+ * - Keys are sorted by time DESC, id DESC and stored as varints: time as the
+ *   (non-negative) gap to the previous key, id as a zig-zag delta
+ * - Every SKIP_INTERVAL-th key is stored absolute and indexed (restart
+ *   point), so a cursor can jump forward without decoding everything before
+ *
+ * Time is whatever monotonic unit the caller uses (epoch millis for videos).
+ */
+public final class PostingList {
+
+    public static final PostingList EMPTY = new Builder().build();
+
+    private static final int SKIP_INTERVAL = 64;
+
+    private final byte[] data;
+    private final int size;
+    private final long[] skipTimes;
+    private final long[] skipIds;
+    private final int[] skipOffsets;
+
+    private PostingList(byte[] data, int size, long[] skipTimes, long[] skipIds, int[] skipOffsets) {
+        this.data = data;
+        this.size = size;
+        this.skipTimes = skipTimes;
+        this.skipIds = skipIds;
+        this.skipOffsets = skipOffsets;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Encoded size in bytes (excluding the skip index)
+     */
+    public int byteSize() {
+        return data.length;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Does key (t1, i1) sort before (is newer than) key (t2, i2)?
+     * Returns negative/zero/positive like a comparator over the list order.
+     */
+    public static int compare(long t1, long i1, long t2, long i2) {
+        if (t1 != t2) {
+            return t1 > t2 ? -1 : 1;
+        }
+        return Long.compare(i2, i1);
+    }
+
+    /**
+     * Forward-only reader
+     */
+    public final class Cursor {
+
+        private int index = -1;
+        private int offset;
+        private long time;
+        private long id;
+
+        public long time() {
+            return time;
+        }
+
+        public long id() {
+            return id;
+        }
+
+        public boolean next() {
+            if (index + 1 >= size) {
+                index = size;
+                return false;
+            }
+            index++;
+            if (index % SKIP_INTERVAL == 0) {
+                time = readVarint();
+                id = readVarint();
+            } else {
+                time -= readVarint();
+                id += zigZagDecode(readVarint());
+            }
+            return true;
+        }
+
+        /**
+         * Move to the first key at or after (not newer than) the target.
+         * Returns false when the list is exhausted.
+         */
+        public boolean advanceTo(long targetTime, long targetId) {
+            if (index >= 0 && index < size && compare(time, id, targetTime, targetId) >= 0) {
+                return true;
+            }
+
+            // Jump to the last restart point that is still newer than the target
+            int block = lastBlockBefore(targetTime, targetId);
+            if (block >= 0 && (long) block * SKIP_INTERVAL > index) {
+                index = block * SKIP_INTERVAL - 1;
+                offset = skipOffsets[block];
+            }
+
+            while (next()) {
+                if (compare(time, id, targetTime, targetId) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int lastBlockBefore(long targetTime, long targetId) {
+            int low = 0;
+            int high = skipTimes.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (compare(skipTimes[mid], skipIds[mid], targetTime, targetId) < 0) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+    /**
+     * Appends keys in list order (newest first)
+     */
+    public static final class Builder {
+
+        private byte[] data = new byte[64];
+        private int length;
+        private int size;
+        private long lastTime;
+        private long lastId;
+
+        private long[] skipTimes = new long[4];
+        private long[] skipIds = new long[4];
+        private int[] skipOffsets = new int[4];
+        private int skips;
+
+        public Builder add(long time, long id) {
+            if (size > 0 && compare(time, id, lastTime, lastId) <= 0) {
+                throw new IllegalArgumentException("Keys must be added newest first without duplicates");
+            }
+
+            if (size % SKIP_INTERVAL == 0) {
+                if (skips == skipTimes.length) {
+                    skipTimes = Arrays.copyOf(skipTimes, skips * 2);
+                    skipIds = Arrays.copyOf(skipIds, skips * 2);
+                    skipOffsets = Arrays.copyOf(skipOffsets, skips * 2);
+                }
+                skipTimes[skips] = time;
+                skipIds[skips] = id;
+                skipOffsets[skips] = length;
+                skips++;
+                writeVarint(time);
+                writeVarint(id);
+            } else {
+                writeVarint(lastTime - time);
+                writeVarint(zigZagEncode(id - lastId));
+            }
+
+            lastTime = time;
+            lastId = id;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public PostingList build() {
+            return new PostingList(Arrays.copyOf(data, length), size,
+                    Arrays.copyOf(skipTimes, skips), Arrays.copyOf(skipIds, skips), Arrays.copyOf(skipOffsets, skips));
+        }
+
+        private void writeVarint(long value) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+
+    private static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
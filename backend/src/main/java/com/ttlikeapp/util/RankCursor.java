@@ -0,0 +1,48 @@
+package com.ttlikeapp.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset cursor over (score DESC, id DESC) for ranked feeds
+ *
+ * asOf is when the first page was served: time-decayed scores (trending)
+ * are computed against it on every page, so rows keep their order while
+ * the client pages. score is the database's own value for the last row
+ * and round-trips exactly. Opaque URL-safe Base64 like KeysetCursor; a
+ * tampered cursor is a 400.
+ */
+public record RankCursor(double score, long id, LocalDateTime asOf) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = Double.toString(score) + SEPARATOR + id + SEPARATOR + asOf;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a client cursor (null/blank means first page)
+     */
+    public static RankCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            return new RankCursor(
+                    Double.parseDouble(parts[0]),
+                    Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ttlikeapp.util;
+
+import java.util.Arrays;
+
+/**
+ * Sorted long[] set operations
+ *
+ * Compact primitive sets for adjacency lists and ID filters. Arrays are
+ * treated as immutable: insert/remove return a new array (copy-on-write),
+ * so readers can hold a reference without locking.
+ */
+public final class SortedLongArrays {
+
+    public static final long[] EMPTY = new long[0];
+
+    private SortedLongArrays() {
+    }
+
+    public static boolean contains(long[] set, long value) {
+        return set != null && Arrays.binarySearch(set, value) >= 0;
+    }
+
+    /**
+     * Copy of the set with the value added (same instance if already present)
+     */
+    public static long[] insert(long[] set, long value) {
+        if (set == null || set.length == 0) {
+            return new long[]{value};
+        }
+
+        int pos = Arrays.binarySearch(set, value);
+        if (pos >= 0) {
+            return set;
+        }
+
+        int insertAt = -pos - 1;
+        long[] result = new long[set.length + 1];
+        System.arraycopy(set, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(set, insertAt, result, insertAt + 1, set.length - insertAt);
+        return result;
+    }
+
+    /**
+     * Copy of the set without the value (same instance if absent, null if emptied)
+     */
+    public static long[] remove(long[] set, long value) {
+        if (set == null) {
+            return null;
+        }
+
+        int pos = Arrays.binarySearch(set, value);
+        if (pos < 0) {
+            return set;
+        }
+        if (set.length == 1) {
+            return null;
+        }
+
+        long[] result = new long[set.length - 1];
+        System.arraycopy(set, 0, result, 0, pos);
+        System.arraycopy(set, pos + 1, result, pos, set.length - pos - 1);
+        return result;
+    }
+
+    /**
+     * Merge intersection of two sorted sets
+     */
+    public static long[] intersect(long[] a, long[] b) {
+        if (a == null || b == null || a.length == 0 || b.length == 0) {
+            return EMPTY;
+        }
+
+        // Galloping pays off when one side is much smaller than the other
+        if (a.length > b.length) {
+            long[] tmp = a;
+            a = b;
+            b = tmp;
+        }
+        if ((long) a.length * 32 < b.length) {
+            return intersectBySearch(a, b);
+        }
+
+        long[] result = new long[a.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    private static long[] intersectBySearch(long[] small, long[] large) {
+        long[] result = new long[small.length];
+        int n = 0;
+        int from = 0;
+        for (long value : small) {
+            int pos = Arrays.binarySearch(large, from, large.length, value);
+            if (pos >= 0) {
+                result[n++] = value;
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+            if (from >= large.length) {
+                break;
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Sort and de-duplicate a buffer in place, returning an exact-size set
+     */
+    public static long[] toSet(long[] values, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        Arrays.sort(values, 0, length);
+        int n = 1;
+        for (int i = 1; i < length; i++) {
+            if (values[i] != values[n - 1]) {
+                values[n++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, n);
+    }
+}
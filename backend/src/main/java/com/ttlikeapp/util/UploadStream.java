@@ -0,0 +1,122 @@
+package com.ttlikeapp.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Single-pass upload tap
+ *
+ * Wraps the request body and is handed straight to the storage backend.
+ * Every byte the backend pulls through it is also hashed (SHA-256), fed
+ * to a ContainerSniffer and counted against a size limit, so storing,
+ * hashing and sniffing an upload cost one read of the body and constant
+ * heap, with no spooled or temporary copy.
+ *
+ * Bodies that are not a recognized video container fail as soon as the
+ * sniffer has seen enough of them, not after the whole body is stored.
+ */
+public class UploadStream extends FilterInputStream {
+
+    /**
+     * Thrown mid-stream once the body passes the limit; the partial object
+     * must be discarded
+     */
+    public static class LimitExceededException extends IOException {
+        public LimitExceededException(long limit) {
+            super("Upload exceeds " + limit + " bytes");
+        }
+    }
+
+    /**
+     * Thrown mid-stream once the head of the body is known not to be a
+     * supported container
+     */
+    public static class UnsupportedFormatException extends IOException {
+        public UnsupportedFormatException() {
+            super("Not a supported video container");
+        }
+    }
+
+    private final MessageDigest digest;
+    private final ContainerSniffer sniffer = new ContainerSniffer();
+    private final long limit;
+    private long count;
+
+    public UploadStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = in.read(buffer, offset, length);
+        if (n > 0) {
+            count += n;
+            if (count > limit) {
+                throw new LimitExceededException(limit);
+            }
+            digest.update(buffer, offset, n);
+            if (count - n < ContainerSniffer.HEAD_SIZE) {
+                sniffer.feed(buffer, offset, n);
+                if (count >= ContainerSniffer.HEAD_SIZE && sniffer.format() == null) {
+                    throw new UnsupportedFormatException();
+                }
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes would escape the hash
+        throw new IOException("skip not supported on an upload stream");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readLimit) {
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported on an upload stream");
+    }
+
+    public long bytesRead() {
+        return count;
+    }
+
+    /**
+     * Detected container format, see ContainerSniffer#format()
+     */
+    public String format() {
+        return sniffer.format();
+    }
+
+    /**
+     * Hex SHA-256 of everything read; call once, after the body is exhausted
+     */
+    public String sha256() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -5,18 +5,31 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Video Processing Utility
  * 
- * Extracts metadata from video files using ffprobe (FFmpeg).
- * In production, consider using cloud-based transcoding services
- * like AWS Elemental MediaConvert or similar.
+ * Extracts metadata from video files: in process from the movie header
+ * of MP4/MOV/3GP files (IsoBmffParser), using ffprobe (FFmpeg) for
+ * anything else. In production, consider using cloud-based transcoding
+ * services like AWS Elemental MediaConvert or similar.
+ *
+ * Every forked process runs under the caller's timeout and is killed
+ * when it expires or the calling thread is interrupted; callers bound
+ * how many run at once (VideoProcessingWorker).
  * 
  * Dependencies: ffmpeg installed on system
  */
@@ -24,6 +37,45 @@ import java.util.regex.Pattern;
 @Slf4j
 public class VideoProcessor {
 
+    private static final Set<String> ISO_BMFF_FORMATS = Set.of("mp4", "mov", "3gp");
+
+    /**
+     * Processing failed for a reason that may pass (timeout, I/O, a
+     * crashed tool); worth retrying
+     */
+    public static class ProcessingException extends RuntimeException {
+        public ProcessingException(String message) {
+            super(message);
+        }
+
+        public ProcessingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * The file is not a video the tools can read; retrying will not help
+     */
+    public static class InvalidMediaException extends ProcessingException {
+        public InvalidMediaException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * One rung of the HLS ladder: short side in pixels (240p is 426x240
+     * landscape or 240x426 portrait) and target bitrates
+     */
+    public record Rendition(String name, int shortSide, int videoKbps, int audioKbps) {}
+
+    public static final List<Rendition> HLS_LADDER = List.of(
+            new Rendition("240p", 240, 400, 64),
+            new Rendition("480p", 480, 1000, 96),
+            new Rendition("720p", 720, 2500, 128),
+            new Rendition("1080p", 1080, 5000, 128));
+
+    public static final String HLS_MASTER = "master.m3u8";
+
     /**
      * Video metadata extracted from file
      */
@@ -32,121 +84,258 @@ public class VideoProcessor {
             int width,         // pixels
             int height,        // pixels
             long fileSize,     // bytes
-            String format      // mp4, mov, etc.
+            String format,     // mp4, mov, etc.
+            boolean hasAudio
     ) {}
 
     /**
-     * Extract metadata from uploaded video
+     * Extract metadata from a stored video in place (no copy); format is
+     * the container the upload was sniffed as
      */
-    public VideoMetadata extractMetadata(MultipartFile file) {
-        try {
-            // Save temporarily for processing
-            Path tempFile = Files.createTempFile("video_", "." + getExtension(file.getOriginalFilename()));
-            file.transferTo(tempFile.toFile());
+    public VideoMetadata extractMetadata(Path videoPath, long fileSize, String format, Duration timeout) {
+        return readContainer(videoPath, fileSize, format)
+                .orElseGet(() -> extractWithFfprobe(videoPath, fileSize, format, timeout));
+    }
 
-            VideoMetadata metadata = extractWithFfprobe(tempFile, file.getSize());
-            
-            // Cleanup
-            Files.deleteIfExists(tempFile);
-            
-            return metadata;
+    /**
+     * Whether readContainer can answer for this format at all
+     */
+    public boolean readsContainer(String format) {
+        return ISO_BMFF_FORMATS.contains(format);
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to extract video metadata", e);
-            // Return basic metadata as fallback
-            return new VideoMetadata(
-                    0,
-                    1080,  // default
-                    1920,  // default
-                    file.getSize(),
-                    getExtension(file.getOriginalFilename())
-            );
+    /**
+     * Metadata from the movie header alone; empty where only ffprobe can
+     * tell (other containers, fragmented or unusual files)
+     */
+    public Optional<VideoMetadata> readContainer(Path videoPath, long fileSize, String format) {
+        if (!readsContainer(format)) {
+            return Optional.empty();
+        }
+        try {
+            return IsoBmffParser.parse(videoPath).map(movie -> toMetadata(movie, fileSize, format));
+        } catch (IOException e) {
+            throw new ProcessingException("Could not read " + videoPath, e);
         }
     }
 
     /**
-     * Use ffprobe to get video metadata
+     * As readContainer, from a stream (read up to the end of the movie
+     * header, not closed)
      */
-    private VideoMetadata extractWithFfprobe(Path videoPath, long fileSize) {
+    public Optional<VideoMetadata> readContainer(InputStream in, long fileSize, String format) {
+        if (!readsContainer(format)) {
+            return Optional.empty();
+        }
         try {
-            ProcessBuilder pb = new ProcessBuilder(
-                    "ffprobe",
-                    "-v", "error",
-                    "-select_streams", "v:0",
-                    "-show_entries", "stream=width,height,duration",
-                    "-show_entries", "format=duration",
-                    "-of", "default=noprint_wrappers=1",
-                    videoPath.toString()
-            );
-
-            Process process = pb.start();
-            
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                int width = 0, height = 0;
-                double duration = 0;
-
-                while ((line = reader.readLine()) != null) {
-                    log.debug("ffprobe output: {}", line);
-                    
-                    if (line.startsWith("width=")) {
-                        width = Integer.parseInt(line.substring(6).trim());
-                    } else if (line.startsWith("height=")) {
-                        height = Integer.parseInt(line.substring(7).trim());
-                    } else if (line.startsWith("duration=")) {
-                        String durationStr = line.substring(9).trim();
-                        try {
-                            duration = Double.parseDouble(durationStr);
-                        } catch (NumberFormatException e) {
-                            log.warn("Could not parse duration: {}", durationStr);
-                        }
-                    }
-                }
+            return IsoBmffParser.parse(in).map(movie -> toMetadata(movie, fileSize, format));
+        } catch (IOException e) {
+            throw new ProcessingException("Could not read video stream", e);
+        }
+    }
+
+    private static VideoMetadata toMetadata(IsoBmffParser.Movie movie, long fileSize, String format) {
+        return new VideoMetadata(
+                (int) Math.round(movie.duration()),
+                movie.width(),
+                movie.height(),
+                fileSize,
+                format,
+                movie.hasAudio()
+        );
+    }
+
+    /**
+     * Use ffprobe to get video metadata (package-private for
+     * MetadataExtractionBenchmark)
+     */
+    VideoMetadata extractWithFfprobe(Path videoPath, long fileSize, String format, Duration timeout) {
+        Process process = run(List.of(
+                "ffprobe",
+                "-v", "error",
+                "-show_entries", "stream=codec_type,width,height:format=duration",
+                "-of", "default=noprint_wrappers=1",
+                videoPath.toString()
+        ), timeout);
 
-                process.waitFor();
+        int width = 0, height = 0;
+        double duration = 0;
+        boolean hasAudio = false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            String streamType = null;  // Of the stream whose fields follow
+            while ((line = reader.readLine()) != null) {
+                log.debug("ffprobe output: {}", line);
 
-                return new VideoMetadata(
-                        (int) Math.round(duration),
-                        width,
-                        height,
-                        fileSize,
-                        getExtension(videoPath.getFileName().toString())
-                );
+                if (line.startsWith("codec_type=")) {
+                    streamType = line.substring(11).trim();
+                    hasAudio |= streamType.equals("audio");
+                } else if (line.startsWith("width=") && "video".equals(streamType) && width == 0) {
+                    width = Integer.parseInt(line.substring(6).trim());
+                } else if (line.startsWith("height=") && "video".equals(streamType) && height == 0) {
+                    height = Integer.parseInt(line.substring(7).trim());
+                } else if (line.startsWith("duration=")) {
+                    String durationStr = line.substring(9).trim();
+                    try {
+                        duration = Double.parseDouble(durationStr);
+                    } catch (NumberFormatException e) {
+                        log.warn("Could not parse duration: {}", durationStr);
+                    }
+                }
             }
+        } catch (IOException e) {
+            throw new ProcessingException("Could not read ffprobe output", e);
+        }
 
-        } catch (Exception e) {
-            log.error("ffprobe failed, using fallback metadata", e);
-            return new VideoMetadata(0, 1080, 1920, fileSize, "mp4");
+        if (process.exitValue() != 0 || width == 0 || height == 0) {
+            throw new InvalidMediaException("ffprobe found no readable video stream");
         }
+        return new VideoMetadata(
+                (int) Math.round(duration),
+                width,
+                height,
+                fileSize,
+                format,
+                hasAudio
+        );
     }
 
     /**
-     * Generate thumbnail from video (requires ffmpeg)
+     * Generate a JPEG thumbnail one second into the video (requires ffmpeg)
      */
-    public byte[] generateThumbnail(Path videoPath, String filename) {
+    public byte[] generateThumbnail(Path videoPath, Duration timeout) {
+        Path thumbnailPath = null;
         try {
-            Path thumbnailPath = Files.createTempFile("thumb_", ".jpg");
-            
-            ProcessBuilder pb = new ProcessBuilder(
+            thumbnailPath = Files.createTempFile("thumb_", ".jpg");
+            Process process = run(List.of(
                     "ffmpeg",
+                    "-nostdin",
+                    "-y",
+                    "-ss", "00:00:01",  // 1 second in (before -i: seek without decoding)
                     "-i", videoPath.toString(),
-                    "-ss", "00:00:01",  // 1 second in
-                    "-vframes", "1",
+                    "-frames:v", "1",
                     "-q:v", "2",
                     thumbnailPath.toString()
-            );
+            ), timeout);
+            if (process.exitValue() != 0 || Files.size(thumbnailPath) == 0) {
+                throw new ProcessingException("ffmpeg exited with " + process.exitValue());
+            }
+            return Files.readAllBytes(thumbnailPath);
+        } catch (IOException e) {
+            throw new ProcessingException("Could not generate thumbnail", e);
+        } finally {
+            if (thumbnailPath != null) {
+                try {
+                    Files.deleteIfExists(thumbnailPath);
+                } catch (IOException e) {
+                    log.warn("Could not delete {}", thumbnailPath);
+                }
+            }
+        }
+    }
 
-            Process process = pb.start();
-            process.waitFor();
+    /**
+     * Transcode into an HLS ladder in outputDir: master.m3u8, one media
+     * playlist per rendition (<name>.m3u8) and its segments
+     * (<name>_NNN.ts), all side by side so every reference is a plain
+     * relative file name. One ffmpeg run: the source is decoded once and
+     * split into a scaler per rendition. Keyframes are forced every
+     * segmentSeconds with scene-cut detection off, so every rendition
+     * cuts its segments at the same timestamps and players can switch
+     * between them at any boundary. Renditions above the source's short
+     * side are skipped (never upscaled); returns the ones produced.
+     */
+    public List<Rendition> transcodeHls(Path videoPath, VideoMetadata metadata, Path outputDir,
+                                        int segmentSeconds, Duration timeout) {
+        int shortSide = Math.min(metadata.width(), metadata.height());
+        List<Rendition> ladder = HLS_LADDER.stream()
+                .filter(rendition -> rendition.shortSide() <= shortSide)
+                .toList();
+        if (ladder.isEmpty()) {
+            ladder = List.of(HLS_LADDER.get(0));  // Tiny source: the lowest rung, at most 2x up
+        }
 
-            byte[] thumbnailBytes = Files.readAllBytes(thumbnailPath);
-            Files.deleteIfExists(thumbnailPath);
-            
-            return thumbnailBytes;
+        List<String> command = new ArrayList<>(List.of(
+                "ffmpeg", "-nostdin", "-y", "-loglevel", "error",
+                "-i", videoPath.toString()));
+        StringBuilder graph = new StringBuilder("[0:v]split=").append(ladder.size());
+        for (int i = 0; i < ladder.size(); i++) {
+            graph.append("[s").append(i).append(']');
+        }
+        StringJoiner streamMap = new StringJoiner(" ");
+        for (int i = 0; i < ladder.size(); i++) {
+            // Short side to the rung's size whichever way the (rotated) frame is oriented
+            int size = ladder.get(i).shortSide();
+            graph.append(";[s").append(i).append("]scale=w='if(gt(iw,ih),-2,").append(size)
+                    .append(")':h='if(gt(iw,ih),").append(size).append(",-2)'[v").append(i).append(']');
+            streamMap.add("v:" + i + (metadata.hasAudio() ? ",a:" + i : "") + ",name:" + ladder.get(i).name());
+        }
+        command.addAll(List.of("-filter_complex", graph.toString()));
+        for (int i = 0; i < ladder.size(); i++) {
+            command.addAll(List.of("-map", "[v" + i + "]"));
+            if (metadata.hasAudio()) {
+                command.addAll(List.of("-map", "0:a:0"));
+            }
+        }
+        command.addAll(List.of(
+                "-c:v", "libx264", "-preset", "veryfast", "-profile:v", "main", "-pix_fmt", "yuv420p",
+                "-sc_threshold", "0",
+                "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")"));
+        for (int i = 0; i < ladder.size(); i++) {
+            Rendition rendition = ladder.get(i);
+            command.addAll(List.of(
+                    "-b:v:" + i, rendition.videoKbps() + "k",
+                    "-maxrate:v:" + i, rendition.videoKbps() * 107 / 100 + "k",
+                    "-bufsize:v:" + i, rendition.videoKbps() * 3 / 2 + "k"));
+            if (metadata.hasAudio()) {
+                command.addAll(List.of("-b:a:" + i, rendition.audioKbps() + "k"));
+            }
+        }
+        if (metadata.hasAudio()) {
+            command.addAll(List.of("-c:a", "aac", "-ac", "2"));
+        }
+        command.addAll(List.of(
+                "-f", "hls",
+                "-hls_time", String.valueOf(segmentSeconds),
+                "-hls_playlist_type", "vod",
+                "-hls_flags", "independent_segments",
+                "-hls_segment_filename", outputDir.resolve("%v_%03d.ts").toString(),
+                "-master_pl_name", HLS_MASTER,
+                "-var_stream_map", streamMap.toString(),
+                outputDir.resolve("%v.m3u8").toString()));
 
-        } catch (Exception e) {
-            log.error("Failed to generate thumbnail", e);
-            return null;
+        Process process = run(command, timeout);
+        if (process.exitValue() != 0 || !Files.isRegularFile(outputDir.resolve(HLS_MASTER))) {
+            throw new ProcessingException("ffmpeg HLS transcode exited with " + process.exitValue());
+        }
+        return ladder;
+    }
+
+    /**
+     * Run a command to completion within timeout. Its stdout stays
+     * readable from the returned process; it must fit the pipe buffer,
+     * which the short ffprobe reports here do. stderr is discarded.
+     */
+    private static Process run(List<String> command, Duration timeout) {
+        Process process;
+        try {
+            process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+        } catch (IOException e) {
+            throw new ProcessingException("Could not start " + command.get(0), e);
+        }
+        try {
+            if (!process.waitFor(Math.max(0, timeout.toMillis()), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new ProcessingException(command.get(0) + " timed out after " + timeout.toMillis() + " ms");
+            }
+            return process;
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(command.get(0) + " interrupted", e);
         }
     }
 
@@ -180,21 +369,21 @@ public class VideoProcessor {
         return 100 * 1024 * 1024; // 100MB
     }
 
-    private String getExtension(String filename) {
-        if (filename == null) return "mp4";
-        int dotIndex = filename.lastIndexOf('.');
-        return dotIndex < 0 ? "mp4" : filename.substring(dotIndex + 1).toLowerCase();
-    }
-
     /**
      * Check if FFmpeg is available
      */
     public boolean isFfprobeAvailable() {
+        return isAvailable("ffprobe");
+    }
+
+    public boolean isFfmpegAvailable() {
+        return isAvailable("ffmpeg");
+    }
+
+    private static boolean isAvailable(String tool) {
         try {
-            ProcessBuilder pb = new ProcessBuilder("ffprobe", "-version");
-            Process process = pb.start();
-            return process.waitFor() == 0;
-        } catch (Exception e) {
+            return run(List.of(tool, "-version"), Duration.ofSeconds(10)).exitValue() == 0;
+        } catch (ProcessingException e) {
             return false;
         }
     }
@@ -0,0 +1,196 @@
+package com.ttlikeapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable top-K-by-prefix index (type-ahead)
+ *
+ * Layout:
+ * - Keys are UTF-8 encoded into one byte pool, sorted bytewise, so every
+ *   prefix maps to a contiguous range found by two binary searches
+ * - A max segment tree over the weights answers "heaviest key in range";
+ *   top-K repeatedly splits the range around the current best
+ *   (O(K log n) per query, no per-node top-K lists)
+ *
+ * Memory is ~ key bytes + 4 ints per key, independent of key length
+ * distribution, which keeps it viable for tens of millions of keys.
+ * Lookups return the keys' positions in the input array.
+ */
+public final class WeightedPrefixIndex {
+
+    public static final WeightedPrefixIndex EMPTY = build(new String[0], new long[0]);
+
+    private final byte[] pool;
+    private final int[] offsets;      // sorted position -> start in pool (length n + 1)
+    private final int[] sourceIndex;  // sorted position -> input index
+    private final long[] weights;     // sorted position -> weight
+    private final int[] tree;         // segment tree of argmax positions
+    private final int leaves;
+
+    private WeightedPrefixIndex(byte[] pool, int[] offsets, int[] sourceIndex, long[] weights) {
+        this.pool = pool;
+        this.offsets = offsets;
+        this.sourceIndex = sourceIndex;
+        this.weights = weights;
+
+        int n = weights.length;
+        int size = 1;
+        while (size < n) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < n; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node >= 1; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Build from parallel arrays; higher weight ranks first
+     */
+    public static WeightedPrefixIndex build(String[] keys, long[] weights) {
+        if (keys.length != weights.length) {
+            throw new IllegalArgumentException("keys and weights differ in length");
+        }
+
+        byte[][] encoded = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            encoded[i] = keys[i].getBytes(StandardCharsets.UTF_8);
+        }
+
+        int[] order = IntStream.range(0, keys.length).boxed()
+                .sorted(Comparator.comparing((Integer i) -> encoded[i], Arrays::compareUnsigned))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        int total = 0;
+        for (byte[] key : encoded) {
+            total += key.length;
+        }
+
+        byte[] pool = new byte[total];
+        int[] offsets = new int[keys.length + 1];
+        long[] sortedWeights = new long[keys.length];
+        int position = 0;
+        for (int i = 0; i < order.length; i++) {
+            byte[] key = encoded[order[i]];
+            offsets[i] = position;
+            System.arraycopy(key, 0, pool, position, key.length);
+            position += key.length;
+            sortedWeights[i] = weights[order[i]];
+        }
+        offsets[keys.length] = position;
+
+        return new WeightedPrefixIndex(pool, offsets, order, sortedWeights);
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * Input indices of the k heaviest keys starting with prefix, heaviest first
+     */
+    public int[] topK(String prefix, int k) {
+        byte[] target = prefix.getBytes(StandardCharsets.UTF_8);
+        int from = lowerBound(target);
+        int to = upperBoundOfPrefix(target, from);
+        if (from >= to || k <= 0) {
+            return new int[0];
+        }
+
+        // Each entry: {best position, range start, range end}
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                (a, b) -> Long.compare(weights[b[0]], weights[a[0]]));
+        ranges.add(new int[]{argmax(from, to), from, to});
+
+        int[] result = new int[Math.min(k, to - from)];
+        int count = 0;
+        while (count < result.length) {
+            int[] range = ranges.poll();
+            int best = range[0];
+            result[count++] = sourceIndex[best];
+
+            if (range[1] < best) {
+                ranges.add(new int[]{argmax(range[1], best), range[1], best});
+            }
+            if (best + 1 < range[2]) {
+                ranges.add(new int[]{argmax(best + 1, range[2]), best + 1, range[2]});
+            }
+        }
+        return result;
+    }
+
+    private int argmax(int from, int to) {
+        int best = -1;
+        for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = better(best, tree[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = better(best, tree[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        // Ties go to the lexicographically smaller key
+        return weights[b] > weights[a] || (weights[b] == weights[a] && b < a) ? b : a;
+    }
+
+    /**
+     * First sorted position whose key is >= target
+     */
+    private int lowerBound(byte[] target) {
+        int low = 0;
+        int high = weights.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(pool, offsets[mid], offsets[mid + 1], target, 0, target.length) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First sorted position at or after from whose key does not start with prefix
+     */
+    private int upperBoundOfPrefix(byte[] prefix, int from) {
+        int low = from;
+        int high = weights.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (startsWith(mid, prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean startsWith(int position, byte[] prefix) {
+        int start = offsets[position];
+        int length = offsets[position + 1] - start;
+        return length >= prefix.length
+                && Arrays.equals(pool, start, start + prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -0,0 +1,159 @@
+package com.ttlikeapp.websocket;
+
+import com.ttlikeapp.dto.response.CommentResponse;
+import com.ttlikeapp.dto.response.LiveCommentFrame;
+import com.ttlikeapp.event.CommentCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Live Comment Broadcaster - Coalesced per-video comment stream
+ *
+ * Channel: /topic/videos/{videoId}/comments
+ *
+ * Design:
+ * - New comments are buffered per video and flushed as one frame per tick
+ *   (250 ms by default) instead of one STOMP message per comment
+ * - Above sample-threshold comments per frame the buffer switches to
+ *   reservoir sampling, so a viral video costs a bounded frame size;
+ *   totalCount tells clients how many comments the frame stands for
+ * - Videos without subscribers are skipped before anything is buffered
+ *   or serialized
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveCommentBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TopicSubscriptionRegistry subscriptionRegistry;
+
+    @Value("${websocket.live-comments.sample-threshold:25}")
+    private int sampleThreshold;
+
+    private final Map<Long, FrameBuffer> buffers = new ConcurrentHashMap<>();
+
+    public static String topicFor(Long videoId) {
+        return "/topic/videos/" + videoId + "/comments";
+    }
+
+    /**
+     * Buffer a committed comment for the next frame
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        if (!subscriptionRegistry.hasSubscribers(topicFor(event.videoId()))) {
+            return;
+        }
+
+        // A buffer closed by a concurrent flush rejects the offer; retry with a fresh one
+        while (!buffers.computeIfAbsent(event.videoId(), id -> new FrameBuffer(sampleThreshold))
+                .offer(event.comment())) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Flush one frame per active video
+     */
+    @Scheduled(fixedRateString = "${websocket.live-comments.flush-interval-ms:250}")
+    public void flush() {
+        for (Map.Entry<Long, FrameBuffer> entry : buffers.entrySet()) {
+            Long videoId = entry.getKey();
+            FrameBuffer buffer = entry.getValue();
+
+            LiveCommentFrame frame = buffer.drain(videoId);
+            if (frame == null) {
+                // Idle for a whole tick: retire the buffer so quiet videos cost nothing
+                if (buffer.closeIfEmpty()) {
+                    buffers.remove(videoId, buffer);
+                }
+                continue;
+            }
+
+            String topic = topicFor(videoId);
+            if (!subscriptionRegistry.hasSubscribers(topic)) {
+                continue;  // last subscriber left mid-frame, skip serialization
+            }
+
+            try {
+                messagingTemplate.convertAndSend(topic, frame);
+            } catch (Exception e) {
+                log.warn("Failed to push live comment frame for video {}", videoId, e);
+            }
+        }
+    }
+
+    /**
+     * Per-video frame buffer with reservoir sampling once the frame is full
+     */
+    static final class FrameBuffer {
+
+        private final int capacity;
+        private List<CommentResponse> comments = new ArrayList<>();
+        private int received;
+        private boolean closed;
+
+        FrameBuffer(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+
+        synchronized boolean offer(CommentResponse comment) {
+            if (closed) {
+                return false;
+            }
+
+            received++;
+            if (comments.size() < capacity) {
+                comments.add(comment);
+            } else {
+                // Algorithm R: every comment in the window has capacity/received odds of being kept
+                int slot = ThreadLocalRandom.current().nextInt(received);
+                if (slot < capacity) {
+                    comments.set(slot, comment);
+                }
+            }
+            return true;
+        }
+
+        synchronized LiveCommentFrame drain(Long videoId) {
+            if (received == 0) {
+                return null;
+            }
+
+            List<CommentResponse> batch = comments;
+            batch.sort(Comparator.comparing(CommentResponse::getId));
+
+            LiveCommentFrame frame = LiveCommentFrame.builder()
+                    .videoId(videoId)
+                    .comments(batch)
+                    .totalCount(received)
+                    .sampled(received > batch.size())
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+
+            comments = new ArrayList<>(Math.min(capacity, batch.size()));
+            received = 0;
+            return frame;
+        }
+
+        synchronized boolean closeIfEmpty() {
+            if (received == 0) {
+                closed = true;
+            }
+            return closed;
+        }
+    }
+}
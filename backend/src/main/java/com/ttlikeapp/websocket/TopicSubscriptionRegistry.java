@@ -0,0 +1,88 @@
+package com.ttlikeapp.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Topic Subscription Registry
+ *
+ * Tracks live subscriber counts per /topic destination from STOMP session
+ * events. The simple broker keeps its own registry but does not expose
+ * cheap "anyone listening?" lookups, and anonymous sessions never show up
+ * in SimpUserRegistry, so publishers consult this instead.
+ */
+@Component
+@Slf4j
+public class TopicSubscriptionRegistry {
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> sessions = new ConcurrentHashMap<>();
+
+    // destination -> active subscriptions; only changed inside compute(), so
+    // an increment never lands on an entry a concurrent decrement removed
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Check whether at least one client is subscribed to the destination
+     */
+    public boolean hasSubscribers(String destination) {
+        return subscriberCount(destination) > 0;
+    }
+
+    public int subscriberCount(String destination) {
+        return counts.getOrDefault(destination, 0);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX)
+                || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        String previous = sessions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        counts.compute(destination, (d, count) -> count == null ? 1 : count + 1);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessions.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        String destination = subscriptions.remove(accessor.getSubscriptionId());
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    private void decrement(String destination) {
+        counts.compute(destination, (d, count) -> count == null || count <= 1 ? null : count - 1);
+    }
+}